@@ -37,9 +37,12 @@ const Dashboard = () => {
     const fetchOrders = async () => {
         try {
             setLoading(true);
-            const data = await purchaseOrderService.getAllPurchaseOrders();
-            setOrders(data);
-            calculateStats(data);
+            const [page, summary] = await Promise.all([
+                purchaseOrderService.getAllPurchaseOrders({ limit: 6 }),
+                purchaseOrderService.getPurchaseOrderStats(),
+            ]);
+            setOrders(page.items);
+            calculateStats(summary.groups);
             setError('');
         } catch (err) {
             console.error('Error fetching orders:', err);
@@ -49,14 +52,16 @@ const Dashboard = () => {
         }
     };
 
-    const calculateStats = (orderData) => {
+    // Groups come pre-aggregated by status × currency from the stats endpoint
+    const calculateStats = (groups) => {
+        const count = (predicate) => groups.filter(predicate).reduce((acc, g) => acc + g.count, 0);
         const stats = {
-            total: orderData.length,
-            approved: orderData.filter(o => o.status === 'APPROVED').length,
-            rejected: orderData.filter(o => o.status === 'REJECTED').length,
-            pending: orderData.filter(o => ['DRAFT', 'SUBMITTED'].includes(o.status)).length,
-            usd: orderData.filter(o => o.currency === 'USD').length,
-            eur: orderData.filter(o => o.currency === 'EUR').length,
+            total: count(() => true),
+            approved: count(g => g.status === 'APPROVED'),
+            rejected: count(g => g.status === 'REJECTED'),
+            pending: count(g => ['DRAFT', 'SUBMITTED'].includes(g.status)),
+            usd: count(g => g.currency === 'USD'),
+            eur: count(g => g.currency === 'EUR'),
         };
         setStats(stats);
     };
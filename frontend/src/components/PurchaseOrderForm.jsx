@@ -93,7 +93,7 @@ const PurchaseOrderForm = ({ initialData, onSubmit, isEdit = false }) => {
         } catch (err) {
             console.error('Form submission error:', err);
             setError(
-                err.response?.data?.message ||
+                err.response?.data?.detail ||
                 err.message ||
                 'Ocurrió un error al guardar la orden de compra'
             );
@@ -9,7 +9,9 @@ import PurchaseOrderFilters from '../components/PurchaseOrderFilters';
 const ListPage = () => {
     const navigate = useNavigate();
     const [orders, setOrders] = useState([]);
+    const [nextCursor, setNextCursor] = useState(null);
     const [loading, setLoading] = useState(true);
+    const [loadingMore, setLoadingMore] = useState(false);
     const [error, setError] = useState('');
     const [filters, setFilters] = useState({});
     const [snackbar, setSnackbar] = useState({ open: false, message: '', severity: 'success' });
@@ -21,8 +23,9 @@ const ListPage = () => {
     const fetchOrders = async () => {
         try {
             setLoading(true);
-            const data = await purchaseOrderService.getAllPurchaseOrders(filters);
-            setOrders(data);
+            const page = await purchaseOrderService.getAllPurchaseOrders(filters);
+            setOrders(page.items);
+            setNextCursor(page.nextCursor);
             setError('');
         } catch (err) {
             console.error('Error fetching orders:', err);
@@ -32,6 +35,22 @@ const ListPage = () => {
         }
     };
 
+    // Next page with the same filters, appended to the orders already shown
+    const fetchMoreOrders = async () => {
+        try {
+            setLoadingMore(true);
+            const page = await purchaseOrderService.getAllPurchaseOrders({ ...filters, cursor: nextCursor });
+            setOrders((current) => [...current, ...page.items]);
+            setNextCursor(page.nextCursor);
+            setError('');
+        } catch (err) {
+            console.error('Error fetching more orders:', err);
+            setError('Error al cargar más órdenes de compra');
+        } finally {
+            setLoadingMore(false);
+        }
+    };
+
     const handleFilterChange = (newFilters) => {
         setFilters(newFilters);
     };
@@ -95,6 +114,14 @@ const ListPage = () => {
                 onDelete={handleDelete}
             />
 
+            {!loading && nextCursor && (
+                <Box sx={{ display: 'flex', justifyContent: 'center', mt: 2 }}>
+                    <Button variant="outlined" onClick={fetchMoreOrders} disabled={loadingMore}>
+                        {loadingMore ? 'Cargando...' : 'Cargar más'}
+                    </Button>
+                </Box>
+            )}
+
             <Snackbar
                 open={snackbar.open}
                 autoHideDuration={6000}
@@ -44,9 +44,10 @@ apiClient.interceptors.response.use(
 
 const purchaseOrderService = {
     /**
-     * Get all purchase orders with optional filters
-     * @param {Object} filters - Filter parameters (q, status, currency, minTotal, maxTotal, from, to)
-     * @returns {Promise} Array of purchase orders
+     * Get one page of purchase orders with optional filters
+     * @param {Object} filters - Filter parameters (q, status, currency, minTotal, maxTotal, from, to, cursor, limit)
+     * @returns {Promise} Page object with items and nextCursor (null on the last page); pass nextCursor
+     * as cursor to get the following page
      */
     getAllPurchaseOrders: async (filters = {}) => {
         try {
@@ -60,11 +61,36 @@ const purchaseOrderService = {
             if (filters.maxTotal) params.append('maxTotal', filters.maxTotal);
             if (filters.from) params.append('from', filters.from);
             if (filters.to) params.append('to', filters.to);
+            if (filters.cursor) params.append('cursor', filters.cursor);
+            if (filters.limit) params.append('limit', filters.limit);
 
             const queryString = params.toString();
             const url = `/purchase-orders${queryString ? `?${queryString}` : ''}`;
 
             const response = await apiClient.get(url);
+            return {
+                items: response.data.items,
+                nextCursor: response.data.nextCursor || null,
+            };
+        } catch (error) {
+            throw error;
+        }
+    },
+
+    /**
+     * Get aggregated statistics (count, sum, min, max, avg by status and currency)
+     * @param {Object} filters - Same filter parameters as the list, plus optional bucket (day, week, month)
+     * @returns {Promise} Stats object with groups (and series when bucket is given)
+     */
+    getPurchaseOrderStats: async (filters = {}) => {
+        try {
+            const params = new URLSearchParams();
+            Object.entries(filters).forEach(([key, value]) => {
+                if (value) params.append(key, value);
+            });
+
+            const queryString = params.toString();
+            const response = await apiClient.get(`/purchase-orders/stats${queryString ? `?${queryString}` : ''}`);
             return response.data;
         } catch (error) {
             throw error;
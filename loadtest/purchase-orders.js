@@ -0,0 +1,51 @@
+// Carga mixta sobre la API de órdenes de compra (k6: https://k6.io).
+//
+// Variables de entorno:
+//   BASE_URL  URL de la API (por defecto http://localhost:8083/api/v1/purchase-orders)
+//   CLIENTS   clientes concurrentes (VUs)
+//   DURATION  duración de la medición (por defecto 60s)
+//   STATS     0 para no pedir /stats (la variante reactiva no lo expone); por defecto 1
+//
+// Cada cliente alterna listados filtrados, consultas por id y estadísticas sin pausas,
+// así que el throughput depende solo de la capacidad del servicio.
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8083/api/v1/purchase-orders';
+const CLIENTS = parseInt(__ENV.CLIENTS || '100', 10);
+const STATS = (__ENV.STATS || '1') !== '0';
+
+export const options = {
+  scenarios: {
+    clients: {
+      executor: 'constant-vus',
+      vus: CLIENTS,
+      duration: __ENV.DURATION || '60s',
+    },
+  },
+  summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+  discardResponseBodies: true,
+};
+
+const STATUSES = ['DRAFT', 'SUBMITTED', 'APPROVED', 'REJECTED', 'CANCELLED'];
+
+export function setup() {
+  const res = http.get(`${BASE_URL}?limit=200&fields=id`, { responseType: 'text' });
+  const ids = res.status === 200 ? res.json('items').map((item) => item.id) : [];
+  return { ids };
+}
+
+export default function (data) {
+  const roll = Math.random();
+  let res;
+  if (roll < 0.5) {
+    const status = STATUSES[Math.floor(Math.random() * STATUSES.length)];
+    res = http.get(`${BASE_URL}?status=${status}&limit=50`, { tags: { name: 'list' } });
+  } else if ((roll < 0.9 || !STATS) && data.ids.length > 0) {
+    const id = data.ids[Math.floor(Math.random() * data.ids.length)];
+    res = http.get(`${BASE_URL}/${id}`, { tags: { name: 'byId' } });
+  } else {
+    res = http.get(`${BASE_URL}/stats`, { tags: { name: 'stats' } });
+  }
+  check(res, { 'status 200': (r) => r.status === 200 });
+}
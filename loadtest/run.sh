@@ -0,0 +1,106 @@
+#!/usr/bin/env sh
+# Compara hilos de plataforma, hilos virtuales y la variante reactiva (WebFlux + R2DBC)
+# con 100, 1000 y 10000 clientes concurrentes.
+#
+# Requisitos: Java 21+ (para el modo virtual), k6 y una base de datos con datos
+# (p. ej. MySQL de docker-compose: docker-compose up -d mysql-purchaseorder).
+#
+# Uso: loadtest/run.sh [perfil-base] [duración]
+#   loadtest/run.sh docker 60s
+#   MODES="platform reactive" loadtest/run.sh docker 60s
+#
+# Resultado: loadtest/results/summary.csv con throughput (req/s), p99 (ms), tasa de error, memoria
+# residente (RSS) en reposo y máxima durante la carga, KB de RSS por cliente y máximo de hilos,
+# por modo y nivel de concurrencia; el resumen completo de k6 queda en loadtest/results/*.json.
+#
+# La variante reactiva no expone /stats: si MODES la incluye, ningún modo pide /stats (STATS=0)
+# para que todos reciban la misma mezcla de peticiones.
+set -eu
+
+BASE_PROFILE="${1:-docker}"
+DURATION="${2:-60s}"
+PORT="${PORT:-8083}"
+LEVELS="${LEVELS:-100 1000 10000}"
+MODES="${MODES:-platform virtual reactive}"
+DIR="$(cd "$(dirname "$0")" && pwd)"
+RESULTS="$DIR/results"
+JAR="$(ls "$DIR"/../target/ortiz_leccion2-*.jar 2>/dev/null | head -n 1)"
+REACTIVE_JAR="$(ls "$DIR"/../reactive/target/ortiz_leccion2-reactive-*.jar 2>/dev/null | head -n 1)"
+
+if [ -z "$JAR" ]; then
+  (cd "$DIR/.." && ./mvnw -q -B package -DskipTests)
+  JAR="$(ls "$DIR"/../target/ortiz_leccion2-*.jar | head -n 1)"
+fi
+
+case " $MODES " in
+  *" reactive "*)
+    STATS=0
+    if [ -z "$REACTIVE_JAR" ]; then
+      (cd "$DIR/.." && ./mvnw -q -B -f reactive/pom.xml package -DskipTests)
+      REACTIVE_JAR="$(ls "$DIR"/../reactive/target/ortiz_leccion2-reactive-*.jar | head -n 1)"
+    fi
+    ;;
+  *) STATS=1 ;;
+esac
+
+# 10k clientes necesitan más descriptores de archivo que el límite habitual
+ulimit -n 65535 2>/dev/null || true
+
+# RSS (KB) e hilos del proceso, leídos de /proc
+rss_kb() { awk '/^VmRSS:/ { print $2 }' "/proc/$1/status"; }
+threads() { awk '/^Threads:/ { print $2 }' "/proc/$1/status"; }
+
+mkdir -p "$RESULTS"
+echo "mode,clients,throughput_rps,p99_ms,error_rate,idle_rss_mb,peak_rss_mb,rss_kb_per_client,peak_threads" \
+  > "$RESULTS/summary.csv"
+
+for MODE in $MODES; do
+  APP_JAR="$JAR"
+  PROFILES="$BASE_PROFILE"
+  [ "$MODE" = "virtual" ] && PROFILES="$BASE_PROFILE,virtual"
+  [ "$MODE" = "reactive" ] && APP_JAR="$REACTIVE_JAR"
+
+  java ${JAVA_OPTS_LOADTEST:-} -jar "$APP_JAR" --spring.profiles.active="$PROFILES" --server.port="$PORT" \
+    > "$RESULTS/app-$MODE.log" 2>&1 &
+  APP_PID=$!
+  trap 'kill $APP_PID 2>/dev/null || true' EXIT
+
+  until curl -sf "http://localhost:$PORT/actuator/health" > /dev/null; do sleep 1; done
+
+  for CLIENTS in $LEVELS; do
+    SUMMARY="$RESULTS/$MODE-$CLIENTS.json"
+    SAMPLES="$RESULTS/$MODE-$CLIENTS.mem"
+    IDLE_RSS="$(rss_kb $APP_PID)"
+
+    # Muestra RSS e hilos cada segundo mientras k6 genera la carga
+    : > "$SAMPLES"
+    ( while kill -0 $APP_PID 2>/dev/null; do
+        echo "$(rss_kb $APP_PID) $(threads $APP_PID)" >> "$SAMPLES"
+        sleep 1
+      done ) &
+    SAMPLER_PID=$!
+
+    k6 run --quiet --summary-export "$SUMMARY" \
+      -e BASE_URL="http://localhost:$PORT/api/v1/purchase-orders" -e CLIENTS="$CLIENTS" -e DURATION="$DURATION" \
+      -e STATS="$STATS" "$DIR/purchase-orders.js" || true
+    kill $SAMPLER_PID 2>/dev/null || true
+
+    # Extrae métricas del resumen de k6 y de las muestras de memoria sin depender de jq
+    python3 - "$SUMMARY" "$MODE" "$CLIENTS" "$IDLE_RSS" "$SAMPLES" >> "$RESULTS/summary.csv" <<'PY'
+import json, sys
+metrics = json.load(open(sys.argv[1]))["metrics"]
+clients, idle = int(sys.argv[3]), int(sys.argv[4])
+samples = [line.split() for line in open(sys.argv[5]) if len(line.split()) == 2]
+peak = max([int(rss) for rss, _ in samples] or [idle])
+peak_threads = max([int(count) for _, count in samples] or [0])
+print("%s,%s,%.1f,%.1f,%.4f,%.1f,%.1f,%.1f,%d" % (sys.argv[2], clients, metrics["http_reqs"]["rate"],
+      metrics["http_req_duration"]["p(99)"], metrics["http_req_failed"]["value"],
+      idle / 1024.0, peak / 1024.0, max(peak - idle, 0) / float(clients), peak_threads))
+PY
+  done
+
+  kill $APP_PID
+  wait $APP_PID 2>/dev/null || true
+done
+
+cat "$RESULTS/summary.csv"
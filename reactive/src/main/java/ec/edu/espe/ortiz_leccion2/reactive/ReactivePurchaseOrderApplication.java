@@ -0,0 +1,18 @@
+package ec.edu.espe.ortiz_leccion2.reactive;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+/**
+ * Variante reactiva (WebFlux + R2DBC) de la API /api/v1/purchase-orders.
+ * 
+ * Solo escanea el paquete reactive: el modelo, los filtros y los serializadores compartidos se compilan
+ * desde ../src/main/java, pero los servicios JPA de la variante servlet no forman parte de esta aplicación.
+ */
+@SpringBootApplication
+public class ReactivePurchaseOrderApplication {
+
+    public static void main(String[] args) {
+        SpringApplication.run(ReactivePurchaseOrderApplication.class, args);
+    }
+}
@@ -0,0 +1,39 @@
+package ec.edu.espe.ortiz_leccion2.reactive.config;
+
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.Option;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.transaction.ReactiveTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+/**
+ * Gestor de transacciones de R2DBC (reemplaza al autoconfigurado, del que depende TransactionalOperator).
+ * 
+ * Spring envía readOnly = false en cada transacción aunque nadie lo pida, y r2dbc-h2 registra un WARN
+ * por cualquier valor de readOnly a nivel de transacción. Solo se envía cuando la transacción es de
+ * solo lectura; las escrituras no cambian en MySQL, donde false es el valor por defecto.
+ */
+@Configuration
+public class R2dbcConfig {
+
+    @Bean
+    public ReactiveTransactionManager transactionManager(ConnectionFactory connectionFactory) {
+        return new R2dbcTransactionManager(connectionFactory) {
+            @Override
+            protected io.r2dbc.spi.TransactionDefinition createTransactionDefinition(TransactionDefinition definition) {
+                io.r2dbc.spi.TransactionDefinition target = super.createTransactionDefinition(definition);
+                if (definition.isReadOnly()) {
+                    return target;
+                }
+                return new io.r2dbc.spi.TransactionDefinition() {
+                    @Override
+                    public <T> T getAttribute(Option<T> option) {
+                        return option.equals(READ_ONLY) ? null : target.getAttribute(option);
+                    }
+                };
+            }
+        };
+    }
+}
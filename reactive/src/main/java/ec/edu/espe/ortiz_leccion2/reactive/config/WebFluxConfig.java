@@ -0,0 +1,44 @@
+package ec.edu.espe.ortiz_leccion2.reactive.config;
+
+import com.fasterxml.jackson.databind.Module;
+import ec.edu.espe.ortiz_leccion2.config.PurchaseOrderJsonModule;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.cors.CorsConfiguration;
+import org.springframework.web.cors.reactive.CorsWebFilter;
+import org.springframework.web.cors.reactive.UrlBasedCorsConfigurationSource;
+
+import java.util.Arrays;
+
+/**
+ * Mismo JSON y mismas reglas CORS que la variante servlet (JacksonConfig y CorsConfig)
+ */
+@Configuration
+public class WebFluxConfig {
+
+    // Spring Boot lo registra en el ObjectMapper de los codecs JSON y NDJSON
+    @Bean
+    public Module purchaseOrderJsonModule() {
+        return new PurchaseOrderJsonModule();
+    }
+
+    @Bean
+    public CorsWebFilter corsWebFilter() {
+        CorsConfiguration config = new CorsConfiguration();
+        config.setAllowCredentials(true);
+        config.setAllowedOrigins(Arrays.asList(
+                "http://localhost:5173",
+                "http://localhost:5174",
+                "http://localhost:3000",
+                "http://127.0.0.1:5173",
+                "http://127.0.0.1:5174",
+                "http://127.0.0.1:3000"));
+        config.addAllowedHeader("*");
+        config.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS", "PATCH"));
+        config.setMaxAge(3600L);
+
+        UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
+        source.registerCorsConfiguration("/api/**", config);
+        return new CorsWebFilter(source);
+    }
+}
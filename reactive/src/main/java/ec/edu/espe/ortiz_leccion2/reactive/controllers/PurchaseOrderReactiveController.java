@@ -0,0 +1,198 @@
+package ec.edu.espe.ortiz_leccion2.reactive.controllers;
+
+import ec.edu.espe.ortiz_leccion2.exceptions.InvalidFilterException;
+import ec.edu.espe.ortiz_leccion2.exceptions.PreconditionFailedException;
+import ec.edu.espe.ortiz_leccion2.models.dto.PurchaseOrderFilterDTO;
+import ec.edu.espe.ortiz_leccion2.models.dto.PurchaseOrderPageDTO;
+import ec.edu.espe.ortiz_leccion2.models.dto.PurchaseOrderSummary;
+import ec.edu.espe.ortiz_leccion2.models.entities.PurchaseOrder;
+import ec.edu.espe.ortiz_leccion2.models.enums.Currency;
+import ec.edu.espe.ortiz_leccion2.models.enums.OrderStatus;
+import ec.edu.espe.ortiz_leccion2.reactive.services.PurchaseOrderReactiveService;
+import jakarta.validation.Valid;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Mismo contrato que PurchaseOrderController para el listado y el CRUD por id
+ */
+@RestController
+@RequestMapping("/api/v1/purchase-orders")
+public class PurchaseOrderReactiveController {
+
+    // Mensajes fijos: se crean una vez y se relanzan, igual que en PurchaseOrderController
+    private static final InvalidFilterException INVALID_STATUS = new InvalidFilterException(
+            "Valor de status inválido. Valores permitidos: DRAFT, SUBMITTED, APPROVED, REJECTED, CANCELLED");
+    private static final InvalidFilterException INVALID_CURRENCY = new InvalidFilterException(
+            "Valor de currency inválido. Valores permitidos: USD, EUR");
+    private static final PreconditionFailedException IF_MATCH_MISMATCH = new PreconditionFailedException(
+            "If-Match no coincide con la versión actual");
+
+    private final PurchaseOrderReactiveService purchaseOrderService;
+
+    public PurchaseOrderReactiveController(PurchaseOrderReactiveService purchaseOrderService) {
+        this.purchaseOrderService = purchaseOrderService;
+    }
+
+    /**
+     * GET - Listar las órdenes de compra con filtros opcionales y paginación por cursor
+     * 
+     * Mismos filtros, paginación (limit, cursor) y proyección (fields) que la variante servlet.
+     * 
+     * Ejemplo: GET /api/v1/purchase-orders?status=APPROVED&currency=USD&limit=100
+     */
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<PurchaseOrderPageDTO<PurchaseOrderSummary>>> listar(
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String currency,
+            @RequestParam(required = false) BigDecimal minTotal,
+            @RequestParam(required = false) BigDecimal maxTotal,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit,
+            @RequestParam(required = false) List<String> fields) {
+        PurchaseOrderFilterDTO filters = buildFilters(q, status, currency, minTotal, maxTotal, from, to);
+        // Con If-None-Match igual al ETag de la página, WebFlux responde 304 sin cuerpo
+        return purchaseOrderService.findPage(filters, cursor, limit, fields)
+                .map(page -> ResponseEntity.ok().eTag(page.getEtag()).body(page));
+    }
+
+    /**
+     * GET (Accept: application/x-ndjson) - Todas las órdenes filtradas, una por línea, sin paginar
+     * 
+     * Las filas se leen de la base de datos a medida que el cliente consume la respuesta: un cliente
+     * lento frena la consulta en lugar de acumular el resultado en memoria.
+     * 
+     * Ejemplo: curl -H 'Accept: application/x-ndjson' '/api/v1/purchase-orders?status=APPROVED&fields=id,totalAmount'
+     */
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<PurchaseOrderSummary> listarEnStreaming(
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String currency,
+            @RequestParam(required = false) BigDecimal minTotal,
+            @RequestParam(required = false) BigDecimal maxTotal,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) List<String> fields) {
+        PurchaseOrderFilterDTO filters = buildFilters(q, status, currency, minTotal, maxTotal, from, to);
+        return purchaseOrderService.streamAll(filters, fields);
+    }
+
+    // POST - Crear una nueva orden de compra
+    @PostMapping
+    public Mono<ResponseEntity<PurchaseOrder>> crear(@Valid @RequestBody PurchaseOrder purchaseOrder) {
+        return purchaseOrderService.save(purchaseOrder)
+                .map(saved -> ResponseEntity.ok().eTag(etag(saved.getVersion())).body(saved));
+    }
+
+    /**
+     * GET - Obtener una orden de compra por ID
+     * 
+     * Responde con ETag "<version>". Con If-None-Match se consulta solo la versión y, si no cambió,
+     * se devuelve 304 sin cargar la entidad.
+     */
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<PurchaseOrder>> obtener(@PathVariable Long id, ServerWebExchange exchange) {
+        if (exchange.getRequest().getHeaders().getFirst(HttpHeaders.IF_NONE_MATCH) != null) {
+            return purchaseOrderService.findVersion(id).flatMap(version -> exchange.checkNotModified(etag(version))
+                    ? Mono.just(ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag(version)).build())
+                    : load(id));
+        }
+        return load(id);
+    }
+
+    /**
+     * PUT - Actualizar una orden de compra
+     * 
+     * Con If-Match: "<version>" solo se actualiza si la orden no cambió desde que se leyó; si cambió, 412.
+     * Sin If-Match la actualización es incondicional, pero una escritura concurrente devuelve 409.
+     */
+    @PutMapping("/{id}")
+    public Mono<ResponseEntity<PurchaseOrder>> actualizar(@PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @Valid @RequestBody PurchaseOrder purchaseOrder) {
+        return purchaseOrderService.update(id, purchaseOrder, expectedVersion(ifMatch))
+                .map(updated -> ResponseEntity.ok().eTag(etag(updated.getVersion())).body(updated));
+    }
+
+    // DELETE - Eliminar una orden de compra
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<Void>> eliminar(@PathVariable Long id) {
+        return purchaseOrderService.delete(id).thenReturn(ResponseEntity.noContent().build());
+    }
+
+    private Mono<ResponseEntity<PurchaseOrder>> load(Long id) {
+        return purchaseOrderService.findById(id)
+                .map(order -> ResponseEntity.ok().eTag(etag(order.getVersion())).body(order));
+    }
+
+    private static String etag(Long version) {
+        return "\"" + version + "\"";
+    }
+
+    /**
+     * Versión esperada según If-Match: null si no viene o es "*". If-Match usa comparación fuerte,
+     * así que un ETag débil o que no es una versión nunca coincide.
+     */
+    private static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String value = ifMatch.trim();
+        if (value.length() > 2 && value.startsWith("\"") && value.endsWith("\"")) {
+            try {
+                return Long.parseLong(value.substring(1, value.length() - 1));
+            } catch (NumberFormatException e) {
+                // Se trata como un ETag que no coincide
+            }
+        }
+        throw IF_MATCH_MISMATCH;
+    }
+
+    /**
+     * Construye el DTO de filtros a partir de los parámetros
+     */
+    private PurchaseOrderFilterDTO buildFilters(String q, String status, String currency,
+            BigDecimal minTotal, BigDecimal maxTotal, LocalDateTime from, LocalDateTime to) {
+        PurchaseOrderFilterDTO filters = new PurchaseOrderFilterDTO();
+        filters.setQ(q);
+
+        // Convertir status a enum si viene
+        if (status != null && !status.trim().isEmpty()) {
+            OrderStatus orderStatus = OrderStatus.fromName(status);
+            if (orderStatus == null) {
+                throw INVALID_STATUS;
+            }
+            filters.setStatus(orderStatus);
+        }
+
+        // Convertir currency a enum si viene
+        if (currency != null && !currency.trim().isEmpty()) {
+            Currency orderCurrency = Currency.fromName(currency);
+            if (orderCurrency == null) {
+                throw INVALID_CURRENCY;
+            }
+            filters.setCurrency(orderCurrency);
+        }
+
+        filters.setMinTotal(minTotal);
+        filters.setMaxTotal(maxTotal);
+        filters.setFrom(from);
+        filters.setTo(PurchaseOrderFilterDTO.inclusiveTo(to));
+        return filters;
+    }
+}
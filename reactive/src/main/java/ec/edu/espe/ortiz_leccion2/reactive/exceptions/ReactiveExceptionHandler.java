@@ -0,0 +1,91 @@
+package ec.edu.espe.ortiz_leccion2.reactive.exceptions;
+
+import ec.edu.espe.ortiz_leccion2.exceptions.InvalidFilterException;
+import ec.edu.espe.ortiz_leccion2.exceptions.PreconditionFailedException;
+import ec.edu.espe.ortiz_leccion2.exceptions.ResourceNotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.FieldError;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.bind.support.WebExchangeBindException;
+import org.springframework.web.reactive.result.method.annotation.ResponseEntityExceptionHandler;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Mismos ProblemDetail que GlobalExceptionHandler de la variante servlet. ResponseEntityExceptionHandler
+ * responde las excepciones de WebFlux (parámetros mal formados, 405, 406, 415...) con su código.
+ */
+@RestControllerAdvice
+public class ReactiveExceptionHandler extends ResponseEntityExceptionHandler {
+
+    private static final Logger log = LoggerFactory.getLogger(ReactiveExceptionHandler.class);
+
+    // En WebFlux @Valid falla con WebExchangeBindException en lugar de MethodArgumentNotValidException
+    @Override
+    protected Mono<ResponseEntity<Object>> handleWebExchangeBindException(WebExchangeBindException ex,
+            HttpHeaders headers, HttpStatusCode status, ServerWebExchange exchange) {
+        Map<String, String> errors = new HashMap<>();
+        for (FieldError error : ex.getFieldErrors()) {
+            errors.put(error.getField(), error.getDefaultMessage());
+        }
+
+        ProblemDetail body = problem(HttpStatus.BAD_REQUEST, "Validation Error",
+                "La orden de compra tiene campos inválidos");
+        body.setProperty("errors", errors);
+        return handleExceptionInternal(ex, body, headers, status, exchange);
+    }
+
+    @ExceptionHandler(InvalidFilterException.class)
+    public ProblemDetail handleInvalidFilterException(InvalidFilterException ex) {
+        return problem(HttpStatus.BAD_REQUEST, "Invalid Filter", ex.getMessage());
+    }
+
+    @ExceptionHandler(ResourceNotFoundException.class)
+    public ProblemDetail handleResourceNotFoundException(ResourceNotFoundException ex) {
+        return problem(HttpStatus.NOT_FOUND, "Resource Not Found", ex.getMessage());
+    }
+
+    @ExceptionHandler(PreconditionFailedException.class)
+    public ProblemDetail handlePreconditionFailedException(PreconditionFailedException ex) {
+        return problem(HttpStatus.PRECONDITION_FAILED, "Precondition Failed", ex.getMessage());
+    }
+
+    // Escritura concurrente sin If-Match: el cliente debe releer la orden y reintentar
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ProblemDetail handleOptimisticLockingFailure(OptimisticLockingFailureException ex) {
+        return problem(HttpStatus.CONFLICT, "Conflict", "La orden fue modificada por otra petición");
+    }
+
+    // orderNumber duplicado u otra restricción: DatabaseClient traduce la excepción de R2DBC
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ProblemDetail handleDataIntegrityViolation(DataIntegrityViolationException ex) {
+        return problem(HttpStatus.CONFLICT, "Conflict",
+                "El número de orden ya existe o viola una restricción de integridad");
+    }
+
+    // Cualquier otra excepción es un fallo del servidor: se registra con su traza y no se expone el mensaje
+    @ExceptionHandler(Exception.class)
+    public ProblemDetail handleGeneralException(Exception ex) {
+        log.error("Error no controlado al atender la petición", ex);
+        return problem(HttpStatus.INTERNAL_SERVER_ERROR, "Internal Server Error",
+                "Error interno del servidor");
+    }
+
+    private static ProblemDetail problem(HttpStatus status, String title, String detail) {
+        ProblemDetail problem = ProblemDetail.forStatusAndDetail(status, detail);
+        problem.setTitle(title);
+        return problem;
+    }
+}
@@ -0,0 +1,148 @@
+package ec.edu.espe.ortiz_leccion2.reactive.repositories;
+
+import ec.edu.espe.ortiz_leccion2.models.entities.PurchaseOrder;
+import ec.edu.espe.ortiz_leccion2.models.enums.ChangeOperation;
+import ec.edu.espe.ortiz_leccion2.models.enums.Currency;
+import ec.edu.espe.ortiz_leccion2.models.enums.OrderStatus;
+import ec.edu.espe.ortiz_leccion2.reactive.specifications.PurchaseOrderSqlFilter;
+import io.r2dbc.spi.Readable;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Acceso a purchase_order con DatabaseClient (R2DBC).
+ * 
+ * La entidad compartida lleva anotaciones JPA, que Spring Data R2DBC no interpreta; el SQL se escribe a
+ * mano y cada fila se mapea a PurchaseOrder. version se comporta como en Hibernate: empieza en 0 y cada
+ * UPDATE o DELETE exige la versión leída.
+ * 
+ * status y currency se envuelven en TRIM(): r2dbc-h2 envía los String como CLOB y H2 no convierte un CLOB
+ * a sus columnas ENUM; en MySQL no cambia nada.
+ */
+@Repository
+public class PurchaseOrderReactiveRepository {
+
+    private static final String COLUMNS = "id, order_number, supplier_name, status, total_amount, currency, "
+            + "version, created_at, expected_delivery_date";
+
+    private static final String INSERT_SQL = "INSERT INTO purchase_order (order_number, supplier_name, status, "
+            + "total_amount, currency, version, created_at, expected_delivery_date) "
+            + "VALUES (:orderNumber, :supplierName, TRIM(:status), :totalAmount, TRIM(:currency), 0, :createdAt, "
+            + ":expectedDeliveryDate)";
+
+    private static final String UPDATE_SQL = "UPDATE purchase_order SET order_number = :orderNumber, "
+            + "supplier_name = :supplierName, status = TRIM(:status), total_amount = :totalAmount, "
+            + "currency = TRIM(:currency), "
+            + "expected_delivery_date = :expectedDeliveryDate, version = version + 1 "
+            + "WHERE id = :id AND version = :version";
+
+    private static final String CHANGE_SQL = "INSERT INTO purchase_order_change "
+            + "(order_id, operation, version, changed_at, payload) "
+            + "VALUES (:orderId, :operation, :version, :changedAt, :payload)";
+
+    private final DatabaseClient databaseClient;
+
+    public PurchaseOrderReactiveRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    /**
+     * Órdenes filtradas en el orden del keyset (created_at DESC, id DESC); limit 0 sin límite.
+     * Las filas se emiten según la demanda del suscriptor: el driver no lee más de lo pedido.
+     */
+    public Flux<PurchaseOrder> findAll(PurchaseOrderSqlFilter filter, int limit) {
+        String sql = "SELECT " + COLUMNS + " FROM purchase_order" + filter.where()
+                + " ORDER BY created_at DESC, id DESC" + (limit > 0 ? " LIMIT " + limit : "");
+        return filter.bind(databaseClient.sql(sql))
+                .map(PurchaseOrderReactiveRepository::toOrder)
+                .all();
+    }
+
+    public Mono<PurchaseOrder> findById(Long id) {
+        return databaseClient.sql("SELECT " + COLUMNS + " FROM purchase_order WHERE id = :id")
+                .bind("id", id)
+                .map(PurchaseOrderReactiveRepository::toOrder)
+                .one();
+    }
+
+    public Mono<Long> findVersionById(Long id) {
+        return databaseClient.sql("SELECT version FROM purchase_order WHERE id = :id")
+                .bind("id", id)
+                .map(row -> row.get("version", Long.class))
+                .one();
+    }
+
+    /**
+     * Inserta la orden con versión 0 y devuelve el id generado
+     */
+    public Mono<Long> insert(PurchaseOrder order) {
+        return bindValues(databaseClient.sql(INSERT_SQL), order)
+                .bind("createdAt", order.getCreatedAt())
+                .filter(statement -> statement.returnGeneratedValues("id"))
+                .map(row -> row.get("id", Long.class))
+                .one();
+    }
+
+    /**
+     * Filas actualizadas: 0 si la orden no existe o su versión ya no es expectedVersion
+     */
+    public Mono<Long> update(Long id, PurchaseOrder order, long expectedVersion) {
+        return bindValues(databaseClient.sql(UPDATE_SQL), order)
+                .bind("id", id)
+                .bind("version", expectedVersion)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    public Mono<Long> delete(Long id, long expectedVersion) {
+        return databaseClient.sql("DELETE FROM purchase_order WHERE id = :id AND version = :version")
+                .bind("id", id)
+                .bind("version", expectedVersion)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    /**
+     * Registro de cambios (/changes de la variante servlet), en la transacción de la escritura
+     */
+    public Mono<Void> appendChange(Long orderId, ChangeOperation operation, Long version,
+            LocalDateTime changedAt, String payload) {
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(CHANGE_SQL)
+                .bind("orderId", orderId)
+                .bind("operation", operation.name())
+                .bind("version", version)
+                .bind("changedAt", changedAt);
+        spec = payload != null ? spec.bind("payload", payload) : spec.bindNull("payload", String.class);
+        return spec.then();
+    }
+
+    private static DatabaseClient.GenericExecuteSpec bindValues(DatabaseClient.GenericExecuteSpec spec,
+            PurchaseOrder order) {
+        return spec.bind("orderNumber", order.getOrderNumber())
+                .bind("supplierName", order.getSupplierName())
+                .bind("status", order.getStatus().name())
+                .bind("totalAmount", order.getTotalAmount())
+                .bind("currency", order.getCurrency().name())
+                .bind("expectedDeliveryDate", order.getExpectedDeliveryDate());
+    }
+
+    private static PurchaseOrder toOrder(Readable row) {
+        PurchaseOrder order = new PurchaseOrder();
+        order.setId(row.get("id", Long.class));
+        order.setOrderNumber(row.get("order_number", String.class));
+        order.setSupplierName(row.get("supplier_name", String.class));
+        order.setStatus(OrderStatus.valueOf(row.get("status", String.class)));
+        order.setTotalAmount(row.get("total_amount", BigDecimal.class));
+        order.setCurrency(Currency.valueOf(row.get("currency", String.class)));
+        order.setVersion(row.get("version", Long.class));
+        order.setCreatedAt(row.get("created_at", LocalDateTime.class));
+        order.setExpectedDeliveryDate(row.get("expected_delivery_date", LocalDate.class));
+        return order;
+    }
+}
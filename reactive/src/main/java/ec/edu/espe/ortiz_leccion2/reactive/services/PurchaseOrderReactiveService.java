@@ -0,0 +1,42 @@
+package ec.edu.espe.ortiz_leccion2.reactive.services;
+
+import ec.edu.espe.ortiz_leccion2.models.dto.PurchaseOrderFilterDTO;
+import ec.edu.espe.ortiz_leccion2.models.dto.PurchaseOrderPageDTO;
+import ec.edu.espe.ortiz_leccion2.models.dto.PurchaseOrderSummary;
+import ec.edu.espe.ortiz_leccion2.models.entities.PurchaseOrder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+
+/**
+ * Operaciones de PurchaseOrderService sin bloquear: cada método devuelve un publisher y no ocupa un hilo
+ * mientras espera a la base de datos
+ */
+public interface PurchaseOrderReactiveService {
+
+    Mono<PurchaseOrderPageDTO<PurchaseOrderSummary>> findPage(PurchaseOrderFilterDTO filters, String cursor,
+            int limit, Collection<String> fields);
+
+    /**
+     * Todas las órdenes filtradas, en el orden del listado, emitidas según la demanda del suscriptor
+     */
+    Flux<PurchaseOrderSummary> streamAll(PurchaseOrderFilterDTO filters, Collection<String> fields);
+
+    Mono<PurchaseOrder> findById(Long id);
+
+    /**
+     * Versión actual de la orden, sin cargar la entidad (para If-None-Match)
+     */
+    Mono<Long> findVersion(Long id);
+
+    Mono<PurchaseOrder> save(PurchaseOrder purchaseOrder);
+
+    /**
+     * Actualiza la orden; si expectedVersion no es null y no coincide con la versión actual
+     * termina con PreconditionFailedException (If-Match)
+     */
+    Mono<PurchaseOrder> update(Long id, PurchaseOrder purchaseOrder, Long expectedVersion);
+
+    Mono<Void> delete(Long id);
+}
@@ -0,0 +1,236 @@
+package ec.edu.espe.ortiz_leccion2.reactive.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ec.edu.espe.ortiz_leccion2.exceptions.InvalidFilterException;
+import ec.edu.espe.ortiz_leccion2.exceptions.PreconditionFailedException;
+import ec.edu.espe.ortiz_leccion2.exceptions.ResourceNotFoundException;
+import ec.edu.espe.ortiz_leccion2.models.dto.PurchaseOrderCursor;
+import ec.edu.espe.ortiz_leccion2.models.dto.PurchaseOrderFilterDTO;
+import ec.edu.espe.ortiz_leccion2.models.dto.PurchaseOrderPageDTO;
+import ec.edu.espe.ortiz_leccion2.models.dto.PurchaseOrderSummary;
+import ec.edu.espe.ortiz_leccion2.models.entities.PurchaseOrder;
+import ec.edu.espe.ortiz_leccion2.models.enums.ChangeOperation;
+import ec.edu.espe.ortiz_leccion2.models.enums.SearchMode;
+import ec.edu.espe.ortiz_leccion2.reactive.repositories.PurchaseOrderReactiveRepository;
+import ec.edu.espe.ortiz_leccion2.reactive.specifications.PurchaseOrderSqlFilter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+@Service
+public class PurchaseOrderReactiveServiceImpl implements PurchaseOrderReactiveService {
+
+    // Tamaño máximo de página permitido en la paginación por cursor
+    private static final int MAX_PAGE_LIMIT = 500;
+
+    // Errores de filtros con mensaje fijo, creados una sola vez
+    private static final InvalidFilterException INVALID_LIMIT =
+            new InvalidFilterException("El límite debe ser mayor o igual a 1");
+    private static final InvalidFilterException INVALID_DATE_RANGE =
+            new InvalidFilterException("La fecha 'from' no puede ser posterior a la fecha 'to'");
+    private static final InvalidFilterException INVALID_AMOUNT_RANGE =
+            new InvalidFilterException("El monto mínimo no puede ser mayor que el monto máximo");
+
+    private final PurchaseOrderReactiveRepository purchaseOrderRepository;
+    private final TransactionalOperator transactionalOperator;
+    private final ObjectMapper objectMapper;
+
+    // LIKE en H2; FULLTEXT en MySQL (perfil docker)
+    @Value("${purchase-order.search.mode:like}")
+    private SearchMode searchMode;
+
+    public PurchaseOrderReactiveServiceImpl(PurchaseOrderReactiveRepository purchaseOrderRepository,
+            TransactionalOperator transactionalOperator, ObjectMapper objectMapper) {
+        this.purchaseOrderRepository = purchaseOrderRepository;
+        this.transactionalOperator = transactionalOperator;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public Mono<PurchaseOrderPageDTO<PurchaseOrderSummary>> findPage(PurchaseOrderFilterDTO filters, String cursor,
+            int limit, Collection<String> fields) {
+        return Mono.defer(() -> {
+            validateFilters(filters);
+            if (limit < 1) {
+                throw INVALID_LIMIT;
+            }
+            int pageLimit = Math.min(limit, MAX_PAGE_LIMIT);
+            Collection<String> requestedFields = resolveFields(fields);
+            PurchaseOrderCursor position = cursor != null && !cursor.isBlank()
+                    ? PurchaseOrderCursor.decode(cursor) : null;
+
+            // Se pide una fila extra para saber si existe una página siguiente sin ejecutar COUNT
+            PurchaseOrderSqlFilter filter = PurchaseOrderSqlFilter.of(filters, searchMode, position);
+            return purchaseOrderRepository.findAll(filter, pageLimit + 1)
+                    .collectList()
+                    .map(rows -> toPage(rows, pageLimit, requestedFields));
+        });
+    }
+
+    @Override
+    public Flux<PurchaseOrderSummary> streamAll(PurchaseOrderFilterDTO filters, Collection<String> fields) {
+        return Flux.defer(() -> {
+            validateFilters(filters);
+            Collection<String> requestedFields = resolveFields(fields);
+            return purchaseOrderRepository.findAll(PurchaseOrderSqlFilter.of(filters, searchMode, null), 0)
+                    .map(order -> PurchaseOrderSummary.from(order, requestedFields));
+        });
+    }
+
+    @Override
+    public Mono<PurchaseOrder> findById(Long id) {
+        return purchaseOrderRepository.findById(id)
+                .switchIfEmpty(Mono.error(() -> notFound(id)));
+    }
+
+    @Override
+    public Mono<Long> findVersion(Long id) {
+        return purchaseOrderRepository.findVersionById(id)
+                .switchIfEmpty(Mono.error(() -> notFound(id)));
+    }
+
+    @Override
+    public Mono<PurchaseOrder> save(PurchaseOrder purchaseOrder) {
+        // El id y la versión del cuerpo se ignoran: siempre es una orden nueva
+        purchaseOrder.setId(null);
+        purchaseOrder.setVersion(0L);
+        purchaseOrder.setCreatedAt(LocalDateTime.now());
+        return purchaseOrderRepository.insert(purchaseOrder)
+                .flatMap(id -> {
+                    purchaseOrder.setId(id);
+                    return purchaseOrderRepository.appendChange(id, ChangeOperation.CREATED, 0L,
+                            LocalDateTime.now(), toJson(purchaseOrder));
+                })
+                .thenReturn(purchaseOrder)
+                .as(transactionalOperator::transactional);
+    }
+
+    @Override
+    public Mono<PurchaseOrder> update(Long id, PurchaseOrder purchaseOrder, Long expectedVersion) {
+        return findById(id)
+                .flatMap(existing -> {
+                    if (expectedVersion != null && !expectedVersion.equals(existing.getVersion())) {
+                        return Mono.error(new PreconditionFailedException("La orden " + id
+                                + " fue modificada: versión actual " + existing.getVersion()
+                                + ", esperada " + expectedVersion));
+                    }
+                    // UPDATE ... WHERE version = ? detecta una escritura concurrente desde la lectura
+                    return purchaseOrderRepository.update(id, purchaseOrder, existing.getVersion())
+                            .flatMap(updatedRows -> {
+                                if (updatedRows == 0) {
+                                    return Mono.error(expectedVersion != null
+                                            ? new PreconditionFailedException("La orden " + id
+                                                    + " fue modificada por otra petición")
+                                            : new OptimisticLockingFailureException("La orden " + id
+                                                    + " fue modificada por otra petición"));
+                                }
+                                PurchaseOrder updated = updatedOrder(existing, purchaseOrder);
+                                return purchaseOrderRepository.appendChange(id, ChangeOperation.UPDATED,
+                                        updated.getVersion(), LocalDateTime.now(), toJson(updated))
+                                        .thenReturn(updated);
+                            });
+                })
+                .as(transactionalOperator::transactional);
+    }
+
+    @Override
+    public Mono<Void> delete(Long id) {
+        return findById(id)
+                .flatMap(existing -> purchaseOrderRepository.delete(id, existing.getVersion())
+                        .flatMap(deletedRows -> deletedRows == 0
+                                ? Mono.error(new OptimisticLockingFailureException("La orden " + id
+                                        + " fue modificada por otra petición"))
+                                : purchaseOrderRepository.appendChange(id, ChangeOperation.DELETED,
+                                        existing.getVersion(), LocalDateTime.now(), null)))
+                .as(transactionalOperator::transactional);
+    }
+
+    /**
+     * Valida las reglas de negocio de los filtros (las mismas que la variante servlet)
+     */
+    private void validateFilters(PurchaseOrderFilterDTO filters) {
+        if (filters.getFrom() != null && filters.getTo() != null && filters.getFrom().isAfter(filters.getTo())) {
+            throw INVALID_DATE_RANGE;
+        }
+        if (filters.getMinTotal() != null && filters.getMaxTotal() != null
+                && filters.getMinTotal().compareTo(filters.getMaxTotal()) > 0) {
+            throw INVALID_AMOUNT_RANGE;
+        }
+    }
+
+    /**
+     * Campos de la proyección: todos si no se indicó ninguno
+     */
+    private Collection<String> resolveFields(Collection<String> fields) {
+        if (fields == null || fields.isEmpty()) {
+            return PurchaseOrderSummary.FIELDS;
+        }
+        for (String field : fields) {
+            if (!PurchaseOrderSummary.FIELDS.contains(field)) {
+                throw new InvalidFilterException("Campo inválido en fields: " + field +
+                        ". Valores permitidos: " + String.join(", ", PurchaseOrderSummary.FIELDS));
+            }
+        }
+        return fields;
+    }
+
+    private PurchaseOrderPageDTO<PurchaseOrderSummary> toPage(List<PurchaseOrder> rows, int pageLimit,
+            Collection<String> requestedFields) {
+        String nextCursor = null;
+        if (rows.size() > pageLimit) {
+            rows = rows.subList(0, pageLimit);
+            PurchaseOrder last = rows.get(rows.size() - 1);
+            nextCursor = new PurchaseOrderCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+
+        // ETag débil con el mismo cálculo que la variante servlet: (id, version) de cada fila y el cursor
+        long hash = 0xcbf29ce484222325L;
+        List<PurchaseOrderSummary> items = new ArrayList<>(rows.size());
+        for (PurchaseOrder order : rows) {
+            items.add(PurchaseOrderSummary.from(order, requestedFields));
+            hash = (hash ^ order.getId()) * 0x100000001b3L;
+            hash = (hash ^ order.getVersion()) * 0x100000001b3L;
+        }
+        if (nextCursor != null) {
+            hash = (hash ^ nextCursor.hashCode()) * 0x100000001b3L;
+        }
+        PurchaseOrderPageDTO<PurchaseOrderSummary> page = new PurchaseOrderPageDTO<>(items, nextCursor, pageLimit);
+        page.setEtag("W/\"" + Long.toHexString(hash) + "\"");
+        return page;
+    }
+
+    private static PurchaseOrder updatedOrder(PurchaseOrder existing, PurchaseOrder values) {
+        PurchaseOrder updated = new PurchaseOrder();
+        updated.setId(existing.getId());
+        updated.setOrderNumber(values.getOrderNumber());
+        updated.setSupplierName(values.getSupplierName());
+        updated.setStatus(values.getStatus());
+        updated.setTotalAmount(values.getTotalAmount());
+        updated.setCurrency(values.getCurrency());
+        updated.setVersion(existing.getVersion() + 1);
+        updated.setCreatedAt(existing.getCreatedAt());
+        updated.setExpectedDeliveryDate(values.getExpectedDeliveryDate());
+        return updated;
+    }
+
+    private String toJson(PurchaseOrder order) {
+        try {
+            return objectMapper.writeValueAsString(order);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo serializar la orden " + order.getId(), e);
+        }
+    }
+
+    private static ResourceNotFoundException notFound(Long id) {
+        return new ResourceNotFoundException("Purchase Order no encontrada con id: " + id);
+    }
+}
@@ -0,0 +1,156 @@
+package ec.edu.espe.ortiz_leccion2.reactive.specifications;
+
+import ec.edu.espe.ortiz_leccion2.models.dto.PurchaseOrderCursor;
+import ec.edu.espe.ortiz_leccion2.models.dto.PurchaseOrderFilterDTO;
+import ec.edu.espe.ortiz_leccion2.models.enums.SearchMode;
+import ec.edu.espe.ortiz_leccion2.specifications.PurchaseOrderSearchTerms;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Traducción a SQL de PurchaseOrderSpecification.withFilters y afterCursor para R2DBC.
+ * 
+ * Mismas reglas que la variante servlet (PurchaseOrderFilterQuery): q con '*' al final es un prefijo de
+ * order_number, si no texto contenido en order_number o supplier_name, con el índice FULLTEXT de MySQL
+ * como preselección en SearchMode.FULLTEXT. El texto SQL depende solo de la forma de los filtros y se
+ * arma una vez por forma; los valores se enlazan siempre como parámetros.
+ */
+public final class PurchaseOrderSqlFilter {
+
+    // Bits de la forma
+    private static final int Q_CONTAINS = 1;
+    private static final int Q_PREFIX = 1 << 1;
+    private static final int Q_FULLTEXT = 1 << 2;
+    private static final int STATUS = 1 << 3;
+    private static final int CURRENCY = 1 << 4;
+    private static final int MIN_TOTAL = 1 << 5;
+    private static final int MAX_TOTAL = 1 << 6;
+    private static final int FROM = 1 << 7;
+    private static final int TO = 1 << 8;
+    private static final int CURSOR = 1 << 9;
+
+    private static final ConcurrentMap<Integer, String> WHERE = new ConcurrentHashMap<>();
+
+    private final int shape;
+    private final PurchaseOrderFilterDTO filters;
+    private final PurchaseOrderCursor cursor;
+    private final String term;
+
+    private PurchaseOrderSqlFilter(int shape, PurchaseOrderFilterDTO filters, PurchaseOrderCursor cursor,
+            String term) {
+        this.shape = shape;
+        this.filters = filters;
+        this.cursor = cursor;
+        this.term = term;
+    }
+
+    /**
+     * Filtros y, si no es null, el cursor de la paginación por keyset (created_at DESC, id DESC)
+     */
+    public static PurchaseOrderSqlFilter of(PurchaseOrderFilterDTO filters, SearchMode searchMode,
+            PurchaseOrderCursor cursor) {
+        int shape = 0;
+        String term = filters.getQ() != null ? filters.getQ().trim() : "";
+        if (PurchaseOrderSearchTerms.isPrefix(term)) {
+            shape |= Q_PREFIX;
+        } else if (!term.isEmpty()) {
+            shape |= Q_CONTAINS;
+            if (searchMode == SearchMode.FULLTEXT && PurchaseOrderSearchTerms.usesFulltext(term)) {
+                shape |= Q_FULLTEXT;
+            }
+        }
+        shape |= filters.getStatus() != null ? STATUS : 0;
+        shape |= filters.getCurrency() != null ? CURRENCY : 0;
+        shape |= filters.getMinTotal() != null ? MIN_TOTAL : 0;
+        shape |= filters.getMaxTotal() != null ? MAX_TOTAL : 0;
+        shape |= filters.getFrom() != null ? FROM : 0;
+        shape |= filters.getTo() != null ? TO : 0;
+        shape |= cursor != null ? CURSOR : 0;
+        return new PurchaseOrderSqlFilter(shape, filters, cursor, term);
+    }
+
+    /**
+     * Cláusula WHERE (vacía sin filtros) sobre las columnas de purchase_order
+     */
+    public String where() {
+        return WHERE.computeIfAbsent(shape, PurchaseOrderSqlFilter::compile);
+    }
+
+    public DatabaseClient.GenericExecuteSpec bind(DatabaseClient.GenericExecuteSpec spec) {
+        if ((shape & Q_PREFIX) != 0) {
+            spec = spec.bind("qPrefix", PurchaseOrderSearchTerms.prefixPattern(term));
+        }
+        if ((shape & Q_CONTAINS) != 0) {
+            spec = spec.bind("qPattern", PurchaseOrderSearchTerms.containsPattern(term));
+        }
+        if ((shape & Q_FULLTEXT) != 0) {
+            spec = spec.bind("qPhrase", PurchaseOrderSearchTerms.fulltextPhrase(term));
+        }
+        if ((shape & STATUS) != 0) {
+            spec = spec.bind("status", filters.getStatus().name());
+        }
+        if ((shape & CURRENCY) != 0) {
+            spec = spec.bind("currency", filters.getCurrency().name());
+        }
+        if ((shape & MIN_TOTAL) != 0) {
+            spec = spec.bind("minTotal", filters.getMinTotal());
+        }
+        if ((shape & MAX_TOTAL) != 0) {
+            spec = spec.bind("maxTotal", filters.getMaxTotal());
+        }
+        if ((shape & FROM) != 0) {
+            spec = spec.bind("from", filters.getFrom());
+        }
+        if ((shape & TO) != 0) {
+            spec = spec.bind("to", filters.getTo());
+        }
+        if ((shape & CURSOR) != 0) {
+            spec = spec.bind("cursorCreatedAt", cursor.getCreatedAt()).bind("cursorId", cursor.getId());
+        }
+        return spec;
+    }
+
+    private static String compile(int shape) {
+        StringBuilder where = new StringBuilder();
+        if ((shape & Q_PREFIX) != 0) {
+            // Sin lower() para que el índice de order_number sea utilizable
+            and(where, "order_number LIKE :qPrefix ESCAPE '" + PurchaseOrderSearchTerms.ESCAPE_CHAR + "'");
+        }
+        if ((shape & Q_CONTAINS) != 0) {
+            and(where, "(LOWER(order_number) LIKE :qPattern ESCAPE '" + PurchaseOrderSearchTerms.ESCAPE_CHAR
+                    + "' OR LOWER(supplier_name) LIKE :qPattern ESCAPE '" + PurchaseOrderSearchTerms.ESCAPE_CHAR + "')");
+        }
+        if ((shape & Q_FULLTEXT) != 0) {
+            and(where, "MATCH(order_number, supplier_name) AGAINST (:qPhrase IN BOOLEAN MODE) > 0");
+        }
+        if ((shape & STATUS) != 0) {
+            // TRIM(): r2dbc-h2 envía los String como CLOB, que H2 no compara con ENUM
+            and(where, "status = TRIM(:status)");
+        }
+        if ((shape & CURRENCY) != 0) {
+            and(where, "currency = TRIM(:currency)");
+        }
+        if ((shape & MIN_TOTAL) != 0) {
+            and(where, "total_amount >= :minTotal");
+        }
+        if ((shape & MAX_TOTAL) != 0) {
+            and(where, "total_amount <= :maxTotal");
+        }
+        if ((shape & FROM) != 0) {
+            and(where, "created_at >= :from");
+        }
+        if ((shape & TO) != 0) {
+            and(where, "created_at <= :to");
+        }
+        if ((shape & CURSOR) != 0) {
+            and(where, "(created_at < :cursorCreatedAt OR (created_at = :cursorCreatedAt AND id < :cursorId))");
+        }
+        return where.toString();
+    }
+
+    private static void and(StringBuilder where, String predicate) {
+        where.append(where.isEmpty() ? " WHERE " : " AND ").append(predicate);
+    }
+}
@@ -0,0 +1,162 @@
+package ec.edu.espe.ortiz_leccion2.reactive.controllers;
+
+import ec.edu.espe.ortiz_leccion2.models.dto.PurchaseOrderSummary;
+import ec.edu.espe.ortiz_leccion2.models.entities.PurchaseOrder;
+import ec.edu.espe.ortiz_leccion2.models.enums.Currency;
+import ec.edu.espe.ortiz_leccion2.models.enums.OrderStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@SpringBootTest
+@AutoConfigureWebTestClient
+class PurchaseOrderReactiveControllerTests {
+
+    private static final String BASE_URL = "/api/v1/purchase-orders";
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @BeforeEach
+    void setUp() {
+        databaseClient.sql("DELETE FROM purchase_order").then()
+                .then(databaseClient.sql("DELETE FROM purchase_order_change").then())
+                .block();
+        for (int i = 0; i < 25; i++) {
+            crear(newOrder("RX-" + i, i % 2 == 0 ? OrderStatus.APPROVED : OrderStatus.DRAFT));
+        }
+    }
+
+    @Test
+    void listadoRecorreLasPaginasYElStreamingDevuelveLasMismasOrdenes() {
+        Set<Long> ids = new HashSet<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            String uri = BASE_URL + "?status=APPROVED&limit=5&fields=id,orderNumber"
+                    + (cursor != null ? "&cursor=" + cursor : "");
+            Map<String, Object> page = webTestClient.get().uri(uri).exchange()
+                    .expectStatus().isOk()
+                    .expectHeader().exists(HttpHeaders.ETAG)
+                    .expectBody(new ParameterizedTypeReference<Map<String, Object>>() { })
+                    .returnResult().getResponseBody();
+            for (Object item : (List<?>) page.get("items")) {
+                Map<?, ?> summary = (Map<?, ?>) item;
+                assertNull(summary.get("supplierName"));
+                ids.add(((Number) summary.get("id")).longValue());
+            }
+            cursor = (String) page.get("nextCursor");
+            pages++;
+        } while (cursor != null);
+        assertEquals(13, ids.size());
+        assertEquals(3, pages);
+
+        // NDJSON: sin paginar, consumido de a una orden por vez
+        Flux<PurchaseOrderSummary> stream = webTestClient.get().uri(BASE_URL + "?status=APPROVED")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(PurchaseOrderSummary.class)
+                .getResponseBody();
+        StepVerifier.create(stream, 1)
+                .recordWith(ArrayList::new)
+                .expectNextCount(1)
+                .thenRequest(Long.MAX_VALUE)
+                .expectNextCount(ids.size() - 1)
+                .consumeRecordedWith(streamed -> assertEquals(ids,
+                        streamed.stream().map(PurchaseOrderSummary::id).collect(Collectors.toSet())))
+                .verifyComplete();
+
+        webTestClient.get().uri(BASE_URL + "?minTotal=10&maxTotal=5").exchange()
+                .expectStatus().isBadRequest()
+                .expectBody().jsonPath("$.title").isEqualTo("Invalid Filter");
+    }
+
+    @Test
+    void crudConEtagYValidaciones() {
+        PurchaseOrder created = crear(newOrder("RX-NEW", OrderStatus.SUBMITTED));
+        assertNotNull(created.getId());
+        assertEquals(0L, created.getVersion());
+
+        webTestClient.get().uri(BASE_URL + "/" + created.getId())
+                .header(HttpHeaders.IF_NONE_MATCH, "\"0\"")
+                .exchange()
+                .expectStatus().isNotModified();
+
+        PurchaseOrder changes = newOrder("RX-NEW", OrderStatus.APPROVED);
+        webTestClient.put().uri(BASE_URL + "/" + created.getId())
+                .header(HttpHeaders.IF_MATCH, "\"0\"")
+                .bodyValue(changes)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"1\"")
+                .expectBody().jsonPath("$.status").isEqualTo("APPROVED");
+        webTestClient.put().uri(BASE_URL + "/" + created.getId())
+                .header(HttpHeaders.IF_MATCH, "\"0\"")
+                .bodyValue(changes)
+                .exchange()
+                .expectStatus().isEqualTo(412);
+
+        webTestClient.post().uri(BASE_URL).bodyValue(newOrder("RX-NEW", OrderStatus.DRAFT)).exchange()
+                .expectStatus().isEqualTo(409);
+        webTestClient.post().uri(BASE_URL).bodyValue(newOrder("", OrderStatus.DRAFT)).exchange()
+                .expectStatus().isBadRequest()
+                .expectBody().jsonPath("$.errors.orderNumber").exists();
+
+        webTestClient.delete().uri(BASE_URL + "/" + created.getId()).exchange()
+                .expectStatus().isNoContent();
+        webTestClient.get().uri(BASE_URL + "/" + created.getId()).exchange()
+                .expectStatus().isNotFound();
+
+        // Cada escritura queda en el registro de cambios, como en la variante servlet
+        Long changeRows = databaseClient.sql("SELECT COUNT(*) AS total FROM purchase_order_change WHERE order_id = :id")
+                .bind("id", created.getId())
+                .map(row -> row.get("total", Long.class))
+                .one()
+                .block();
+        assertEquals(3L, changeRows);
+    }
+
+    private PurchaseOrder crear(PurchaseOrder order) {
+        return webTestClient.post().uri(BASE_URL).bodyValue(order).exchange()
+                .expectStatus().isOk()
+                .expectBody(PurchaseOrder.class)
+                .returnResult().getResponseBody();
+    }
+
+    private PurchaseOrder newOrder(String orderNumber, OrderStatus status) {
+        PurchaseOrder order = new PurchaseOrder();
+        order.setOrderNumber(orderNumber);
+        order.setSupplierName("Proveedor " + orderNumber);
+        order.setStatus(status);
+        order.setTotalAmount(new BigDecimal("100.00"));
+        order.setCurrency(Currency.USD);
+        order.setExpectedDeliveryDate(LocalDate.now().plusDays(7));
+        return order;
+    }
+}
@@ -0,0 +1,94 @@
+package ec.edu.espe.ortiz_leccion2.benchmarks;
+
+import ec.edu.espe.ortiz_leccion2.OrtizLeccion2Application;
+import ec.edu.espe.ortiz_leccion2.models.entities.PurchaseOrder;
+import ec.edu.espe.ortiz_leccion2.repositories.PurchaseOrderRepository;
+import ec.edu.espe.ortiz_leccion2.services.PurchaseOrderRollups;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Aplicación completa (perfil local, H2 en memoria) con rows órdenes generadas con semilla fija.
+ * El tamaño se cambia con -p rows=1000000.
+ */
+@State(Scope.Benchmark)
+public class BenchmarkContext {
+
+    private static final int SEED_CHUNK = 5000;
+
+    @Param("10000")
+    public int rows;
+
+    ConfigurableApplicationContext context;
+    TransactionTemplate readOnlyTransaction;
+    long[] ids;
+
+    @Setup(Level.Trial)
+    public void start() {
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        context = new SpringApplicationBuilder(OrtizLeccion2Application.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:mem:purchaseorderdb;DB_CLOSE_ON_EXIT=FALSE",
+                        "--spring.jpa.show-sql=false",
+                        "--spring.main.banner-mode=off",
+                        "--logging.level.root=WARN",
+                        "--purchase-order.rollups.reconcile-interval=PT24H");
+
+        readOnlyTransaction = new TransactionTemplate(bean(PlatformTransactionManager.class));
+        readOnlyTransaction.setReadOnly(true);
+        seed();
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    long randomId() {
+        return ids[ThreadLocalRandom.current().nextInt(ids.length)];
+    }
+
+    private void seed() {
+        PurchaseOrderRepository repository = bean(PurchaseOrderRepository.class);
+        JdbcTemplate jdbcTemplate = bean(JdbcTemplate.class);
+        TransactionTemplate transaction = new TransactionTemplate(bean(PlatformTransactionManager.class));
+        Random random = new Random(42);
+
+        for (int start = 0; start < rows; start += SEED_CHUNK) {
+            List<PurchaseOrder> chunk = new ArrayList<>(SEED_CHUNK);
+            for (int i = start; i < Math.min(rows, start + SEED_CHUNK); i++) {
+                chunk.add(BenchmarkData.newOrder(String.format("OC-%08d", i), random));
+            }
+            transaction.executeWithoutResult(status -> repository.batchInsert(chunk));
+        }
+
+        // batchInsert usa la fecha actual: se reparte created_at en el último año
+        jdbcTemplate.update("UPDATE purchase_order SET created_at = "
+                + "DATEADD('SECOND', -MOD(id * 7919, 31536000), created_at)");
+        jdbcTemplate.execute("ANALYZE");
+        ids = jdbcTemplate.queryForList("SELECT id FROM purchase_order", Long.class).stream()
+                .mapToLong(Long::longValue).toArray();
+
+        // Las filas se insertaron sin pasar por el servicio
+        bean(PurchaseOrderRollups.class).reconcile();
+    }
+}
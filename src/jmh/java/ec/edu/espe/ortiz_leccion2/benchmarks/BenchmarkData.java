@@ -0,0 +1,82 @@
+package ec.edu.espe.ortiz_leccion2.benchmarks;
+
+import ec.edu.espe.ortiz_leccion2.models.dto.PurchaseOrderFilterDTO;
+import ec.edu.espe.ortiz_leccion2.models.entities.PurchaseOrder;
+import ec.edu.espe.ortiz_leccion2.models.enums.Currency;
+import ec.edu.espe.ortiz_leccion2.models.enums.OrderStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Datos y filtros de los benchmarks.
+ * 
+ * Una combinación de filtros se escribe como nombres unidos con "+" (p. ej. "status+currency+from+to");
+ * "none" es el listado sin filtros.
+ */
+final class BenchmarkData {
+
+    static final String[] FILTER_NAMES = {"q", "status", "currency", "minTotal", "maxTotal", "from", "to"};
+
+    private static final String[] SUPPLIERS = {
+            "Acme Industrial", "Distribuidora Andina", "Ferretería Central", "Importadora Pacífico",
+            "Suministros Quito", "TecnoRed", "Papelería Moderna", "Logística del Sur",
+            "Química Ecuatoriana", "Electro Norte"
+    };
+
+    private BenchmarkData() {
+    }
+
+    static PurchaseOrder newOrder(String orderNumber, Random random) {
+        PurchaseOrder order = new PurchaseOrder();
+        order.setOrderNumber(orderNumber);
+        order.setSupplierName(SUPPLIERS[random.nextInt(SUPPLIERS.length)] + " " + random.nextInt(1000));
+        order.setStatus(OrderStatus.values()[random.nextInt(OrderStatus.values().length)]);
+        order.setTotalAmount(BigDecimal.valueOf(1000 + random.nextInt(999_000), 2));
+        order.setCurrency(Currency.values()[random.nextInt(Currency.values().length)]);
+        order.setExpectedDeliveryDate(LocalDate.now().plusDays(1 + random.nextInt(60)));
+        return order;
+    }
+
+    static PurchaseOrderFilterDTO filters(String shape) {
+        PurchaseOrderFilterDTO filters = new PurchaseOrderFilterDTO();
+        if (shape.equals("none")) {
+            return filters;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        for (String name : shape.split("\\+")) {
+            switch (name) {
+                case "q" -> filters.setQ("acme");
+                case "status" -> filters.setStatus(OrderStatus.APPROVED);
+                case "currency" -> filters.setCurrency(Currency.USD);
+                case "minTotal" -> filters.setMinTotal(new BigDecimal("1000.00"));
+                case "maxTotal" -> filters.setMaxTotal(new BigDecimal("5000.00"));
+                case "from" -> filters.setFrom(now.minusDays(90));
+                case "to" -> filters.setTo(now.minusDays(30));
+                default -> throw new IllegalArgumentException("Filtro desconocido: " + name);
+            }
+        }
+        return filters;
+    }
+
+    /**
+     * Las 2^7 combinaciones de filtros
+     */
+    static String[] allFilterShapes() {
+        List<String> shapes = new ArrayList<>();
+        for (int mask = 0; mask < (1 << FILTER_NAMES.length); mask++) {
+            List<String> names = new ArrayList<>();
+            for (int bit = 0; bit < FILTER_NAMES.length; bit++) {
+                if ((mask & (1 << bit)) != 0) {
+                    names.add(FILTER_NAMES[bit]);
+                }
+            }
+            shapes.add(names.isEmpty() ? "none" : String.join("+", names));
+        }
+        return shapes.toArray(String[]::new);
+    }
+}
@@ -0,0 +1,37 @@
+package ec.edu.espe.ortiz_leccion2.benchmarks;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Punto de entrada de mvn -Pbenchmarks test-compile exec:exec.
+ * 
+ * Acepta las opciones habituales de JMH (-Djmh.args="SaveBenchmark -p rows=100000 -prof gc").
+ * Si no se indican, ejecuta las 128 combinaciones de filtros y escribe los resultados en
+ * JSON en target/jmh-result.json para compararlos entre versiones.
+ */
+public final class BenchmarkRunner {
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        ChainedOptionsBuilder options = new OptionsBuilder().parent(commandLine);
+
+        if (!commandLine.getParameter("filters").hasValue()) {
+            options.param("filters", BenchmarkData.allFilterShapes());
+        }
+        if (!commandLine.getResultFormat().hasValue()) {
+            options.resultFormat(ResultFormatType.JSON);
+        }
+        if (!commandLine.getResult().hasValue()) {
+            options.result("target/jmh-result.json");
+        }
+
+        new Runner(options.build()).run();
+    }
+}
@@ -0,0 +1,65 @@
+package ec.edu.espe.ortiz_leccion2.benchmarks;
+
+import ec.edu.espe.ortiz_leccion2.models.dto.PurchaseOrderFilterDTO;
+import ec.edu.espe.ortiz_leccion2.models.enums.SearchMode;
+import ec.edu.espe.ortiz_leccion2.repositories.PurchaseOrderRepository;
+import ec.edu.espe.ortiz_leccion2.services.PurchaseOrderColumnarSnapshot;
+import ec.edu.espe.ortiz_leccion2.specifications.PurchaseOrderFilterQuery;
+import jakarta.persistence.Tuple;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Agregados por día de filtros sin q con la copia columnar en memoria frente al HQL precompilado
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class ColumnarSnapshotBenchmark {
+
+    @Param({"minTotal+maxTotal", "status+minTotal+from", "currency+maxTotal+from+to"})
+    public String shape;
+
+    private PurchaseOrderRepository repository;
+    private PurchaseOrderColumnarSnapshot snapshot;
+    private BenchmarkContext context;
+    private PurchaseOrderFilterDTO filters;
+    private PurchaseOrderFilterQuery filterQuery;
+
+    @Setup
+    public void setUp(BenchmarkContext context) {
+        this.context = context;
+        repository = context.bean(PurchaseOrderRepository.class);
+        // La copia está desactivada por defecto: se crea aparte sin cambiar el contexto de los demás benchmarks
+        snapshot = context.context.getAutowireCapableBeanFactory().createBean(PurchaseOrderColumnarSnapshot.class);
+        snapshot.build();
+        filters = BenchmarkData.filters(shape);
+        filterQuery = PurchaseOrderFilterQuery.of(filters, SearchMode.LIKE, null);
+    }
+
+    @Benchmark
+    public List<Tuple> sqlAggregate() {
+        return context.readOnlyTransaction.execute(status -> repository.aggregate(filterQuery, true));
+    }
+
+    @Benchmark
+    public void columnarAggregate(Blackhole blackhole) {
+        snapshot.aggregate(filters, true, (day, status, currency, count, sum, min, max) -> blackhole.consume(sum));
+    }
+}
@@ -0,0 +1,128 @@
+package ec.edu.espe.ortiz_leccion2.benchmarks;
+
+import ec.edu.espe.ortiz_leccion2.exceptions.GlobalExceptionHandler;
+import ec.edu.espe.ortiz_leccion2.exceptions.InvalidFilterException;
+import ec.edu.espe.ortiz_leccion2.exceptions.ResourceNotFoundException;
+import ec.edu.espe.ortiz_leccion2.models.enums.OrderStatus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpStatus;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Camino de error de un filtro status inválido y de un id inexistente, desde el parámetro hasta el cuerpo
+ * de la respuesta: la versión anterior (valueOf dentro de try/catch, IllegalArgumentException con el valor
+ * concatenado, excepción con traza y un HashMap con LocalDateTime por error) frente a la actual (EnumLookup,
+ * excepción preasignada o sin traza y el ProblemDetail de GlobalExceptionHandler).
+ * 
+ * depth son los marcos de pila por encima del punto donde se lanza la excepción; en una petición real por
+ * Tomcat y Spring MVC hay más de cien, y fillInStackTrace recorre todos. Con -prof gc se comparan además
+ * las asignaciones por error (gc.alloc.rate.norm).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class ErrorPathBenchmark {
+
+    private static final InvalidFilterException INVALID_STATUS = new InvalidFilterException(
+            "Valor de status inválido. Valores permitidos: DRAFT, SUBMITTED, APPROVED, REJECTED, CANCELLED");
+
+    @Param({"10", "150"})
+    public int depth;
+
+    private final GlobalExceptionHandler handler = new GlobalExceptionHandler();
+    private final String status = "aproved";
+    private final long missingId = 987_654_321L;
+
+    @Setup
+    public void setUp() {
+        // Carga las tablas de los enums fuera de la medición
+        OrderStatus.fromName("DRAFT");
+    }
+
+    @Benchmark
+    public Object invalidStatusBefore() {
+        return atDepth(depth, () -> {
+            try {
+                try {
+                    return OrderStatus.valueOf(status.toUpperCase());
+                } catch (IllegalArgumentException e) {
+                    throw new IllegalArgumentException("Valor de status inválido: " + status +
+                            ". Valores permitidos: DRAFT, SUBMITTED, APPROVED, REJECTED, CANCELLED");
+                }
+            } catch (IllegalArgumentException ex) {
+                return legacyBody(HttpStatus.BAD_REQUEST, "Bad Request", ex.getMessage());
+            }
+        });
+    }
+
+    @Benchmark
+    public Object invalidStatusAfter() {
+        return atDepth(depth, () -> {
+            try {
+                OrderStatus orderStatus = OrderStatus.fromName(status);
+                if (orderStatus == null) {
+                    throw INVALID_STATUS;
+                }
+                return orderStatus;
+            } catch (InvalidFilterException ex) {
+                return handler.handleInvalidFilterException(ex);
+            }
+        });
+    }
+
+    @Benchmark
+    public Object notFoundBefore() {
+        return atDepth(depth, () -> {
+            try {
+                throw new RuntimeException("Purchase Order no encontrada con id: " + missingId);
+            } catch (RuntimeException ex) {
+                return legacyBody(HttpStatus.NOT_FOUND, "Resource Not Found", ex.getMessage());
+            }
+        });
+    }
+
+    @Benchmark
+    public Object notFoundAfter() {
+        return atDepth(depth, () -> {
+            try {
+                throw new ResourceNotFoundException("Purchase Order no encontrada con id: " + missingId);
+            } catch (ResourceNotFoundException ex) {
+                return handler.handleResourceNotFoundException(ex);
+            }
+        });
+    }
+
+    /**
+     * Cuerpo que construían los manejadores antes de usar ProblemDetail
+     */
+    private static Map<String, Object> legacyBody(HttpStatus status, String error, String message) {
+        Map<String, Object> errorResponse = new HashMap<>();
+        errorResponse.put("timestamp", LocalDateTime.now());
+        errorResponse.put("status", status.value());
+        errorResponse.put("error", error);
+        errorResponse.put("message", message);
+        return errorResponse;
+    }
+
+    private static Object atDepth(int frames, Supplier<Object> body) {
+        return frames <= 0 ? body.get() : atDepth(frames - 1, body);
+    }
+}
@@ -0,0 +1,53 @@
+package ec.edu.espe.ortiz_leccion2.benchmarks;
+
+import ec.edu.espe.ortiz_leccion2.models.entities.PurchaseOrder;
+import ec.edu.espe.ortiz_leccion2.models.enums.SearchMode;
+import ec.edu.espe.ortiz_leccion2.repositories.PurchaseOrderRepository;
+import ec.edu.espe.ortiz_leccion2.specifications.PurchaseOrderFilterQuery;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Todas las órdenes que cumplen cada combinación de filtros (el HQL precompilado, sin límite ni caché). BenchmarkRunner ejecuta las 128 combinaciones;
+ * los valores de @Param son los que se usan al lanzar la clase directamente.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class FilterQueryBenchmark {
+
+    @Param({"none", "q", "status", "status+currency", "minTotal+maxTotal", "from+to",
+            "q+status+currency+minTotal+maxTotal+from+to"})
+    public String filters;
+
+    private PurchaseOrderRepository repository;
+    private BenchmarkContext context;
+    private PurchaseOrderFilterQuery filterQuery;
+
+    @Setup
+    public void setUp(BenchmarkContext context) {
+        this.context = context;
+        repository = context.bean(PurchaseOrderRepository.class);
+        filterQuery = PurchaseOrderFilterQuery.of(BenchmarkData.filters(filters), SearchMode.LIKE, null);
+    }
+
+    @Benchmark
+    public List<PurchaseOrder> findAll() {
+        return context.readOnlyTransaction.execute(status -> repository.findAll(filterQuery));
+    }
+}
@@ -0,0 +1,66 @@
+package ec.edu.espe.ortiz_leccion2.benchmarks;
+
+import ec.edu.espe.ortiz_leccion2.models.entities.PurchaseOrder;
+import ec.edu.espe.ortiz_leccion2.repositories.PurchaseOrderRepository;
+import ec.edu.espe.ortiz_leccion2.services.PurchaseOrderService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * findById con un conjunto pequeño de ids frecuentes (caché), con ids al azar de toda la tabla
+ * a través del servicio, y directamente contra el repositorio (sin caché).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class FindByIdBenchmark {
+
+    private static final int HOT_IDS = 100;
+
+    private BenchmarkContext context;
+    private PurchaseOrderService purchaseOrderService;
+    private PurchaseOrderRepository purchaseOrderRepository;
+    private TransactionTemplate readOnlyTransaction;
+    private long[] hotIds;
+
+    @Setup
+    public void setUp(BenchmarkContext context) {
+        this.context = context;
+        purchaseOrderService = context.bean(PurchaseOrderService.class);
+        purchaseOrderRepository = context.bean(PurchaseOrderRepository.class);
+        readOnlyTransaction = context.readOnlyTransaction;
+        hotIds = Arrays.copyOf(context.ids, Math.min(HOT_IDS, context.ids.length));
+    }
+
+    @Benchmark
+    public PurchaseOrder hotIdCached() {
+        return purchaseOrderService.findById(hotIds[ThreadLocalRandom.current().nextInt(hotIds.length)]);
+    }
+
+    @Benchmark
+    public PurchaseOrder randomIdService() {
+        return purchaseOrderService.findById(context.randomId());
+    }
+
+    @Benchmark
+    public PurchaseOrder randomIdRepository() {
+        long id = context.randomId();
+        return readOnlyTransaction.execute(status -> purchaseOrderRepository.findById(id).orElseThrow());
+    }
+}
@@ -0,0 +1,91 @@
+package ec.edu.espe.ortiz_leccion2.benchmarks;
+
+import ec.edu.espe.ortiz_leccion2.models.dto.PurchaseOrderCursor;
+import ec.edu.espe.ortiz_leccion2.models.dto.PurchaseOrderFilterDTO;
+import ec.edu.espe.ortiz_leccion2.models.dto.PurchaseOrderSummary;
+import ec.edu.espe.ortiz_leccion2.models.enums.SearchMode;
+import ec.edu.espe.ortiz_leccion2.repositories.PurchaseOrderRepository;
+import ec.edu.espe.ortiz_leccion2.specifications.PurchaseOrderFilterQuery;
+import ec.edu.espe.ortiz_leccion2.specifications.PurchaseOrderSpecification;
+import jakarta.persistence.Tuple;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Costo de armar y traducir la consulta por petición: Criteria (withFilters + afterCursor) frente al
+ * HQL precompilado por forma (PurchaseOrderFilterQuery).
+ * 
+ * Los métodos plan* usan un cursor anterior a todos los datos: la base de datos resuelve la consulta
+ * con una búsqueda vacía en el índice, así que el tiempo es casi solo construcción, traducción a SQL y
+ * preparación del statement. Los métodos page* leen una página real de 50 filas.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class QueryPlanBenchmark {
+
+    private static final int PAGE_SIZE = 50;
+
+    private static final PurchaseOrderCursor BEFORE_ALL = new PurchaseOrderCursor(LocalDateTime.of(1970, 1, 1, 0, 0), 0L);
+
+    @Param({"none", "q", "status", "status+currency", "minTotal+maxTotal", "from+to",
+            "q+status+currency+minTotal+maxTotal+from+to"})
+    public String filters;
+
+    private PurchaseOrderRepository purchaseOrderRepository;
+    private TransactionTemplate readOnlyTransaction;
+    private PurchaseOrderFilterDTO filterDTO;
+
+    @Setup
+    public void setUp(BenchmarkContext context) {
+        purchaseOrderRepository = context.bean(PurchaseOrderRepository.class);
+        readOnlyTransaction = context.readOnlyTransaction;
+        filterDTO = BenchmarkData.filters(filters);
+    }
+
+    @Benchmark
+    public List<Tuple> planCriteria() {
+        return readOnlyTransaction.execute(status -> purchaseOrderRepository.findTuples(
+                PurchaseOrderSpecification.withFilters(filterDTO)
+                        .and(PurchaseOrderSpecification.afterCursor(BEFORE_ALL)),
+                PurchaseOrderSummary.FIELDS, PurchaseOrderSpecification.KEYSET_SORT, PAGE_SIZE));
+    }
+
+    @Benchmark
+    public List<Tuple> planPrecompiled() {
+        return readOnlyTransaction.execute(status -> purchaseOrderRepository.findTuples(
+                PurchaseOrderFilterQuery.of(filterDTO, SearchMode.LIKE, BEFORE_ALL),
+                PurchaseOrderSummary.FIELDS, PAGE_SIZE));
+    }
+
+    @Benchmark
+    public List<Tuple> pageCriteria() {
+        return readOnlyTransaction.execute(status -> purchaseOrderRepository.findTuples(
+                PurchaseOrderSpecification.withFilters(filterDTO),
+                PurchaseOrderSummary.FIELDS, PurchaseOrderSpecification.KEYSET_SORT, PAGE_SIZE));
+    }
+
+    @Benchmark
+    public List<Tuple> pagePrecompiled() {
+        return readOnlyTransaction.execute(status -> purchaseOrderRepository.findTuples(
+                PurchaseOrderFilterQuery.of(filterDTO, SearchMode.LIKE, null),
+                PurchaseOrderSummary.FIELDS, PAGE_SIZE));
+    }
+}
@@ -0,0 +1,76 @@
+package ec.edu.espe.ortiz_leccion2.benchmarks;
+
+import ec.edu.espe.ortiz_leccion2.models.dto.PurchaseOrderFilterDTO;
+import ec.edu.espe.ortiz_leccion2.models.dto.PurchaseOrderPageDTO;
+import ec.edu.espe.ortiz_leccion2.models.dto.PurchaseOrderSummary;
+import ec.edu.espe.ortiz_leccion2.models.entities.PurchaseOrder;
+import ec.edu.espe.ortiz_leccion2.repositories.PurchaseOrderRepository;
+import ec.edu.espe.ortiz_leccion2.services.PurchaseOrderService;
+import ec.edu.espe.ortiz_leccion2.specifications.PurchaseOrderSpecification;
+import jakarta.persistence.Tuple;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Una página del listado (50 filas, orden keyset) leída como entidades, como proyección Tuple
+ * y desde la caché de páginas. Con -prof gc se compara además la asignación por operación.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class ReadModelBenchmark {
+
+    private static final int PAGE_SIZE = 50;
+
+    @Param({"none", "status+currency"})
+    public String pageFilters;
+
+    private PurchaseOrderService purchaseOrderService;
+    private PurchaseOrderRepository purchaseOrderRepository;
+    private TransactionTemplate readOnlyTransaction;
+    private PurchaseOrderFilterDTO filterDTO;
+    private Specification<PurchaseOrder> spec;
+
+    @Setup
+    public void setUp(BenchmarkContext context) {
+        purchaseOrderService = context.bean(PurchaseOrderService.class);
+        purchaseOrderRepository = context.bean(PurchaseOrderRepository.class);
+        readOnlyTransaction = context.readOnlyTransaction;
+        filterDTO = BenchmarkData.filters(pageFilters);
+        spec = PurchaseOrderSpecification.withFilters(filterDTO);
+    }
+
+    @Benchmark
+    public List<PurchaseOrder> entityPage() {
+        return readOnlyTransaction.execute(status -> purchaseOrderRepository.findBy(spec,
+                query -> query.sortBy(PurchaseOrderSpecification.KEYSET_SORT).limit(PAGE_SIZE).all()));
+    }
+
+    @Benchmark
+    public List<Tuple> projectionPage() {
+        return readOnlyTransaction.execute(status -> purchaseOrderRepository.findTuples(spec,
+                PurchaseOrderSummary.FIELDS, PurchaseOrderSpecification.KEYSET_SORT, PAGE_SIZE));
+    }
+
+    @Benchmark
+    public PurchaseOrderPageDTO<PurchaseOrderSummary> cachedPage() {
+        return purchaseOrderService.findPage(filterDTO, null, PAGE_SIZE, null);
+    }
+}
@@ -0,0 +1,69 @@
+package ec.edu.espe.ortiz_leccion2.benchmarks;
+
+import ec.edu.espe.ortiz_leccion2.models.dto.BatchResultDTO;
+import ec.edu.espe.ortiz_leccion2.models.entities.PurchaseOrder;
+import ec.edu.espe.ortiz_leccion2.services.PurchaseOrderBatchService;
+import ec.edu.espe.ortiz_leccion2.services.PurchaseOrderService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Inserción de una orden con save frente a la carga masiva (batch JDBC por bloques).
+ * Ambos se expresan por orden insertada para poder compararlos.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class SaveBenchmark {
+
+    private static final int BULK_SIZE = 1000;
+
+    private final AtomicLong sequence = new AtomicLong();
+    private final Random random = new Random(7);
+
+    private PurchaseOrderService purchaseOrderService;
+    private PurchaseOrderBatchService purchaseOrderBatchService;
+
+    @Setup
+    public void setUp(BenchmarkContext context) {
+        purchaseOrderService = context.bean(PurchaseOrderService.class);
+        purchaseOrderBatchService = context.bean(PurchaseOrderBatchService.class);
+    }
+
+    @Benchmark
+    public PurchaseOrder saveSingle() {
+        return purchaseOrderService.save(nextOrder());
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BULK_SIZE)
+    public BatchResultDTO saveBulk() {
+        List<PurchaseOrder> orders = new ArrayList<>(BULK_SIZE);
+        for (int i = 0; i < BULK_SIZE; i++) {
+            orders.add(nextOrder());
+        }
+        return purchaseOrderBatchService.importOrders(orders.iterator());
+    }
+
+    private PurchaseOrder nextOrder() {
+        return BenchmarkData.newOrder("BM-" + sequence.incrementAndGet(), random);
+    }
+}
@@ -0,0 +1,59 @@
+package ec.edu.espe.ortiz_leccion2.benchmarks;
+
+import ec.edu.espe.ortiz_leccion2.models.dto.PurchaseOrderFilterDTO;
+import ec.edu.espe.ortiz_leccion2.models.dto.PurchaseOrderSummary;
+import ec.edu.espe.ortiz_leccion2.models.entities.PurchaseOrder;
+import ec.edu.espe.ortiz_leccion2.repositories.PurchaseOrderRepository;
+import ec.edu.espe.ortiz_leccion2.specifications.PurchaseOrderSpecification;
+import jakarta.persistence.Tuple;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Búsqueda q: prefijo de orderNumber (rango del índice único) frente a texto contenido.
+ * La caché de páginas no interviene: se consulta el repositorio directamente.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class SearchBenchmark {
+
+    @Param({"OC-000012*", "acme", "andina 12"})
+    public String q;
+
+    private PurchaseOrderRepository purchaseOrderRepository;
+    private TransactionTemplate readOnlyTransaction;
+    private Specification<PurchaseOrder> spec;
+
+    @Setup
+    public void setUp(BenchmarkContext context) {
+        purchaseOrderRepository = context.bean(PurchaseOrderRepository.class);
+        readOnlyTransaction = context.readOnlyTransaction;
+        PurchaseOrderFilterDTO filters = new PurchaseOrderFilterDTO();
+        filters.setQ(q);
+        spec = PurchaseOrderSpecification.withFilters(filters);
+    }
+
+    @Benchmark
+    public List<Tuple> search() {
+        return readOnlyTransaction.execute(status -> purchaseOrderRepository.findTuples(spec,
+                PurchaseOrderSummary.FIELDS, PurchaseOrderSpecification.KEYSET_SORT, 50));
+    }
+}
@@ -0,0 +1,128 @@
+package ec.edu.espe.ortiz_leccion2.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import ec.edu.espe.ortiz_leccion2.models.dto.PurchaseOrderSummary;
+import ec.edu.espe.ortiz_leccion2.models.entities.PurchaseOrder;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialización de listas de órdenes: ObjectMapper de Spring Boot (serializadores de PurchaseOrderJsonModule),
+ * serialización por reflexión como referencia, y CBOR.
+ * 
+ * Se escribe a un OutputStream que solo cuenta bytes, como el cuerpo de una respuesta: el contador
+ * bytes es el total escrito en las iteraciones medidas (dividido por su duración da bytes/s), y con
+ * -prof gc, gc.alloc.rate.norm / size da las asignaciones por fila.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class SerializationBenchmark {
+
+    @Param({"50", "500"})
+    public int size;
+
+    private ObjectMapper objectMapper;
+    private ObjectMapper reflective;
+    private ObjectMapper cbor;
+    private List<PurchaseOrder> orders;
+    private List<PurchaseOrderSummary> summaries;
+
+    @Setup
+    public void setUp(BenchmarkContext context) {
+        objectMapper = context.bean(ObjectMapper.class);
+        reflective = JsonMapper.builder()
+                .addModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        cbor = context.bean(MappingJackson2CborHttpMessageConverter.class).getObjectMapper();
+        Random random = new Random(42);
+        orders = new ArrayList<>(size);
+        summaries = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            PurchaseOrder order = BenchmarkData.newOrder(String.format("OC-%08d", i), random);
+            order.setId((long) i + 1);
+            order.setCreatedAt(LocalDateTime.now().minusMinutes(i));
+            orders.add(order);
+            summaries.add(new PurchaseOrderSummary(order.getId(), order.getOrderNumber(), order.getSupplierName(),
+                    order.getStatus(), order.getTotalAmount(), order.getCurrency(), order.getCreatedAt(),
+                    order.getExpectedDeliveryDate(), 0L));
+        }
+    }
+
+    @Benchmark
+    public void writeOrders(Body body) throws IOException {
+        objectMapper.writeValue(body, orders);
+    }
+
+    @Benchmark
+    public void writeOrdersReflective(Body body) throws IOException {
+        reflective.writeValue(body, orders);
+    }
+
+    @Benchmark
+    public void writeSummaries(Body body) throws IOException {
+        objectMapper.writeValue(body, summaries);
+    }
+
+    @Benchmark
+    public void writeSummariesReflective(Body body) throws IOException {
+        reflective.writeValue(body, summaries);
+    }
+
+    @Benchmark
+    public void writeSummariesCbor(Body body) throws IOException {
+        cbor.writeValue(body, summaries);
+    }
+
+    /**
+     * Cuerpo de respuesta descartado; cuenta los bytes escritos
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Body extends OutputStream {
+
+        public long bytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            bytes = 0;
+        }
+
+        @Override
+        public void write(int b) {
+            bytes++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            bytes += len;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package ec.edu.espe.ortiz_leccion2.benchmarks;
+
+import ec.edu.espe.ortiz_leccion2.models.dto.PurchaseOrderFilterDTO;
+import ec.edu.espe.ortiz_leccion2.models.entities.PurchaseOrder;
+import ec.edu.espe.ortiz_leccion2.specifications.PurchaseOrderSpecification;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Construcción del predicado de withFilters (sin ejecutar la consulta)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class SpecificationBenchmark {
+
+    @Param({"none", "q", "status", "status+currency", "minTotal+maxTotal", "from+to",
+            "q+status+currency+minTotal+maxTotal+from+to"})
+    public String filters;
+
+    private PurchaseOrderFilterDTO filterDTO;
+    private CriteriaBuilder criteriaBuilder;
+    private CriteriaQuery<PurchaseOrder> query;
+    private Root<PurchaseOrder> root;
+
+    @Setup
+    public void setUp(BenchmarkContext context) {
+        filterDTO = BenchmarkData.filters(filters);
+        criteriaBuilder = context.bean(EntityManagerFactory.class).getCriteriaBuilder();
+        query = criteriaBuilder.createQuery(PurchaseOrder.class);
+        root = query.from(PurchaseOrder.class);
+    }
+
+    @Benchmark
+    public Predicate withFilters() {
+        return PurchaseOrderSpecification.withFilters(filterDTO).toPredicate(root, query, criteriaBuilder);
+    }
+}
@@ -0,0 +1,54 @@
+package ec.edu.espe.ortiz_leccion2.benchmarks;
+
+import ec.edu.espe.ortiz_leccion2.models.dto.PurchaseOrderFilterDTO;
+import ec.edu.espe.ortiz_leccion2.models.dto.PurchaseOrderStatsDTO;
+import ec.edu.espe.ortiz_leccion2.models.enums.StatsBucket;
+import ec.edu.espe.ortiz_leccion2.services.PurchaseOrderStatsService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Estadísticas mensuales desde los rollups en memoria frente a la consulta GROUP BY
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class StatsBenchmark {
+
+    private PurchaseOrderStatsService purchaseOrderStatsService;
+    private PurchaseOrderFilterDTO rollupFilters;
+    private PurchaseOrderFilterDTO sqlFilters;
+
+    @Setup
+    public void setUp(BenchmarkContext context) {
+        purchaseOrderStatsService = context.bean(PurchaseOrderStatsService.class);
+        rollupFilters = new PurchaseOrderFilterDTO();
+        // minTotal no descarta filas pero obliga a resolver con SQL
+        sqlFilters = new PurchaseOrderFilterDTO();
+        sqlFilters.setMinTotal(BigDecimal.ZERO);
+    }
+
+    @Benchmark
+    public PurchaseOrderStatsDTO fromRollups() {
+        return purchaseOrderStatsService.getStats(rollupFilters, StatsBucket.MONTH);
+    }
+
+    @Benchmark
+    public PurchaseOrderStatsDTO fromSql() {
+        return purchaseOrderStatsService.getStats(sqlFilters, StatsBucket.MONTH);
+    }
+}
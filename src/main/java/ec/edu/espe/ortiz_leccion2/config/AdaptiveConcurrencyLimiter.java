@@ -0,0 +1,96 @@
+package ec.edu.espe.ortiz_leccion2.config;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntSupplier;
+
+/**
+ * Límite de peticiones simultáneas que se ajusta con AIMD (aumento aditivo, disminución multiplicativa).
+ * 
+ * Cada petición terminada es una muestra: si tardó más que latencyThreshold o había hilos esperando una
+ * conexión del pool (pendingConnections), el límite se multiplica por backoffRatio, como mucho una vez por
+ * latencyThreshold para que una ráfaga de respuestas lentas no lo desplome; si no, y el límite se estaba
+ * usando (al menos la mitad ocupado), sube en uno. Las peticiones que exceden el límite se rechazan en el
+ * acto, antes de que se acumulen esperando una conexión.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final long latencyThresholdNanos;
+    private final IntSupplier pendingConnections;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong rejected = new AtomicLong();
+    private volatile int limit;
+    private long lastDecreaseAt;
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, double backoffRatio,
+            Duration latencyThreshold, IntSupplier pendingConnections) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.backoffRatio = backoffRatio;
+        this.latencyThresholdNanos = latencyThreshold.toNanos();
+        this.pendingConnections = pendingConnections;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+        this.lastDecreaseAt = System.nanoTime() - latencyThresholdNanos;
+    }
+
+    /**
+     * Reserva un lugar si hay menos peticiones en curso que el límite; si devuelve true hay que llamar a
+     * onComplete o a release al terminar
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                rejected.incrementAndGet();
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Libera el lugar y ajusta el límite con la latencia observada
+     */
+    public void onComplete(long latencyNanos) {
+        int inFlightBefore = inFlight.getAndDecrement();
+        boolean congested = latencyNanos > latencyThresholdNanos || pendingConnections.getAsInt() > 0;
+        synchronized (this) {
+            long now = System.nanoTime();
+            if (congested) {
+                if (now - lastDecreaseAt >= latencyThresholdNanos) {
+                    limit = Math.max(minLimit, (int) (limit * backoffRatio));
+                    lastDecreaseAt = now;
+                }
+            } else if (inFlightBefore * 2 >= limit) {
+                limit = Math.min(maxLimit, limit + 1);
+            }
+        }
+    }
+
+    /**
+     * Libera el lugar sin tomar la muestra (respuestas asíncronas o en streaming, cuya duración no refleja
+     * la carga de la base de datos)
+     */
+    public void release() {
+        inFlight.decrementAndGet();
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public long getRejectedCount() {
+        return rejected.get();
+    }
+}
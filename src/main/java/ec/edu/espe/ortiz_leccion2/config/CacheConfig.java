@@ -0,0 +1,56 @@
+package ec.edu.espe.ortiz_leccion2.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Cachés en memoria (Caffeine) con límite de tamaño, TTL y estadísticas.
+ * Las estadísticas se publican como métricas cache.gets / cache.evictions en /actuator/metrics.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    // Órdenes por id
+    public static final String PURCHASE_ORDERS = "purchaseOrders";
+
+    // Páginas del listado por filtros normalizados
+    public static final String PURCHASE_ORDER_PAGES = "purchaseOrderPages";
+
+    // Respuestas de POST por Idempotency-Key
+    public static final String IDEMPOTENCY_KEYS = "idempotencyKeys";
+
+    @Bean
+    public CacheManager cacheManager(
+            @Value("${purchase-order.cache.orders.max-size:10000}") long ordersMaxSize,
+            @Value("${purchase-order.cache.orders.ttl:10m}") Duration ordersTtl,
+            @Value("${purchase-order.cache.pages.max-size:1000}") long pagesMaxSize,
+            @Value("${purchase-order.cache.pages.ttl:30s}") Duration pagesTtl,
+            @Value("${purchase-order.cache.idempotency.max-size:100000}") long idempotencyMaxSize,
+            @Value("${purchase-order.cache.idempotency.ttl:24h}") Duration idempotencyTtl) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.registerCustomCache(PURCHASE_ORDERS, Caffeine.newBuilder()
+                .maximumSize(ordersMaxSize)
+                .expireAfterWrite(ordersTtl)
+                .recordStats()
+                .build());
+        cacheManager.registerCustomCache(PURCHASE_ORDER_PAGES, Caffeine.newBuilder()
+                .maximumSize(pagesMaxSize)
+                .expireAfterWrite(pagesTtl)
+                .recordStats()
+                .build());
+        cacheManager.registerCustomCache(IDEMPOTENCY_KEYS, Caffeine.newBuilder()
+                .maximumSize(idempotencyMaxSize)
+                .expireAfterWrite(idempotencyTtl)
+                .recordStats()
+                .build());
+        return cacheManager;
+    }
+}
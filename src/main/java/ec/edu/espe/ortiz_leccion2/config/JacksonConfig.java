@@ -0,0 +1,30 @@
+package ec.edu.espe.ortiz_leccion2.config;
+
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Serialización de las órdenes: serializadores propios (PurchaseOrderJsonModule) y CBOR como
+ * alternativa binaria al JSON cuando el cliente envía Accept: application/cbor.
+ * 
+ * El conversor CBOR se arma con el mismo builder que el ObjectMapper de Spring Boot, así comparte
+ * módulos y opciones y el contenido es el mismo que el JSON; sin Accept explícito se sigue respondiendo JSON.
+ */
+@Configuration
+public class JacksonConfig {
+
+    @Bean
+    public Module purchaseOrderJsonModule() {
+        return new PurchaseOrderJsonModule();
+    }
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter mappingJackson2CborHttpMessageConverter(
+            Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+}
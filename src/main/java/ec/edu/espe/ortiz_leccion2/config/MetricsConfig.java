@@ -0,0 +1,60 @@
+package ec.edu.espe.ortiz_leccion2.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.util.FastByteArrayOutputStream;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+
+/**
+ * Métricas propias además de las de Actuator (http.server.requests, hikaricp.*, cache.* y
+ * hibernate.* si purchase-order.metrics.hibernate-statistics=true).
+ * 
+ * El conversor JSON mide la serialización de cada respuesta (purchase_orders.serialization, por tipo
+ * de cuerpo, sin el envío al cliente), de modo que la latencia de un endpoint se puede separar en
+ * consulta, serialización y resto.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public MappingJackson2HttpMessageConverter mappingJackson2HttpMessageConverter(ObjectMapper objectMapper,
+            MeterRegistry meterRegistry) {
+        return new MappingJackson2HttpMessageConverter(objectMapper) {
+            @Override
+            protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage)
+                    throws IOException {
+                // Se serializa a memoria: el envío por el socket (cliente lento) queda fuera del timer
+                FastByteArrayOutputStream buffer = new FastByteArrayOutputStream();
+                Timer.Sample sample = Timer.start(meterRegistry);
+                try {
+                    super.writeInternal(object, type, new HttpOutputMessage() {
+                        @Override
+                        public OutputStream getBody() {
+                            return buffer;
+                        }
+
+                        @Override
+                        public HttpHeaders getHeaders() {
+                            return outputMessage.getHeaders();
+                        }
+                    });
+                } finally {
+                    sample.stop(Timer.builder("purchase_orders.serialization")
+                            .description("Serialización JSON de las respuestas")
+                            .tag("type", object.getClass().getSimpleName())
+                            .register(meterRegistry));
+                }
+                buffer.writeTo(outputMessage.getBody());
+            }
+        };
+    }
+}
@@ -0,0 +1,219 @@
+package ec.edu.espe.ortiz_leccion2.config;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import ec.edu.espe.ortiz_leccion2.models.dto.PurchaseOrderSummary;
+import ec.edu.espe.ortiz_leccion2.models.entities.PurchaseOrder;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Serializadores escritos a mano para PurchaseOrder y PurchaseOrderSummary.
+ * 
+ * Producen exactamente el mismo JSON que la serialización por reflexión (mismo orden de campos, nulls
+ * omitidos en el resumen, fechas ISO de JavaTimeModule), pero escriben directo sobre el JsonGenerator:
+ * sin BeanPropertyWriter por campo, con los nombres ya codificados y las fechas armadas en un char[]
+ * reutilizado en lugar de pasar por DateTimeFormatter. Spring Boot registra el módulo en su ObjectMapper, por lo que
+ * lo usan las respuestas JSON y CBOR, la exportación NDJSON y el feed de cambios.
+ */
+public class PurchaseOrderJsonModule extends SimpleModule {
+
+    private static final SerializableString ID = new SerializedString("id");
+    private static final SerializableString ORDER_NUMBER = new SerializedString("orderNumber");
+    private static final SerializableString SUPPLIER_NAME = new SerializedString("supplierName");
+    private static final SerializableString STATUS = new SerializedString("status");
+    private static final SerializableString TOTAL_AMOUNT = new SerializedString("totalAmount");
+    private static final SerializableString CURRENCY = new SerializedString("currency");
+    private static final SerializableString VERSION = new SerializedString("version");
+    private static final SerializableString CREATED_AT = new SerializedString("createdAt");
+    private static final SerializableString EXPECTED_DELIVERY_DATE = new SerializedString("expectedDeliveryDate");
+
+    // yyyy-MM-ddTHH:mm:ss.nnnnnnnnn; writeString copia el contenido, así que el buffer se reusa por hilo
+    private static final ThreadLocal<char[]> DATE_BUFFER = ThreadLocal.withInitial(() -> new char[29]);
+
+    public PurchaseOrderJsonModule() {
+        super("PurchaseOrderJsonModule");
+        addSerializer(PurchaseOrder.class, new OrderSerializer());
+        addSerializer(PurchaseOrderSummary.class, new SummarySerializer());
+    }
+
+    /**
+     * Entidad completa: todos los campos, null incluido, en el orden de declaración de la clase
+     */
+    static class OrderSerializer extends StdSerializer<PurchaseOrder> {
+
+        OrderSerializer() {
+            super(PurchaseOrder.class);
+        }
+
+        @Override
+        public void serialize(PurchaseOrder order, JsonGenerator gen, SerializerProvider provider)
+                throws IOException {
+            char[] buffer = DATE_BUFFER.get();
+            gen.writeStartObject(order);
+            gen.writeFieldName(ID);
+            writeLong(gen, order.getId());
+            gen.writeFieldName(ORDER_NUMBER);
+            gen.writeString(order.getOrderNumber());
+            gen.writeFieldName(SUPPLIER_NAME);
+            gen.writeString(order.getSupplierName());
+            gen.writeFieldName(STATUS);
+            gen.writeString(order.getStatus() != null ? order.getStatus().name() : null);
+            gen.writeFieldName(TOTAL_AMOUNT);
+            writeDecimal(gen, order.getTotalAmount());
+            gen.writeFieldName(CURRENCY);
+            gen.writeString(order.getCurrency() != null ? order.getCurrency().name() : null);
+            gen.writeFieldName(VERSION);
+            writeLong(gen, order.getVersion());
+            gen.writeFieldName(CREATED_AT);
+            writeDateTime(gen, order.getCreatedAt(), buffer);
+            gen.writeFieldName(EXPECTED_DELIVERY_DATE);
+            writeDate(gen, order.getExpectedDeliveryDate(), buffer);
+            gen.writeEndObject();
+        }
+    }
+
+    /**
+     * Resumen de los listados: solo los campos pedidos en ?fields= (el resto viene en null y se omite)
+     */
+    static class SummarySerializer extends StdSerializer<PurchaseOrderSummary> {
+
+        SummarySerializer() {
+            super(PurchaseOrderSummary.class);
+        }
+
+        @Override
+        public void serialize(PurchaseOrderSummary summary, JsonGenerator gen, SerializerProvider provider)
+                throws IOException {
+            char[] buffer = DATE_BUFFER.get();
+            gen.writeStartObject(summary);
+            if (summary.id() != null) {
+                gen.writeFieldName(ID);
+                gen.writeNumber(summary.id());
+            }
+            if (summary.orderNumber() != null) {
+                gen.writeFieldName(ORDER_NUMBER);
+                gen.writeString(summary.orderNumber());
+            }
+            if (summary.supplierName() != null) {
+                gen.writeFieldName(SUPPLIER_NAME);
+                gen.writeString(summary.supplierName());
+            }
+            if (summary.status() != null) {
+                gen.writeFieldName(STATUS);
+                gen.writeString(summary.status().name());
+            }
+            if (summary.totalAmount() != null) {
+                gen.writeFieldName(TOTAL_AMOUNT);
+                writeDecimal(gen, summary.totalAmount());
+            }
+            if (summary.currency() != null) {
+                gen.writeFieldName(CURRENCY);
+                gen.writeString(summary.currency().name());
+            }
+            if (summary.createdAt() != null) {
+                gen.writeFieldName(CREATED_AT);
+                writeDateTime(gen, summary.createdAt(), buffer);
+            }
+            if (summary.expectedDeliveryDate() != null) {
+                gen.writeFieldName(EXPECTED_DELIVERY_DATE);
+                writeDate(gen, summary.expectedDeliveryDate(), buffer);
+            }
+            if (summary.version() != null) {
+                gen.writeFieldName(VERSION);
+                gen.writeNumber(summary.version());
+            }
+            gen.writeEndObject();
+        }
+    }
+
+    private static void writeLong(JsonGenerator gen, Long value) throws IOException {
+        if (value == null) {
+            gen.writeNull();
+        } else {
+            gen.writeNumber(value);
+        }
+    }
+
+    private static void writeDecimal(JsonGenerator gen, BigDecimal value) throws IOException {
+        if (value == null) {
+            gen.writeNull();
+        } else {
+            // Respeta WRITE_BIGDECIMAL_AS_PLAIN igual que NumberSerializer
+            gen.writeNumber(value);
+        }
+    }
+
+    /**
+     * Mismo formato que DateTimeFormatter.ISO_LOCAL_DATE_TIME: segundos siempre, fracción solo si hay
+     * nanos y sin ceros a la derecha
+     */
+    private static void writeDateTime(JsonGenerator gen, LocalDateTime value, char[] buffer) throws IOException {
+        if (value == null) {
+            gen.writeNull();
+            return;
+        }
+        if (!isFourDigitYear(value.getYear())) {
+            gen.writeString(value.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
+            return;
+        }
+        int pos = date(buffer, value.getYear(), value.getMonthValue(), value.getDayOfMonth());
+        buffer[pos++] = 'T';
+        pos = twoDigits(buffer, pos, value.getHour());
+        buffer[pos++] = ':';
+        pos = twoDigits(buffer, pos, value.getMinute());
+        buffer[pos++] = ':';
+        pos = twoDigits(buffer, pos, value.getSecond());
+        int nano = value.getNano();
+        if (nano > 0) {
+            buffer[pos++] = '.';
+            for (int divisor = 100_000_000; divisor > 0 && nano > 0; divisor /= 10) {
+                buffer[pos++] = (char) ('0' + nano / divisor);
+                nano %= divisor;
+            }
+        }
+        gen.writeString(buffer, 0, pos);
+    }
+
+    private static void writeDate(JsonGenerator gen, LocalDate value, char[] buffer) throws IOException {
+        if (value == null) {
+            gen.writeNull();
+            return;
+        }
+        if (!isFourDigitYear(value.getYear())) {
+            gen.writeString(value.format(DateTimeFormatter.ISO_LOCAL_DATE));
+            return;
+        }
+        gen.writeString(buffer, 0, date(buffer, value.getYear(), value.getMonthValue(), value.getDayOfMonth()));
+    }
+
+    private static boolean isFourDigitYear(int year) {
+        return year >= 0 && year <= 9999;
+    }
+
+    private static int date(char[] buffer, int year, int month, int day) {
+        buffer[0] = (char) ('0' + year / 1000);
+        buffer[1] = (char) ('0' + year / 100 % 10);
+        buffer[2] = (char) ('0' + year / 10 % 10);
+        buffer[3] = (char) ('0' + year % 10);
+        buffer[4] = '-';
+        twoDigits(buffer, 5, month);
+        buffer[7] = '-';
+        twoDigits(buffer, 8, day);
+        return 10;
+    }
+
+    private static int twoDigits(char[] buffer, int pos, int value) {
+        buffer[pos] = (char) ('0' + value / 10);
+        buffer[pos + 1] = (char) ('0' + value % 10);
+        return pos + 2;
+    }
+}
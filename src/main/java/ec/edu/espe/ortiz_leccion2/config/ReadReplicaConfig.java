@@ -0,0 +1,129 @@
+package ec.edu.espe.ortiz_leccion2.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Réplicas de lectura (purchase-order.datasource.replicas.enabled=true).
+ * 
+ * El DataSource principal se envuelve en un ReadWriteRoutingDataSource: las transacciones de solo
+ * lectura usan las réplicas y las escrituras el primario. Una réplica con más retraso que max-lag
+ * se excluye; las lecturas posteriores a una escritura (del mismo cliente, o que llenan las cachés)
+ * van al primario durante max-lag + probe-interval.
+ */
+@Configuration
+@ConditionalOnProperty(name = "purchase-order.datasource.replicas.enabled", havingValue = "true")
+public class ReadReplicaConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(ReadReplicaConfig.class);
+
+    @Bean
+    static ReplicaWriteTracker replicaWriteTracker(
+            @Value("${purchase-order.datasource.replicas.max-lag:PT5S}") Duration maxLag,
+            @Value("${purchase-order.datasource.replicas.probe-interval:PT1S}") Duration probeInterval) {
+        return new ReplicaWriteTracker(maxLag.plus(probeInterval));
+    }
+
+    @Bean
+    static BeanPostProcessor readWriteRoutingDataSourcePostProcessor(
+            @Value("${purchase-order.datasource.replicas.urls}") List<String> urls,
+            @Value("${purchase-order.datasource.replicas.username:${spring.datasource.username:}}") String username,
+            @Value("${purchase-order.datasource.replicas.password:${spring.datasource.password:}}") String password,
+            @Value("${purchase-order.datasource.replicas.pool-size:10}") int poolSize,
+            @Value("${purchase-order.datasource.replicas.max-lag:PT5S}") Duration maxLag,
+            @Value("${purchase-order.datasource.replicas.probe-interval:PT1S}") Duration probeInterval,
+            @Value("${purchase-order.datasource.replicas.lag-query:}") String lagQuery,
+            ObjectProvider<MeterRegistry> meterRegistry, ObjectProvider<ReplicaWriteTracker> writeTracker) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof HikariDataSource primary)) {
+                    return bean;
+                }
+                MeterRegistry registry = meterRegistry.getIfAvailable();
+                List<ReplicaDataSource.Replica> replicas = new ArrayList<>();
+                for (String url : urls) {
+                    HikariDataSource replica = new HikariDataSource();
+                    replica.setPoolName("replica-" + (replicas.size() + 1));
+                    replica.setJdbcUrl(url.trim());
+                    replica.setUsername(username);
+                    replica.setPassword(password);
+                    replica.setMaximumPoolSize(poolSize);
+                    replica.setReadOnly(true);
+                    // Réplica caída: que la lectura pase pronto al primario y que el arranque no falle
+                    replica.setConnectionTimeout(1000);
+                    replica.setInitializationFailTimeout(-1);
+                    if (registry != null) {
+                        replica.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry));
+                    }
+                    replicas.add(new ReplicaDataSource.Replica(replica.getPoolName(), replica));
+                }
+
+                ReplicaDataSource replicaDataSource = new ReplicaDataSource(primary, replicas, maxLag, lagQuery,
+                        probeInterval, writeTracker.getObject());
+                if (registry != null) {
+                    bindMetrics(registry, replicaDataSource);
+                }
+                log.info("Lecturas de solo lectura enrutadas a {} réplica(s); retraso máximo {}", replicas.size(), maxLag);
+                return new ReadWriteRoutingDataSource(primary, replicaDataSource);
+            }
+        };
+    }
+
+    private static void bindMetrics(MeterRegistry registry, ReplicaDataSource replicaDataSource) {
+        for (ReplicaDataSource.Replica replica : replicaDataSource.getReplicas()) {
+            Gauge.builder("purchase_orders.datasource.replica.available", replica, r -> r.isAvailable() ? 1 : 0)
+                    .description("1 si la réplica recibe lecturas")
+                    .tag("replica", replica.getName())
+                    .register(registry);
+            Gauge.builder("purchase_orders.datasource.replica.lag", replica, r -> r.getLagSeconds())
+                    .description("Retraso de replicación medido (-1 si no responde)")
+                    .baseUnit("seconds")
+                    .tag("replica", replica.getName())
+                    .register(registry);
+        }
+        FunctionCounter.builder("purchase_orders.datasource.replica.fallbacks", replicaDataSource,
+                        ReplicaDataSource::getFallbackCount)
+                .description("Lecturas enviadas al primario por no haber réplicas disponibles")
+                .register(registry);
+    }
+
+    /**
+     * Sin read-your-writes-key cada instancia firma la cookie con una clave aleatoria; con varias
+     * instancias detrás de un balanceador todas deben compartir la misma clave.
+     */
+    @Bean
+    FilterRegistrationBean<ReadYourWritesFilter> readYourWritesFilter(ReplicaWriteTracker writeTracker,
+            @Value("${purchase-order.datasource.replicas.read-your-writes-key:}") String configuredKey) {
+        byte[] key;
+        if (configuredKey.isBlank()) {
+            key = new byte[32];
+            new SecureRandom().nextBytes(key);
+        } else {
+            key = configuredKey.getBytes(StandardCharsets.UTF_8);
+        }
+        FilterRegistrationBean<ReadYourWritesFilter> registration =
+                new FilterRegistrationBean<>(new ReadYourWritesFilter(writeTracker, key));
+        registration.addUrlPatterns("/api/*");
+        return registration;
+    }
+}
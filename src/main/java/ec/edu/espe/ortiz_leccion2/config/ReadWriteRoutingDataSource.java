@@ -0,0 +1,37 @@
+package ec.edu.espe.ortiz_leccion2.config;
+
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Las transacciones de solo lectura (@Transactional(readOnly = true) o TransactionTemplate con
+ * readOnly) obtienen la conexión de las réplicas y el resto del primario.
+ * 
+ * La conexión física se pide en la primera sentencia, cuando Spring ya marcó la conexión como
+ * de solo lectura; por eso el proxy es perezoso. Cierra ambos pools al detener la aplicación.
+ */
+public class ReadWriteRoutingDataSource extends LazyConnectionDataSourceProxy implements Closeable {
+
+    private final ReplicaDataSource replicaDataSource;
+
+    public ReadWriteRoutingDataSource(DataSource primary, ReplicaDataSource replicaDataSource) {
+        super(primary);
+        this.replicaDataSource = replicaDataSource;
+        setReadOnlyDataSource(replicaDataSource);
+    }
+
+    public ReplicaDataSource getReplicaDataSource() {
+        return replicaDataSource;
+    }
+
+    @Override
+    public void close() throws IOException {
+        replicaDataSource.close();
+        if (obtainTargetDataSource() instanceof Closeable primary) {
+            primary.close();
+        }
+    }
+}
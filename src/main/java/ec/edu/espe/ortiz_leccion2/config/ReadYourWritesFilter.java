@@ -0,0 +1,126 @@
+package ec.edu.espe.ortiz_leccion2.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Set;
+
+/**
+ * Lee-tus-escrituras por cliente: una petición de escritura deja una cookie con la hora, y las lecturas
+ * del mismo cliente dentro de la ventana de retraso tolerado van al primario en lugar de a una réplica.
+ * 
+ * La cookie va firmada (HMAC-SHA256 de la hora) y solo cuenta si su hora está dentro de la ventana:
+ * un cliente no puede fijarse al primario con una hora inventada o futura. Los POST de solo lectura
+ * (/lookup) se tratan como lecturas.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    static final String COOKIE_NAME = "po-last-write";
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+
+    private static final Set<String> SAFE_METHODS = Set.of("GET", "HEAD", "OPTIONS");
+
+    private static final Set<String> READ_ONLY_POSTS = Set.of("/api/v1/purchase-orders/lookup");
+
+    private final Duration window;
+    private final SecretKeySpec key;
+
+    public ReadYourWritesFilter(ReplicaWriteTracker writeTracker, byte[] key) {
+        this.window = writeTracker.getWindow();
+        this.key = new SecretKeySpec(key, HMAC_ALGORITHM);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (isWrite(request)) {
+            // Antes de procesar la petición: después la respuesta puede estar ya confirmada
+            Cookie cookie = new Cookie(COOKIE_NAME, sign(System.currentTimeMillis()));
+            cookie.setMaxAge((int) Math.max(1, window.toSeconds()));
+            cookie.setPath("/");
+            cookie.setHttpOnly(true);
+            response.addCookie(cookie);
+            chain.doFilter(request, response);
+            return;
+        }
+
+        if (!hasRecentWrite(request)) {
+            chain.doFilter(request, response);
+            return;
+        }
+        boolean previous = ReplicaRouting.requirePrimary();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            ReplicaRouting.restore(previous);
+        }
+    }
+
+    private boolean isWrite(HttpServletRequest request) {
+        if (SAFE_METHODS.contains(request.getMethod())) {
+            return false;
+        }
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return !("POST".equals(request.getMethod()) && READ_ONLY_POSTS.contains(path));
+    }
+
+    private boolean hasRecentWrite(HttpServletRequest request) {
+        if (request.getCookies() == null) {
+            return false;
+        }
+        for (Cookie cookie : request.getCookies()) {
+            if (COOKIE_NAME.equals(cookie.getName())) {
+                return isRecent(cookie.getValue());
+            }
+        }
+        return false;
+    }
+
+    /**
+     * "hora.firma" con firma válida y hora entre ahora - ventana y ahora
+     */
+    boolean isRecent(String value) {
+        int separator = value.indexOf('.');
+        if (separator <= 0) {
+            return false;
+        }
+        long writtenAt;
+        try {
+            writtenAt = Long.parseLong(value.substring(0, separator));
+        } catch (NumberFormatException e) {
+            return false;
+        }
+        if (!MessageDigest.isEqual(sign(writtenAt).getBytes(StandardCharsets.US_ASCII),
+                value.getBytes(StandardCharsets.US_ASCII))) {
+            return false;
+        }
+        long age = System.currentTimeMillis() - writtenAt;
+        return age >= 0 && age < window.toMillis();
+    }
+
+    String sign(long writtenAt) {
+        String time = Long.toString(writtenAt);
+        try {
+            // Mac no es thread-safe: una instancia por llamada
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(key);
+            byte[] signature = mac.doFinal(time.getBytes(StandardCharsets.US_ASCII));
+            return time + "." + Base64.getUrlEncoder().withoutPadding().encodeToString(signature);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA256 no disponible", e);
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package ec.edu.espe.ortiz_leccion2.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * DataSource de solo lectura que reparte las conexiones entre las réplicas (round-robin).
+ * 
+ * Cada probe-interval se comprueba cada réplica: sin lag-query basta con que responda; con lag-query
+ * su retraso debe ser como máximo max-lag. Si ninguna réplica está disponible, o el hilo pidió el
+ * primario (ReplicaRouting), la conexión se toma del primario; también una lectura consistentRead
+ * dentro de la ventana de la última escritura (ReplicaWriteTracker).
+ */
+public class ReplicaDataSource extends AbstractDataSource implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaDataSource.class);
+
+    // Columna de SHOW REPLICA STATUS (MySQL 8.0.22+); con otra consulta se usa la primera columna
+    private static final String MYSQL_LAG_COLUMN = "Seconds_Behind_Source";
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final long maxLagSeconds;
+    private final String lagQuery;
+    private final ReplicaWriteTracker writeTracker;
+    private final AtomicInteger next = new AtomicInteger();
+    private final LongAdder fallbacks = new LongAdder();
+    private final ScheduledExecutorService prober = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "replica-probe");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public ReplicaDataSource(DataSource primary, List<Replica> replicas, Duration maxLag, String lagQuery,
+            Duration probeInterval, ReplicaWriteTracker writeTracker) {
+        this.primary = primary;
+        this.replicas = replicas;
+        this.maxLagSeconds = maxLag.toSeconds();
+        this.lagQuery = lagQuery == null || lagQuery.isBlank() ? null : lagQuery;
+        this.writeTracker = writeTracker;
+        prober.scheduleWithFixedDelay(this::probe, 0, probeInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!ReplicaRouting.isPrimaryRequired() && !replicas.isEmpty()
+                && !(ReplicaRouting.isConsistentReadRequired() && writeTracker.isRecentWrite())) {
+            int start = Math.floorMod(next.getAndIncrement(), replicas.size());
+            for (int i = 0; i < replicas.size(); i++) {
+                Replica replica = replicas.get((start + i) % replicas.size());
+                if (!replica.available) {
+                    continue;
+                }
+                try {
+                    return replica.dataSource.getConnection();
+                } catch (SQLException | RuntimeException e) {
+                    replica.available = false;
+                    log.warn("Réplica {} no disponible; se excluye hasta la siguiente comprobación: {}",
+                            replica.name, e.getMessage());
+                }
+            }
+            fallbacks.increment();
+        }
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("Las réplicas usan las credenciales configuradas");
+    }
+
+    public List<Replica> getReplicas() {
+        return replicas;
+    }
+
+    // Lecturas que fueron al primario porque ninguna réplica estaba disponible
+    public long getFallbackCount() {
+        return fallbacks.sum();
+    }
+
+    void probe() {
+        for (Replica replica : replicas) {
+            boolean wasAvailable = replica.available;
+            replica.lagSeconds = measureLag(replica);
+            replica.available = replica.lagSeconds >= 0 && replica.lagSeconds <= maxLagSeconds;
+            if (wasAvailable != replica.available) {
+                log.info("Réplica {} {} (retraso: {} s)", replica.name,
+                        replica.available ? "disponible" : "excluida", replica.lagSeconds);
+            }
+        }
+    }
+
+    /**
+     * Retraso en segundos, o -1 si la réplica no responde o la replicación está detenida
+     */
+    private long measureLag(Replica replica) {
+        try (Connection connection = replica.dataSource.getConnection()) {
+            if (lagQuery == null) {
+                return connection.isValid(1) ? 0 : -1;
+            }
+            try (Statement statement = connection.createStatement();
+                    ResultSet rs = statement.executeQuery(lagQuery)) {
+                if (!rs.next()) {
+                    return -1;
+                }
+                Object lag = rs.getObject(lagColumn(rs.getMetaData()));
+                return lag instanceof Number number ? number.longValue() : -1;
+            }
+        } catch (SQLException | RuntimeException e) {
+            return -1;
+        }
+    }
+
+    private static int lagColumn(ResultSetMetaData metaData) throws SQLException {
+        for (int i = 1; i <= metaData.getColumnCount(); i++) {
+            if (MYSQL_LAG_COLUMN.equalsIgnoreCase(metaData.getColumnLabel(i))) {
+                return i;
+            }
+        }
+        return 1;
+    }
+
+    @Override
+    public void close() throws IOException {
+        prober.shutdownNow();
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof Closeable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    public static final class Replica {
+
+        private final String name;
+        private final DataSource dataSource;
+        // Hasta la primera comprobación las lecturas van al primario
+        private volatile boolean available;
+        private volatile long lagSeconds = -1;
+
+        public Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public boolean isAvailable() {
+            return available;
+        }
+
+        public long getLagSeconds() {
+            return lagSeconds;
+        }
+    }
+}
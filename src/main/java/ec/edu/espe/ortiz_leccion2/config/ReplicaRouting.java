@@ -0,0 +1,69 @@
+package ec.edu.espe.ortiz_leccion2.config;
+
+import java.util.function.Supplier;
+
+/**
+ * Contexto de enrutamiento de lecturas (por hilo) cuando hay réplicas configuradas.
+ * 
+ * Las transacciones de solo lectura usan una réplica salvo que el hilo pida el primario:
+ * - onPrimary: siempre el primario (p. ej. reconstrucción de rollups, que no tolera retraso)
+ * - consistentRead: el primario solo si hubo una escritura hace menos de la ventana de retraso
+ *   tolerado (ReplicaWriteTracker, consultado por ReplicaDataSource); se usa en las lecturas que
+ *   llenan cachés compartidas, para no guardar en ellas un estado anterior a la invalidación que
+ *   se acaba de aplicar.
+ * Sin réplicas todas las conexiones van al primario y estos métodos no tienen efecto.
+ */
+public final class ReplicaRouting {
+
+    private static final ThreadLocal<Boolean> PRIMARY = new ThreadLocal<>();
+    private static final ThreadLocal<Boolean> CONSISTENT = new ThreadLocal<>();
+
+    private ReplicaRouting() {
+    }
+
+    public static <T> T onPrimary(Supplier<T> action) {
+        boolean previous = requirePrimary();
+        try {
+            return action.get();
+        } finally {
+            restore(previous);
+        }
+    }
+
+    public static <T> T consistentRead(Supplier<T> action) {
+        boolean previous = isConsistentReadRequired();
+        CONSISTENT.set(Boolean.TRUE);
+        try {
+            return action.get();
+        } finally {
+            if (!previous) {
+                CONSISTENT.remove();
+            }
+        }
+    }
+
+    static boolean isConsistentReadRequired() {
+        return Boolean.TRUE.equals(CONSISTENT.get());
+    }
+
+    public static boolean isPrimaryRequired() {
+        return Boolean.TRUE.equals(PRIMARY.get());
+    }
+
+    /**
+     * Marca el hilo actual para usar el primario; devuelve el estado anterior para restore
+     */
+    public static boolean requirePrimary() {
+        boolean previous = isPrimaryRequired();
+        PRIMARY.set(Boolean.TRUE);
+        return previous;
+    }
+
+    public static void restore(boolean previous) {
+        if (previous) {
+            PRIMARY.set(Boolean.TRUE);
+        } else {
+            PRIMARY.remove();
+        }
+    }
+}
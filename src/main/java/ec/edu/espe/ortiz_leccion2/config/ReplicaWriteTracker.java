@@ -0,0 +1,51 @@
+package ec.edu.espe.ortiz_leccion2.config;
+
+import ec.edu.espe.ortiz_leccion2.models.events.PurchaseOrderChangedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+
+/**
+ * Ventana de retraso tolerado de las réplicas (max-lag + probe-interval) y hora de la última escritura
+ * de esta instancia. ReplicaDataSource envía al primario las lecturas de ReplicaRouting.consistentRead
+ * mientras la ventana no ha pasado; ReadYourWritesFilter usa la misma ventana por cliente.
+ */
+public class ReplicaWriteTracker {
+
+    private final Duration window;
+    private final long windowNanos;
+    private volatile long lastWriteNanos = System.nanoTime() - Long.MAX_VALUE / 2;
+
+    public ReplicaWriteTracker(Duration window) {
+        this.window = window;
+        this.windowNanos = window.toNanos();
+    }
+
+    public Duration getWindow() {
+        return window;
+    }
+
+    /**
+     * Las lecturas que llenan las cachés van al primario mientras la réplica se pone al día.
+     * Se marca antes del commit (la invalidación de las cachés ocurre tras él) y otra vez después,
+     * para que la ventana cuente desde que la escritura es visible.
+     */
+    @EventListener
+    public void onPurchaseOrderChanging(PurchaseOrderChangedEvent event) {
+        markWrite();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPurchaseOrderChanged(PurchaseOrderChangedEvent event) {
+        markWrite();
+    }
+
+    void markWrite() {
+        lastWriteNanos = System.nanoTime();
+    }
+
+    boolean isRecentWrite() {
+        return windowNanos > 0 && System.nanoTime() - lastWriteNanos < windowNanos;
+    }
+}
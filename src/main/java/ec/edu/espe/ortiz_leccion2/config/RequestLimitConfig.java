@@ -0,0 +1,108 @@
+package ec.edu.espe.ortiz_leccion2.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.jdbc.DataSourceUnwrapper;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Set;
+import java.util.function.IntSupplier;
+
+/**
+ * Límite de peticiones por cliente (token bucket) y de peticiones simultáneas (AIMD) delante de
+ * PurchaseOrderController, con su estado publicado como métricas purchase_orders.limiter.*.
+ */
+@Configuration
+@ConditionalOnProperty(name = "purchase-order.rate-limit.enabled", havingValue = "true")
+public class RequestLimitConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(RequestLimitConfig.class);
+
+    @Bean
+    public TokenBucketRateLimiter tokenBucketRateLimiter(MeterRegistry registry,
+            @Value("${purchase-order.rate-limit.capacity:100}") int capacity,
+            @Value("${purchase-order.rate-limit.refill-per-second:50}") double refillPerSecond,
+            @Value("${purchase-order.rate-limit.max-clients:100000}") long maxClients) {
+        TokenBucketRateLimiter rateLimiter = new TokenBucketRateLimiter(capacity, refillPerSecond, maxClients);
+        bindMetrics(registry, rateLimiter);
+        return rateLimiter;
+    }
+
+    /**
+     * initial-limit = 0 usa el doble del tamaño máximo del pool de Hikari
+     */
+    @Bean
+    public AdaptiveConcurrencyLimiter adaptiveConcurrencyLimiter(DataSource dataSource, MeterRegistry registry,
+            @Value("${purchase-order.rate-limit.concurrency.initial-limit:0}") int initialLimit,
+            @Value("${purchase-order.rate-limit.concurrency.min-limit:4}") int minLimit,
+            @Value("${purchase-order.rate-limit.concurrency.max-limit:400}") int maxLimit,
+            @Value("${purchase-order.rate-limit.concurrency.backoff-ratio:0.9}") double backoffRatio,
+            @Value("${purchase-order.rate-limit.concurrency.latency-threshold:500ms}") Duration latencyThreshold) {
+        // unwrap: el DataSource puede estar envuelto (semáforo de hilos virtuales, enrutamiento a réplicas)
+        HikariDataSource hikari = DataSourceUnwrapper.unwrap(dataSource, HikariDataSource.class);
+        int limit = initialLimit > 0 ? initialLimit : hikari != null ? hikari.getMaximumPoolSize() * 2 : 20;
+        IntSupplier pendingConnections = hikari == null ? () -> 0 : () -> {
+            HikariPoolMXBean pool = hikari.getHikariPoolMXBean();
+            return pool != null ? pool.getThreadsAwaitingConnection() : 0;
+        };
+        log.info("Límite adaptativo de peticiones simultáneas: inicial {}, entre {} y {}", limit, minLimit, maxLimit);
+        AdaptiveConcurrencyLimiter concurrencyLimiter = new AdaptiveConcurrencyLimiter(limit, minLimit, maxLimit,
+                backoffRatio, latencyThreshold, pendingConnections);
+        bindMetrics(registry, concurrencyLimiter);
+        return concurrencyLimiter;
+    }
+
+    @Bean
+    public FilterRegistrationBean<RequestLimitFilter> requestLimitFilter(TokenBucketRateLimiter rateLimiter,
+            AdaptiveConcurrencyLimiter concurrencyLimiter,
+            @Value("${purchase-order.rate-limit.cost.list:2}") int list,
+            @Value("${purchase-order.rate-limit.cost.unfiltered-list:5}") int unfilteredList,
+            @Value("${purchase-order.rate-limit.cost.search:5}") int search,
+            @Value("${purchase-order.rate-limit.cost.export:20}") int export,
+            @Value("${purchase-order.rate-limit.cost.batch:10}") int batch,
+            @Value("${purchase-order.rate-limit.api-keys:}") Set<String> apiKeys) {
+        FilterRegistrationBean<RequestLimitFilter> registration = new FilterRegistrationBean<>(
+                new RequestLimitFilter(rateLimiter, concurrencyLimiter,
+                        new RequestLimitFilter.Costs(list, unfilteredList, search, export, batch), apiKeys));
+        registration.addUrlPatterns("/api/v1/purchase-orders", "/api/v1/purchase-orders/*");
+        return registration;
+    }
+
+    private static void bindMetrics(MeterRegistry registry, TokenBucketRateLimiter rateLimiter) {
+        Gauge.builder("purchase_orders.limiter.rate.clients", rateLimiter, TokenBucketRateLimiter::getClientCount)
+                .description("Clientes con un token bucket activo")
+                .register(registry);
+        FunctionCounter.builder("purchase_orders.limiter.rejected", rateLimiter,
+                        TokenBucketRateLimiter::getRejectedCount)
+                .description("Peticiones rechazadas por el límite del cliente (429) o de simultaneidad (503)")
+                .tag("reason", "rate")
+                .register(registry);
+    }
+
+    private static void bindMetrics(MeterRegistry registry, AdaptiveConcurrencyLimiter concurrencyLimiter) {
+        Gauge.builder("purchase_orders.limiter.concurrency.limit", concurrencyLimiter,
+                        AdaptiveConcurrencyLimiter::getLimit)
+                .description("Límite actual de peticiones simultáneas")
+                .register(registry);
+        Gauge.builder("purchase_orders.limiter.concurrency.in_flight", concurrencyLimiter,
+                        AdaptiveConcurrencyLimiter::getInFlight)
+                .description("Peticiones en curso dentro del límite")
+                .register(registry);
+        FunctionCounter.builder("purchase_orders.limiter.rejected", concurrencyLimiter,
+                        AdaptiveConcurrencyLimiter::getRejectedCount)
+                .description("Peticiones rechazadas por el límite del cliente (429) o de simultaneidad (503)")
+                .tag("reason", "concurrency")
+                .register(registry);
+    }
+}
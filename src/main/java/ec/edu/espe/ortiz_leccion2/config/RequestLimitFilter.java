@@ -0,0 +1,197 @@
+package ec.edu.espe.ortiz_leccion2.config;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Limita las peticiones a /api/v1/purchase-orders antes de que lleguen al controlador: el límite adaptativo
+ * de peticiones simultáneas (503 con Retry-After) y el token bucket del cliente (429 con Retry-After). La
+ * simultaneidad se comprueba primero para que un 503 no consuma tokens del cliente. El costo de cada petición depende de la operación: el listado sin filtros, la
+ * búsqueda q, /stats, los lotes y la exportación cuestan más que un GET /{id}.
+ */
+public class RequestLimitFilter extends OncePerRequestFilter {
+
+    static final String API_KEY_HEADER = "X-API-Key";
+
+    private static final String BASE_PATH = "/api/v1/purchase-orders";
+
+    private static final String CHANGE_STREAM_PATH = "/changes/stream";
+
+    private static final List<String> FILTER_PARAMS =
+            List.of("q", "status", "currency", "minTotal", "maxTotal", "from", "to");
+
+    // Cuerpos ProblemDetail fijos: el rechazo no pasa por Jackson ni por el manejador de excepciones
+    private static final byte[] TOO_MANY_REQUESTS = problem(HttpStatus.TOO_MANY_REQUESTS,
+            "Se superó el límite de peticiones del cliente; reintente después de Retry-After segundos");
+    private static final byte[] SERVICE_UNAVAILABLE = problem(HttpStatus.SERVICE_UNAVAILABLE,
+            "El servicio está al límite de peticiones simultáneas; reintente más tarde");
+
+    private final TokenBucketRateLimiter rateLimiter;
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+    private final Costs costs;
+    private final Set<String> apiKeys;
+
+    public RequestLimitFilter(TokenBucketRateLimiter rateLimiter, AdaptiveConcurrencyLimiter concurrencyLimiter,
+            Costs costs, Set<String> apiKeys) {
+        this.rateLimiter = rateLimiter;
+        this.concurrencyLimiter = concurrencyLimiter;
+        this.costs = costs;
+        this.apiKeys = Set.copyOf(apiKeys);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        // El stream SSE de cambios dura minutos sin retener una conexión: solo pasa por el token bucket
+        boolean limited = !request.getRequestURI().endsWith(CHANGE_STREAM_PATH);
+        // Primero la simultaneidad: un 503 no debe gastar los tokens del cliente
+        if (limited && !concurrencyLimiter.tryAcquire()) {
+            reject(response, HttpStatus.SERVICE_UNAVAILABLE, 1, SERVICE_UNAVAILABLE);
+            return;
+        }
+        long waitNanos = rateLimiter.tryConsume(clientKey(request), cost(request));
+        if (waitNanos > 0) {
+            if (limited) {
+                concurrencyLimiter.release();
+            }
+            long retryAfter = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+            reject(response, HttpStatus.TOO_MANY_REQUESTS, retryAfter, TOO_MANY_REQUESTS);
+            return;
+        }
+        if (!limited) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        long start = System.nanoTime();
+        boolean handedOver = false;
+        try {
+            chain.doFilter(request, response);
+            if (request.isAsyncStarted()) {
+                // Exportación y demás respuestas asíncronas: el lugar (y la conexión) se retiene hasta que
+                // termina el stream; su duración no es una muestra de latencia
+                request.getAsyncContext().addListener(new ReleasingListener(concurrencyLimiter));
+            } else {
+                concurrencyLimiter.onComplete(System.nanoTime() - start);
+            }
+            handedOver = true;
+        } finally {
+            if (!handedOver) {
+                concurrencyLimiter.release();
+            }
+        }
+    }
+
+    /**
+     * API key si es una de las configuradas; si no, la IP (con server.forward-headers-strategy la del cliente
+     * detrás del proxy). Una clave desconocida no abre un bucket nuevo: rotar claves no evita el límite.
+     */
+    private String clientKey(HttpServletRequest request) {
+        String apiKey = request.getHeader(API_KEY_HEADER);
+        return apiKey != null && apiKeys.contains(apiKey) ? "key:" + apiKey : "ip:" + request.getRemoteAddr();
+    }
+
+    int cost(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        String operation = path.length() > BASE_PATH.length() ? path.substring(BASE_PATH.length()) : "";
+        boolean get = "GET".equals(request.getMethod());
+
+        if (get && operation.equals("/export")) {
+            return costs.export();
+        }
+        if (operation.equals("/batch") || operation.equals("/ingestion") || operation.equals("/lookup")) {
+            return costs.batch();
+        }
+        if (get && (operation.isEmpty() || operation.equals("/") || operation.equals("/stats"))) {
+            if (hasText(request.getParameter("q"))) {
+                return costs.search();
+            }
+            for (String param : FILTER_PARAMS) {
+                if (hasText(request.getParameter(param))) {
+                    return costs.list();
+                }
+            }
+            return costs.unfilteredList();
+        }
+        return 1;
+    }
+
+    private static boolean hasText(String value) {
+        return value != null && !value.isBlank();
+    }
+
+    private static void reject(HttpServletResponse response, HttpStatus status, long retryAfterSeconds,
+            byte[] body) throws IOException {
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_PROBLEM_JSON_VALUE);
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+
+    private static byte[] problem(HttpStatus status, String detail) {
+        return ("{\"type\":\"about:blank\",\"title\":\"" + status.getReasonPhrase() + "\",\"status\":"
+                + status.value() + ",\"detail\":\"" + detail + "\"}").getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Devuelve el lugar una sola vez cuando la respuesta asíncrona termina, falla o vence
+     */
+    private static final class ReleasingListener implements AsyncListener {
+
+        private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private ReleasingListener(AdaptiveConcurrencyLimiter concurrencyLimiter) {
+            this.concurrencyLimiter = concurrencyLimiter;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // Un nuevo ciclo asíncrono de la misma petición: el listener debe seguir registrado
+            event.getAsyncContext().addListener(this);
+        }
+
+        private void release() {
+            if (released.compareAndSet(false, true)) {
+                concurrencyLimiter.release();
+            }
+        }
+    }
+
+    /**
+     * Tokens que consume cada tipo de petición (las no listadas cuestan 1)
+     */
+    public record Costs(int list, int unfilteredList, int search, int export, int batch) {
+    }
+}
@@ -0,0 +1,12 @@
+package ec.edu.espe.ortiz_leccion2.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Habilita los jobs periódicos (@Scheduled), p. ej. la reconciliación de los rollups de órdenes
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -0,0 +1,75 @@
+package ec.edu.espe.ortiz_leccion2.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Un token bucket por cliente (API key o IP): cada petición consume tantos tokens como su costo y el
+ * bucket se rellena a refillPerSecond hasta capacity, que es la ráfaga admitida.
+ * 
+ * Los buckets viven en una caché acotada que descarta los clientes inactivos: pasado ese tiempo el bucket
+ * estaría lleno de todos modos, así que olvidarlo no cambia el resultado.
+ */
+public class TokenBucketRateLimiter {
+
+    private final double capacity;
+    private final double refillPerNano;
+    private final Cache<String, Bucket> buckets;
+    private final AtomicLong rejected = new AtomicLong();
+
+    public TokenBucketRateLimiter(int capacity, double refillPerSecond, long maxClients) {
+        this.capacity = capacity;
+        this.refillPerNano = refillPerSecond / 1_000_000_000d;
+        // Tiempo en rellenarse por completo, con un mínimo para no recrear buckets de clientes activos
+        long idleNanos = Math.max((long) (capacity / refillPerNano), Duration.ofMinutes(1).toNanos());
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxClients)
+                .expireAfterAccess(Duration.ofNanos(idleNanos))
+                .build();
+    }
+
+    /**
+     * Consume cost tokens del bucket del cliente. Devuelve 0 si se admitió la petición o, si no, los
+     * nanosegundos que faltan para reunir los tokens (no se consume nada).
+     */
+    public long tryConsume(String client, int cost) {
+        Bucket bucket = buckets.get(client, key -> new Bucket(capacity, System.nanoTime()));
+        // Un costo mayor que la capacidad nunca se reuniría: vacía un bucket lleno
+        double needed = Math.min(cost, capacity);
+        double tokens;
+        synchronized (bucket) {
+            long now = System.nanoTime();
+            bucket.tokens = Math.min(capacity, bucket.tokens + (now - bucket.refilledAt) * refillPerNano);
+            bucket.refilledAt = now;
+            if (bucket.tokens >= needed) {
+                bucket.tokens -= needed;
+                return 0;
+            }
+            tokens = bucket.tokens;
+        }
+        rejected.incrementAndGet();
+        return Math.max(1, (long) Math.ceil((needed - tokens) / refillPerNano));
+    }
+
+    public long getClientCount() {
+        return buckets.estimatedSize();
+    }
+
+    public long getRejectedCount() {
+        return rejected.get();
+    }
+
+    private static final class Bucket {
+
+        private double tokens;
+        private long refilledAt;
+
+        private Bucket(double tokens, long refilledAt) {
+            this.tokens = tokens;
+            this.refilledAt = refilledAt;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package ec.edu.espe.ortiz_leccion2.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.jdbc.DataSourceUnwrapper;
+import org.springframework.boot.system.JavaVersion;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Modo de ejecución con hilos virtuales (perfil "virtual", requiere Java 21+).
+ * 
+ * spring.threads.virtual.enabled hace que Tomcat atienda cada petición en un hilo virtual.
+ * Como el límite deja de ser el número de hilos, el DataSource se envuelve en un semáforo
+ * del tamaño del pool para que las peticiones en exceso esperen sin agotar el pool.
+ */
+@Configuration
+public class VirtualThreadsConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadsConfig.class);
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreadsEnabled;
+
+    @PostConstruct
+    void checkJavaVersion() {
+        if (virtualThreadsEnabled && JavaVersion.getJavaVersion().isOlderThan(JavaVersion.TWENTY_ONE)) {
+            log.warn("spring.threads.virtual.enabled=true requiere Java 21+; se usarán hilos de plataforma con Java {}",
+                    JavaVersion.getJavaVersion());
+        }
+    }
+
+    /**
+     * Envuelve el DataSource; permits = 0 usa el tamaño máximo del pool de Hikari
+     */
+    @Bean
+    @ConditionalOnProperty(name = "purchase-order.datasource.concurrency-limit.enabled", havingValue = "true")
+    static BeanPostProcessor concurrencyLimitedDataSourcePostProcessor(
+            @Value("${purchase-order.datasource.concurrency-limit.permits:0}") int permits,
+            @Value("${purchase-order.datasource.concurrency-limit.acquire-timeout:3s}") Duration acquireTimeout) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || bean instanceof ConcurrencyLimitedDataSource) {
+                    return bean;
+                }
+                // unwrap: el DataSource puede estar ya envuelto (p. ej. por el enrutamiento a réplicas)
+                HikariDataSource hikari = DataSourceUnwrapper.unwrap(dataSource, HikariDataSource.class);
+                int limit = permits > 0 ? permits : hikari != null ? hikari.getMaximumPoolSize() : 10;
+                log.info("DataSource limitado a {} conexiones concurrentes", limit);
+                return new ConcurrencyLimitedDataSource(dataSource, limit, acquireTimeout);
+            }
+        };
+    }
+}
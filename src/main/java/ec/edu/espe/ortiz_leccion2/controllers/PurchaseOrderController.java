@@ -1,16 +1,43 @@
 package ec.edu.espe.ortiz_leccion2.controllers;
 
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ec.edu.espe.ortiz_leccion2.exceptions.InvalidFilterException;
+import ec.edu.espe.ortiz_leccion2.exceptions.PreconditionFailedException;
+import ec.edu.espe.ortiz_leccion2.models.dto.BatchResultDTO;
+import ec.edu.espe.ortiz_leccion2.models.dto.PurchaseOrderChangeFeedDTO;
 import ec.edu.espe.ortiz_leccion2.models.dto.PurchaseOrderFilterDTO;
+import ec.edu.espe.ortiz_leccion2.models.dto.PurchaseOrderLookupDTO;
+import ec.edu.espe.ortiz_leccion2.models.dto.PurchaseOrderLookupResultDTO;
+import ec.edu.espe.ortiz_leccion2.models.dto.PurchaseOrderPageDTO;
+import ec.edu.espe.ortiz_leccion2.models.dto.PurchaseOrderStatsDTO;
+import ec.edu.espe.ortiz_leccion2.models.dto.PurchaseOrderSummary;
 import ec.edu.espe.ortiz_leccion2.models.entities.PurchaseOrder;
 import ec.edu.espe.ortiz_leccion2.models.enums.Currency;
+import ec.edu.espe.ortiz_leccion2.models.enums.ExportFormat;
 import ec.edu.espe.ortiz_leccion2.models.enums.OrderStatus;
+import ec.edu.espe.ortiz_leccion2.models.enums.StatsBucket;
+import ec.edu.espe.ortiz_leccion2.services.PurchaseOrderBatchService;
+import ec.edu.espe.ortiz_leccion2.services.PurchaseOrderChangeFeedService;
+import ec.edu.espe.ortiz_leccion2.services.PurchaseOrderChangeStream;
+import ec.edu.espe.ortiz_leccion2.services.PurchaseOrderExportService;
+import ec.edu.espe.ortiz_leccion2.services.PurchaseOrderIdempotencyCache;
 import ec.edu.espe.ortiz_leccion2.services.PurchaseOrderService;
+import ec.edu.espe.ortiz_leccion2.services.PurchaseOrderStatsService;
 import jakarta.validation.Valid;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -18,29 +45,97 @@ import java.util.List;
 @RequestMapping("/api/v1/purchase-orders")
 public class PurchaseOrderController {
 
+    // Mensajes fijos: se crean una vez y se relanzan (las excepciones de dominio no llevan traza)
+    private static final InvalidFilterException INVALID_STATUS = new InvalidFilterException(
+            "Valor de status inválido. Valores permitidos: DRAFT, SUBMITTED, APPROVED, REJECTED, CANCELLED");
+    private static final InvalidFilterException INVALID_CURRENCY = new InvalidFilterException(
+            "Valor de currency inválido. Valores permitidos: USD, EUR");
+    private static final InvalidFilterException INVALID_FORMAT = new InvalidFilterException(
+            "Valor de format inválido. Valores permitidos: ndjson, csv");
+    private static final InvalidFilterException INVALID_BUCKET = new InvalidFilterException(
+            "Valor de bucket inválido. Valores permitidos: day, week, month");
+    private static final PreconditionFailedException IF_MATCH_MISMATCH = new PreconditionFailedException(
+            "If-Match no coincide con la versión actual");
+
     private final PurchaseOrderService purchaseOrderService;
+    private final PurchaseOrderExportService purchaseOrderExportService;
+    private final PurchaseOrderBatchService purchaseOrderBatchService;
+    private final PurchaseOrderStatsService purchaseOrderStatsService;
+    private final PurchaseOrderChangeFeedService purchaseOrderChangeFeedService;
+    private final PurchaseOrderChangeStream purchaseOrderChangeStream;
+    private final PurchaseOrderIdempotencyCache purchaseOrderIdempotencyCache;
+    private final ObjectMapper objectMapper;
 
-    public PurchaseOrderController(PurchaseOrderService purchaseOrderService) {
+    public PurchaseOrderController(PurchaseOrderService purchaseOrderService,
+            PurchaseOrderExportService purchaseOrderExportService,
+            PurchaseOrderBatchService purchaseOrderBatchService,
+            PurchaseOrderStatsService purchaseOrderStatsService,
+            PurchaseOrderChangeFeedService purchaseOrderChangeFeedService,
+            PurchaseOrderChangeStream purchaseOrderChangeStream,
+            PurchaseOrderIdempotencyCache purchaseOrderIdempotencyCache,
+            ObjectMapper objectMapper) {
         this.purchaseOrderService = purchaseOrderService;
+        this.purchaseOrderExportService = purchaseOrderExportService;
+        this.purchaseOrderBatchService = purchaseOrderBatchService;
+        this.purchaseOrderStatsService = purchaseOrderStatsService;
+        this.purchaseOrderChangeFeedService = purchaseOrderChangeFeedService;
+        this.purchaseOrderChangeStream = purchaseOrderChangeStream;
+        this.purchaseOrderIdempotencyCache = purchaseOrderIdempotencyCache;
+        this.objectMapper = objectMapper;
     }
 
     /**
-     * GET - Listar todas las órdenes de compra con filtros opcionales
+     * GET - Listar las órdenes de compra con filtros opcionales y paginación por cursor
      * 
      * Filtros disponibles:
-     * - q: búsqueda de texto en orderNumber y supplierName (case-insensitive)
+     * - q: búsqueda de texto en orderNumber y supplierName (case-insensitive). Con '*' al final
+     *   (q=OC-2025*) busca solo por prefijo de orderNumber, sin lower() para usar su índice: distingue
+     *   mayúsculas en H2 y no en MySQL, cuya collation no las distingue
      * - status: filtro por estado (DRAFT, SUBMITTED, APPROVED, REJECTED, CANCELLED)
      * - currency: filtro por moneda (USD, EUR)
      * - minTotal: monto mínimo (>= 0)
      * - maxTotal: monto máximo (>= 0)
      * - from: fecha desde (formato: yyyy-MM-dd'T'HH:mm:ss)
-     * - to: fecha hasta (formato: yyyy-MM-dd'T'HH:mm:ss)
+     * - to: fecha hasta (formato: yyyy-MM-dd'T'HH:mm:ss), incluye todo ese segundo
+     * 
+     * Paginación:
+     * - limit: tamaño de página (por defecto 50, máximo 500)
+     * - cursor: token opaco devuelto como nextCursor en la página anterior
+     * 
+     * Proyección:
+     * - fields: campos a devolver separados por coma (por defecto todos), p. ej. fields=id,orderNumber,totalAmount
      * 
      * Ejemplo: GET
-     * /api/v1/purchase-orders?q=acme&status=APPROVED&from=2025-01-01T00:00:00&to=2025-06-30T23:59:59
+     * /api/v1/purchase-orders?q=acme&status=APPROVED&from=2025-01-01T00:00:00&to=2025-06-30T23:59:59&limit=100
      */
     @GetMapping
-    public ResponseEntity<List<PurchaseOrder>> listar(
+    public ResponseEntity<PurchaseOrderPageDTO<PurchaseOrderSummary>> listar(
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String currency,
+            @RequestParam(required = false) BigDecimal minTotal,
+            @RequestParam(required = false) BigDecimal maxTotal,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit,
+            @RequestParam(required = false) List<String> fields) {
+        PurchaseOrderFilterDTO filters = buildFilters(q, status, currency, minTotal, maxTotal, from, to);
+        PurchaseOrderPageDTO<PurchaseOrderSummary> page = purchaseOrderService.findPage(filters, cursor, limit, fields);
+        // Con If-None-Match igual al ETag de la página, Spring responde 304 sin cuerpo
+        return ResponseEntity.ok().eTag(page.getEtag()).body(page);
+    }
+
+    /**
+     * GET - Exportar las órdenes filtradas en streaming (acepta los mismos filtros que el listado)
+     * 
+     * - format: ndjson (por defecto) o csv
+     * 
+     * Ejemplo: GET /api/v1/purchase-orders/export?format=csv&status=APPROVED
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportar(
+            @RequestParam(defaultValue = "ndjson") String format,
             @RequestParam(required = false) String q,
             @RequestParam(required = false) String status,
             @RequestParam(required = false) String currency,
@@ -48,61 +143,188 @@ public class PurchaseOrderController {
             @RequestParam(required = false) BigDecimal maxTotal,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
-        // Si no hay filtros, devolver todos
-        if (q == null && status == null && currency == null &&
-                minTotal == null && maxTotal == null && from == null && to == null) {
-            return ResponseEntity.ok(purchaseOrderService.findAll());
+        ExportFormat exportFormat = ExportFormat.fromName(format);
+        if (exportFormat == null) {
+            throw INVALID_FORMAT;
         }
 
-        // Construir DTO de filtros
-        PurchaseOrderFilterDTO filters = new PurchaseOrderFilterDTO();
-        filters.setQ(q);
+        PurchaseOrderFilterDTO filters = buildFilters(q, status, currency, minTotal, maxTotal, from, to);
+        // Validar antes de comprometer la respuesta
+        purchaseOrderService.validateFilters(filters);
 
-        // Convertir status a enum si viene
-        if (status != null && !status.trim().isEmpty()) {
-            try {
-                filters.setStatus(OrderStatus.valueOf(status.toUpperCase()));
-            } catch (IllegalArgumentException e) {
-                throw new IllegalArgumentException("Valor de status inválido: " + status +
-                        ". Valores permitidos: DRAFT, SUBMITTED, APPROVED, REJECTED, CANCELLED");
-            }
-        }
+        MediaType mediaType = exportFormat == ExportFormat.CSV
+                ? new MediaType("text", "csv", StandardCharsets.UTF_8)
+                : MediaType.APPLICATION_NDJSON;
+        String fileName = "purchase-orders." + exportFormat.name().toLowerCase();
 
-        // Convertir currency a enum si viene
-        if (currency != null && !currency.trim().isEmpty()) {
-            try {
-                filters.setCurrency(Currency.valueOf(currency.toUpperCase()));
-            } catch (IllegalArgumentException e) {
-                throw new IllegalArgumentException("Valor de currency inválido: " + currency +
-                        ". Valores permitidos: USD, EUR");
+        return ResponseEntity.ok()
+                .contentType(mediaType)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
+                .body(out -> purchaseOrderExportService.export(filters, exportFormat, out));
+    }
+
+    /**
+     * GET - Estadísticas de las órdenes filtradas (acepta los mismos filtros que el listado)
+     * 
+     * Devuelve count, sum, min, max y avg de totalAmount por status × currency, calculados en la base de datos.
+     * - bucket: day, week o month para incluir además series temporales sobre createdAt
+     * 
+     * Ejemplo: GET /api/v1/purchase-orders/stats?from=2025-01-01T00:00:00&bucket=month
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<PurchaseOrderStatsDTO> estadisticas(
+            @RequestParam(required = false) String bucket,
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String currency,
+            @RequestParam(required = false) BigDecimal minTotal,
+            @RequestParam(required = false) BigDecimal maxTotal,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        StatsBucket statsBucket = null;
+        if (bucket != null && !bucket.trim().isEmpty()) {
+            statsBucket = StatsBucket.fromName(bucket);
+            if (statsBucket == null) {
+                throw INVALID_BUCKET;
             }
         }
 
-        filters.setMinTotal(minTotal);
-        filters.setMaxTotal(maxTotal);
-        filters.setFrom(from);
-        filters.setTo(to);
+        PurchaseOrderFilterDTO filters = buildFilters(q, status, currency, minTotal, maxTotal, from, to);
+        purchaseOrderService.validateFilters(filters);
+        return ResponseEntity.ok(purchaseOrderStatsService.getStats(filters, statsBucket));
+    }
+
+    /**
+     * GET - Cambios confirmados (creaciones, actualizaciones y eliminaciones) posteriores a since
+     * 
+     * - since: secuencia del último cambio procesado (0 para empezar desde el inicio del registro)
+     * - limit: número máximo de cambios (por defecto 100, máximo 1000)
+     * 
+     * La respuesta incluye nextSince para la siguiente consulta. Si since es anterior a la retención
+     * del registro se responde 410 y el consumidor debe resincronizar con el listado completo.
+     * 
+     * Ejemplo: GET /api/v1/purchase-orders/changes?since=1520&limit=500
+     */
+    @GetMapping("/changes")
+    public ResponseEntity<PurchaseOrderChangeFeedDTO> cambios(
+            @RequestParam(defaultValue = "0") long since,
+            @RequestParam(defaultValue = "100") int limit) {
+        return ResponseEntity.ok(purchaseOrderChangeFeedService.findChanges(since, limit));
+    }
 
-        return ResponseEntity.ok(purchaseOrderService.findAllWithFilters(filters));
+    /**
+     * GET - Stream Server-Sent Events con los cambios a medida que se confirman
+     * 
+     * Cada evento "change" lleva como id su secuencia; al reconectar, el cliente envía Last-Event-ID
+     * y recibe lo que se perdió. Ejemplo: GET /api/v1/purchase-orders/changes/stream?since=1520
+     */
+    @GetMapping(value = "/changes/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamCambios(
+            @RequestParam(defaultValue = "0") long since,
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        return purchaseOrderChangeStream.subscribe(lastEventId != null ? lastEventId : since);
     }
 
-    // POST - Crear una nueva orden de compra
+    /**
+     * POST - Crear una nueva orden de compra
+     * 
+     * Con Idempotency-Key, los reintentos con la misma clave devuelven la orden creada la primera vez
+     * (con Idempotent-Replayed: true) sin volver a insertarla.
+     */
     @PostMapping
-    public ResponseEntity<PurchaseOrder> crear(@Valid @RequestBody PurchaseOrder purchaseOrder) {
-        return ResponseEntity.ok(purchaseOrderService.save(purchaseOrder));
+    public ResponseEntity<PurchaseOrder> crear(
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+            @Valid @RequestBody PurchaseOrder purchaseOrder) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            PurchaseOrder saved = purchaseOrderService.save(purchaseOrder);
+            return ResponseEntity.ok().eTag(etag(saved.getVersion())).body(saved);
+        }
+        PurchaseOrderIdempotencyCache.Result result = purchaseOrderIdempotencyCache.execute(idempotencyKey,
+                purchaseOrder, () -> purchaseOrderService.save(purchaseOrder));
+        return ResponseEntity.ok()
+                .eTag(etag(result.order().getVersion()))
+                .header("Idempotent-Replayed", Boolean.toString(result.replayed()))
+                .body(result.order());
     }
 
-    // GET - Obtener una orden de compra por ID
+    /**
+     * PUT - Crear o actualizar la orden con el número indicado (upsert en una sola sentencia)
+     * 
+     * Ejemplo: PUT /api/v1/purchase-orders/by-number/OC-2025-001
+     */
+    @PutMapping("/by-number/{orderNumber}")
+    public ResponseEntity<PurchaseOrder> guardarPorNumero(@PathVariable String orderNumber,
+            @Valid @RequestBody PurchaseOrder purchaseOrder) {
+        purchaseOrder.setOrderNumber(orderNumber);
+        PurchaseOrder saved = purchaseOrderService.upsertByOrderNumber(purchaseOrder);
+        return ResponseEntity.ok().eTag(etag(saved.getVersion())).body(saved);
+    }
+
+    /**
+     * POST - Crear o actualizar órdenes en lote
+     * 
+     * El cuerpo es un arreglo JSON (application/json) o una orden por línea (application/x-ndjson) y se
+     * lee en streaming, sin límite de elementos: se persiste en bloques de purchase-order.batch.chunk-size
+     * (1000), cada uno en su propia transacción. La petición consume cost.batch tokens del límite por cliente.
+     * Los elementos sin id se crean; los que traen id se actualizan solo si su version (o, sin version, la
+     * leída al procesar el bloque) sigue siendo la actual.
+     * 
+     * Responde 200 con received, created, updated, failed y errors: un elemento inválido no detiene la
+     * carga. Cada error indica index (posición en el cuerpo), orderNumber y errors (campo -> mensaje):
+     * body si el elemento no se pudo leer (un error de sintaxis además detiene la lectura), los campos de
+     * Bean Validation, orderNumber si viola una restricción de integridad, id si la orden no existe y
+     * version si otra petición la modificó o eliminó.
+     * 
+     * Ejemplo: POST /api/v1/purchase-orders/batch [{"orderNumber": "OC-2025-001", ...}, {"id": 7, "version": 2, ...}]
+     */
+    @PostMapping(value = "/batch", consumes = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE })
+    public ResponseEntity<BatchResultDTO> crearLote(InputStream body) throws IOException {
+        try (MappingIterator<PurchaseOrder> orders = objectMapper.readerFor(PurchaseOrder.class).readValues(body)) {
+            return ResponseEntity.ok(purchaseOrderBatchService.importOrders(orders));
+        }
+    }
+
+    /**
+     * POST - Obtener varias órdenes por id y/o orderNumber en una sola consulta (máximo 500 claves)
+     * 
+     * Las órdenes se devuelven en el orden de las claves pedidas; las que no existen se listan en
+     * missingIds y missingOrderNumbers en lugar de responder 404.
+     * 
+     * Ejemplo: POST /api/v1/purchase-orders/lookup {"ids": [12, 7], "orderNumbers": ["OC-2025-001"]}
+     */
+    @PostMapping("/lookup")
+    public ResponseEntity<PurchaseOrderLookupResultDTO> buscarVarias(@RequestBody PurchaseOrderLookupDTO request) {
+        return ResponseEntity.ok(purchaseOrderService.lookup(request));
+    }
+
+    /**
+     * GET - Obtener una orden de compra por ID
+     * 
+     * Responde con ETag "<version>". Con If-None-Match se consulta solo la versión y, si no cambió,
+     * se devuelve 304 sin cargar la entidad.
+     */
     @GetMapping("/{id}")
-    public ResponseEntity<PurchaseOrder> obtener(@PathVariable Long id) {
-        return ResponseEntity.ok(purchaseOrderService.findById(id));
+    public ResponseEntity<PurchaseOrder> obtener(@PathVariable Long id, WebRequest request) {
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+                && request.checkNotModified(etag(purchaseOrderService.findVersion(id)))) {
+            return null;
+        }
+        PurchaseOrder order = purchaseOrderService.findById(id);
+        return ResponseEntity.ok().eTag(etag(order.getVersion())).body(order);
     }
 
-    // PUT - Actualizar una orden de compra
+    /**
+     * PUT - Actualizar una orden de compra
+     * 
+     * Con If-Match: "<version>" solo se actualiza si la orden no cambió desde que se leyó; si cambió, 412.
+     * Sin If-Match la actualización es incondicional, pero una escritura concurrente devuelve 409.
+     */
     @PutMapping("/{id}")
     public ResponseEntity<PurchaseOrder> actualizar(@PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @Valid @RequestBody PurchaseOrder purchaseOrder) {
-        return ResponseEntity.ok(purchaseOrderService.update(id, purchaseOrder));
+        PurchaseOrder updated = purchaseOrderService.update(id, purchaseOrder, expectedVersion(ifMatch));
+        return ResponseEntity.ok().eTag(etag(updated.getVersion())).body(updated);
     }
 
     // DELETE - Eliminar una orden de compra
@@ -111,4 +333,60 @@ public class PurchaseOrderController {
         purchaseOrderService.delete(id);
         return ResponseEntity.noContent().build();
     }
+
+    private static String etag(Long version) {
+        return "\"" + version + "\"";
+    }
+
+    /**
+     * Versión esperada según If-Match: null si no viene o es "*". If-Match usa comparación fuerte,
+     * así que un ETag débil o que no es una versión nunca coincide.
+     */
+    private static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String value = ifMatch.trim();
+        if (value.length() > 2 && value.startsWith("\"") && value.endsWith("\"")) {
+            try {
+                return Long.parseLong(value.substring(1, value.length() - 1));
+            } catch (NumberFormatException e) {
+                // Se trata como un ETag que no coincide
+            }
+        }
+        throw IF_MATCH_MISMATCH;
+    }
+
+    /**
+     * Construye el DTO de filtros a partir de los parámetros de la petición
+     */
+    private PurchaseOrderFilterDTO buildFilters(String q, String status, String currency,
+            BigDecimal minTotal, BigDecimal maxTotal, LocalDateTime from, LocalDateTime to) {
+        PurchaseOrderFilterDTO filters = new PurchaseOrderFilterDTO();
+        filters.setQ(q);
+
+        // Convertir status a enum si viene
+        if (status != null && !status.trim().isEmpty()) {
+            OrderStatus orderStatus = OrderStatus.fromName(status);
+            if (orderStatus == null) {
+                throw INVALID_STATUS;
+            }
+            filters.setStatus(orderStatus);
+        }
+
+        // Convertir currency a enum si viene
+        if (currency != null && !currency.trim().isEmpty()) {
+            Currency orderCurrency = Currency.fromName(currency);
+            if (orderCurrency == null) {
+                throw INVALID_CURRENCY;
+            }
+            filters.setCurrency(orderCurrency);
+        }
+
+        filters.setMinTotal(minTotal);
+        filters.setMaxTotal(maxTotal);
+        filters.setFrom(from);
+        filters.setTo(PurchaseOrderFilterDTO.inclusiveTo(to));
+        return filters;
+    }
 }
@@ -0,0 +1,45 @@
+package ec.edu.espe.ortiz_leccion2.controllers;
+
+import ec.edu.espe.ortiz_leccion2.models.dto.IngestionStatusDTO;
+import ec.edu.espe.ortiz_leccion2.models.entities.PurchaseOrder;
+import ec.edu.espe.ortiz_leccion2.services.PurchaseOrderIngestionService;
+import jakarta.validation.Valid;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.net.URI;
+
+/**
+ * Ingesta asíncrona de órdenes (purchase-order.ingestion.enabled=true)
+ */
+@RestController
+@RequestMapping("/api/v1/purchase-orders/ingestion")
+@ConditionalOnProperty(name = "purchase-order.ingestion.enabled", havingValue = "true")
+public class PurchaseOrderIngestionController {
+
+    private final PurchaseOrderIngestionService purchaseOrderIngestionService;
+
+    public PurchaseOrderIngestionController(PurchaseOrderIngestionService purchaseOrderIngestionService) {
+        this.purchaseOrderIngestionService = purchaseOrderIngestionService;
+    }
+
+    /**
+     * POST - Encolar una orden para crearla en el siguiente micro-batch
+     * 
+     * Responde 202 con el trackingId y Location apuntando a su estado, o 429 si la cola está llena.
+     */
+    @PostMapping
+    public ResponseEntity<IngestionStatusDTO> encolar(@Valid @RequestBody PurchaseOrder purchaseOrder) {
+        IngestionStatusDTO status = purchaseOrderIngestionService.submit(purchaseOrder);
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/v1/purchase-orders/ingestion/" + status.getTrackingId()))
+                .body(status);
+    }
+
+    // GET - Estado de una orden encolada: QUEUED, CREATED (con orderId) o FAILED (con errors)
+    @GetMapping("/{trackingId}")
+    public ResponseEntity<IngestionStatusDTO> estado(@PathVariable String trackingId) {
+        return ResponseEntity.ok(purchaseOrderIngestionService.getStatus(trackingId));
+    }
+}
@@ -0,0 +1,15 @@
+package ec.edu.espe.ortiz_leccion2.exceptions;
+
+/**
+ * Error que provoca la petición del cliente (filtro inválido, orden inexistente, versión distinta...).
+ * 
+ * Se responde con un ProblemDetail y nunca se registra en el log, así que no captura la traza de la pila
+ * ni admite excepciones suprimidas: crearla cuesta lo mismo que un objeto cualquiera, y las que tienen un
+ * mensaje fijo pueden crearse una sola vez y lanzarse desde cualquier hilo.
+ */
+public abstract class DomainException extends RuntimeException {
+
+    protected DomainException(String message) {
+        super(message, null, false, false);
+    }
+}
@@ -0,0 +1,7 @@
+package ec.edu.espe.ortiz_leccion2.exceptions;
+
+public class IdempotencyKeyReusedException extends DomainException {
+    public IdempotencyKeyReusedException(String message) {
+        super(message);
+    }
+}
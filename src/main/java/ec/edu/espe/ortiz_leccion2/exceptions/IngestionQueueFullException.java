@@ -0,0 +1,7 @@
+package ec.edu.espe.ortiz_leccion2.exceptions;
+
+public class IngestionQueueFullException extends DomainException {
+    public IngestionQueueFullException(String message) {
+        super(message);
+    }
+}
@@ -1,6 +1,6 @@
 package ec.edu.espe.ortiz_leccion2.exceptions;
 
-public class InvalidFilterException extends RuntimeException {
+public class InvalidFilterException extends DomainException {
     public InvalidFilterException(String message) {
         super(message);
     }
@@ -0,0 +1,7 @@
+package ec.edu.espe.ortiz_leccion2.exceptions;
+
+public class PreconditionFailedException extends DomainException {
+    public PreconditionFailedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package ec.edu.espe.ortiz_leccion2.exceptions;
+
+public class ResourceGoneException extends DomainException {
+    public ResourceGoneException(String message) {
+        super(message);
+    }
+}
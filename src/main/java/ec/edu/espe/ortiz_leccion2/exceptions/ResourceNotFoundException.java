@@ -1,6 +1,6 @@
 package ec.edu.espe.ortiz_leccion2.exceptions;
 
-public class ResourceNotFoundException extends RuntimeException {
+public class ResourceNotFoundException extends DomainException {
     public ResourceNotFoundException(String message) {
         super(message);
     }
@@ -0,0 +1,49 @@
+package ec.edu.espe.ortiz_leccion2.models.dto;
+
+import java.util.Map;
+
+/**
+ * Error de un elemento dentro de una carga masiva
+ */
+public class BatchItemErrorDTO {
+
+    private long index; // Posición del elemento en el cuerpo de la petición
+    private String orderNumber;
+    private Map<String, String> errors; // campo -> mensaje
+
+    // Constructor vacío
+    public BatchItemErrorDTO() {
+    }
+
+    public BatchItemErrorDTO(long index, String orderNumber, Map<String, String> errors) {
+        this.index = index;
+        this.orderNumber = orderNumber;
+        this.errors = errors;
+    }
+
+    // Getters y Setters
+
+    public long getIndex() {
+        return index;
+    }
+
+    public void setIndex(long index) {
+        this.index = index;
+    }
+
+    public String getOrderNumber() {
+        return orderNumber;
+    }
+
+    public void setOrderNumber(String orderNumber) {
+        this.orderNumber = orderNumber;
+    }
+
+    public Map<String, String> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(Map<String, String> errors) {
+        this.errors = errors;
+    }
+}
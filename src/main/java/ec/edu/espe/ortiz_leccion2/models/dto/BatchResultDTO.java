@@ -0,0 +1,67 @@
+package ec.edu.espe.ortiz_leccion2.models.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Resumen de una carga masiva: contadores y errores por elemento
+ */
+public class BatchResultDTO {
+
+    private long received;
+    private long created;
+    private long updated;
+    private long failed;
+    private List<BatchItemErrorDTO> errors = new ArrayList<>();
+
+    // Constructor vacío
+    public BatchResultDTO() {
+    }
+
+    public void addError(BatchItemErrorDTO error) {
+        errors.add(error);
+        failed++;
+    }
+
+    // Getters y Setters
+
+    public long getReceived() {
+        return received;
+    }
+
+    public void setReceived(long received) {
+        this.received = received;
+    }
+
+    public long getCreated() {
+        return created;
+    }
+
+    public void setCreated(long created) {
+        this.created = created;
+    }
+
+    public long getUpdated() {
+        return updated;
+    }
+
+    public void setUpdated(long updated) {
+        this.updated = updated;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    public void setFailed(long failed) {
+        this.failed = failed;
+    }
+
+    public List<BatchItemErrorDTO> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(List<BatchItemErrorDTO> errors) {
+        this.errors = errors;
+    }
+}
@@ -0,0 +1,94 @@
+package ec.edu.espe.ortiz_leccion2.models.dto;
+
+import ec.edu.espe.ortiz_leccion2.models.enums.IngestionStatus;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Estado de una orden recibida en modo asíncrono. orderId se informa al quedar CREATED
+ * y errors (campo -> mensaje) al quedar FAILED.
+ */
+public class IngestionStatusDTO {
+
+    private String trackingId;
+    private IngestionStatus status;
+    private String orderNumber;
+    private Long orderId;
+    private Map<String, String> errors;
+    private LocalDateTime acceptedAt;
+    private LocalDateTime completedAt;
+
+    // Constructor vacío
+    public IngestionStatusDTO() {
+    }
+
+    public IngestionStatusDTO(String trackingId, IngestionStatus status, String orderNumber, Long orderId,
+            Map<String, String> errors, LocalDateTime acceptedAt, LocalDateTime completedAt) {
+        this.trackingId = trackingId;
+        this.status = status;
+        this.orderNumber = orderNumber;
+        this.orderId = orderId;
+        this.errors = errors;
+        this.acceptedAt = acceptedAt;
+        this.completedAt = completedAt;
+    }
+
+    // Getters y Setters
+
+    public String getTrackingId() {
+        return trackingId;
+    }
+
+    public void setTrackingId(String trackingId) {
+        this.trackingId = trackingId;
+    }
+
+    public IngestionStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(IngestionStatus status) {
+        this.status = status;
+    }
+
+    public String getOrderNumber() {
+        return orderNumber;
+    }
+
+    public void setOrderNumber(String orderNumber) {
+        this.orderNumber = orderNumber;
+    }
+
+    public Long getOrderId() {
+        return orderId;
+    }
+
+    public void setOrderId(Long orderId) {
+        this.orderId = orderId;
+    }
+
+    public Map<String, String> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(Map<String, String> errors) {
+        this.errors = errors;
+    }
+
+    public LocalDateTime getAcceptedAt() {
+        return acceptedAt;
+    }
+
+    public void setAcceptedAt(LocalDateTime acceptedAt) {
+        this.acceptedAt = acceptedAt;
+    }
+
+    public LocalDateTime getCompletedAt() {
+        return completedAt;
+    }
+
+    public void setCompletedAt(LocalDateTime completedAt) {
+        this.completedAt = completedAt;
+    }
+}
@@ -0,0 +1,86 @@
+package ec.edu.espe.ortiz_leccion2.models.dto;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import ec.edu.espe.ortiz_leccion2.models.enums.ChangeOperation;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entrada del registro de cambios. order es el estado de la orden tras el cambio (null en DELETED y ARCHIVED),
+ * guardado como JSON y devuelto tal cual sin volver a deserializarlo.
+ */
+public class PurchaseOrderChangeDTO {
+
+    private long sequence;
+    private Long orderId;
+    private ChangeOperation operation;
+    private Long version;
+    private LocalDateTime changedAt;
+
+    @JsonRawValue
+    private String order;
+
+    // Constructor vacío
+    public PurchaseOrderChangeDTO() {
+    }
+
+    public PurchaseOrderChangeDTO(long sequence, Long orderId, ChangeOperation operation, Long version,
+            LocalDateTime changedAt, String order) {
+        this.sequence = sequence;
+        this.orderId = orderId;
+        this.operation = operation;
+        this.version = version;
+        this.changedAt = changedAt;
+        this.order = order;
+    }
+
+    // Getters y Setters
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public void setSequence(long sequence) {
+        this.sequence = sequence;
+    }
+
+    public Long getOrderId() {
+        return orderId;
+    }
+
+    public void setOrderId(Long orderId) {
+        this.orderId = orderId;
+    }
+
+    public ChangeOperation getOperation() {
+        return operation;
+    }
+
+    public void setOperation(ChangeOperation operation) {
+        this.operation = operation;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public LocalDateTime getChangedAt() {
+        return changedAt;
+    }
+
+    public void setChangedAt(LocalDateTime changedAt) {
+        this.changedAt = changedAt;
+    }
+
+    public String getOrder() {
+        return order;
+    }
+
+    public void setOrder(String order) {
+        this.order = order;
+    }
+}
@@ -0,0 +1,50 @@
+package ec.edu.espe.ortiz_leccion2.models.dto;
+
+import java.util.List;
+
+/**
+ * Bloque del feed de cambios. nextSince es el valor de since para la siguiente consulta
+ * y hasMore indica si ya existen más cambios después de este bloque.
+ */
+public class PurchaseOrderChangeFeedDTO {
+
+    private List<PurchaseOrderChangeDTO> changes;
+    private long nextSince;
+    private boolean hasMore;
+
+    // Constructor vacío
+    public PurchaseOrderChangeFeedDTO() {
+    }
+
+    public PurchaseOrderChangeFeedDTO(List<PurchaseOrderChangeDTO> changes, long nextSince, boolean hasMore) {
+        this.changes = changes;
+        this.nextSince = nextSince;
+        this.hasMore = hasMore;
+    }
+
+    // Getters y Setters
+
+    public List<PurchaseOrderChangeDTO> getChanges() {
+        return changes;
+    }
+
+    public void setChanges(List<PurchaseOrderChangeDTO> changes) {
+        this.changes = changes;
+    }
+
+    public long getNextSince() {
+        return nextSince;
+    }
+
+    public void setNextSince(long nextSince) {
+        this.nextSince = nextSince;
+    }
+
+    public boolean isHasMore() {
+        return hasMore;
+    }
+
+    public void setHasMore(boolean hasMore) {
+        this.hasMore = hasMore;
+    }
+}
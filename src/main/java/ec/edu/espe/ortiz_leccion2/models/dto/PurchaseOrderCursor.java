@@ -0,0 +1,83 @@
+package ec.edu.espe.ortiz_leccion2.models.dto;
+
+import ec.edu.espe.ortiz_leccion2.exceptions.InvalidFilterException;
+import ec.edu.espe.ortiz_leccion2.models.entities.PurchaseOrder;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.Objects;
+
+/**
+ * Posición de paginación por keyset sobre (createdAt, id).
+ * Se expone al cliente como un token opaco en Base64 URL-safe.
+ */
+public class PurchaseOrderCursor {
+
+    private static final char SEPARATOR = '|';
+
+    private static final InvalidFilterException INVALID_CURSOR = new InvalidFilterException("Cursor inválido");
+
+    private final LocalDateTime createdAt;
+    private final Long id;
+
+    public PurchaseOrderCursor(LocalDateTime createdAt, Long id) {
+        this.createdAt = createdAt;
+        this.id = id;
+    }
+
+    public static PurchaseOrderCursor of(PurchaseOrder purchaseOrder) {
+        return new PurchaseOrderCursor(purchaseOrder.getCreatedAt(), purchaseOrder.getId());
+    }
+
+    /**
+     * Codifica el cursor como token opaco
+     */
+    public String encode() {
+        String raw = createdAt.toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodifica un token recibido del cliente
+     */
+    public static PurchaseOrderCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(SEPARATOR);
+            if (separator <= 0) {
+                throw INVALID_CURSOR;
+            }
+            return new PurchaseOrderCursor(
+                    LocalDateTime.parse(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw INVALID_CURSOR;
+        }
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof PurchaseOrderCursor that)) {
+            return false;
+        }
+        return Objects.equals(createdAt, that.createdAt) && Objects.equals(id, that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(createdAt, id);
+    }
+}
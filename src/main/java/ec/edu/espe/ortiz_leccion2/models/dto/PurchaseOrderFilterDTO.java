@@ -6,6 +6,7 @@ import jakarta.validation.constraints.DecimalMin;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Objects;
 
 public class PurchaseOrderFilterDTO {
 
@@ -26,6 +27,14 @@ public class PurchaseOrderFilterDTO {
     public PurchaseOrderFilterDTO() {
     }
 
+    /**
+     * Un to sin fracción (el formato yyyy-MM-dd'T'HH:mm:ss de la API) incluye todo ese segundo, hasta el
+     * último microsegundo que guarda created_at: to=2025-06-30T23:59:59 cubre el día completo
+     */
+    public static LocalDateTime inclusiveTo(LocalDateTime to) {
+        return to != null && to.getNano() == 0 ? to.plusNanos(999_999_000) : to;
+    }
+
     // Getters y Setters
 
     public String getQ() {
@@ -83,4 +92,26 @@ public class PurchaseOrderFilterDTO {
     public void setTo(LocalDateTime to) {
         this.to = to;
     }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof PurchaseOrderFilterDTO that)) {
+            return false;
+        }
+        return Objects.equals(q, that.q)
+                && status == that.status
+                && currency == that.currency
+                && Objects.equals(minTotal, that.minTotal)
+                && Objects.equals(maxTotal, that.maxTotal)
+                && Objects.equals(from, that.from)
+                && Objects.equals(to, that.to);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(q, status, currency, minTotal, maxTotal, from, to);
+    }
 }
@@ -0,0 +1,35 @@
+package ec.edu.espe.ortiz_leccion2.models.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Claves de POST /lookup: ids y/o números de orden
+ */
+public class PurchaseOrderLookupDTO {
+
+    private List<Long> ids = new ArrayList<>();
+    private List<String> orderNumbers = new ArrayList<>();
+
+    // Constructor vacío
+    public PurchaseOrderLookupDTO() {
+    }
+
+    // Getters y Setters
+
+    public List<Long> getIds() {
+        return ids;
+    }
+
+    public void setIds(List<Long> ids) {
+        this.ids = ids;
+    }
+
+    public List<String> getOrderNumbers() {
+        return orderNumbers;
+    }
+
+    public void setOrderNumbers(List<String> orderNumbers) {
+        this.orderNumbers = orderNumbers;
+    }
+}
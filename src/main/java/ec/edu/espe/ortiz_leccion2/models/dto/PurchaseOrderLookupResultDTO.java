@@ -0,0 +1,47 @@
+package ec.edu.espe.ortiz_leccion2.models.dto;
+
+import ec.edu.espe.ortiz_leccion2.models.entities.PurchaseOrder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Respuesta de POST /lookup: las órdenes encontradas en el orden de las claves pedidas (primero los ids,
+ * después los números) y las claves que no existen
+ */
+public class PurchaseOrderLookupResultDTO {
+
+    private List<PurchaseOrder> orders = new ArrayList<>();
+    private List<Long> missingIds = new ArrayList<>();
+    private List<String> missingOrderNumbers = new ArrayList<>();
+
+    // Constructor vacío
+    public PurchaseOrderLookupResultDTO() {
+    }
+
+    // Getters y Setters
+
+    public List<PurchaseOrder> getOrders() {
+        return orders;
+    }
+
+    public void setOrders(List<PurchaseOrder> orders) {
+        this.orders = orders;
+    }
+
+    public List<Long> getMissingIds() {
+        return missingIds;
+    }
+
+    public void setMissingIds(List<Long> missingIds) {
+        this.missingIds = missingIds;
+    }
+
+    public List<String> getMissingOrderNumbers() {
+        return missingOrderNumbers;
+    }
+
+    public void setMissingOrderNumbers(List<String> missingOrderNumbers) {
+        this.missingOrderNumbers = missingOrderNumbers;
+    }
+}
@@ -0,0 +1,63 @@
+package ec.edu.espe.ortiz_leccion2.models.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.util.List;
+
+/**
+ * Página de resultados con paginación por cursor.
+ * nextCursor es null cuando no existen más resultados.
+ */
+public class PurchaseOrderPageDTO<T> {
+
+    private List<T> items;
+    private String nextCursor;
+    private int limit;
+
+    @JsonIgnore
+    private String etag; // ETag débil calculado con el id y la versión de cada elemento
+
+    // Constructor vacío
+    public PurchaseOrderPageDTO() {
+    }
+
+    public PurchaseOrderPageDTO(List<T> items, String nextCursor, int limit) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+        this.limit = limit;
+    }
+
+    // Getters y Setters
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    public void setItems(List<T> items) {
+        this.items = items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public void setLimit(int limit) {
+        this.limit = limit;
+    }
+
+    public String getEtag() {
+        return etag;
+    }
+
+    public void setEtag(String etag) {
+        this.etag = etag;
+    }
+}
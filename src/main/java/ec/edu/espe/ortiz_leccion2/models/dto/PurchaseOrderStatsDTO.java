@@ -0,0 +1,49 @@
+package ec.edu.espe.ortiz_leccion2.models.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import ec.edu.espe.ortiz_leccion2.models.enums.StatsBucket;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Estadísticas de las órdenes filtradas: totales por status × currency y, si se pide un
+ * bucket, series temporales por periodo de createdAt
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class PurchaseOrderStatsDTO {
+
+    private List<StatsGroupDTO> groups = new ArrayList<>();
+    private StatsBucket bucket;
+    private List<StatsGroupDTO> series;
+
+    // Constructor vacío
+    public PurchaseOrderStatsDTO() {
+    }
+
+    // Getters y Setters
+
+    public List<StatsGroupDTO> getGroups() {
+        return groups;
+    }
+
+    public void setGroups(List<StatsGroupDTO> groups) {
+        this.groups = groups;
+    }
+
+    public StatsBucket getBucket() {
+        return bucket;
+    }
+
+    public void setBucket(StatsBucket bucket) {
+        this.bucket = bucket;
+    }
+
+    public List<StatsGroupDTO> getSeries() {
+        return series;
+    }
+
+    public void setSeries(List<StatsGroupDTO> series) {
+        this.series = series;
+    }
+}
@@ -0,0 +1,69 @@
+package ec.edu.espe.ortiz_leccion2.models.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import ec.edu.espe.ortiz_leccion2.models.entities.PurchaseOrder;
+import ec.edu.espe.ortiz_leccion2.models.enums.Currency;
+import ec.edu.espe.ortiz_leccion2.models.enums.OrderStatus;
+import jakarta.persistence.Tuple;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Modelo de lectura de una orden de compra para los listados.
+ * Se obtiene por proyección (sin entidades gestionadas) y omite en el JSON los campos no solicitados.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record PurchaseOrderSummary(
+        Long id,
+        String orderNumber,
+        String supplierName,
+        OrderStatus status,
+        BigDecimal totalAmount,
+        Currency currency,
+        LocalDateTime createdAt,
+        LocalDate expectedDeliveryDate,
+        Long version) {
+
+    /**
+     * Campos que se pueden pedir en ?fields=, en el orden de la respuesta
+     */
+    public static final List<String> FIELDS = List.of(
+            "id", "orderNumber", "supplierName", "status", "totalAmount", "currency", "createdAt",
+            "expectedDeliveryDate", "version");
+
+    /**
+     * Construye el resumen con los campos pedidos; el resto queda en null
+     */
+    public static PurchaseOrderSummary from(Tuple tuple, Collection<String> fields) {
+        return new PurchaseOrderSummary(
+                fields.contains("id") ? tuple.get("id", Long.class) : null,
+                fields.contains("orderNumber") ? tuple.get("orderNumber", String.class) : null,
+                fields.contains("supplierName") ? tuple.get("supplierName", String.class) : null,
+                fields.contains("status") ? tuple.get("status", OrderStatus.class) : null,
+                fields.contains("totalAmount") ? tuple.get("totalAmount", BigDecimal.class) : null,
+                fields.contains("currency") ? tuple.get("currency", Currency.class) : null,
+                fields.contains("createdAt") ? tuple.get("createdAt", LocalDateTime.class) : null,
+                fields.contains("expectedDeliveryDate") ? tuple.get("expectedDeliveryDate", LocalDate.class) : null,
+                fields.contains("version") ? tuple.get("version", Long.class) : null);
+    }
+
+    /**
+     * Igual que from(Tuple, ...) a partir de una orden ya cargada (p. ej. una archivada)
+     */
+    public static PurchaseOrderSummary from(PurchaseOrder order, Collection<String> fields) {
+        return new PurchaseOrderSummary(
+                fields.contains("id") ? order.getId() : null,
+                fields.contains("orderNumber") ? order.getOrderNumber() : null,
+                fields.contains("supplierName") ? order.getSupplierName() : null,
+                fields.contains("status") ? order.getStatus() : null,
+                fields.contains("totalAmount") ? order.getTotalAmount() : null,
+                fields.contains("currency") ? order.getCurrency() : null,
+                fields.contains("createdAt") ? order.getCreatedAt() : null,
+                fields.contains("expectedDeliveryDate") ? order.getExpectedDeliveryDate() : null,
+                fields.contains("version") ? order.getVersion() : null);
+    }
+}
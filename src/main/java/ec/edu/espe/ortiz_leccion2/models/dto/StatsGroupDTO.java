@@ -0,0 +1,107 @@
+package ec.edu.espe.ortiz_leccion2.models.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import ec.edu.espe.ortiz_leccion2.models.enums.Currency;
+import ec.edu.espe.ortiz_leccion2.models.enums.OrderStatus;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+
+/**
+ * Agregados de totalAmount para un grupo status × currency (y un periodo en las series)
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class StatsGroupDTO {
+
+    private LocalDate period; // Inicio del periodo (solo en las series)
+    private OrderStatus status;
+    private Currency currency;
+    private long count;
+    private BigDecimal sum;
+    private BigDecimal min;
+    private BigDecimal max;
+
+    // Constructor vacío
+    public StatsGroupDTO() {
+    }
+
+    public StatsGroupDTO(LocalDate period, OrderStatus status, Currency currency) {
+        this.period = period;
+        this.status = status;
+        this.currency = currency;
+        this.sum = BigDecimal.ZERO;
+    }
+
+    /**
+     * Acumula un agregado parcial (p. ej. el de un día dentro de una semana)
+     */
+    public void merge(long count, BigDecimal sum, BigDecimal min, BigDecimal max) {
+        this.count += count;
+        this.sum = this.sum.add(sum);
+        this.min = this.min == null || min.compareTo(this.min) < 0 ? min : this.min;
+        this.max = this.max == null || max.compareTo(this.max) > 0 ? max : this.max;
+    }
+
+    public BigDecimal getAvg() {
+        return count == 0 ? null : sum.divide(BigDecimal.valueOf(count), 2, RoundingMode.HALF_UP);
+    }
+
+    // Getters y Setters
+
+    public LocalDate getPeriod() {
+        return period;
+    }
+
+    public void setPeriod(LocalDate period) {
+        this.period = period;
+    }
+
+    public OrderStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(OrderStatus status) {
+        this.status = status;
+    }
+
+    public Currency getCurrency() {
+        return currency;
+    }
+
+    public void setCurrency(Currency currency) {
+        this.currency = currency;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public void setCount(long count) {
+        this.count = count;
+    }
+
+    public BigDecimal getSum() {
+        return sum;
+    }
+
+    public void setSum(BigDecimal sum) {
+        this.sum = sum;
+    }
+
+    public BigDecimal getMin() {
+        return min;
+    }
+
+    public void setMin(BigDecimal min) {
+        this.min = min;
+    }
+
+    public BigDecimal getMax() {
+        return max;
+    }
+
+    public void setMax(BigDecimal max) {
+        this.max = max;
+    }
+}
@@ -11,7 +11,14 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "purchase_order")
+// Los índices se crean con Flyway (V2__purchase_order_filter_indexes.sql); se declaran aquí para mantenerlos alineados
+@Table(name = "purchase_order", indexes = {
+        @Index(name = "idx_po_created_at_id", columnList = "created_at, id"),
+        @Index(name = "idx_po_status_created_at", columnList = "status, created_at, id"),
+        @Index(name = "idx_po_currency_created_at", columnList = "currency, created_at, id"),
+        @Index(name = "idx_po_status_currency_created_at", columnList = "status, currency, created_at, id"),
+        @Index(name = "idx_po_total_amount", columnList = "total_amount")
+})
 public class PurchaseOrder {
 
     @Id
@@ -42,6 +49,11 @@ public class PurchaseOrder {
     @Column(name = "currency", length = 3, nullable = false)
     private Currency currency;
 
+    // Se incrementa en cada actualización; Hibernate la usa para detectar escrituras concurrentes
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
@@ -105,6 +117,14 @@ public class PurchaseOrder {
         this.currency = currency;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
@@ -0,0 +1,9 @@
+package ec.edu.espe.ortiz_leccion2.models.enums;
+
+public enum ChangeOperation {
+    CREATED,
+    UPDATED,
+    DELETED,
+    // Movida a purchase_order_archive: deja de estar vigente, pero GET /{id} la sigue devolviendo
+    ARCHIVED
+}
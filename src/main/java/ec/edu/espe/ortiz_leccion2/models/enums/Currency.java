@@ -2,5 +2,14 @@ package ec.edu.espe.ortiz_leccion2.models.enums;
 
 public enum Currency {
     USD,
-    EUR
+    EUR;
+
+    private static final EnumLookup<Currency> LOOKUP = new EnumLookup<>(Currency.class);
+
+    /**
+     * Constante con ese nombre sin distinguir mayúsculas, o null si no existe
+     */
+    public static Currency fromName(String name) {
+        return LOOKUP.find(name);
+    }
 }
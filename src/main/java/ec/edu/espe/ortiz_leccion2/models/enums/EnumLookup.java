@@ -0,0 +1,46 @@
+package ec.edu.espe.ortiz_leccion2.models.enums;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Tabla precalculada nombre → constante de un enum.
+ * 
+ * Reemplaza valueOf(value.toUpperCase()) dentro de un try/catch: un valor desconocido devuelve null en lugar
+ * de lanzar IllegalArgumentException, y el caso habitual (nombre exacto, en mayúsculas o en minúsculas) se
+ * resuelve con una búsqueda en el mapa sin crear el String en mayúsculas.
+ */
+public final class EnumLookup<E extends Enum<E>> {
+
+    private final E[] constants;
+    private final Map<String, E> byName;
+
+    public EnumLookup(Class<E> type) {
+        this.constants = type.getEnumConstants();
+        this.byName = new HashMap<>(constants.length * 4);
+        for (E constant : constants) {
+            byName.put(constant.name(), constant);
+            byName.put(constant.name().toLowerCase(), constant);
+        }
+    }
+
+    /**
+     * Constante con ese nombre sin distinguir mayúsculas, o null si no existe
+     */
+    public E find(String name) {
+        if (name == null) {
+            return null;
+        }
+        E constant = byName.get(name);
+        if (constant != null) {
+            return constant;
+        }
+        // Mayúsculas y minúsculas mezcladas: recorre las pocas constantes sin asignar memoria
+        for (E candidate : constants) {
+            if (candidate.name().equalsIgnoreCase(name)) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,15 @@
+package ec.edu.espe.ortiz_leccion2.models.enums;
+
+public enum ExportFormat {
+    NDJSON,
+    CSV;
+
+    private static final EnumLookup<ExportFormat> LOOKUP = new EnumLookup<>(ExportFormat.class);
+
+    /**
+     * Constante con ese nombre sin distinguir mayúsculas, o null si no existe
+     */
+    public static ExportFormat fromName(String name) {
+        return LOOKUP.find(name);
+    }
+}
@@ -0,0 +1,7 @@
+package ec.edu.espe.ortiz_leccion2.models.enums;
+
+public enum IngestionStatus {
+    QUEUED,
+    CREATED,
+    FAILED
+}
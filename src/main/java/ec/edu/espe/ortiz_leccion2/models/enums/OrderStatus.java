@@ -5,5 +5,14 @@ public enum OrderStatus {
     SUBMITTED,
     APPROVED,
     REJECTED,
-    CANCELLED
+    CANCELLED;
+
+    private static final EnumLookup<OrderStatus> LOOKUP = new EnumLookup<>(OrderStatus.class);
+
+    /**
+     * Constante con ese nombre sin distinguir mayúsculas, o null si no existe
+     */
+    public static OrderStatus fromName(String name) {
+        return LOOKUP.find(name);
+    }
 }
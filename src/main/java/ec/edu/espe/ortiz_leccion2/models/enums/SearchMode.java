@@ -0,0 +1,6 @@
+package ec.edu.espe.ortiz_leccion2.models.enums;
+
+public enum SearchMode {
+    LIKE,
+    FULLTEXT
+}
@@ -0,0 +1,16 @@
+package ec.edu.espe.ortiz_leccion2.models.enums;
+
+public enum StatsBucket {
+    DAY,
+    WEEK,
+    MONTH;
+
+    private static final EnumLookup<StatsBucket> LOOKUP = new EnumLookup<>(StatsBucket.class);
+
+    /**
+     * Constante con ese nombre sin distinguir mayúsculas, o null si no existe
+     */
+    public static StatsBucket fromName(String name) {
+        return LOOKUP.find(name);
+    }
+}
@@ -0,0 +1,42 @@
+package ec.edu.espe.ortiz_leccion2.models.events;
+
+import ec.edu.espe.ortiz_leccion2.models.entities.PurchaseOrder;
+
+import java.util.List;
+
+/**
+ * Cambios confirmados sobre órdenes de compra. Se publica dentro de la transacción de escritura
+ * y los listeners lo reciben con @TransactionalEventListener (por defecto tras el commit).
+ * 
+ * before es null en una creación y after es null en una eliminación. Ambos son copias
+ * desacopladas de la sesión de Hibernate.
+ */
+public record PurchaseOrderChangedEvent(List<Change> changes) {
+
+    public record Change(PurchaseOrder before, PurchaseOrder after) {
+    }
+
+    public static PurchaseOrderChangedEvent of(PurchaseOrder before, PurchaseOrder after) {
+        return new PurchaseOrderChangedEvent(List.of(new Change(before, after)));
+    }
+
+    /**
+     * Copia del estado de la orden, independiente de la entidad gestionada
+     */
+    public static PurchaseOrder snapshot(PurchaseOrder order) {
+        if (order == null) {
+            return null;
+        }
+        PurchaseOrder copy = new PurchaseOrder();
+        copy.setId(order.getId());
+        copy.setOrderNumber(order.getOrderNumber());
+        copy.setSupplierName(order.getSupplierName());
+        copy.setStatus(order.getStatus());
+        copy.setTotalAmount(order.getTotalAmount());
+        copy.setCurrency(order.getCurrency());
+        copy.setVersion(order.getVersion());
+        copy.setCreatedAt(order.getCreatedAt());
+        copy.setExpectedDeliveryDate(order.getExpectedDeliveryDate());
+        return copy;
+    }
+}
@@ -0,0 +1,58 @@
+package ec.edu.espe.ortiz_leccion2.repositories;
+
+import ec.edu.espe.ortiz_leccion2.models.dto.PurchaseOrderCursor;
+import ec.edu.espe.ortiz_leccion2.models.dto.PurchaseOrderFilterDTO;
+import ec.edu.espe.ortiz_leccion2.models.dto.StatsGroupDTO;
+import ec.edu.espe.ortiz_leccion2.models.entities.PurchaseOrder;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Acceso a las órdenes archivadas (tabla purchase_order_archive), de solo lectura salvo por el archivado.
+ * Los filtros son los de PurchaseOrderSpecification; q siempre se resuelve con LIKE.
+ */
+public interface PurchaseOrderArchiveRepository {
+
+    /**
+     * Fecha de creación de la orden vigente más antigua, o null si no hay órdenes
+     */
+    LocalDateTime findOldestActiveCreatedAt();
+
+    /**
+     * Fecha de creación de la orden archivada más reciente, o null si el archivo está vacío
+     */
+    LocalDateTime findArchivedThrough();
+
+    /**
+     * En MySQL crea las particiones mensuales que falten hasta through (incluido). Son sentencias DDL:
+     * hacen commit implícito, así que no se debe llamar dentro de una transacción.
+     */
+    void addMonthlyPartitions(YearMonth from, YearMonth through);
+
+    /**
+     * Mueve al archivo hasta limit órdenes creadas antes de cutoff, las más antiguas primero, y registra
+     * un cambio ARCHIVED por cada una. Debe ejecutarse en una transacción; devuelve cuántas movió.
+     */
+    int archiveBefore(LocalDateTime cutoff, int limit);
+
+    Optional<PurchaseOrder> findById(long id);
+
+    /**
+     * Órdenes posteriores al cursor (o desde el principio si es null) según KEYSET_SORT
+     */
+    List<PurchaseOrder> findPage(PurchaseOrderFilterDTO filters, PurchaseOrderCursor cursor, int limit);
+
+    /**
+     * Órdenes en streaming; el Stream debe cerrarse
+     */
+    Stream<PurchaseOrder> stream(PurchaseOrderFilterDTO filters);
+
+    /**
+     * Agregados por status y currency (y por día si byDay, en period)
+     */
+    List<StatsGroupDTO> aggregate(PurchaseOrderFilterDTO filters, boolean byDay);
+}
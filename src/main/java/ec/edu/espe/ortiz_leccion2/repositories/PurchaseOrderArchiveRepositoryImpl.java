@@ -0,0 +1,232 @@
+package ec.edu.espe.ortiz_leccion2.repositories;
+
+import ec.edu.espe.ortiz_leccion2.models.dto.PurchaseOrderCursor;
+import ec.edu.espe.ortiz_leccion2.models.dto.PurchaseOrderFilterDTO;
+import ec.edu.espe.ortiz_leccion2.models.dto.StatsGroupDTO;
+import ec.edu.espe.ortiz_leccion2.models.entities.PurchaseOrder;
+import ec.edu.espe.ortiz_leccion2.models.enums.ChangeOperation;
+import ec.edu.espe.ortiz_leccion2.models.enums.Currency;
+import ec.edu.espe.ortiz_leccion2.models.enums.OrderStatus;
+import ec.edu.espe.ortiz_leccion2.specifications.PurchaseOrderSearchTerms;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+@Repository
+public class PurchaseOrderArchiveRepositoryImpl implements PurchaseOrderArchiveRepository {
+
+    private static final String COLUMNS = "id, order_number, supplier_name, status, total_amount, currency, "
+            + "created_at, expected_delivery_date, version";
+
+    private static final String SELECT_SQL = "SELECT " + COLUMNS + " FROM purchase_order_archive";
+
+    // FOR UPDATE: una actualización concurrente no puede perderse entre la copia y el borrado
+    private static final String SELECT_TO_ARCHIVE_SQL = "SELECT id FROM purchase_order WHERE created_at < ? "
+            + "ORDER BY created_at, id LIMIT ? FOR UPDATE";
+
+    private static final String SELECT_PARTITIONS_SQL = "SELECT PARTITION_NAME FROM information_schema.PARTITIONS "
+            + "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'purchase_order_archive' AND PARTITION_NAME <> 'p_max'";
+
+    private static final String LIKE_ESCAPE = " ESCAPE '" + PurchaseOrderSearchTerms.ESCAPE_CHAR + "'";
+
+    private static final DateTimeFormatter PARTITION_NAME = DateTimeFormatter.ofPattern("'p'yyyyMM");
+
+    private static final RowMapper<PurchaseOrder> ROW_MAPPER = (rs, rowNum) -> {
+        PurchaseOrder order = new PurchaseOrder();
+        order.setId(rs.getLong("id"));
+        order.setOrderNumber(rs.getString("order_number"));
+        order.setSupplierName(rs.getString("supplier_name"));
+        order.setStatus(OrderStatus.valueOf(rs.getString("status")));
+        order.setTotalAmount(rs.getBigDecimal("total_amount"));
+        order.setCurrency(Currency.valueOf(rs.getString("currency")));
+        order.setCreatedAt(rs.getTimestamp("created_at").toLocalDateTime());
+        order.setExpectedDeliveryDate(rs.getDate("expected_delivery_date").toLocalDate());
+        order.setVersion(rs.getLong("version"));
+        return order;
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Igual que la exportación de órdenes vigentes (Integer.MIN_VALUE: streaming en MySQL)
+    @Value("${purchase-order.export.fetch-size:1000}")
+    private int fetchSize;
+
+    private volatile Boolean mysql;
+
+    public PurchaseOrderArchiveRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public LocalDateTime findOldestActiveCreatedAt() {
+        Timestamp oldest = jdbcTemplate.queryForObject("SELECT MIN(created_at) FROM purchase_order", Timestamp.class);
+        return oldest != null ? oldest.toLocalDateTime() : null;
+    }
+
+    @Override
+    public LocalDateTime findArchivedThrough() {
+        Timestamp through = jdbcTemplate.queryForObject("SELECT MAX(created_at) FROM purchase_order_archive",
+                Timestamp.class);
+        return through != null ? through.toLocalDateTime() : null;
+    }
+
+    @Override
+    public void addMonthlyPartitions(YearMonth from, YearMonth through) {
+        if (!isMySql()) {
+            return;
+        }
+        // Solo se parte p_max: una partición nueva siempre queda después de las existentes
+        YearMonth next = from;
+        for (String name : jdbcTemplate.queryForList(SELECT_PARTITIONS_SQL, String.class)) {
+            YearMonth existing = YearMonth.parse(name.substring(1), DateTimeFormatter.ofPattern("yyyyMM"));
+            if (!existing.isBefore(next)) {
+                next = existing.plusMonths(1);
+            }
+        }
+        for (YearMonth month = next; !month.isAfter(through); month = month.plusMonths(1)) {
+            jdbcTemplate.execute("ALTER TABLE purchase_order_archive REORGANIZE PARTITION p_max INTO ("
+                    + "PARTITION " + month.format(PARTITION_NAME) + " VALUES LESS THAN ('"
+                    + month.plusMonths(1).atDay(1) + "'), PARTITION p_max VALUES LESS THAN (MAXVALUE))");
+        }
+    }
+
+    @Override
+    public int archiveBefore(LocalDateTime cutoff, int limit) {
+        List<Long> ids = jdbcTemplate.queryForList(SELECT_TO_ARCHIVE_SQL, Long.class, Timestamp.valueOf(cutoff), limit);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        String in = String.join(", ", Collections.nCopies(ids.size(), "?"));
+        List<Object> args = new ArrayList<>(ids.size() + 1);
+        args.add(Timestamp.valueOf(LocalDateTime.now()));
+        args.addAll(ids);
+        jdbcTemplate.update("INSERT INTO purchase_order_archive (" + COLUMNS + ", archived_at) SELECT " + COLUMNS
+                + ", ? FROM purchase_order WHERE id IN (" + in + ")", args.toArray());
+        // El registro de cambios sigue a la orden: los consumidores de /changes dejan de verla vigente
+        jdbcTemplate.update("INSERT INTO purchase_order_change (order_id, operation, version, changed_at, payload) "
+                + "SELECT id, '" + ChangeOperation.ARCHIVED + "', version, ?, NULL FROM purchase_order WHERE id IN ("
+                + in + ")", args.toArray());
+        return jdbcTemplate.update("DELETE FROM purchase_order WHERE id IN (" + in + ")", ids.toArray());
+    }
+
+    @Override
+    public Optional<PurchaseOrder> findById(long id) {
+        return jdbcTemplate.query(SELECT_SQL + " WHERE id = ?", ROW_MAPPER, id).stream().findFirst();
+    }
+
+    @Override
+    public List<PurchaseOrder> findPage(PurchaseOrderFilterDTO filters, PurchaseOrderCursor cursor, int limit) {
+        List<Object> args = new ArrayList<>();
+        StringBuilder sql = new StringBuilder(SELECT_SQL).append(where(filters, args));
+        if (cursor != null) {
+            sql.append(" AND (created_at < ? OR (created_at = ? AND id < ?))");
+            args.add(Timestamp.valueOf(cursor.getCreatedAt()));
+            args.add(Timestamp.valueOf(cursor.getCreatedAt()));
+            args.add(cursor.getId());
+        }
+        sql.append(" ORDER BY created_at DESC, id DESC LIMIT ?");
+        args.add(limit);
+        return jdbcTemplate.query(sql.toString(), ROW_MAPPER, args.toArray());
+    }
+
+    @Override
+    public Stream<PurchaseOrder> stream(PurchaseOrderFilterDTO filters) {
+        List<Object> args = new ArrayList<>();
+        String sql = SELECT_SQL + where(filters, args);
+        return jdbcTemplate.queryForStream(connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql);
+            statement.setFetchSize(fetchSize);
+            for (int i = 0; i < args.size(); i++) {
+                statement.setObject(i + 1, args.get(i));
+            }
+            return statement;
+        }, ROW_MAPPER);
+    }
+
+    @Override
+    public List<StatsGroupDTO> aggregate(PurchaseOrderFilterDTO filters, boolean byDay) {
+        List<Object> args = new ArrayList<>();
+        String groupBy = byDay ? "status, currency, CAST(created_at AS DATE)" : "status, currency";
+        String sql = "SELECT " + groupBy + (byDay ? " AS day" : "")
+                + ", COUNT(*) AS cnt, SUM(total_amount) AS total, MIN(total_amount) AS min_total,"
+                + " MAX(total_amount) AS max_total FROM purchase_order_archive" + where(filters, args)
+                + " GROUP BY " + groupBy;
+        return jdbcTemplate.query(sql, (rs, rowNum) -> {
+            LocalDate day = byDay ? rs.getDate("day").toLocalDate() : null;
+            StatsGroupDTO group = new StatsGroupDTO(day, OrderStatus.valueOf(rs.getString("status")),
+                    Currency.valueOf(rs.getString("currency")));
+            group.merge(rs.getLong("cnt"), rs.getBigDecimal("total"), rs.getBigDecimal("min_total"),
+                    rs.getBigDecimal("max_total"));
+            return group;
+        }, args.toArray());
+    }
+
+    /**
+     * Equivalente SQL de PurchaseOrderSpecification.withFilters con SearchMode.LIKE
+     */
+    private static String where(PurchaseOrderFilterDTO filters, List<Object> args) {
+        StringBuilder sql = new StringBuilder(" WHERE 1 = 1");
+        if (filters.getQ() != null && !filters.getQ().trim().isEmpty()) {
+            String term = filters.getQ().trim();
+            if (PurchaseOrderSearchTerms.isPrefix(term)) {
+                sql.append(" AND order_number LIKE ?").append(LIKE_ESCAPE);
+                args.add(PurchaseOrderSearchTerms.prefixPattern(term));
+            } else {
+                sql.append(" AND (LOWER(order_number) LIKE ?").append(LIKE_ESCAPE)
+                        .append(" OR LOWER(supplier_name) LIKE ?").append(LIKE_ESCAPE).append(')');
+                String pattern = PurchaseOrderSearchTerms.containsPattern(term);
+                args.add(pattern);
+                args.add(pattern);
+            }
+        }
+        if (filters.getStatus() != null) {
+            sql.append(" AND status = ?");
+            args.add(filters.getStatus().name());
+        }
+        if (filters.getCurrency() != null) {
+            sql.append(" AND currency = ?");
+            args.add(filters.getCurrency().name());
+        }
+        if (filters.getMinTotal() != null) {
+            sql.append(" AND total_amount >= ?");
+            args.add(filters.getMinTotal());
+        }
+        if (filters.getMaxTotal() != null) {
+            sql.append(" AND total_amount <= ?");
+            args.add(filters.getMaxTotal());
+        }
+        if (filters.getFrom() != null) {
+            sql.append(" AND created_at >= ?");
+            args.add(Timestamp.valueOf(filters.getFrom()));
+        }
+        if (filters.getTo() != null) {
+            sql.append(" AND created_at <= ?");
+            args.add(Timestamp.valueOf(filters.getTo()));
+        }
+        return sql.toString();
+    }
+
+    private boolean isMySql() {
+        Boolean result = mysql;
+        if (result == null) {
+            result = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection ->
+                    connection.getMetaData().getDatabaseProductName().equalsIgnoreCase("MySQL"));
+            mysql = result;
+        }
+        return result;
+    }
+}
@@ -0,0 +1,44 @@
+package ec.edu.espe.ortiz_leccion2.repositories;
+
+import ec.edu.espe.ortiz_leccion2.models.dto.PurchaseOrderChangeDTO;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Acceso al registro de cambios (tabla purchase_order_change), de solo inserción
+ */
+public interface PurchaseOrderChangeRepository {
+
+    /**
+     * Agrega los cambios con un único batch JDBC (la secuencia la asigna la base de datos)
+     */
+    void append(List<PurchaseOrderChangeDTO> changes);
+
+    /**
+     * Cambios con secuencia mayor a since, en orden de secuencia
+     */
+    List<PurchaseOrderChangeDTO> findAfter(long since, int limit);
+
+    /**
+     * Última secuencia eliminada por retención (0 si nunca se eliminó nada)
+     */
+    long findPurgedThrough();
+
+    /**
+     * Mayor secuencia registrada antes de la fecha indicada, o null si no existe
+     */
+    Long findLastSequenceBefore(LocalDateTime cutoff);
+
+    /**
+     * Elimina los cambios con secuencia en (from, through]. Registra through como purgado antes de
+     * borrar, para que un consumidor nunca reciba un hueco sin enterarse.
+     */
+    int purge(long from, long through);
+
+    /**
+     * Elimina hasta limit cambios con secuencia menor o igual a through que ya tienen un cambio
+     * posterior de la misma orden. Devuelve cuántos eliminó.
+     */
+    int compact(long through, int limit);
+}
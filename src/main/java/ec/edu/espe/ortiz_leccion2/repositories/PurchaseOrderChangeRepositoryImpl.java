@@ -0,0 +1,87 @@
+package ec.edu.espe.ortiz_leccion2.repositories;
+
+import ec.edu.espe.ortiz_leccion2.models.dto.PurchaseOrderChangeDTO;
+import ec.edu.espe.ortiz_leccion2.models.enums.ChangeOperation;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public class PurchaseOrderChangeRepositoryImpl implements PurchaseOrderChangeRepository {
+
+    private static final String INSERT_SQL = "INSERT INTO purchase_order_change "
+            + "(order_id, operation, version, changed_at, payload) VALUES (?, ?, ?, ?, ?)";
+
+    private static final String SELECT_AFTER_SQL = "SELECT seq, order_id, operation, version, changed_at, payload "
+            + "FROM purchase_order_change WHERE seq > ? ORDER BY seq LIMIT ?";
+
+    // Sin subconsulta sobre la misma tabla dentro del DELETE (MySQL no la permite)
+    private static final String SELECT_SUPERSEDED_SQL = "SELECT c.seq FROM purchase_order_change c "
+            + "WHERE c.seq <= ? AND EXISTS (SELECT 1 FROM purchase_order_change n "
+            + "WHERE n.order_id = c.order_id AND n.seq > c.seq) LIMIT ?";
+
+    private static final RowMapper<PurchaseOrderChangeDTO> ROW_MAPPER = (rs, rowNum) -> new PurchaseOrderChangeDTO(
+            rs.getLong("seq"),
+            rs.getLong("order_id"),
+            ChangeOperation.valueOf(rs.getString("operation")),
+            rs.getObject("version", Long.class),
+            rs.getTimestamp("changed_at").toLocalDateTime(),
+            rs.getString("payload"));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public PurchaseOrderChangeRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void append(List<PurchaseOrderChangeDTO> changes) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, changes, changes.size(), (ps, change) -> {
+            ps.setLong(1, change.getOrderId());
+            ps.setString(2, change.getOperation().name());
+            ps.setObject(3, change.getVersion(), Types.BIGINT);
+            ps.setTimestamp(4, Timestamp.valueOf(change.getChangedAt()));
+            ps.setString(5, change.getOrder());
+        });
+    }
+
+    @Override
+    public List<PurchaseOrderChangeDTO> findAfter(long since, int limit) {
+        return jdbcTemplate.query(SELECT_AFTER_SQL, ROW_MAPPER, since, limit);
+    }
+
+    @Override
+    public long findPurgedThrough() {
+        return jdbcTemplate.queryForObject(
+                "SELECT purged_through FROM purchase_order_change_retention WHERE id = 1", Long.class);
+    }
+
+    @Override
+    public Long findLastSequenceBefore(LocalDateTime cutoff) {
+        return jdbcTemplate.queryForObject("SELECT MAX(seq) FROM purchase_order_change WHERE changed_at < ?",
+                Long.class, Timestamp.valueOf(cutoff));
+    }
+
+    @Override
+    public int purge(long from, long through) {
+        jdbcTemplate.update("UPDATE purchase_order_change_retention "
+                + "SET purged_through = GREATEST(purged_through, ?) WHERE id = 1", through);
+        return jdbcTemplate.update("DELETE FROM purchase_order_change WHERE seq > ? AND seq <= ?", from, through);
+    }
+
+    @Override
+    public int compact(long through, int limit) {
+        List<Long> superseded = jdbcTemplate.queryForList(SELECT_SUPERSEDED_SQL, Long.class, through, limit);
+        if (superseded.isEmpty()) {
+            return 0;
+        }
+        jdbcTemplate.batchUpdate("DELETE FROM purchase_order_change WHERE seq = ?", superseded, superseded.size(),
+                (ps, seq) -> ps.setLong(1, seq));
+        return superseded.size();
+    }
+}
@@ -3,9 +3,27 @@ package ec.edu.espe.ortiz_leccion2.repositories;
 import ec.edu.espe.ortiz_leccion2.models.entities.PurchaseOrder;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 @Repository
 public interface PurchaseOrderRepository
-        extends JpaRepository<PurchaseOrder, Long>, JpaSpecificationExecutor<PurchaseOrder> {
+        extends JpaRepository<PurchaseOrder, Long>, JpaSpecificationExecutor<PurchaseOrder>,
+        PurchaseOrderRepositoryCustom {
+
+    Optional<PurchaseOrder> findByOrderNumber(String orderNumber);
+
+    // Solo la versión, para responder If-None-Match sin cargar la entidad
+    @Query("SELECT o.version FROM PurchaseOrder o WHERE o.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    // Una sola consulta IN para POST /lookup; una lista vacía no coincide con ninguna orden
+    @Query("SELECT o FROM PurchaseOrder o WHERE o.id IN :ids OR o.orderNumber IN :orderNumbers")
+    List<PurchaseOrder> findByIdsOrOrderNumbers(@Param("ids") Collection<Long> ids,
+            @Param("orderNumbers") Collection<String> orderNumbers);
 }
@@ -0,0 +1,68 @@
+package ec.edu.espe.ortiz_leccion2.repositories;
+
+import ec.edu.espe.ortiz_leccion2.models.entities.PurchaseOrder;
+import ec.edu.espe.ortiz_leccion2.specifications.PurchaseOrderFilterQuery;
+import jakarta.persistence.Tuple;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+public interface PurchaseOrderRepositoryCustom {
+
+    /**
+     * Órdenes que cumplen los filtros, con el HQL precompilado de su forma
+     */
+    List<PurchaseOrder> findAll(PurchaseOrderFilterQuery filterQuery);
+
+    /**
+     * Recorre las órdenes que cumplen los filtros con un cursor JDBC de solo avance.
+     * El Stream debe cerrarse y consumirse dentro de una transacción.
+     */
+    Stream<PurchaseOrder> streamAll(PurchaseOrderFilterQuery filterQuery);
+
+    /**
+     * Proyección de solo lectura: selecciona únicamente los atributos indicados (con su nombre como alias)
+     */
+    List<Tuple> findTuples(Specification<PurchaseOrder> spec, Collection<String> attributes, Sort sort, int limit);
+
+    /**
+     * Igual que findTuples con una Specification, en el orden de KEYSET_SORT y con el HQL precompilado
+     */
+    List<Tuple> findTuples(PurchaseOrderFilterQuery filterQuery, Collection<String> attributes, int limit);
+
+    /**
+     * Agregados de totalAmount (count, sum, min, max) agrupados por status y currency, y opcionalmente
+     * por día de createdAt, en una sola consulta GROUP BY.
+     * Alias de la tupla: status, currency, day, count, sum, min, max.
+     */
+    List<Tuple> aggregate(PurchaseOrderFilterQuery filterQuery, boolean byDay);
+
+    /**
+     * Recorre id, total_amount, created_at, status y currency de todas las órdenes en orden de id,
+     * con JDBC de solo avance y sin entidades (carga de estructuras en memoria)
+     */
+    void scanColumns(RowCallbackHandler handler);
+
+    /**
+     * Inserta las órdenes con un único batch JDBC. Asigna a cada orden el id generado, createdAt
+     * (momento de la inserción) y la versión inicial.
+     */
+    int[] batchInsert(List<PurchaseOrder> orders);
+
+    /**
+     * Actualiza las órdenes por id con un único batch JDBC, cada una solo si su version sigue siendo la
+     * de la base de datos. Devuelve el conteo de filas por elemento: 0 si la orden no existe o cambió.
+     */
+    int[] batchUpdate(List<PurchaseOrder> orders);
+
+    /**
+     * Inserta la orden o, si ya existe una con el mismo orderNumber, la actualiza e incrementa su versión,
+     * en una sola sentencia (INSERT ... ON DUPLICATE KEY UPDATE en MySQL, MERGE en H2).
+     * Devuelve la fila resultante leída con JDBC, sin pasar por el contexto de persistencia.
+     */
+    PurchaseOrder upsertByOrderNumber(PurchaseOrder order);
+}
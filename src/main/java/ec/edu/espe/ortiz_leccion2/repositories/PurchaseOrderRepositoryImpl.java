@@ -0,0 +1,259 @@
+package ec.edu.espe.ortiz_leccion2.repositories;
+
+import ec.edu.espe.ortiz_leccion2.models.entities.PurchaseOrder;
+import ec.edu.espe.ortiz_leccion2.models.enums.Currency;
+import ec.edu.espe.ortiz_leccion2.models.enums.OrderStatus;
+import ec.edu.espe.ortiz_leccion2.specifications.PurchaseOrderFilterQuery;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Implementación de las operaciones que no se pueden expresar con los métodos de Spring Data
+ */
+public class PurchaseOrderRepositoryImpl implements PurchaseOrderRepositoryCustom {
+
+    private static final String INSERT_SQL = "INSERT INTO purchase_order "
+            + "(order_number, supplier_name, status, total_amount, currency, created_at, expected_delivery_date) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String UPDATE_SQL = "UPDATE purchase_order SET order_number = ?, supplier_name = ?, "
+            + "status = ?, total_amount = ?, currency = ?, expected_delivery_date = ?, version = version + 1 "
+            + "WHERE id = ? AND version = ?";
+
+    // Alias de fila (MySQL 8.0.19+) en lugar de VALUES(), obsoleto desde 8.0.20
+    private static final String MYSQL_UPSERT_SQL = "INSERT INTO purchase_order "
+            + "(order_number, supplier_name, status, total_amount, currency, created_at, expected_delivery_date) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?) AS new_row "
+            + "ON DUPLICATE KEY UPDATE supplier_name = new_row.supplier_name, status = new_row.status, "
+            + "total_amount = new_row.total_amount, currency = new_row.currency, "
+            + "expected_delivery_date = new_row.expected_delivery_date, version = purchase_order.version + 1";
+
+    private static final String H2_UPSERT_SQL = "MERGE INTO purchase_order t USING (VALUES "
+            + "(CAST(? AS VARCHAR(50)), CAST(? AS VARCHAR(100)), CAST(? AS VARCHAR(20)), CAST(? AS NUMERIC(10, 2)), "
+            + "CAST(? AS VARCHAR(3)), CAST(? AS TIMESTAMP(6)), CAST(? AS DATE))) "
+            + "s (order_number, supplier_name, status, total_amount, currency, created_at, expected_delivery_date) "
+            + "ON t.order_number = s.order_number "
+            + "WHEN MATCHED THEN UPDATE SET supplier_name = s.supplier_name, status = s.status, "
+            + "total_amount = s.total_amount, currency = s.currency, "
+            + "expected_delivery_date = s.expected_delivery_date, version = t.version + 1 "
+            + "WHEN NOT MATCHED THEN INSERT "
+            + "(order_number, supplier_name, status, total_amount, currency, created_at, expected_delivery_date) "
+            + "VALUES (s.order_number, s.supplier_name, s.status, s.total_amount, s.currency, s.created_at, "
+            + "s.expected_delivery_date)";
+
+    private static final String SELECT_BY_ORDER_NUMBER_SQL = "SELECT id, order_number, supplier_name, status, "
+            + "total_amount, currency, version, created_at, expected_delivery_date "
+            + "FROM purchase_order WHERE order_number = ?";
+
+    private static final String SCAN_COLUMNS_SQL = "SELECT id, total_amount, created_at, status, currency "
+            + "FROM purchase_order ORDER BY id";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Se resuelve en la primera llamada a partir de los metadatos de la conexión
+    private volatile Boolean mysql;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Filas que el driver trae por viaje (en MySQL, Integer.MIN_VALUE activa el streaming fila a fila)
+    @Value("${purchase-order.export.fetch-size:1000}")
+    private int fetchSize;
+
+    // Cada cuántas filas se limpia el contexto de persistencia para mantener el heap constante
+    @Value("${purchase-order.export.clear-every:1000}")
+    private int clearEvery;
+
+    public PurchaseOrderRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public List<PurchaseOrder> findAll(PurchaseOrderFilterQuery filterQuery) {
+        return filterQuery.bind(entityManager.createQuery(
+                        "select o from PurchaseOrder o" + filterQuery.where(), PurchaseOrder.class))
+                .getResultList();
+    }
+
+    @Override
+    public Stream<PurchaseOrder> streamAll(PurchaseOrderFilterQuery filterQuery) {
+        long[] rows = {0};
+        return filterQuery.bind(entityManager.createQuery(
+                        "select o from PurchaseOrder o" + filterQuery.where() + " order by o.id", PurchaseOrder.class))
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream()
+                .peek(order -> {
+                    if (++rows[0] % clearEvery == 0) {
+                        entityManager.clear();
+                    }
+                });
+    }
+
+    @Override
+    public List<Tuple> findTuples(PurchaseOrderFilterQuery filterQuery, Collection<String> attributes, int limit) {
+        // Atributos en orden fijo: el mismo conjunto produce siempre el mismo HQL
+        String projection = attributes.stream().sorted()
+                .map(attribute -> "o." + attribute + " as " + attribute)
+                .collect(Collectors.joining(", "));
+        return filterQuery.bind(entityManager.createQuery("select " + projection + " from PurchaseOrder o"
+                        + filterQuery.where() + " order by o.createdAt desc, o.id desc", Tuple.class))
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public List<Tuple> findTuples(Specification<PurchaseOrder> spec, Collection<String> attributes, Sort sort,
+            int limit) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = criteriaBuilder.createTupleQuery();
+        Root<PurchaseOrder> root = query.from(PurchaseOrder.class);
+        query.multiselect(attributes.stream()
+                .<Selection<?>>map(attribute -> root.get(attribute).alias(attribute))
+                .toList());
+        query.where(spec.toPredicate(root, query, criteriaBuilder));
+        query.orderBy(QueryUtils.toOrders(sort, root, criteriaBuilder));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public List<Tuple> aggregate(PurchaseOrderFilterQuery filterQuery, boolean byDay) {
+        String day = byDay ? ", cast(o.createdAt as LocalDate)" : "";
+        return filterQuery.bind(entityManager.createQuery("select o.status as status, o.currency as currency, "
+                        + "count(o) as count, sum(o.totalAmount) as sum, min(o.totalAmount) as min, "
+                        + "max(o.totalAmount) as max" + (byDay ? day + " as day" : "")
+                        + " from PurchaseOrder o" + filterQuery.where()
+                        + " group by o.status, o.currency" + day, Tuple.class))
+                .getResultList();
+    }
+
+    @Override
+    public void scanColumns(RowCallbackHandler handler) {
+        jdbcTemplate.query(connection -> {
+            // Solo avance y solo lectura: requisito de Connector/J para el streaming con fetch-size negativo
+            PreparedStatement ps = connection.prepareStatement(SCAN_COLUMNS_SQL,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(fetchSize);
+            return ps;
+        }, handler);
+    }
+
+    @Override
+    public int[] batchInsert(List<PurchaseOrder> orders) {
+        LocalDateTime now = LocalDateTime.now();
+        Timestamp createdAt = Timestamp.valueOf(now);
+        GeneratedKeyHolder keyHolder = new GeneratedKeyHolder();
+        int[] counts = jdbcTemplate.batchUpdate(
+                connection -> connection.prepareStatement(INSERT_SQL, new String[] { "id" }),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        PurchaseOrder order = orders.get(i);
+                        ps.setString(1, order.getOrderNumber());
+                        ps.setString(2, order.getSupplierName());
+                        ps.setString(3, order.getStatus().name());
+                        ps.setBigDecimal(4, order.getTotalAmount());
+                        ps.setString(5, order.getCurrency().name());
+                        ps.setTimestamp(6, createdAt);
+                        ps.setDate(7, Date.valueOf(order.getExpectedDeliveryDate()));
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return orders.size();
+                    }
+                }, keyHolder);
+
+        // Igual que persist: quien llama conoce el id, la fecha de creación y la versión inicial.
+        // El nombre de la columna de la clave depende del driver (ID en H2, GENERATED_KEY en MySQL).
+        List<Map<String, Object>> keys = keyHolder.getKeyList();
+        for (int i = 0; i < orders.size(); i++) {
+            PurchaseOrder order = orders.get(i);
+            order.setId(((Number) keys.get(i).values().iterator().next()).longValue());
+            order.setCreatedAt(now);
+            order.setVersion(0L);
+        }
+        return counts;
+    }
+
+    @Override
+    public int[] batchUpdate(List<PurchaseOrder> orders) {
+        return jdbcTemplate.batchUpdate(UPDATE_SQL, orders, orders.size(), (ps, order) -> {
+            ps.setString(1, order.getOrderNumber());
+            ps.setString(2, order.getSupplierName());
+            ps.setString(3, order.getStatus().name());
+            ps.setBigDecimal(4, order.getTotalAmount());
+            ps.setString(5, order.getCurrency().name());
+            ps.setDate(6, Date.valueOf(order.getExpectedDeliveryDate()));
+            ps.setLong(7, order.getId());
+            ps.setLong(8, order.getVersion());
+        })[0];
+    }
+
+    @Override
+    public PurchaseOrder upsertByOrderNumber(PurchaseOrder order) {
+        jdbcTemplate.update(isMySql() ? MYSQL_UPSERT_SQL : H2_UPSERT_SQL, ps -> {
+            ps.setString(1, order.getOrderNumber());
+            ps.setString(2, order.getSupplierName());
+            ps.setString(3, order.getStatus().name());
+            ps.setBigDecimal(4, order.getTotalAmount());
+            ps.setString(5, order.getCurrency().name());
+            ps.setTimestamp(6, Timestamp.valueOf(LocalDateTime.now()));
+            ps.setDate(7, Date.valueOf(order.getExpectedDeliveryDate()));
+        });
+        return jdbcTemplate.queryForObject(SELECT_BY_ORDER_NUMBER_SQL, (rs, rowNum) -> {
+            PurchaseOrder row = new PurchaseOrder();
+            row.setId(rs.getLong("id"));
+            row.setOrderNumber(rs.getString("order_number"));
+            row.setSupplierName(rs.getString("supplier_name"));
+            row.setStatus(OrderStatus.valueOf(rs.getString("status")));
+            row.setTotalAmount(rs.getBigDecimal("total_amount"));
+            row.setCurrency(Currency.valueOf(rs.getString("currency")));
+            row.setVersion(rs.getLong("version"));
+            row.setCreatedAt(rs.getTimestamp("created_at").toLocalDateTime());
+            row.setExpectedDeliveryDate(rs.getDate("expected_delivery_date").toLocalDate());
+            return row;
+        }, order.getOrderNumber());
+    }
+
+    private boolean isMySql() {
+        Boolean result = mysql;
+        if (result == null) {
+            result = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection ->
+                    connection.getMetaData().getDatabaseProductName().equalsIgnoreCase("MySQL"));
+            mysql = result;
+        }
+        return result;
+    }
+}
@@ -0,0 +1,16 @@
+package ec.edu.espe.ortiz_leccion2.services;
+
+import ec.edu.espe.ortiz_leccion2.models.dto.PurchaseOrderFilterDTO;
+
+public interface PurchaseOrderArchiveService {
+
+    /**
+     * Mueve al archivo las órdenes con más antigüedad que max-age. Devuelve cuántas movió.
+     */
+    int archive();
+
+    /**
+     * Si el rango from/to de los filtros puede incluir órdenes archivadas
+     */
+    boolean covers(PurchaseOrderFilterDTO filters);
+}
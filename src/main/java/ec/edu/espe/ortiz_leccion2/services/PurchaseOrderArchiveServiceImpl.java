@@ -0,0 +1,128 @@
+package ec.edu.espe.ortiz_leccion2.services;
+
+import ec.edu.espe.ortiz_leccion2.models.dto.PurchaseOrderFilterDTO;
+import ec.edu.espe.ortiz_leccion2.repositories.PurchaseOrderArchiveRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+
+/**
+ * Archivado de órdenes antiguas en purchase_order_archive.
+ * 
+ * Se mueven primero las más antiguas, así que toda orden archivada es anterior (según KEYSET_SORT)
+ * a toda orden vigente: el listado continúa en el archivo cuando se agotan las vigentes. Cada orden
+ * movida registra un cambio ARCHIVED en /changes. Las órdenes archivadas son de solo lectura: GET /{id}
+ * las busca en el archivo, PUT y DELETE responden 404.
+ */
+@Service
+public class PurchaseOrderArchiveServiceImpl implements PurchaseOrderArchiveService {
+
+    private static final Logger log = LoggerFactory.getLogger(PurchaseOrderArchiveServiceImpl.class);
+
+    private final PurchaseOrderArchiveRepository archiveRepository;
+    private final PurchaseOrderCache purchaseOrderCache;
+    private final PurchaseOrderRollups rollups;
+    private final PurchaseOrderColumnarSnapshot columnarSnapshot;
+    private final TransactionTemplate writeTransaction;
+
+    @Value("${purchase-order.archive.enabled:false}")
+    private boolean enabled;
+
+    @Value("${purchase-order.archive.max-age:P365D}")
+    private Duration maxAge;
+
+    // Órdenes por transacción: acota el tiempo que se bloquean las filas movidas
+    @Value("${purchase-order.archive.chunk-size:1000}")
+    private int chunkSize;
+
+    // created_at de la orden archivada más reciente (null: archivo vacío)
+    private volatile LocalDateTime archivedThrough;
+
+    public PurchaseOrderArchiveServiceImpl(PurchaseOrderArchiveRepository archiveRepository,
+            PurchaseOrderCache purchaseOrderCache, ObjectProvider<PurchaseOrderRollups> rollups,
+            ObjectProvider<PurchaseOrderColumnarSnapshot> columnarSnapshot,
+            PlatformTransactionManager transactionManager) {
+        this.archiveRepository = archiveRepository;
+        this.purchaseOrderCache = purchaseOrderCache;
+        this.rollups = rollups.getIfAvailable();
+        this.columnarSnapshot = columnarSnapshot.getIfAvailable();
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    @PostConstruct
+    void loadArchivedThrough() {
+        archivedThrough = archiveRepository.findArchivedThrough();
+        if (enabled) {
+            addPartitions(LocalDateTime.now().minus(maxAge));
+        }
+    }
+
+    @Override
+    @Scheduled(initialDelayString = "${purchase-order.archive.interval:PT1H}",
+            fixedDelayString = "${purchase-order.archive.interval:PT1H}")
+    public int archive() {
+        if (!enabled) {
+            return 0;
+        }
+        LocalDateTime cutoff = LocalDateTime.now().minus(maxAge);
+        LocalDateTime oldest = archiveRepository.findOldestActiveCreatedAt();
+        if (oldest == null || !oldest.isBefore(cutoff)) {
+            return 0;
+        }
+
+        addPartitions(cutoff);
+        int archived = 0;
+        int moved;
+        do {
+            moved = writeTransaction.execute(status -> archiveRepository.archiveBefore(cutoff, chunkSize));
+            archived += moved;
+        } while (moved == chunkSize);
+
+        archivedThrough = archiveRepository.findArchivedThrough();
+        if (archived > 0) {
+            purchaseOrderCache.invalidateAll();
+            if (rollups != null) {
+                rollups.reconcile();
+            }
+            if (columnarSnapshot != null) {
+                columnarSnapshot.removeCreatedBefore(cutoff);
+            }
+            log.info("{} órdenes anteriores a {} movidas al archivo", archived, cutoff);
+        }
+        return archived;
+    }
+
+    /**
+     * Particiones hasta el mes siguiente al de cutoff, para que las filas movidas en la próxima ejecución
+     * no caigan en p_max. Fuera de una transacción: en MySQL crear particiones confirma implícitamente.
+     */
+    private void addPartitions(LocalDateTime cutoff) {
+        LocalDateTime oldest = archiveRepository.findOldestActiveCreatedAt();
+        YearMonth from = YearMonth.from(oldest != null && oldest.isBefore(cutoff) ? oldest : cutoff);
+        archiveRepository.addMonthlyPartitions(from, YearMonth.from(cutoff).plusMonths(1));
+    }
+
+    /**
+     * Con el archivado activo, las órdenes anteriores a now - max-age pueden estar ya archivadas
+     * (p. ej. por otra instancia), aunque esta instancia no lo haya visto.
+     */
+    @Override
+    public boolean covers(PurchaseOrderFilterDTO filters) {
+        LocalDateTime horizon = archivedThrough;
+        if (enabled) {
+            LocalDateTime cutoff = LocalDateTime.now().minus(maxAge);
+            horizon = horizon == null || cutoff.isAfter(horizon) ? cutoff : horizon;
+        }
+        return horizon != null && (filters.getFrom() == null || !filters.getFrom().isAfter(horizon));
+    }
+}
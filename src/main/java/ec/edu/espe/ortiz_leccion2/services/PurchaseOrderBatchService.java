@@ -0,0 +1,14 @@
+package ec.edu.espe.ortiz_leccion2.services;
+
+import ec.edu.espe.ortiz_leccion2.models.dto.BatchResultDTO;
+import ec.edu.espe.ortiz_leccion2.models.entities.PurchaseOrder;
+
+import java.util.Iterator;
+
+public interface PurchaseOrderBatchService {
+
+    /**
+     * Crea (sin id) o actualiza (con id) las órdenes recibidas, persistiéndolas por bloques
+     */
+    BatchResultDTO importOrders(Iterator<PurchaseOrder> orders);
+}
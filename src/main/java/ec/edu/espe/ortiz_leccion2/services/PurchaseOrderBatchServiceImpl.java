@@ -0,0 +1,207 @@
+package ec.edu.espe.ortiz_leccion2.services;
+
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.RuntimeJsonMappingException;
+import ec.edu.espe.ortiz_leccion2.models.dto.BatchItemErrorDTO;
+import ec.edu.espe.ortiz_leccion2.models.dto.BatchResultDTO;
+import ec.edu.espe.ortiz_leccion2.models.entities.PurchaseOrder;
+import ec.edu.espe.ortiz_leccion2.models.events.PurchaseOrderChangedEvent;
+import ec.edu.espe.ortiz_leccion2.repositories.PurchaseOrderRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@Service
+public class PurchaseOrderBatchServiceImpl implements PurchaseOrderBatchService {
+
+    private final PurchaseOrderRepository purchaseOrderRepository;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    // Número de elementos enviados en cada batch JDBC (y confirmados en cada transacción)
+    @Value("${purchase-order.batch.chunk-size:1000}")
+    private int chunkSize;
+
+    public PurchaseOrderBatchServiceImpl(PurchaseOrderRepository purchaseOrderRepository, Validator validator,
+            PlatformTransactionManager transactionManager, ApplicationEventPublisher eventPublisher) {
+        this.purchaseOrderRepository = purchaseOrderRepository;
+        this.validator = validator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Override
+    public BatchResultDTO importOrders(Iterator<PurchaseOrder> orders) {
+        BatchResultDTO result = new BatchResultDTO();
+        List<Item> chunk = new ArrayList<>(chunkSize);
+        long index = 0;
+
+        while (true) {
+            PurchaseOrder order;
+            try {
+                if (!orders.hasNext()) {
+                    break;
+                }
+                order = orders.next();
+            } catch (RuntimeJsonMappingException e) {
+                // JSON válido con tipos o valores que no encajan (MismatchedInputException): se sigue con el siguiente
+                result.addError(new BatchItemErrorDTO(index, null, Map.of("body", "Elemento inválido: "
+                        + (e.getCause() instanceof JsonMappingException cause ? cause.getOriginalMessage() : e.getMessage()))));
+                result.setReceived(++index);
+                continue;
+            } catch (RuntimeException e) {
+                // El cuerpo no se puede seguir leyendo: se persiste lo acumulado y se detiene la carga
+                result.addError(new BatchItemErrorDTO(index, null,
+                        Map.of("body", "Elemento mal formado: " + e.getMessage())));
+                result.setReceived(index + 1);
+                break;
+            }
+            result.setReceived(++index);
+
+            Map<String, String> errors = validate(order);
+            if (!errors.isEmpty()) {
+                result.addError(new BatchItemErrorDTO(index - 1, order.getOrderNumber(), errors));
+                continue;
+            }
+
+            chunk.add(new Item(index - 1, order));
+            if (chunk.size() == chunkSize) {
+                persistChunk(chunk, result);
+                chunk.clear();
+            }
+        }
+
+        if (!chunk.isEmpty()) {
+            persistChunk(chunk, result);
+        }
+        return result;
+    }
+
+    /**
+     * Valida un elemento con las mismas restricciones de Bean Validation que el endpoint individual
+     */
+    private Map<String, String> validate(PurchaseOrder order) {
+        Set<ConstraintViolation<PurchaseOrder>> violations = validator.validate(order);
+        Map<String, String> errors = new HashMap<>();
+        for (ConstraintViolation<PurchaseOrder> violation : violations) {
+            errors.put(violation.getPropertyPath().toString(), violation.getMessage());
+        }
+        return errors;
+    }
+
+    /**
+     * Persiste el bloque en una sola transacción. Si el batch falla (p. ej. orderNumber duplicado),
+     * se reintenta elemento por elemento para identificar los que fallan.
+     */
+    private void persistChunk(List<Item> chunk, BatchResultDTO result) {
+        try {
+            apply(transactionTemplate.execute(status -> write(chunk)), result);
+        } catch (DataAccessException e) {
+            for (Item item : chunk) {
+                try {
+                    apply(transactionTemplate.execute(status -> write(List.of(item))), result);
+                } catch (DataAccessException itemError) {
+                    result.addError(new BatchItemErrorDTO(item.index(), item.order().getOrderNumber(),
+                            Map.of("orderNumber", "El número de orden ya existe o viola una restricción de integridad")));
+                }
+            }
+        }
+    }
+
+    private Outcome write(List<Item> items) {
+        List<PurchaseOrder> inserts = new ArrayList<>();
+        List<Item> updates = new ArrayList<>();
+        for (Item item : items) {
+            if (item.order().getId() == null) {
+                inserts.add(item.order());
+            } else {
+                updates.add(item);
+            }
+        }
+
+        List<PurchaseOrderChangedEvent.Change> changes = new ArrayList<>(items.size());
+        long created = 0;
+        if (!inserts.isEmpty()) {
+            purchaseOrderRepository.batchInsert(inserts);
+            created = inserts.size();
+            for (PurchaseOrder order : inserts) {
+                changes.add(new PurchaseOrderChangedEvent.Change(null, PurchaseOrderChangedEvent.snapshot(order)));
+            }
+        }
+
+        long updated = 0;
+        List<BatchItemErrorDTO> errors = new ArrayList<>();
+        if (!updates.isEmpty()) {
+            // Estado anterior en una sola consulta, para que los listeners conozcan qué cambió
+            Map<Long, PurchaseOrder> before = new HashMap<>();
+            for (PurchaseOrder order : purchaseOrderRepository.findAllById(
+                    updates.stream().map(item -> item.order().getId()).toList())) {
+                before.put(order.getId(), PurchaseOrderChangedEvent.snapshot(order));
+            }
+
+            // Sin version en el elemento se espera la leída: el UPDATE no pisa un cambio posterior
+            List<Item> existing = new ArrayList<>(updates.size());
+            for (Item item : updates) {
+                PurchaseOrder previous = before.get(item.order().getId());
+                if (previous == null) {
+                    errors.add(new BatchItemErrorDTO(item.index(), item.order().getOrderNumber(),
+                            Map.of("id", "Purchase Order no encontrada con id: " + item.order().getId())));
+                    continue;
+                }
+                if (item.order().getVersion() == null) {
+                    item.order().setVersion(previous.getVersion());
+                }
+                existing.add(item);
+            }
+
+            int[] counts = existing.isEmpty() ? new int[0]
+                    : purchaseOrderRepository.batchUpdate(existing.stream().map(Item::order).toList());
+            for (int i = 0; i < counts.length; i++) {
+                Item item = existing.get(i);
+                if (counts[i] == 0) {
+                    errors.add(new BatchItemErrorDTO(item.index(), item.order().getOrderNumber(),
+                            Map.of("version", "La orden fue modificada o eliminada por otra petición (versión esperada "
+                                    + item.order().getVersion() + ")")));
+                } else {
+                    updated++;
+                    PurchaseOrder previous = before.get(item.order().getId());
+                    PurchaseOrder after = PurchaseOrderChangedEvent.snapshot(item.order());
+                    after.setCreatedAt(previous.getCreatedAt());
+                    after.setVersion(item.order().getVersion() + 1);
+                    changes.add(new PurchaseOrderChangedEvent.Change(previous, after));
+                }
+            }
+        }
+
+        eventPublisher.publishEvent(new PurchaseOrderChangedEvent(changes));
+        return new Outcome(created, updated, errors);
+    }
+
+    /**
+     * Los contadores se acumulan solo después de confirmar la transacción del bloque
+     */
+    private void apply(Outcome outcome, BatchResultDTO result) {
+        result.setCreated(result.getCreated() + outcome.created());
+        result.setUpdated(result.getUpdated() + outcome.updated());
+        outcome.errors().forEach(result::addError);
+    }
+
+    private record Item(long index, PurchaseOrder order) {
+    }
+
+    private record Outcome(long created, long updated, List<BatchItemErrorDTO> errors) {
+    }
+}
@@ -0,0 +1,113 @@
+package ec.edu.espe.ortiz_leccion2.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import ec.edu.espe.ortiz_leccion2.config.CacheConfig;
+import ec.edu.espe.ortiz_leccion2.models.dto.PurchaseOrderPageDTO;
+import ec.edu.espe.ortiz_leccion2.models.dto.PurchaseOrderSummary;
+import ec.edu.espe.ortiz_leccion2.models.entities.PurchaseOrder;
+import ec.edu.espe.ortiz_leccion2.models.events.PurchaseOrderChangedEvent;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Acceso a las cachés de órdenes por id y de páginas por filtros.
+ * 
+ * Las invalidaciones se aplican al confirmar la transacción de escritura y solo afectan a las
+ * páginas cuyos filtros coinciden con el estado anterior o nuevo de la orden modificada.
+ * Un contador de generación evita guardar un valor leído antes de una invalidación concurrente.
+ */
+@Component
+public class PurchaseOrderCache {
+
+    // Por encima de este número de cambios en un evento se vacía la caché de páginas completa
+    private static final int PRECISE_INVALIDATION_LIMIT = 100;
+
+    private final Cache<Object, Object> orders;
+    private final Cache<Object, Object> pages;
+    private final AtomicLong generation = new AtomicLong();
+
+    public PurchaseOrderCache(CacheManager cacheManager) {
+        this.orders = nativeCache(cacheManager, CacheConfig.PURCHASE_ORDERS);
+        this.pages = nativeCache(cacheManager, CacheConfig.PURCHASE_ORDER_PAGES);
+    }
+
+    public PurchaseOrder getOrder(Long id, Supplier<PurchaseOrder> loader) {
+        return (PurchaseOrder) getOrLoad(orders, id, loader);
+    }
+
+    /**
+     * Orden en caché o null, sin cargarla
+     */
+    public PurchaseOrder peekOrder(Long id) {
+        return (PurchaseOrder) orders.getIfPresent(id);
+    }
+
+    @SuppressWarnings("unchecked")
+    PurchaseOrderPageDTO<PurchaseOrderSummary> getPage(PurchaseOrderPageKey key,
+            Supplier<PurchaseOrderPageDTO<PurchaseOrderSummary>> loader) {
+        return (PurchaseOrderPageDTO<PurchaseOrderSummary>) getOrLoad(pages, key, loader);
+    }
+
+    /**
+     * Invalida las órdenes cambiadas y las páginas cuyo filtro coincide con su estado anterior o nuevo.
+     * Con muchos cambios (cargas masivas) resulta más barato vaciar la caché de páginas.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPurchaseOrderChanged(PurchaseOrderChangedEvent event) {
+        generation.incrementAndGet();
+        List<PurchaseOrderChangedEvent.Change> changes = event.changes();
+        for (PurchaseOrderChangedEvent.Change change : changes) {
+            PurchaseOrder order = change.after() != null ? change.after() : change.before();
+            if (order.getId() != null) {
+                orders.invalidate(order.getId());
+            }
+        }
+
+        if (changes.size() > PRECISE_INVALIDATION_LIMIT) {
+            pages.invalidateAll();
+            return;
+        }
+        pages.asMap().keySet().removeIf(key -> {
+            PurchaseOrderPageKey pageKey = (PurchaseOrderPageKey) key;
+            for (PurchaseOrderChangedEvent.Change change : changes) {
+                if ((change.before() != null && pageKey.isAffectedBy(change.before()))
+                        || (change.after() != null && pageKey.isAffectedBy(change.after()))) {
+                    return true;
+                }
+            }
+            return false;
+        });
+    }
+
+    /**
+     * Vacía ambas cachés, p. ej. después de mover órdenes al archivo
+     */
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        orders.invalidateAll();
+        pages.invalidateAll();
+    }
+
+    private Object getOrLoad(Cache<Object, Object> cache, Object key, Supplier<?> loader) {
+        Object cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        long observed = generation.get();
+        Object value = loader.get();
+        if (generation.get() == observed) {
+            cache.put(key, value);
+        }
+        return value;
+    }
+
+    private static Cache<Object, Object> nativeCache(CacheManager cacheManager, String name) {
+        return ((CaffeineCache) cacheManager.getCache(name)).getNativeCache();
+    }
+}
@@ -0,0 +1,16 @@
+package ec.edu.espe.ortiz_leccion2.services;
+
+import ec.edu.espe.ortiz_leccion2.models.dto.PurchaseOrderChangeFeedDTO;
+
+public interface PurchaseOrderChangeFeedService {
+
+    /**
+     * Cambios confirmados con secuencia mayor a since, como máximo limit
+     */
+    PurchaseOrderChangeFeedDTO findChanges(long since, int limit);
+
+    /**
+     * Compacta el registro (deja solo el último cambio de cada orden) y elimina lo que supera la retención
+     */
+    void compact();
+}
@@ -0,0 +1,149 @@
+package ec.edu.espe.ortiz_leccion2.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ec.edu.espe.ortiz_leccion2.exceptions.ResourceGoneException;
+import ec.edu.espe.ortiz_leccion2.models.dto.PurchaseOrderChangeDTO;
+import ec.edu.espe.ortiz_leccion2.models.dto.PurchaseOrderChangeFeedDTO;
+import ec.edu.espe.ortiz_leccion2.models.entities.PurchaseOrder;
+import ec.edu.espe.ortiz_leccion2.models.enums.ChangeOperation;
+import ec.edu.espe.ortiz_leccion2.models.events.PurchaseOrderChangedEvent;
+import ec.edu.espe.ortiz_leccion2.repositories.PurchaseOrderChangeRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Registro de cambios de órdenes (outbox) y su lectura incremental.
+ * 
+ * Los cambios se escriben en la misma transacción que la orden, así que el registro contiene
+ * exactamente lo confirmado. La secuencia se asigna al insertar, no al confirmar: una transacción
+ * más lenta puede confirmar una secuencia menor después de que otra mayor ya sea visible. Por eso la
+ * lectura se detiene en el primer hueco reciente y solo lo salta pasado gap-timeout (rollback).
+ */
+@Service
+public class PurchaseOrderChangeFeedServiceImpl implements PurchaseOrderChangeFeedService {
+
+    private static final Logger log = LoggerFactory.getLogger(PurchaseOrderChangeFeedServiceImpl.class);
+
+    private static final int MAX_LIMIT = 1000;
+    private static final int COMPACT_CHUNK = 1000;
+    private static final int PURGE_CHUNK = 10000;
+
+    private final PurchaseOrderChangeRepository changeRepository;
+    private final ObjectMapper objectMapper;
+
+    // Tiempo tras el cual un hueco en la secuencia se considera un rollback y se salta.
+    // Debe superar la duración de la transacción de escritura más larga.
+    @Value("${purchase-order.changes.gap-timeout:PT10S}")
+    private Duration gapTimeout;
+
+    // Los cambios más recientes se conservan todos; los anteriores se compactan por orden
+    @Value("${purchase-order.changes.compact-after:PT1H}")
+    private Duration compactAfter;
+
+    @Value("${purchase-order.changes.retention:P7D}")
+    private Duration retention;
+
+    public PurchaseOrderChangeFeedServiceImpl(PurchaseOrderChangeRepository changeRepository,
+            ObjectMapper objectMapper) {
+        this.changeRepository = changeRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Se ejecuta dentro de la transacción que publica el evento: si el registro falla, la escritura
+     * de la orden también se revierte.
+     */
+    @EventListener
+    public void onPurchaseOrderChanged(PurchaseOrderChangedEvent event) {
+        LocalDateTime now = LocalDateTime.now();
+        List<PurchaseOrderChangeDTO> changes = new ArrayList<>(event.changes().size());
+        for (PurchaseOrderChangedEvent.Change change : event.changes()) {
+            if (change.after() == null) {
+                changes.add(new PurchaseOrderChangeDTO(0, change.before().getId(), ChangeOperation.DELETED,
+                        change.before().getVersion(), now, null));
+            } else {
+                changes.add(new PurchaseOrderChangeDTO(0, change.after().getId(),
+                        change.before() == null ? ChangeOperation.CREATED : ChangeOperation.UPDATED,
+                        change.after().getVersion(), now, toJson(change.after())));
+            }
+        }
+        if (!changes.isEmpty()) {
+            changeRepository.append(changes);
+        }
+    }
+
+    @Override
+    public PurchaseOrderChangeFeedDTO findChanges(long since, int limit) {
+        int pageLimit = Math.min(Math.max(limit, 1), MAX_LIMIT);
+        List<PurchaseOrderChangeDTO> rows = changeRepository.findAfter(since, pageLimit + 1);
+
+        // Solo hace falta consultar la retención si no se continúa exactamente tras since
+        if ((rows.isEmpty() || rows.get(0).getSequence() != since + 1)
+                && since < changeRepository.findPurgedThrough()) {
+            throw new ResourceGoneException("Los cambios posteriores a " + since
+                    + " ya no se conservan; se debe sincronizar de nuevo el listado completo");
+        }
+
+        LocalDateTime settled = LocalDateTime.now().minus(gapTimeout);
+        List<PurchaseOrderChangeDTO> changes = new ArrayList<>(Math.min(rows.size(), pageLimit));
+        long next = since;
+        for (PurchaseOrderChangeDTO row : rows) {
+            if (changes.size() == pageLimit
+                    || (row.getSequence() != next + 1 && row.getChangedAt().isAfter(settled))) {
+                break;
+            }
+            changes.add(row);
+            next = row.getSequence();
+        }
+        return new PurchaseOrderChangeFeedDTO(changes, next, changes.size() == pageLimit && rows.size() > pageLimit);
+    }
+
+    @Override
+    @Scheduled(initialDelayString = "${purchase-order.changes.compact-interval:PT10M}",
+            fixedDelayString = "${purchase-order.changes.compact-interval:PT10M}")
+    public void compact() {
+        LocalDateTime now = LocalDateTime.now();
+
+        // Un hueco dejado por la compactación nunca debe confundirse con una transacción en curso
+        Duration keepAll = compactAfter.compareTo(gapTimeout) > 0 ? compactAfter : gapTimeout;
+        Long compactThrough = changeRepository.findLastSequenceBefore(now.minus(keepAll));
+        long compacted = 0;
+        if (compactThrough != null) {
+            int deleted;
+            do {
+                deleted = changeRepository.compact(compactThrough, COMPACT_CHUNK);
+                compacted += deleted;
+            } while (deleted == COMPACT_CHUNK);
+        }
+
+        Long purgeThrough = changeRepository.findLastSequenceBefore(now.minus(retention));
+        long purged = 0;
+        if (purgeThrough != null) {
+            for (long from = changeRepository.findPurgedThrough(); from < purgeThrough; from += PURGE_CHUNK) {
+                purged += changeRepository.purge(from, Math.min(from + PURGE_CHUNK, purgeThrough));
+            }
+        }
+
+        if (compacted > 0 || purged > 0) {
+            log.info("Registro de cambios: {} compactados, {} eliminados por retención", compacted, purged);
+        }
+    }
+
+    private String toJson(PurchaseOrder order) {
+        try {
+            return objectMapper.writeValueAsString(order);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo serializar la orden " + order.getId(), e);
+        }
+    }
+}
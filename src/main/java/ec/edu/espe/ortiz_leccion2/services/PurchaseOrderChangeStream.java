@@ -0,0 +1,177 @@
+package ec.edu.espe.ortiz_leccion2.services;
+
+import ec.edu.espe.ortiz_leccion2.exceptions.ResourceGoneException;
+import ec.edu.espe.ortiz_leccion2.models.dto.PurchaseOrderChangeDTO;
+import ec.edu.espe.ortiz_leccion2.models.dto.PurchaseOrderChangeFeedDTO;
+import ec.edu.espe.ortiz_leccion2.models.events.PurchaseOrderChangedEvent;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Envía los cambios del registro a los clientes suscritos por Server-Sent Events.
+ * 
+ * Todos los envíos se hacen desde un único hilo que lee el registro con el mismo criterio que
+ * GET /changes (una sola consulta para todos los suscriptores), así el orden y los huecos se tratan
+ * igual en ambos. Se despierta al confirmar una escritura y, para ver también las escrituras de
+ * otras instancias, cada poll-interval mientras haya suscriptores.
+ */
+@Component
+public class PurchaseOrderChangeStream {
+
+    private static final Logger log = LoggerFactory.getLogger(PurchaseOrderChangeStream.class);
+
+    private static final int FETCH_LIMIT = 500;
+
+    private final PurchaseOrderChangeFeedService changeFeedService;
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    private final AtomicBoolean dispatchPending = new AtomicBoolean();
+    private final ExecutorService dispatcher = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "purchase-order-changes");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Value("${purchase-order.changes.stream.timeout:PT30M}")
+    private Duration timeout;
+
+    public PurchaseOrderChangeStream(PurchaseOrderChangeFeedService changeFeedService) {
+        this.changeFeedService = changeFeedService;
+    }
+
+    /**
+     * Suscribe un cliente a partir de since (o del Last-Event-ID con que reconecta).
+     * Si since ya no se conserva falla antes de abrir el stream (410).
+     */
+    public SseEmitter subscribe(long since) {
+        changeFeedService.findChanges(since, 1);
+
+        Subscriber subscriber = new Subscriber(new SseEmitter(timeout.toMillis()), since);
+        subscriber.emitter.onCompletion(() -> subscribers.remove(subscriber));
+        subscriber.emitter.onTimeout(() -> subscribers.remove(subscriber));
+        subscriber.emitter.onError(error -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+        wakeUp();
+        return subscriber.emitter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPurchaseOrderChanged(PurchaseOrderChangedEvent event) {
+        if (!subscribers.isEmpty()) {
+            wakeUp();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${purchase-order.changes.stream.poll-interval:PT1S}")
+    public void poll() {
+        if (!subscribers.isEmpty()) {
+            wakeUp();
+        }
+    }
+
+    /**
+     * Comentario periódico para que proxies y balanceadores no cierren la conexión inactiva
+     */
+    @Scheduled(fixedDelayString = "${purchase-order.changes.stream.heartbeat-interval:PT15S}")
+    public void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            send(subscriber, SseEmitter.event().comment("heartbeat"));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        dispatcher.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+    }
+
+    /**
+     * Varias señales mientras hay un envío pendiente se agrupan en uno solo
+     */
+    private void wakeUp() {
+        if (dispatchPending.compareAndSet(false, true)) {
+            dispatcher.execute(() -> {
+                dispatchPending.set(false);
+                try {
+                    dispatch();
+                } catch (RuntimeException e) {
+                    log.warn("No se pudieron enviar los cambios a los suscriptores", e);
+                }
+            });
+        }
+    }
+
+    private void dispatch() {
+        boolean more = true;
+        while (more && !subscribers.isEmpty()) {
+            long since = subscribers.stream().mapToLong(subscriber -> subscriber.position).min().getAsLong();
+            PurchaseOrderChangeFeedDTO feed;
+            try {
+                feed = changeFeedService.findChanges(since, FETCH_LIMIT);
+            } catch (ResourceGoneException e) {
+                // Suscriptores tan atrasados que la retención eliminó sus cambios: deben resincronizar
+                for (Subscriber subscriber : subscribers) {
+                    if (subscriber.position == since) {
+                        send(subscriber, SseEmitter.event().name("expired").data(e.getMessage()));
+                        subscriber.emitter.complete();
+                        subscribers.remove(subscriber);
+                    }
+                }
+                continue;
+            }
+
+            for (Subscriber subscriber : subscribers) {
+                for (PurchaseOrderChangeDTO change : feed.getChanges()) {
+                    if (change.getSequence() > subscriber.position && !send(subscriber, SseEmitter.event()
+                            .id(Long.toString(change.getSequence()))
+                            .name("change")
+                            .data(change, MediaType.APPLICATION_JSON))) {
+                        break;
+                    }
+                }
+                if (feed.getNextSince() > subscriber.position) {
+                    subscriber.position = feed.getNextSince();
+                }
+            }
+            more = feed.isHasMore();
+        }
+    }
+
+    private boolean send(Subscriber subscriber, SseEmitter.SseEventBuilder event) {
+        try {
+            subscriber.emitter.send(event);
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            // Cliente desconectado: el emitter ya no es utilizable
+            subscribers.remove(subscriber);
+            subscriber.emitter.completeWithError(e);
+            return false;
+        }
+    }
+
+    private static final class Subscriber {
+
+        private final SseEmitter emitter;
+        // Última secuencia enviada; solo la modifica el hilo de envío
+        private volatile long position;
+
+        private Subscriber(SseEmitter emitter, long position) {
+            this.emitter = emitter;
+            this.position = position;
+        }
+    }
+}
@@ -0,0 +1,513 @@
+package ec.edu.espe.ortiz_leccion2.services;
+
+import ec.edu.espe.ortiz_leccion2.config.ReplicaRouting;
+import ec.edu.espe.ortiz_leccion2.models.dto.PurchaseOrderFilterDTO;
+import ec.edu.espe.ortiz_leccion2.models.entities.PurchaseOrder;
+import ec.edu.espe.ortiz_leccion2.models.enums.Currency;
+import ec.edu.espe.ortiz_leccion2.models.enums.OrderStatus;
+import ec.edu.espe.ortiz_leccion2.models.events.PurchaseOrderChangedEvent;
+import ec.edu.espe.ortiz_leccion2.repositories.PurchaseOrderRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Copia columnar en memoria de purchase_order para calcular /stats sin consultar la base de datos.
+ * 
+ * La orden con id N ocupa la posición N - base de arreglos primitivos: monto en centavos, createdAt en
+ * microsegundos desde epoch (la precisión de la columna, así from/to se comparan sin redondeo) y los
+ * ordinales de status y currency en bytes. Cada valor de status y de currency tiene además un bitmap:
+ * un filtro combina esos bitmaps con AND y después recorre los rangos de monto y fecha en bloques de
+ * 64 filas con un bucle sin saltos. Con más de parallel-threshold filas el recorrido se reparte en
+ * segmentos en el ForkJoinPool común.
+ * 
+ * Como los rollups, se carga al arrancar, se actualiza con cada cambio confirmado
+ * (PurchaseOrderChangedEvent) y se reemplaza cada refresh-interval por una carga completa, que además
+ * descarta los huecos de ids. La búsqueda q no se resuelve aquí.
+ */
+@Component
+@ConditionalOnProperty(name = "purchase-order.columnar.enabled", havingValue = "true")
+public class PurchaseOrderColumnarSnapshot {
+
+    private static final Logger log = LoggerFactory.getLogger(PurchaseOrderColumnarSnapshot.class);
+
+    private static final OrderStatus[] STATUSES = OrderStatus.values();
+    private static final Currency[] CURRENCIES = Currency.values();
+    private static final int CELLS = STATUSES.length * CURRENCIES.length;
+
+    // Reintentos de la carga inicial si hubo escrituras mientras se leía la tabla
+    private static final int BUILD_ATTEMPTS = 3;
+
+    // Palabras de 64 filas por segmento de un recorrido paralelo
+    private static final int SEGMENT_WORDS = 1024;
+
+    // Con más posiciones que MAX_SPARSENESS × órdenes (ids con demasiados huecos) no se usa la copia
+    private static final int MAX_SPARSENESS = 4;
+
+    private static final long MICROS_PER_SECOND = 1_000_000L;
+    private static final long MICROS_PER_DAY = 86_400L * MICROS_PER_SECOND;
+
+    private final PurchaseOrderRepository purchaseOrderRepository;
+
+    // Lecturas concurrentes entre sí; los cambios esperan a que termine el recorrido en curso
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // null mientras no hay una copia utilizable; se lee una sola vez por consulta
+    private volatile Columns columns;
+
+    // Cambios aplicados; detecta escrituras concurrentes con una carga
+    private final AtomicLong version = new AtomicLong();
+
+    // Filas a partir de las cuales el recorrido de rangos se hace en paralelo
+    @Value("${purchase-order.columnar.parallel-threshold:100000}")
+    private int parallelThreshold;
+
+    public PurchaseOrderColumnarSnapshot(PurchaseOrderRepository purchaseOrderRepository) {
+        this.purchaseOrderRepository = purchaseOrderRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        for (int attempt = 1; attempt <= BUILD_ATTEMPTS; attempt++) {
+            long observed = version.get();
+            Columns loaded = load();
+            lock.writeLock().lock();
+            try {
+                if (version.get() == observed) {
+                    replace(loaded);
+                    return;
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        log.warn("No se pudo cargar la copia columnar sin escrituras concurrentes; se usará SQL hasta el próximo refresco");
+    }
+
+    /**
+     * Reemplaza la copia por una carga completa; si hubo escrituras durante la carga se deja para la siguiente ejecución
+     */
+    @Scheduled(initialDelayString = "${purchase-order.columnar.refresh-interval:PT10M}",
+            fixedDelayString = "${purchase-order.columnar.refresh-interval:PT10M}")
+    public void refresh() {
+        long observed = version.get();
+        Columns loaded = load();
+        lock.writeLock().lock();
+        try {
+            if (version.get() != observed) {
+                log.debug("Refresco de la copia columnar omitido por escrituras concurrentes");
+                return;
+            }
+            replace(loaded);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Quita las órdenes con createdAt anterior a cutoff, ya movidas al archivo. No depende de una carga
+     * completa: con escrituras constantes refresh se omite y las órdenes archivadas se contarían dos veces.
+     */
+    public void removeCreatedBefore(LocalDateTime cutoff) {
+        lock.writeLock().lock();
+        try {
+            version.incrementAndGet();
+            Columns current = columns;
+            if (current != null) {
+                int removed = current.removeBefore(epochMicros(cutoff) + (cutoff.getNano() % 1000 != 0 ? 1 : 0));
+                log.debug("{} órdenes archivadas quitadas de la copia columnar", removed);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPurchaseOrderChanged(PurchaseOrderChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            version.incrementAndGet();
+            Columns current = columns;
+            if (current == null) {
+                return;
+            }
+            for (PurchaseOrderChangedEvent.Change change : event.changes()) {
+                PurchaseOrder after = change.after();
+                if (after == null) {
+                    current.remove(change.before().getId());
+                } else if (!current.put(after.getId(), toCents(after.getTotalAmount()),
+                        storedMicros(after.getCreatedAt()), after.getStatus().ordinal(), after.getCurrency().ordinal())) {
+                    // id anterior a la base: no tiene posición hasta la próxima carga completa
+                    columns = null;
+                    return;
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Todos los filtros excepto la búsqueda q, si hay una copia cargada. Es solo una indicación:
+     * la copia puede descartarse antes de aggregate, que es quien decide.
+     */
+    public boolean supports(PurchaseOrderFilterDTO filters) {
+        return columns != null && (filters.getQ() == null || filters.getQ().isBlank());
+    }
+
+    /**
+     * count, sum, min y max (en centavos) de las órdenes que cumplen los filtros, por status y currency
+     * y opcionalmente por día; sin byDay el día del visitor es null. Devuelve false sin visitar nada si
+     * no hay copia cargada o los filtros traen q.
+     */
+    public boolean aggregate(PurchaseOrderFilterDTO filters, boolean byDay, PurchaseOrderRollups.CellVisitor visitor) {
+        if (filters.getQ() != null && !filters.getQ().isBlank()) {
+            return false;
+        }
+        // Por día desde firstDay (o un único grupo sin byDay): count, sum, min y max de cada celda, consecutivos
+        long[][] groups;
+        long firstDay = 0;
+        lock.readLock().lock();
+        try {
+            Columns current = columns;
+            if (current == null) {
+                return false;
+            }
+            long[] words = match(current, filters);
+            long lastDay = 0;
+            if (byDay) {
+                firstDay = Long.MAX_VALUE;
+                lastDay = Long.MIN_VALUE;
+                for (int w = 0; w < words.length; w++) {
+                    for (long word = words[w]; word != 0; word &= word - 1) {
+                        long day = Math.floorDiv(current.createdAt[(w << 6) + Long.numberOfTrailingZeros(word)],
+                                MICROS_PER_DAY);
+                        firstDay = Math.min(firstDay, day);
+                        lastDay = Math.max(lastDay, day);
+                    }
+                }
+            }
+            groups = new long[firstDay <= lastDay ? (int) (lastDay - firstDay + 1) : 0][];
+            for (int w = 0; w < words.length; w++) {
+                for (long word = words[w]; word != 0; word &= word - 1) {
+                    int slot = (w << 6) + Long.numberOfTrailingZeros(word);
+                    int group = byDay ? (int) (Math.floorDiv(current.createdAt[slot], MICROS_PER_DAY) - firstDay) : 0;
+                    long[] cells = groups[group];
+                    if (cells == null) {
+                        cells = newCells();
+                        groups[group] = cells;
+                    }
+                    int offset = (current.status[slot] * CURRENCIES.length + current.currency[slot]) * 4;
+                    long cents = current.cents[slot];
+                    cells[offset]++;
+                    cells[offset + 1] += cents;
+                    cells[offset + 2] = Math.min(cells[offset + 2], cents);
+                    cells[offset + 3] = Math.max(cells[offset + 3], cents);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        for (int group = 0; group < groups.length; group++) {
+            long[] cells = groups[group];
+            if (cells == null) {
+                continue;
+            }
+            LocalDate day = byDay ? LocalDate.ofEpochDay(firstDay + group) : null;
+            for (int cell = 0; cell < CELLS; cell++) {
+                int offset = cell * 4;
+                if (cells[offset] > 0) {
+                    visitor.visit(day, STATUSES[cell / CURRENCIES.length], CURRENCIES[cell % CURRENCIES.length],
+                            cells[offset], cells[offset + 1], cells[offset + 2], cells[offset + 3]);
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Bitmap (en palabras de 64 posiciones) de las órdenes que cumplen los filtros
+     */
+    private long[] match(Columns current, PurchaseOrderFilterDTO filters) {
+        BitSet candidates = (BitSet) current.alive.clone();
+        if (filters.getStatus() != null) {
+            candidates.and(current.byStatus[filters.getStatus().ordinal()]);
+        }
+        if (filters.getCurrency() != null) {
+            candidates.and(current.byCurrency[filters.getCurrency().ordinal()]);
+        }
+        long[] words = candidates.toLongArray();
+
+        Bounds bounds = Bounds.of(filters);
+        if (bounds.isUnbounded()) {
+            return words;
+        }
+        if ((long) words.length << 6 >= parallelThreshold) {
+            ForkJoinPool.commonPool().invoke(new ScanTask(current, bounds, words, 0, words.length));
+        } else {
+            scan(current, bounds, words, 0, words.length);
+        }
+        return words;
+    }
+
+    /**
+     * Deja en words solo las posiciones cuyo monto y createdAt están dentro de los límites.
+     * El bucle interno no tiene saltos: compara las 64 posiciones de la palabra y arma la máscara.
+     */
+    private static void scan(Columns current, Bounds bounds, long[] words, int fromWord, int toWord) {
+        long[] cents = current.cents;
+        long[] createdAt = current.createdAt;
+        for (int w = fromWord; w < toWord; w++) {
+            long word = words[w];
+            if (word == 0) {
+                continue;
+            }
+            int base = w << 6;
+            long kept = 0;
+            for (int bit = 0; bit < 64; bit++) {
+                long amount = cents[base + bit];
+                long created = createdAt[base + bit];
+                boolean inside = amount >= bounds.minCents() & amount <= bounds.maxCents()
+                        & created >= bounds.fromMicros() & created <= bounds.toMicros();
+                kept |= (inside ? 1L : 0L) << bit;
+            }
+            words[w] = word & kept;
+        }
+    }
+
+    private void replace(Columns loaded) {
+        columns = loaded;
+        if (loaded != null) {
+            log.info("Copia columnar de órdenes cargada: {} órdenes en {} posiciones", loaded.count, loaded.size);
+        }
+    }
+
+    private Columns load() {
+        Columns loaded = new Columns();
+        // Siempre el primario: una réplica con retraso no coincidiría con los cambios ya aplicados
+        ReplicaRouting.onPrimary(() -> {
+            purchaseOrderRepository.scanColumns(rs -> loaded.put(rs.getLong("id"),
+                    toCents(rs.getBigDecimal("total_amount")),
+                    epochMicros(rs.getTimestamp("created_at").toLocalDateTime()),
+                    OrderStatus.valueOf(rs.getString("status")).ordinal(),
+                    Currency.valueOf(rs.getString("currency")).ordinal()));
+            return null;
+        });
+        if (loaded.size > (long) MAX_SPARSENESS * loaded.count + 64) {
+            log.warn("Copia columnar descartada: {} posiciones para {} órdenes (ids con demasiados huecos)",
+                    loaded.size, loaded.count);
+            return null;
+        }
+        return loaded;
+    }
+
+    private static long[] newCells() {
+        long[] cells = new long[CELLS * 4];
+        for (int offset = 0; offset < cells.length; offset += 4) {
+            cells[offset + 2] = Long.MAX_VALUE;
+            cells[offset + 3] = Long.MIN_VALUE;
+        }
+        return cells;
+    }
+
+    private static long toCents(BigDecimal amount) {
+        return PurchaseOrderRollups.toCents(amount);
+    }
+
+    private static long epochMicros(LocalDateTime value) {
+        return value.toEpochSecond(ZoneOffset.UTC) * MICROS_PER_SECOND + value.getNano() / 1000;
+    }
+
+    /**
+     * createdAt de una entidad recién escrita puede traer nanosegundos; la columna lo guarda redondeado
+     * al microsegundo, que es lo que compara SQL
+     */
+    private static long storedMicros(LocalDateTime value) {
+        return epochMicros(value) + (value.getNano() % 1000 >= 500 ? 1 : 0);
+    }
+
+    /**
+     * Límites inclusivos de monto (centavos) y createdAt (microsegundos); sin filtro, el extremo del tipo
+     */
+    private record Bounds(long minCents, long maxCents, long fromMicros, long toMicros) {
+
+        static Bounds of(PurchaseOrderFilterDTO filters) {
+            LocalDateTime from = filters.getFrom();
+            LocalDateTime to = filters.getTo();
+            return new Bounds(
+                    filters.getMinTotal() != null ? cents(filters.getMinTotal(), RoundingMode.CEILING) : Long.MIN_VALUE,
+                    filters.getMaxTotal() != null ? cents(filters.getMaxTotal(), RoundingMode.FLOOR) : Long.MAX_VALUE,
+                    // from con fracción de microsegundo: la primera posición válida es el microsegundo siguiente
+                    from != null ? epochMicros(from) + (from.getNano() % 1000 != 0 ? 1 : 0) : Long.MIN_VALUE,
+                    to != null ? epochMicros(to) : Long.MAX_VALUE);
+        }
+
+        boolean isUnbounded() {
+            return minCents == Long.MIN_VALUE && maxCents == Long.MAX_VALUE
+                    && fromMicros == Long.MIN_VALUE && toMicros == Long.MAX_VALUE;
+        }
+
+        private static long cents(BigDecimal amount, RoundingMode rounding) {
+            BigDecimal cents = amount.movePointRight(2).setScale(0, rounding);
+            if (cents.compareTo(BigDecimal.valueOf(Long.MAX_VALUE)) >= 0) {
+                return Long.MAX_VALUE;
+            }
+            if (cents.compareTo(BigDecimal.valueOf(Long.MIN_VALUE)) <= 0) {
+                return Long.MIN_VALUE;
+            }
+            return cents.longValue();
+        }
+    }
+
+    /**
+     * Recorrido de rangos por segmentos; cada tarea escribe solo sus palabras de words
+     */
+    private static final class ScanTask extends RecursiveAction {
+
+        private final Columns current;
+        private final Bounds bounds;
+        private final long[] words;
+        private final int fromWord;
+        private final int toWord;
+
+        ScanTask(Columns current, Bounds bounds, long[] words, int fromWord, int toWord) {
+            this.current = current;
+            this.bounds = bounds;
+            this.words = words;
+            this.fromWord = fromWord;
+            this.toWord = toWord;
+        }
+
+        @Override
+        protected void compute() {
+            if (toWord - fromWord <= SEGMENT_WORDS) {
+                scan(current, bounds, words, fromWord, toWord);
+                return;
+            }
+            int middle = (fromWord + toWord) >>> 1;
+            invokeAll(new ScanTask(current, bounds, words, fromWord, middle),
+                    new ScanTask(current, bounds, words, middle, toWord));
+        }
+    }
+
+    /**
+     * Columnas y bitmaps; la posición de un id es id - base. La capacidad es siempre múltiplo de 64,
+     * así el recorrido por palabras no sale de los arreglos.
+     */
+    private static final class Columns {
+
+        long base = -1;
+        int size;
+        int count;
+        long[] cents = new long[64];
+        long[] createdAt = new long[64];
+        byte[] status = new byte[64];
+        byte[] currency = new byte[64];
+        final BitSet alive = new BitSet();
+        final BitSet[] byStatus = bitmaps(STATUSES.length);
+        final BitSet[] byCurrency = bitmaps(CURRENCIES.length);
+
+        /**
+         * Inserta o actualiza la orden; false si el id es anterior a la base
+         */
+        boolean put(long id, long amountCents, long createdAtMicros, int statusOrdinal, int currencyOrdinal) {
+            if (base < 0) {
+                base = id;
+            }
+            long offset = id - base;
+            if (offset < 0) {
+                return false;
+            }
+            if (offset >= Integer.MAX_VALUE - 64) {
+                throw new IllegalStateException("Id fuera del rango de la copia columnar: " + id);
+            }
+            int slot = (int) offset;
+            if (slot >= cents.length) {
+                grow(slot);
+            }
+            if (alive.get(slot)) {
+                byStatus[status[slot]].clear(slot);
+                byCurrency[currency[slot]].clear(slot);
+            } else {
+                alive.set(slot);
+                count++;
+            }
+            cents[slot] = amountCents;
+            createdAt[slot] = createdAtMicros;
+            status[slot] = (byte) statusOrdinal;
+            currency[slot] = (byte) currencyOrdinal;
+            byStatus[statusOrdinal].set(slot);
+            byCurrency[currencyOrdinal].set(slot);
+            size = Math.max(size, slot + 1);
+            return true;
+        }
+
+        void remove(long id) {
+            long offset = id - base;
+            if (base < 0 || offset < 0 || offset >= size || !alive.get((int) offset)) {
+                return;
+            }
+            clear((int) offset);
+        }
+
+        /**
+         * Quita las posiciones con createdAt anterior a micros; devuelve cuántas
+         */
+        int removeBefore(long micros) {
+            int removed = 0;
+            for (int slot = alive.nextSetBit(0); slot >= 0; slot = alive.nextSetBit(slot + 1)) {
+                if (createdAt[slot] < micros) {
+                    clear(slot);
+                    removed++;
+                }
+            }
+            return removed;
+        }
+
+        private void clear(int slot) {
+            alive.clear(slot);
+            byStatus[status[slot]].clear(slot);
+            byCurrency[currency[slot]].clear(slot);
+            count--;
+        }
+
+        private void grow(int slot) {
+            int capacity = cents.length;
+            while (capacity <= slot) {
+                capacity = (int) Math.min((long) capacity << 1, Integer.MAX_VALUE - 63);
+            }
+            capacity = capacity & ~63;
+            cents = Arrays.copyOf(cents, capacity);
+            createdAt = Arrays.copyOf(createdAt, capacity);
+            status = Arrays.copyOf(status, capacity);
+            currency = Arrays.copyOf(currency, capacity);
+        }
+
+        private static BitSet[] bitmaps(int values) {
+            BitSet[] bitmaps = new BitSet[values];
+            for (int i = 0; i < values; i++) {
+                bitmaps[i] = new BitSet();
+            }
+            return bitmaps;
+        }
+    }
+}
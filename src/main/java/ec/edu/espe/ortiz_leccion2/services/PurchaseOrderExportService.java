@@ -0,0 +1,12 @@
+package ec.edu.espe.ortiz_leccion2.services;
+
+import ec.edu.espe.ortiz_leccion2.models.dto.PurchaseOrderFilterDTO;
+import ec.edu.espe.ortiz_leccion2.models.enums.ExportFormat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface PurchaseOrderExportService {
+
+    void export(PurchaseOrderFilterDTO filters, ExportFormat format, OutputStream out) throws IOException;
+}
@@ -0,0 +1,188 @@
+package ec.edu.espe.ortiz_leccion2.services;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import ec.edu.espe.ortiz_leccion2.models.dto.PurchaseOrderFilterDTO;
+import ec.edu.espe.ortiz_leccion2.models.entities.PurchaseOrder;
+import ec.edu.espe.ortiz_leccion2.models.enums.SearchMode;
+import ec.edu.espe.ortiz_leccion2.models.enums.ExportFormat;
+import ec.edu.espe.ortiz_leccion2.repositories.PurchaseOrderArchiveRepository;
+import ec.edu.espe.ortiz_leccion2.repositories.PurchaseOrderRepository;
+import ec.edu.espe.ortiz_leccion2.specifications.PurchaseOrderFilterQuery;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+@Service
+public class PurchaseOrderExportServiceImpl implements PurchaseOrderExportService {
+
+    private static final String CSV_HEADER =
+            "id,orderNumber,supplierName,status,totalAmount,currency,createdAt,expectedDeliveryDate";
+
+    private final PurchaseOrderRepository purchaseOrderRepository;
+    private final ObjectMapper objectMapper;
+    private final PurchaseOrderArchiveRepository archiveRepository;
+    private final PurchaseOrderArchiveService archiveService;
+
+    // LIKE en H2; FULLTEXT en MySQL (perfil docker)
+    @Value("${purchase-order.search.mode:like}")
+    private SearchMode searchMode;
+
+    // Cada cuántas filas se vacía el buffer hacia el cliente
+    @Value("${purchase-order.export.flush-every:1000}")
+    private int flushEvery;
+
+    public PurchaseOrderExportServiceImpl(PurchaseOrderRepository purchaseOrderRepository,
+            ObjectMapper objectMapper, PurchaseOrderArchiveRepository archiveRepository,
+            PurchaseOrderArchiveService archiveService) {
+        this.purchaseOrderRepository = purchaseOrderRepository;
+        this.objectMapper = objectMapper;
+        this.archiveRepository = archiveRepository;
+        this.archiveService = archiveService;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void export(PurchaseOrderFilterDTO filters, ExportFormat format, OutputStream out) throws IOException {
+        List<Supplier<Stream<PurchaseOrder>>> sources = new ArrayList<>();
+        sources.add(() -> purchaseOrderRepository.streamAll(PurchaseOrderFilterQuery.of(filters, searchMode, null)));
+        if (archiveService.covers(filters)) {
+            sources.add(() -> archiveRepository.stream(filters));
+        }
+        try (SequentialIterator orders = new SequentialIterator(sources)) {
+            if (format == ExportFormat.CSV) {
+                writeCsv(orders, out);
+            } else {
+                writeNdjson(orders, out);
+            }
+        }
+    }
+
+    /**
+     * Escribe una orden JSON por línea sin construir un arreglo en memoria. writeValue vacía el generador
+     * tras cada valor por defecto (FLUSH_AFTER_WRITE_VALUE); aquí solo se vacía cada flushEvery filas.
+     */
+    private void writeNdjson(Iterator<PurchaseOrder> orders, OutputStream out) throws IOException {
+        ObjectWriter writer = objectMapper.writerFor(PurchaseOrder.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+            long rows = 0;
+            while (orders.hasNext()) {
+                writer.writeValue(generator, orders.next());
+                generator.writeRaw('\n');
+                if (++rows % flushEvery == 0) {
+                    generator.flush();
+                }
+            }
+        }
+    }
+
+    private void writeCsv(Iterator<PurchaseOrder> orders, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write(CSV_HEADER);
+        writer.write('\n');
+        // El encabezado sale antes de que termine la consulta
+        writer.flush();
+
+        long rows = 0;
+        while (orders.hasNext()) {
+            PurchaseOrder order = orders.next();
+            writer.write(String.valueOf(order.getId()));
+            writer.write(',');
+            writeCsvField(writer, order.getOrderNumber());
+            writer.write(',');
+            writeCsvField(writer, order.getSupplierName());
+            writer.write(',');
+            writer.write(order.getStatus().name());
+            writer.write(',');
+            writer.write(order.getTotalAmount().toPlainString());
+            writer.write(',');
+            writer.write(order.getCurrency().name());
+            writer.write(',');
+            writer.write(order.getCreatedAt().toString());
+            writer.write(',');
+            writer.write(order.getExpectedDeliveryDate().toString());
+            writer.write('\n');
+            if (++rows % flushEvery == 0) {
+                writer.flush();
+            }
+        }
+        writer.flush();
+    }
+
+    /**
+     * Escapa un campo de texto según RFC 4180
+     */
+    private void writeCsvField(Writer writer, String value) throws IOException {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0
+                && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    /**
+     * Recorre las fuentes una tras otra. Cada consulta se abre al agotar la anterior, que ya está cerrada:
+     * MySQL no admite dos resultados en streaming a la vez sobre la misma conexión.
+     */
+    private static final class SequentialIterator implements Iterator<PurchaseOrder>, AutoCloseable {
+
+        private final Iterator<Supplier<Stream<PurchaseOrder>>> sources;
+        private Stream<PurchaseOrder> current;
+        private Iterator<PurchaseOrder> iterator = Collections.emptyIterator();
+
+        SequentialIterator(List<Supplier<Stream<PurchaseOrder>>> sources) {
+            this.sources = sources.iterator();
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (!iterator.hasNext()) {
+                close();
+                if (!sources.hasNext()) {
+                    return false;
+                }
+                current = sources.next().get();
+                iterator = current.iterator();
+            }
+            return true;
+        }
+
+        @Override
+        public PurchaseOrder next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return iterator.next();
+        }
+
+        @Override
+        public void close() {
+            if (current != null) {
+                current.close();
+                current = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package ec.edu.espe.ortiz_leccion2.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import ec.edu.espe.ortiz_leccion2.config.CacheConfig;
+import ec.edu.espe.ortiz_leccion2.exceptions.IdempotencyKeyReusedException;
+import ec.edu.espe.ortiz_leccion2.models.entities.PurchaseOrder;
+import ec.edu.espe.ortiz_leccion2.models.events.PurchaseOrderChangedEvent;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/**
+ * Respuestas de creación por Idempotency-Key, en memoria con tamaño máximo y TTL.
+ * 
+ * Un reintento con la misma clave recibe la orden guardada sin llegar a la base de datos. Si el original
+ * sigue en curso, el reintento espera su resultado en lugar de ejecutar otra inserción. Si el original
+ * falla, la clave se libera y el error se propaga también a quienes esperaban.
+ */
+@Component
+public class PurchaseOrderIdempotencyCache {
+
+    private final Cache<Object, Object> responses;
+
+    public PurchaseOrderIdempotencyCache(CacheManager cacheManager) {
+        this.responses = ((CaffeineCache) cacheManager.getCache(CacheConfig.IDEMPOTENCY_KEYS)).getNativeCache();
+    }
+
+    public Result execute(String key, PurchaseOrder request, Supplier<PurchaseOrder> action) {
+        Entry entry = new Entry(fingerprint(request), new CompletableFuture<>());
+        Entry existing = (Entry) responses.asMap().putIfAbsent(key, entry);
+        if (existing != null) {
+            if (!existing.fingerprint().equals(entry.fingerprint())) {
+                throw new IdempotencyKeyReusedException("La Idempotency-Key " + key
+                        + " ya se usó con una orden distinta");
+            }
+            try {
+                return new Result(existing.response().join(), true);
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
+
+        try {
+            PurchaseOrder response = PurchaseOrderChangedEvent.snapshot(action.get());
+            entry.response().complete(response);
+            return new Result(response, false);
+        } catch (RuntimeException e) {
+            responses.asMap().remove(key, entry);
+            entry.response().completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Campos que envía el cliente; id, versión y createdAt los asigna el servidor
+     */
+    private static String fingerprint(PurchaseOrder order) {
+        return order.getOrderNumber() + "|" + order.getSupplierName() + "|" + order.getStatus() + "|"
+                + (order.getTotalAmount() == null ? null : order.getTotalAmount().stripTrailingZeros().toPlainString())
+                + "|" + order.getCurrency() + "|" + order.getExpectedDeliveryDate();
+    }
+
+    public record Result(PurchaseOrder order, boolean replayed) {
+    }
+
+    private record Entry(String fingerprint, CompletableFuture<PurchaseOrder> response) {
+    }
+}
@@ -0,0 +1,15 @@
+package ec.edu.espe.ortiz_leccion2.services;
+
+import ec.edu.espe.ortiz_leccion2.models.dto.IngestionStatusDTO;
+import ec.edu.espe.ortiz_leccion2.models.entities.PurchaseOrder;
+
+public interface PurchaseOrderIngestionService {
+
+    /**
+     * Encola la orden (ya validada) para crearla en el siguiente micro-batch.
+     * Lanza IngestionQueueFullException si la cola está llena.
+     */
+    IngestionStatusDTO submit(PurchaseOrder purchaseOrder);
+
+    IngestionStatusDTO getStatus(String trackingId);
+}
@@ -0,0 +1,214 @@
+package ec.edu.espe.ortiz_leccion2.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import ec.edu.espe.ortiz_leccion2.exceptions.IngestionQueueFullException;
+import ec.edu.espe.ortiz_leccion2.exceptions.ResourceNotFoundException;
+import ec.edu.espe.ortiz_leccion2.models.dto.BatchItemErrorDTO;
+import ec.edu.espe.ortiz_leccion2.models.dto.BatchResultDTO;
+import ec.edu.espe.ortiz_leccion2.models.dto.IngestionStatusDTO;
+import ec.edu.espe.ortiz_leccion2.models.entities.PurchaseOrder;
+import ec.edu.espe.ortiz_leccion2.models.enums.IngestionStatus;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ingesta asíncrona con group commit: las órdenes se validan y encolan en la petición (202), y un único
+ * hilo escritor las crea en micro-batches de hasta batch-size, cada uno en una sola transacción.
+ * 
+ * El escritor toma la primera orden disponible y espera como máximo linger a que se acumulen más;
+ * con carga alta los batches se llenan sin esperar. La cola es acotada: si está llena la petición se
+ * rechaza (429) en lugar de acumular memoria. El estado de cada orden se conserva status-ttl.
+ */
+@Service
+@ConditionalOnProperty(name = "purchase-order.ingestion.enabled", havingValue = "true")
+public class PurchaseOrderIngestionServiceImpl implements PurchaseOrderIngestionService {
+
+    private static final Logger log = LoggerFactory.getLogger(PurchaseOrderIngestionServiceImpl.class);
+
+    private static final IngestionQueueFullException QUEUE_FULL =
+            new IngestionQueueFullException("La cola de ingesta está llena; reintente más tarde");
+
+    private final PurchaseOrderBatchService purchaseOrderBatchService;
+    private final BlockingQueue<Ticket> queue;
+    private final Cache<String, IngestionStatusDTO> statuses;
+    private final int batchSize;
+    private final Duration linger;
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    private final DistributionSummary batchSizes;
+    private final Timer batchTimer;
+    private final Counter rejected;
+
+    public PurchaseOrderIngestionServiceImpl(PurchaseOrderBatchService purchaseOrderBatchService,
+            MeterRegistry meterRegistry,
+            @Value("${purchase-order.ingestion.queue-capacity:10000}") int queueCapacity,
+            @Value("${purchase-order.ingestion.batch-size:200}") int batchSize,
+            @Value("${purchase-order.ingestion.linger:20ms}") Duration linger,
+            @Value("${purchase-order.ingestion.status-ttl:1h}") Duration statusTtl) {
+        this.purchaseOrderBatchService = purchaseOrderBatchService;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.statuses = Caffeine.newBuilder()
+                .maximumSize(queueCapacity * 10L)
+                .expireAfterWrite(statusTtl)
+                .build();
+        this.batchSize = batchSize;
+        this.linger = linger;
+
+        Gauge.builder("purchase_orders.ingestion.queue.depth", queue, BlockingQueue::size)
+                .description("Órdenes en cola pendientes de escribir")
+                .register(meterRegistry);
+        this.batchSizes = DistributionSummary.builder("purchase_orders.ingestion.batch.size")
+                .description("Órdenes por micro-batch (una transacción)")
+                .register(meterRegistry);
+        this.batchTimer = Timer.builder("purchase_orders.ingestion.batch")
+                .description("Duración de la escritura de cada micro-batch")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("purchase_orders.ingestion.rejected")
+                .description("Órdenes rechazadas con la cola llena")
+                .register(meterRegistry);
+
+        this.writer = new Thread(this::drain, "purchase-order-ingestion");
+        this.writer.start();
+    }
+
+    @Override
+    public IngestionStatusDTO submit(PurchaseOrder purchaseOrder) {
+        // Solo creaciones: id y versión los asigna la base de datos
+        purchaseOrder.setId(null);
+        purchaseOrder.setVersion(null);
+
+        LocalDateTime now = LocalDateTime.now();
+        IngestionStatusDTO status = new IngestionStatusDTO(UUID.randomUUID().toString(), IngestionStatus.QUEUED,
+                purchaseOrder.getOrderNumber(), null, null, now, null);
+        // Visible antes de encolar: el escritor puede terminar antes de que la petición responda
+        statuses.put(status.getTrackingId(), status);
+        if (!running || !queue.offer(new Ticket(status, purchaseOrder))) {
+            statuses.invalidate(status.getTrackingId());
+            rejected.increment();
+            throw QUEUE_FULL;
+        }
+        return status;
+    }
+
+    @Override
+    public IngestionStatusDTO getStatus(String trackingId) {
+        IngestionStatusDTO status = statuses.getIfPresent(trackingId);
+        if (status == null) {
+            throw new ResourceNotFoundException("No existe una ingesta con trackingId: " + trackingId);
+        }
+        return status;
+    }
+
+    /**
+     * Deja de aceptar órdenes y espera a que el escritor vacíe la cola
+     */
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(30));
+        if (!queue.isEmpty()) {
+            log.warn("Se descartan {} órdenes encoladas al detener la ingesta", queue.size());
+        }
+    }
+
+    private void drain() {
+        List<Ticket> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Ticket first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + linger.toNanos();
+                while (batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() == batchSize || remaining <= 0) {
+                        break;
+                    }
+                    Ticket next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                write(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Error inesperado en el escritor de ingesta", e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Reutiliza la carga masiva: un solo batch JDBC y una transacción por micro-batch, con reintento
+     * elemento por elemento si alguno viola una restricción (p. ej. orderNumber duplicado)
+     */
+    private void write(List<Ticket> batch) {
+        batchSizes.record(batch.size());
+        BatchResultDTO result;
+        try {
+            result = batchTimer.record(() -> purchaseOrderBatchService.importOrders(
+                    batch.stream().map(Ticket::order).iterator()));
+        } catch (RuntimeException e) {
+            log.warn("No se pudo escribir un micro-batch de {} órdenes", batch.size(), e);
+            LocalDateTime now = LocalDateTime.now();
+            for (Ticket ticket : batch) {
+                complete(ticket, IngestionStatus.FAILED, null, Map.of("body", "Error al guardar la orden"), now);
+            }
+            return;
+        }
+
+        Map<Long, Map<String, String>> errors = new HashMap<>();
+        for (BatchItemErrorDTO error : result.getErrors()) {
+            errors.put(error.getIndex(), error.getErrors());
+        }
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < batch.size(); i++) {
+            Ticket ticket = batch.get(i);
+            Map<String, String> itemErrors = errors.get((long) i);
+            if (itemErrors == null) {
+                complete(ticket, IngestionStatus.CREATED, ticket.order().getId(), null, now);
+            } else {
+                complete(ticket, IngestionStatus.FAILED, null, itemErrors, now);
+            }
+        }
+    }
+
+    private void complete(Ticket ticket, IngestionStatus status, Long orderId, Map<String, String> errors,
+            LocalDateTime completedAt) {
+        IngestionStatusDTO queued = ticket.status();
+        statuses.put(queued.getTrackingId(), new IngestionStatusDTO(queued.getTrackingId(), status,
+                queued.getOrderNumber(), orderId, errors, queued.getAcceptedAt(), completedAt));
+    }
+
+    private record Ticket(IngestionStatusDTO status, PurchaseOrder order) {
+    }
+}
@@ -0,0 +1,134 @@
+package ec.edu.espe.ortiz_leccion2.services;
+
+import ec.edu.espe.ortiz_leccion2.config.ReplicaRouting;
+import ec.edu.espe.ortiz_leccion2.models.entities.PurchaseOrder;
+import ec.edu.espe.ortiz_leccion2.repositories.PurchaseOrderRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Agrupa las cargas por id concurrentes (GET /{id} sin acierto en caché) en una sola consulta IN.
+ * 
+ * La primera petición abre un lote y espera como máximo window a que lleguen otras; las siguientes se
+ * suman al lote abierto (un mismo id se carga una vez) y esperan el resultado. Al vencer la ventana o
+ * llenarse el lote, la primera petición lo cierra y ejecuta la consulta en su propio hilo, así que
+ * varios lotes pueden estar en curso a la vez y no hace falta un hilo despachador.
+ */
+@Component
+@ConditionalOnProperty(name = "purchase-order.lookup.coalesce.enabled", havingValue = "true")
+public class PurchaseOrderLoadCoalescer {
+
+    private final PurchaseOrderRepository purchaseOrderRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Duration window;
+    private final int maxBatch;
+    private final DistributionSummary batchSizes;
+
+    // Lote abierto que recibe ids; null si no hay ninguno
+    private Batch open;
+
+    public PurchaseOrderLoadCoalescer(PurchaseOrderRepository purchaseOrderRepository,
+            PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+            @Value("${purchase-order.lookup.coalesce.window:2ms}") Duration window,
+            @Value("${purchase-order.lookup.coalesce.max-batch:100}") int maxBatch) {
+        this.purchaseOrderRepository = purchaseOrderRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.window = window;
+        this.maxBatch = maxBatch;
+        this.batchSizes = DistributionSummary.builder("purchase_orders.lookup.coalesced")
+                .description("Ids distintos por consulta de GET /{id} agrupados")
+                .register(meterRegistry);
+    }
+
+    /**
+     * La orden con ese id, o null si no existe
+     */
+    public PurchaseOrder load(Long id) {
+        Batch batch;
+        CompletableFuture<PurchaseOrder> result;
+        boolean leader;
+        synchronized (this) {
+            leader = open == null;
+            if (leader) {
+                open = new Batch();
+            }
+            batch = open;
+            result = batch.pending.computeIfAbsent(id, key -> new CompletableFuture<>());
+            // Una petición que exige el primario (lectura tras escritura) lo exige para todo el lote
+            batch.primary |= ReplicaRouting.isPrimaryRequired();
+            if (batch.pending.size() >= maxBatch) {
+                open = null;
+                batch.full.countDown();
+            }
+        }
+
+        if (leader) {
+            execute(batch);
+        }
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private void execute(Batch batch) {
+        try {
+            batch.full.await(window.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (this) {
+            if (open == batch) {
+                open = null;
+            }
+        }
+
+        batchSizes.record(batch.pending.size());
+        try {
+            List<PurchaseOrder> orders = batch.primary
+                    ? ReplicaRouting.onPrimary(() -> findAll(batch))
+                    : ReplicaRouting.consistentRead(() -> findAll(batch));
+            Map<Long, PurchaseOrder> byId = new HashMap<>();
+            for (PurchaseOrder order : orders) {
+                byId.put(order.getId(), order);
+            }
+            batch.pending.forEach((key, future) -> future.complete(byId.get(key)));
+        } catch (RuntimeException e) {
+            batch.pending.values().forEach(future -> future.completeExceptionally(e));
+        }
+    }
+
+    private List<PurchaseOrder> findAll(Batch batch) {
+        return readOnlyTransaction.execute(status -> purchaseOrderRepository.findAllById(batch.pending.keySet()));
+    }
+
+    /**
+     * Ids pendientes de un lote; solo se modifica mientras está abierto, bajo el monitor del coalescer
+     */
+    private static final class Batch {
+
+        final Map<Long, CompletableFuture<PurchaseOrder>> pending = new LinkedHashMap<>();
+        final CountDownLatch full = new CountDownLatch(1);
+        boolean primary;
+    }
+}
@@ -0,0 +1,48 @@
+package ec.edu.espe.ortiz_leccion2.services;
+
+import ec.edu.espe.ortiz_leccion2.models.dto.PurchaseOrderCursor;
+import ec.edu.espe.ortiz_leccion2.models.dto.PurchaseOrderFilterDTO;
+import ec.edu.espe.ortiz_leccion2.models.entities.PurchaseOrder;
+import ec.edu.espe.ortiz_leccion2.specifications.PurchaseOrderSearchTerms;
+import ec.edu.espe.ortiz_leccion2.specifications.PurchaseOrderSpecification;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Clave de la caché de páginas: filtros normalizados, cursor, límite y campos pedidos.
+ * Dos peticiones equivalentes (p. ej. q con espacios o minTotal=10 y 10.00) comparten entrada.
+ */
+record PurchaseOrderPageKey(PurchaseOrderFilterDTO filters, PurchaseOrderCursor cursor, int limit,
+        List<String> fields) {
+
+    static PurchaseOrderPageKey of(PurchaseOrderFilterDTO filters, PurchaseOrderCursor cursor, int limit,
+            Collection<String> fields) {
+        PurchaseOrderFilterDTO normalized = new PurchaseOrderFilterDTO();
+        if (filters.getQ() != null && !filters.getQ().trim().isEmpty()) {
+            String q = filters.getQ().trim();
+            // La búsqueda por contenido no distingue mayúsculas; el prefijo sí se conserva tal cual
+            normalized.setQ(PurchaseOrderSearchTerms.isPrefix(q) ? q : q.toLowerCase());
+        }
+        normalized.setStatus(filters.getStatus());
+        normalized.setCurrency(filters.getCurrency());
+        normalized.setMinTotal(normalize(filters.getMinTotal()));
+        normalized.setMaxTotal(normalize(filters.getMaxTotal()));
+        normalized.setFrom(filters.getFrom());
+        normalized.setTo(filters.getTo());
+        return new PurchaseOrderPageKey(normalized, cursor, limit, fields.stream().sorted().distinct().toList());
+    }
+
+    /**
+     * Indica si un cambio en la orden puede alterar el contenido de esta página
+     */
+    boolean isAffectedBy(PurchaseOrder order) {
+        return PurchaseOrderSpecification.matches(filters, order)
+                && (cursor == null || PurchaseOrderSpecification.isAfterCursor(cursor, order));
+    }
+
+    private static BigDecimal normalize(BigDecimal value) {
+        return value == null ? null : value.stripTrailingZeros();
+    }
+}
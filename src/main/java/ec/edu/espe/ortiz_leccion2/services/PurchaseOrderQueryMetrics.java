@@ -0,0 +1,80 @@
+package ec.edu.espe.ortiz_leccion2.services;
+
+import ec.edu.espe.ortiz_leccion2.models.dto.PurchaseOrderFilterDTO;
+import ec.edu.espe.ortiz_leccion2.specifications.PurchaseOrderSpecification;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Métricas de las consultas de órdenes, etiquetadas con la operación y la forma de los filtros:
+ * - purchase_orders.query: duración de la consulta (sin caché ni serialización)
+ * - purchase_orders.query.rows: filas devueltas
+ * 
+ * Las consultas que superan slow-query-threshold se registran con su forma; además se puede
+ * registrar una muestra del resto con query-log-sample-rate.
+ */
+@Component
+public class PurchaseOrderQueryMetrics {
+
+    private static final Logger log = LoggerFactory.getLogger(PurchaseOrderQueryMetrics.class);
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Meters> meters = new ConcurrentHashMap<>();
+
+    @Value("${purchase-order.metrics.slow-query-threshold:500ms}")
+    private Duration slowQueryThreshold;
+
+    @Value("${purchase-order.metrics.query-log-sample-rate:0.0}")
+    private double sampleRate;
+
+    public PurchaseOrderQueryMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public <T> List<T> record(String operation, PurchaseOrderFilterDTO filters, Supplier<List<T>> query) {
+        String shape = PurchaseOrderSpecification.shape(filters);
+        long start = System.nanoTime();
+        List<T> rows = query.get();
+        long elapsed = System.nanoTime() - start;
+
+        Meters operationMeters = meters.computeIfAbsent(operation + "|" + shape, key -> new Meters(
+                Timer.builder("purchase_orders.query")
+                        .description("Duración de las consultas de órdenes por forma de filtro")
+                        .tag("operation", operation)
+                        .tag("shape", shape)
+                        .register(meterRegistry),
+                DistributionSummary.builder("purchase_orders.query.rows")
+                        .description("Filas devueltas por las consultas de órdenes")
+                        .baseUnit("rows")
+                        .tag("operation", operation)
+                        .tag("shape", shape)
+                        .register(meterRegistry)));
+        operationMeters.timer().record(elapsed, TimeUnit.NANOSECONDS);
+        operationMeters.rows().record(rows.size());
+
+        if (elapsed >= slowQueryThreshold.toNanos()) {
+            log.warn("Consulta lenta: operation={} shape={} rows={} durationMs={}",
+                    operation, shape, rows.size(), TimeUnit.NANOSECONDS.toMillis(elapsed));
+        } else if (sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate) {
+            log.info("Consulta: operation={} shape={} rows={} durationMs={}",
+                    operation, shape, rows.size(), TimeUnit.NANOSECONDS.toMillis(elapsed));
+        }
+        return rows;
+    }
+
+    private record Meters(Timer timer, DistributionSummary rows) {
+    }
+}
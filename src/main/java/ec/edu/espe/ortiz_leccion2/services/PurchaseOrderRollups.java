@@ -0,0 +1,381 @@
+package ec.edu.espe.ortiz_leccion2.services;
+
+import ec.edu.espe.ortiz_leccion2.config.ReplicaRouting;
+import ec.edu.espe.ortiz_leccion2.models.dto.PurchaseOrderFilterDTO;
+import ec.edu.espe.ortiz_leccion2.models.entities.PurchaseOrder;
+import ec.edu.espe.ortiz_leccion2.models.enums.Currency;
+import ec.edu.espe.ortiz_leccion2.models.enums.OrderStatus;
+import ec.edu.espe.ortiz_leccion2.models.enums.SearchMode;
+import ec.edu.espe.ortiz_leccion2.models.events.PurchaseOrderChangedEvent;
+import ec.edu.espe.ortiz_leccion2.repositories.PurchaseOrderRepository;
+import ec.edu.espe.ortiz_leccion2.specifications.PurchaseOrderFilterQuery;
+import jakarta.persistence.Tuple;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Agregados de totalAmount por día × status × currency mantenidos en memoria.
+ * 
+ * Se construyen al arrancar con una consulta GROUP BY y después se actualizan con cada cambio
+ * confirmado (PurchaseOrderChangedEvent). Cada día guarda arreglos de longs (montos en centavos)
+ * indexados por los ordinales de los enums. Los cambios toman el write lock de un StampedLock y las
+ * lecturas leen count, sum, min y max de una celda con una lectura optimista (sin bloquear si no hubo
+ * cambios entretanto), así nunca combinan valores de antes y después de un cambio.
+ * 
+ * min y max no se pueden restar: si se elimina o modifica la orden que tenía el extremo, la celda
+ * se marca y se recalcula con una consulta acotada a ese día la próxima vez que se lee. Cada celda
+ * lleva un contador de cambios: el recálculo solo se aplica si la celda no cambió durante la consulta.
+ * Un job de reconciliación compara periódicamente con la base de datos y corrige las diferencias.
+ */
+@Component
+@ConditionalOnProperty(name = "purchase-order.rollups.enabled", havingValue = "true", matchIfMissing = true)
+public class PurchaseOrderRollups {
+
+    private static final Logger log = LoggerFactory.getLogger(PurchaseOrderRollups.class);
+
+    private static final OrderStatus[] STATUSES = OrderStatus.values();
+    private static final Currency[] CURRENCIES = Currency.values();
+    private static final int CELLS = STATUSES.length * CURRENCIES.length;
+
+    // Reintentos de la carga inicial (o del recálculo de extremos) si hubo escrituras durante la consulta
+    private static final int BUILD_ATTEMPTS = 3;
+
+    // Último instante que guarda created_at (microsegundos): un to desde aquí cubre el día completo
+    private static final LocalTime END_OF_DAY = LocalTime.MAX.withNano(999_999_000);
+
+    private final PurchaseOrderRepository purchaseOrderRepository;
+    private final TransactionTemplate readOnlyTransaction;
+
+    // Write lock: cambios, cargas y recálculos de extremos; las lecturas de celdas son optimistas
+    private final StampedLock lock = new StampedLock();
+
+    // Días ordenados por epochDay para recorrer rangos from/to
+    private volatile ConcurrentSkipListMap<Long, DayRollup> days = new ConcurrentSkipListMap<>();
+    private volatile boolean ready;
+
+    // Cambios aplicados; detecta escrituras concurrentes con una carga o una reconciliación
+    private final AtomicLong version = new AtomicLong();
+
+    public PurchaseOrderRollups(PurchaseOrderRepository purchaseOrderRepository,
+            PlatformTransactionManager transactionManager) {
+        this.purchaseOrderRepository = purchaseOrderRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Receptor de cada celda visitada; los montos se entregan en centavos
+     */
+    @FunctionalInterface
+    public interface CellVisitor {
+        void visit(LocalDate day, OrderStatus status, Currency currency,
+                long count, long sumCents, long minCents, long maxCents);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        for (int attempt = 1; attempt <= BUILD_ATTEMPTS; attempt++) {
+            long observed = version.get();
+            ConcurrentSkipListMap<Long, DayRollup> loaded = load();
+            long stamp = lock.writeLock();
+            try {
+                if (version.get() == observed) {
+                    days = loaded;
+                    ready = true;
+                    log.info("Rollups de órdenes construidos: {} días", loaded.size());
+                    return;
+                }
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+        log.warn("No se pudieron construir los rollups sin escrituras concurrentes; se usará SQL hasta la próxima reconciliación");
+    }
+
+    /**
+     * Compara los rollups con la base de datos y los reemplaza si hay diferencias.
+     * Si hubo escrituras durante la consulta la comparación no es fiable y se deja para la siguiente ejecución.
+     */
+    @Scheduled(initialDelayString = "${purchase-order.rollups.reconcile-interval:PT5M}",
+            fixedDelayString = "${purchase-order.rollups.reconcile-interval:PT5M}")
+    public void reconcile() {
+        long observed = version.get();
+        ConcurrentSkipListMap<Long, DayRollup> loaded = load();
+        long stamp = lock.writeLock();
+        try {
+            if (version.get() != observed) {
+                log.debug("Reconciliación de rollups omitida por escrituras concurrentes");
+                return;
+            }
+            int drift = ready ? countDifferences(days, loaded) : 0;
+            if (drift > 0) {
+                log.warn("Rollups de órdenes desalineados en {} celdas; se reemplazan por los de la base de datos", drift);
+            }
+            days = loaded;
+            ready = true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPurchaseOrderChanged(PurchaseOrderChangedEvent event) {
+        long stamp = lock.writeLock();
+        try {
+            version.incrementAndGet();
+            for (PurchaseOrderChangedEvent.Change change : event.changes()) {
+                if (change.before() != null) {
+                    remove(change.before());
+                }
+                if (change.after() != null) {
+                    add(change.after());
+                }
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Los rollups solo responden filtros por status, currency y rangos de días completos:
+     * from a las 00:00 y to desde el último microsegundo del día (PurchaseOrderController extiende
+     * un to en segundos como 23:59:59 hasta el final de ese segundo). El resto se resuelve con SQL.
+     */
+    public boolean supports(PurchaseOrderFilterDTO filters) {
+        return ready
+                && (filters.getQ() == null || filters.getQ().isBlank())
+                && filters.getMinTotal() == null
+                && filters.getMaxTotal() == null
+                && (filters.getFrom() == null || filters.getFrom().toLocalTime().equals(LocalTime.MIDNIGHT))
+                && (filters.getTo() == null || !filters.getTo().toLocalTime().isBefore(END_OF_DAY));
+    }
+
+    /**
+     * Recorre las celdas con órdenes que cumplen los filtros (ver supports)
+     */
+    public void forEach(PurchaseOrderFilterDTO filters, CellVisitor visitor) {
+        NavigableMap<Long, DayRollup> range = days;
+        if (filters.getFrom() != null) {
+            range = range.tailMap(filters.getFrom().toLocalDate().toEpochDay(), true);
+        }
+        if (filters.getTo() != null) {
+            range = range.headMap(filters.getTo().toLocalDate().toEpochDay(), true);
+        }
+
+        for (var entry : range.entrySet()) {
+            LocalDate day = LocalDate.ofEpochDay(entry.getKey());
+            DayRollup rollup = entry.getValue();
+            for (int cell = 0; cell < CELLS; cell++) {
+                OrderStatus status = STATUSES[cell / CURRENCIES.length];
+                Currency currency = CURRENCIES[cell % CURRENCIES.length];
+                if ((filters.getStatus() != null && filters.getStatus() != status)
+                        || (filters.getCurrency() != null && filters.getCurrency() != currency)) {
+                    continue;
+                }
+                Cell values = read(rollup, cell);
+                for (int attempt = 1; values.stale() && attempt <= BUILD_ATTEMPTS; attempt++) {
+                    values = refreshExtremes(day, rollup, cell, values.changes());
+                }
+                if (values.count() > 0) {
+                    visitor.visit(day, status, currency, values.count(), values.sum(), values.min(), values.max());
+                }
+            }
+        }
+    }
+
+    public static long toCents(BigDecimal amount) {
+        return amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    public static BigDecimal fromCents(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+
+    /**
+     * Valores de una celda leídos juntos: sin escrituras en curso no bloquea
+     */
+    private Cell read(DayRollup rollup, int cell) {
+        long stamp = lock.tryOptimisticRead();
+        Cell values = rollup.cell(cell);
+        if (lock.validate(stamp)) {
+            return values;
+        }
+        stamp = lock.readLock();
+        try {
+            return rollup.cell(cell);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    private void add(PurchaseOrder order) {
+        DayRollup rollup = days.computeIfAbsent(dayOf(order), key -> new DayRollup());
+        int cell = cellOf(order);
+        rollup.changes.incrementAndGet(cell);
+        long cents = toCents(order.getTotalAmount());
+        rollup.count.incrementAndGet(cell);
+        rollup.sum.addAndGet(cell, cents);
+        rollup.min.accumulateAndGet(cell, cents, Math::min);
+        rollup.max.accumulateAndGet(cell, cents, Math::max);
+    }
+
+    private void remove(PurchaseOrder order) {
+        DayRollup rollup = days.get(dayOf(order));
+        if (rollup == null) {
+            return;
+        }
+        int cell = cellOf(order);
+        long cents = toCents(order.getTotalAmount());
+        rollup.changes.incrementAndGet(cell);
+        if (rollup.count.decrementAndGet(cell) <= 0) {
+            rollup.reset(cell);
+            return;
+        }
+        rollup.sum.addAndGet(cell, -cents);
+        if (cents == rollup.min.get(cell) || cents == rollup.max.get(cell)) {
+            rollup.stale.set(cell, 1);
+        }
+    }
+
+    /**
+     * Recalcula min y max de una celda con una consulta sobre ese día (índice status, currency, created_at).
+     * Si la celda cambió durante la consulta (changes distinto) no se aplica y sigue marcada.
+     */
+    private Cell refreshExtremes(LocalDate day, DayRollup rollup, int cell, long changes) {
+        PurchaseOrderFilterDTO filters = new PurchaseOrderFilterDTO();
+        filters.setStatus(STATUSES[cell / CURRENCIES.length]);
+        filters.setCurrency(CURRENCIES[cell % CURRENCIES.length]);
+        filters.setFrom(day.atStartOfDay());
+        filters.setTo(day.atTime(END_OF_DAY));
+        List<Tuple> rows = ReplicaRouting.onPrimary(() -> readOnlyTransaction.execute(
+                status -> purchaseOrderRepository.aggregate(
+                        PurchaseOrderFilterQuery.of(filters, SearchMode.LIKE, null), false)));
+
+        long stamp = lock.writeLock();
+        try {
+            if (rollup.changes.get(cell) == changes && !rows.isEmpty()
+                    && rows.get(0).get("min", BigDecimal.class) != null) {
+                rollup.min.set(cell, toCents(rows.get(0).get("min", BigDecimal.class)));
+                rollup.max.set(cell, toCents(rows.get(0).get("max", BigDecimal.class)));
+                rollup.stale.set(cell, 0);
+            }
+            return rollup.cell(cell);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    private ConcurrentSkipListMap<Long, DayRollup> load() {
+        // Siempre el primario: una réplica con retraso no coincidiría con los cambios ya aplicados
+        List<Tuple> rows = ReplicaRouting.onPrimary(() -> readOnlyTransaction.execute(
+                status -> purchaseOrderRepository.aggregate(
+                        PurchaseOrderFilterQuery.of(new PurchaseOrderFilterDTO(), SearchMode.LIKE, null), true)));
+
+        ConcurrentSkipListMap<Long, DayRollup> loaded = new ConcurrentSkipListMap<>();
+        for (Tuple row : rows) {
+            DayRollup rollup = loaded.computeIfAbsent(row.get("day", LocalDate.class).toEpochDay(),
+                    key -> new DayRollup());
+            int cell = cellOf(row.get("status", OrderStatus.class), row.get("currency", Currency.class));
+            rollup.count.set(cell, row.get("count", Long.class));
+            rollup.sum.set(cell, toCents(row.get("sum", BigDecimal.class)));
+            rollup.min.set(cell, toCents(row.get("min", BigDecimal.class)));
+            rollup.max.set(cell, toCents(row.get("max", BigDecimal.class)));
+        }
+        return loaded;
+    }
+
+    private static int countDifferences(NavigableMap<Long, DayRollup> current, NavigableMap<Long, DayRollup> expected) {
+        Set<Long> keys = new HashSet<>(current.keySet());
+        keys.addAll(expected.keySet());
+        DayRollup empty = new DayRollup();
+        int differences = 0;
+        for (Long key : keys) {
+            DayRollup actual = current.getOrDefault(key, empty);
+            DayRollup reference = expected.getOrDefault(key, empty);
+            for (int cell = 0; cell < CELLS; cell++) {
+                long count = Math.max(actual.count.get(cell), 0);
+                if (count != reference.count.get(cell)
+                        || (count > 0 && actual.sum.get(cell) != reference.sum.get(cell))
+                        || (count > 0 && actual.stale.get(cell) == 0
+                            && (actual.min.get(cell) != reference.min.get(cell)
+                                || actual.max.get(cell) != reference.max.get(cell)))) {
+                    differences++;
+                }
+            }
+        }
+        return differences;
+    }
+
+    private static long dayOf(PurchaseOrder order) {
+        return order.getCreatedAt().toLocalDate().toEpochDay();
+    }
+
+    private static int cellOf(PurchaseOrder order) {
+        return cellOf(order.getStatus(), order.getCurrency());
+    }
+
+    private static int cellOf(OrderStatus status, Currency currency) {
+        return status.ordinal() * CURRENCIES.length + currency.ordinal();
+    }
+
+    /**
+     * Acumuladores de un día; la celda es status.ordinal() * |Currency| + currency.ordinal()
+     */
+    private static final class DayRollup {
+
+        final AtomicLongArray count = new AtomicLongArray(CELLS);
+        final AtomicLongArray sum = new AtomicLongArray(CELLS);
+        final AtomicLongArray min = new AtomicLongArray(CELLS);
+        final AtomicLongArray max = new AtomicLongArray(CELLS);
+        final AtomicIntegerArray stale = new AtomicIntegerArray(CELLS);
+        // Cambios aplicados a cada celda; reset no lo reinicia
+        final AtomicLongArray changes = new AtomicLongArray(CELLS);
+
+        DayRollup() {
+            for (int cell = 0; cell < CELLS; cell++) {
+                reset(cell);
+            }
+        }
+
+        void reset(int cell) {
+            count.set(cell, 0);
+            sum.set(cell, 0);
+            min.set(cell, Long.MAX_VALUE);
+            max.set(cell, Long.MIN_VALUE);
+            stale.set(cell, 0);
+        }
+
+        Cell cell(int cell) {
+            return new Cell(count.get(cell), sum.get(cell), min.get(cell), max.get(cell), stale.get(cell) == 1,
+                    changes.get(cell));
+        }
+    }
+
+    /**
+     * count, sum, min y max de una celda en un mismo instante
+     */
+    private record Cell(long count, long sum, long min, long max, boolean stale, long changes) {
+    }
+}
@@ -1,20 +1,46 @@
 package ec.edu.espe.ortiz_leccion2.services;
 
 import ec.edu.espe.ortiz_leccion2.models.dto.PurchaseOrderFilterDTO;
+import ec.edu.espe.ortiz_leccion2.models.dto.PurchaseOrderLookupDTO;
+import ec.edu.espe.ortiz_leccion2.models.dto.PurchaseOrderLookupResultDTO;
+import ec.edu.espe.ortiz_leccion2.models.dto.PurchaseOrderPageDTO;
+import ec.edu.espe.ortiz_leccion2.models.dto.PurchaseOrderSummary;
 import ec.edu.espe.ortiz_leccion2.models.entities.PurchaseOrder;
+import java.util.Collection;
 import java.util.List;
 
 public interface PurchaseOrderService {
 
-    List<PurchaseOrder> findAll();
+    PurchaseOrderPageDTO<PurchaseOrderSummary> findPage(PurchaseOrderFilterDTO filters, String cursor, int limit,
+            Collection<String> fields);
 
-    List<PurchaseOrder> findAllWithFilters(PurchaseOrderFilterDTO filters);
+    void validateFilters(PurchaseOrderFilterDTO filters);
 
     PurchaseOrder findById(Long id);
 
+    /**
+     * Varias órdenes por id y/o orderNumber en una sola consulta; las claves sin orden se informan
+     * en el resultado en lugar de lanzar ResourceNotFoundException
+     */
+    PurchaseOrderLookupResultDTO lookup(PurchaseOrderLookupDTO request);
+
+    /**
+     * Versión actual de la orden, sin cargar la entidad (para If-None-Match)
+     */
+    Long findVersion(Long id);
+
     PurchaseOrder save(PurchaseOrder purchaseOrder);
 
-    PurchaseOrder update(Long id, PurchaseOrder purchaseOrder);
+    /**
+     * Actualiza la orden; si expectedVersion no es null y no coincide con la versión actual
+     * lanza PreconditionFailedException (If-Match)
+     */
+    PurchaseOrder update(Long id, PurchaseOrder purchaseOrder, Long expectedVersion);
+
+    /**
+     * Crea la orden o actualiza la existente con el mismo orderNumber, con una sola sentencia nativa
+     */
+    PurchaseOrder upsertByOrderNumber(PurchaseOrder purchaseOrder);
 
     void delete(Long id);
 }
@@ -1,62 +1,305 @@
 package ec.edu.espe.ortiz_leccion2.services;
 
+import ec.edu.espe.ortiz_leccion2.config.ReplicaRouting;
 import ec.edu.espe.ortiz_leccion2.exceptions.InvalidFilterException;
+import ec.edu.espe.ortiz_leccion2.exceptions.PreconditionFailedException;
 import ec.edu.espe.ortiz_leccion2.exceptions.ResourceNotFoundException;
+import ec.edu.espe.ortiz_leccion2.models.dto.PurchaseOrderCursor;
 import ec.edu.espe.ortiz_leccion2.models.dto.PurchaseOrderFilterDTO;
+import ec.edu.espe.ortiz_leccion2.models.dto.PurchaseOrderLookupDTO;
+import ec.edu.espe.ortiz_leccion2.models.dto.PurchaseOrderLookupResultDTO;
+import ec.edu.espe.ortiz_leccion2.models.dto.PurchaseOrderPageDTO;
+import ec.edu.espe.ortiz_leccion2.models.dto.PurchaseOrderSummary;
 import ec.edu.espe.ortiz_leccion2.models.entities.PurchaseOrder;
+import ec.edu.espe.ortiz_leccion2.models.enums.SearchMode;
+import ec.edu.espe.ortiz_leccion2.models.events.PurchaseOrderChangedEvent;
+import ec.edu.espe.ortiz_leccion2.repositories.PurchaseOrderArchiveRepository;
 import ec.edu.espe.ortiz_leccion2.repositories.PurchaseOrderRepository;
-import ec.edu.espe.ortiz_leccion2.specifications.PurchaseOrderSpecification;
-import org.springframework.data.jpa.domain.Specification;
+import ec.edu.espe.ortiz_leccion2.specifications.PurchaseOrderFilterQuery;
+import jakarta.persistence.Tuple;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 
 @Service
 public class PurchaseOrderServiceImpl implements PurchaseOrderService {
 
+    // Tamaño máximo de página permitido en la paginación por cursor
+    private static final int MAX_PAGE_LIMIT = 500;
+
+    // Intentos de un upsert que compite con otra escritura sobre el mismo orderNumber
+    private static final int UPSERT_ATTEMPTS = 3;
+
+    // Claves (ids + orderNumbers) admitidas en una sola petición de POST /lookup
+    static final int MAX_LOOKUP_KEYS = 500;
+
+    // Errores de filtros con mensaje fijo, creados una sola vez
+    private static final InvalidFilterException INVALID_LIMIT =
+            new InvalidFilterException("El límite debe ser mayor o igual a 1");
+    private static final InvalidFilterException NULL_LOOKUP_KEYS =
+            new InvalidFilterException("ids y orderNumbers no pueden contener valores nulos");
+    private static final InvalidFilterException INVALID_DATE_RANGE =
+            new InvalidFilterException("La fecha 'from' no puede ser posterior a la fecha 'to'");
+    private static final InvalidFilterException INVALID_AMOUNT_RANGE =
+            new InvalidFilterException("El monto mínimo no puede ser mayor que el monto máximo");
+
     private final PurchaseOrderRepository purchaseOrderRepository;
+    private final PurchaseOrderCache purchaseOrderCache;
+    private final TransactionTemplate readOnlyTransaction;
+    private final TransactionTemplate writeTransaction;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PurchaseOrderQueryMetrics queryMetrics;
+    private final PurchaseOrderArchiveRepository archiveRepository;
+    private final PurchaseOrderArchiveService archiveService;
+    private final PurchaseOrderLoadCoalescer loadCoalescer;
+
+    // LIKE en H2; FULLTEXT en MySQL (perfil docker)
+    @Value("${purchase-order.search.mode:like}")
+    private SearchMode searchMode;
 
-    public PurchaseOrderServiceImpl(PurchaseOrderRepository purchaseOrderRepository) {
+    public PurchaseOrderServiceImpl(PurchaseOrderRepository purchaseOrderRepository,
+            PurchaseOrderCache purchaseOrderCache, PlatformTransactionManager transactionManager,
+            ApplicationEventPublisher eventPublisher, PurchaseOrderQueryMetrics queryMetrics,
+            PurchaseOrderArchiveRepository archiveRepository, PurchaseOrderArchiveService archiveService,
+            ObjectProvider<PurchaseOrderLoadCoalescer> loadCoalescer) {
         this.purchaseOrderRepository = purchaseOrderRepository;
+        this.purchaseOrderCache = purchaseOrderCache;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.queryMetrics = queryMetrics;
+        this.archiveRepository = archiveRepository;
+        this.archiveService = archiveService;
+        this.loadCoalescer = loadCoalescer.getIfAvailable();
     }
 
+    // Sin @Transactional: un acierto en caché no debe tomar una conexión del pool
     @Override
-    @Transactional(readOnly = true)
-    public List<PurchaseOrder> findAll() {
-        return purchaseOrderRepository.findAll();
+    public PurchaseOrderPageDTO<PurchaseOrderSummary> findPage(PurchaseOrderFilterDTO filters, String cursor,
+            int limit, Collection<String> fields) {
+        validateFilters(filters);
+        if (limit < 1) {
+            throw INVALID_LIMIT;
+        }
+        int pageLimit = Math.min(limit, MAX_PAGE_LIMIT);
+        Collection<String> requestedFields = resolveFields(fields);
+        PurchaseOrderCursor position = cursor != null && !cursor.isBlank() ? PurchaseOrderCursor.decode(cursor) : null;
+
+        PurchaseOrderPageKey key = PurchaseOrderPageKey.of(filters, position, pageLimit, requestedFields);
+        // consistentRead: lo que se guarda en caché no debe ser anterior a una escritura recién invalidada
+        return purchaseOrderCache.getPage(key, () -> ReplicaRouting.consistentRead(() -> readOnlyTransaction.execute(
+                status -> loadPage(filters, position, pageLimit, requestedFields))));
     }
 
-    @Override
-    @Transactional(readOnly = true)
-    public List<PurchaseOrder> findAllWithFilters(PurchaseOrderFilterDTO filters) {
-        // Validar reglas de negocio
-        validateFilters(filters);
+    private PurchaseOrderPageDTO<PurchaseOrderSummary> loadPage(PurchaseOrderFilterDTO filters,
+            PurchaseOrderCursor cursor, int pageLimit, Collection<String> requestedFields) {
+        PurchaseOrderFilterQuery filterQuery = PurchaseOrderFilterQuery.of(filters, searchMode, cursor);
+
+        // Solo se seleccionan las columnas pedidas, más (createdAt, id) para el cursor y version para el ETag
+        Set<String> attributes = new LinkedHashSet<>(requestedFields);
+        attributes.add("createdAt");
+        attributes.add("id");
+        attributes.add("version");
 
-        // Crear especificación dinámica
-        Specification<PurchaseOrder> spec = PurchaseOrderSpecification.withFilters(filters);
+        // Se pide una fila extra para saber si existe una página siguiente sin ejecutar COUNT
+        List<Tuple> rows = queryMetrics.record("findPage", filters,
+                () -> purchaseOrderRepository.findTuples(filterQuery, attributes, pageLimit + 1));
 
-        // Ejecutar consulta
-        return purchaseOrderRepository.findAll(spec);
+        // Las archivadas van después de todas las vigentes: se completa la página con el mismo cursor
+        List<PurchaseOrder> archived = List.of();
+        if (rows.size() <= pageLimit && archiveService.covers(filters)) {
+            archived = archiveRepository.findPage(filters, cursor, pageLimit + 1 - rows.size());
+        }
+
+        String nextCursor = null;
+        if (rows.size() + archived.size() > pageLimit) {
+            if (archived.isEmpty()) {
+                rows = rows.subList(0, pageLimit);
+            } else {
+                archived = archived.subList(0, pageLimit - rows.size());
+            }
+            if (archived.isEmpty()) {
+                Tuple last = rows.get(rows.size() - 1);
+                nextCursor = new PurchaseOrderCursor(last.get("createdAt", LocalDateTime.class),
+                        last.get("id", Long.class)).encode();
+            } else {
+                PurchaseOrder last = archived.get(archived.size() - 1);
+                nextCursor = new PurchaseOrderCursor(last.getCreatedAt(), last.getId()).encode();
+            }
+        }
+
+        List<PurchaseOrderSummary> items = new ArrayList<>(rows.size() + archived.size());
+        for (Tuple row : rows) {
+            items.add(PurchaseOrderSummary.from(row, requestedFields));
+        }
+        for (PurchaseOrder order : archived) {
+            items.add(PurchaseOrderSummary.from(order, requestedFields));
+        }
+        PurchaseOrderPageDTO<PurchaseOrderSummary> page = new PurchaseOrderPageDTO<>(items, nextCursor, pageLimit);
+        page.setEtag(pageETag(rows, archived, nextCursor));
+        return page;
     }
 
+    /**
+     * ETag débil de la página: hash de (id, version) de cada fila y del cursor siguiente.
+     * Cambia si una fila de la página se modifica, se elimina o aparece una nueva.
+     */
+    private static String pageETag(List<Tuple> rows, List<PurchaseOrder> archived, String nextCursor) {
+        long hash = 0xcbf29ce484222325L;
+        for (Tuple row : rows) {
+            hash = (hash ^ row.get("id", Long.class)) * 0x100000001b3L;
+            hash = (hash ^ row.get("version", Long.class)) * 0x100000001b3L;
+        }
+        for (PurchaseOrder order : archived) {
+            hash = (hash ^ order.getId()) * 0x100000001b3L;
+            hash = (hash ^ order.getVersion()) * 0x100000001b3L;
+        }
+        if (nextCursor != null) {
+            hash = (hash ^ nextCursor.hashCode()) * 0x100000001b3L;
+        }
+        return "W/\"" + Long.toHexString(hash) + "\"";
+    }
+
+    // Sin @Transactional: un acierto en caché no debe tomar una conexión del pool
     @Override
-    @Transactional(readOnly = true)
     public PurchaseOrder findById(Long id) {
-        return purchaseOrderRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Purchase Order no encontrada con id: " + id));
+        try {
+            if (loadCoalescer != null) {
+                return purchaseOrderCache.getOrder(id, () -> {
+                    PurchaseOrder order = loadCoalescer.load(id);
+                    if (order == null) {
+                        throw new ResourceNotFoundException("Purchase Order no encontrada con id: " + id);
+                    }
+                    return order;
+                });
+            }
+            return purchaseOrderCache.getOrder(id, () -> ReplicaRouting.consistentRead(
+                    () -> readOnlyTransaction.execute(status -> loadById(id))));
+        } catch (ResourceNotFoundException e) {
+            return findArchived(id, e);
+        }
+    }
+
+    /**
+     * Una orden que no está vigente puede estar archivada; se lee sin caché porque no se consulta a menudo
+     */
+    private PurchaseOrder findArchived(Long id, ResourceNotFoundException notFound) {
+        if (!archiveService.covers(new PurchaseOrderFilterDTO())) {
+            throw notFound;
+        }
+        return archiveRepository.findById(id).orElseThrow(() -> notFound);
+    }
+
+    /**
+     * Los ids se buscan primero en la caché de órdenes; el resto de ids y los orderNumbers salen de una
+     * sola consulta IN. Las claves repetidas se resuelven una vez y cada orden aparece una sola vez, en la
+     * posición de la primera clave que la encontró.
+     */
+    @Override
+    public PurchaseOrderLookupResultDTO lookup(PurchaseOrderLookupDTO request) {
+        // {"ids": null} equivale a omitir la lista
+        Set<Long> ids = request.getIds() != null ? new LinkedHashSet<>(request.getIds()) : new LinkedHashSet<>();
+        Set<String> orderNumbers = request.getOrderNumbers() != null
+                ? new LinkedHashSet<>(request.getOrderNumbers()) : new LinkedHashSet<>();
+        if (ids.contains(null) || orderNumbers.contains(null)) {
+            throw NULL_LOOKUP_KEYS;
+        }
+        if (ids.size() + orderNumbers.size() > MAX_LOOKUP_KEYS) {
+            throw new InvalidFilterException("Se admiten como máximo " + MAX_LOOKUP_KEYS
+                    + " claves por consulta entre ids y orderNumbers");
+        }
+
+        Map<Long, PurchaseOrder> byId = new HashMap<>();
+        List<Long> uncached = new ArrayList<>();
+        for (Long id : ids) {
+            PurchaseOrder cached = purchaseOrderCache.peekOrder(id);
+            if (cached != null) {
+                byId.put(id, cached);
+            } else {
+                uncached.add(id);
+            }
+        }
+        Map<String, PurchaseOrder> byOrderNumber = new HashMap<>();
+        if (!uncached.isEmpty() || !orderNumbers.isEmpty()) {
+            List<PurchaseOrder> found = ReplicaRouting.consistentRead(() -> readOnlyTransaction.execute(
+                    status -> purchaseOrderRepository.findByIdsOrOrderNumbers(uncached, orderNumbers)));
+            for (PurchaseOrder order : found) {
+                byId.putIfAbsent(order.getId(), order);
+                byOrderNumber.put(order.getOrderNumber(), order);
+            }
+        }
+
+        Set<Long> seen = new HashSet<>();
+        PurchaseOrderLookupResultDTO result = new PurchaseOrderLookupResultDTO();
+        for (Long id : ids) {
+            PurchaseOrder order = byId.get(id);
+            if (order == null) {
+                result.getMissingIds().add(id);
+            } else if (seen.add(order.getId())) {
+                result.getOrders().add(order);
+            }
+        }
+        for (String orderNumber : orderNumbers) {
+            PurchaseOrder order = byOrderNumber.get(orderNumber);
+            if (order == null) {
+                result.getMissingOrderNumbers().add(orderNumber);
+            } else if (seen.add(order.getId())) {
+                result.getOrders().add(order);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public Long findVersion(Long id) {
+        PurchaseOrder cached = purchaseOrderCache.peekOrder(id);
+        if (cached != null) {
+            return cached.getVersion();
+        }
+        Optional<Long> version = ReplicaRouting.consistentRead(
+                () -> readOnlyTransaction.execute(status -> purchaseOrderRepository.findVersionById(id)));
+        return version.orElseGet(() -> findArchived(id,
+                new ResourceNotFoundException("Purchase Order no encontrada con id: " + id)).getVersion());
     }
 
     @Override
     @Transactional
     public PurchaseOrder save(PurchaseOrder purchaseOrder) {
-        return purchaseOrderRepository.save(purchaseOrder);
+        // Spring Data considera nueva la entidad con versión null; la versión del cuerpo se ignora
+        if (purchaseOrder.getId() == null) {
+            purchaseOrder.setVersion(null);
+        }
+        PurchaseOrder saved = purchaseOrderRepository.save(purchaseOrder);
+        eventPublisher.publishEvent(PurchaseOrderChangedEvent.of(null, PurchaseOrderChangedEvent.snapshot(saved)));
+        return saved;
     }
 
     @Override
     @Transactional
-    public PurchaseOrder update(Long id, PurchaseOrder purchaseOrder) {
-        PurchaseOrder existingOrder = findById(id);
+    public PurchaseOrder update(Long id, PurchaseOrder purchaseOrder, Long expectedVersion) {
+        PurchaseOrder existingOrder = loadById(id);
+        if (expectedVersion != null && !expectedVersion.equals(existingOrder.getVersion())) {
+            throw new PreconditionFailedException("La orden " + id + " fue modificada: versión actual "
+                    + existingOrder.getVersion() + ", esperada " + expectedVersion);
+        }
+        PurchaseOrder before = PurchaseOrderChangedEvent.snapshot(existingOrder);
 
         existingOrder.setOrderNumber(purchaseOrder.getOrderNumber());
         existingOrder.setSupplierName(purchaseOrder.getSupplierName());
@@ -65,31 +308,100 @@ public class PurchaseOrderServiceImpl implements PurchaseOrderService {
         existingOrder.setCurrency(purchaseOrder.getCurrency());
         existingOrder.setExpectedDeliveryDate(purchaseOrder.getExpectedDeliveryDate());
 
-        return purchaseOrderRepository.save(existingOrder);
+        // flush inmediato: UPDATE ... WHERE version = ? detecta una escritura concurrente desde la lectura
+        PurchaseOrder updated;
+        try {
+            updated = purchaseOrderRepository.saveAndFlush(existingOrder);
+        } catch (OptimisticLockingFailureException e) {
+            if (expectedVersion != null) {
+                throw new PreconditionFailedException("La orden " + id + " fue modificada por otra petición");
+            }
+            throw e;
+        }
+        eventPublisher.publishEvent(PurchaseOrderChangedEvent.of(before, PurchaseOrderChangedEvent.snapshot(updated)));
+        return updated;
+    }
+
+    /**
+     * La escritura es una sola sentencia atómica, sin carrera entre leer y escribir. El estado anterior
+     * se lee antes solo para el evento de cambio. Si otra escritura se intercala entre esa lectura y el
+     * upsert, la versión resultante no es la esperada: se revierte y se reintenta con el estado nuevo.
+     */
+    @Override
+    public PurchaseOrder upsertByOrderNumber(PurchaseOrder purchaseOrder) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return writeTransaction.execute(status -> upsertOnce(purchaseOrder));
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt == UPSERT_ATTEMPTS) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    private PurchaseOrder upsertOnce(PurchaseOrder purchaseOrder) {
+        PurchaseOrder before = PurchaseOrderChangedEvent.snapshot(
+                purchaseOrderRepository.findByOrderNumber(purchaseOrder.getOrderNumber()).orElse(null));
+        PurchaseOrder after = purchaseOrderRepository.upsertByOrderNumber(purchaseOrder);
+
+        long expectedVersion = before == null ? 0 : before.getVersion() + 1;
+        if (after.getVersion() != expectedVersion) {
+            throw new OptimisticLockingFailureException("La orden " + purchaseOrder.getOrderNumber()
+                    + " fue modificada durante el upsert");
+        }
+        eventPublisher.publishEvent(PurchaseOrderChangedEvent.of(before, after));
+        return after;
     }
 
     @Override
     @Transactional
     public void delete(Long id) {
-        PurchaseOrder purchaseOrder = findById(id);
+        PurchaseOrder purchaseOrder = loadById(id);
         purchaseOrderRepository.delete(purchaseOrder);
+        eventPublisher.publishEvent(PurchaseOrderChangedEvent.of(PurchaseOrderChangedEvent.snapshot(purchaseOrder), null));
+    }
+
+    /**
+     * Lectura directa de la base de datos (sin caché) para las operaciones de escritura
+     */
+    private PurchaseOrder loadById(Long id) {
+        return purchaseOrderRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Purchase Order no encontrada con id: " + id));
+    }
+
+    /**
+     * Campos de la proyección: todos si no se indicó ninguno
+     */
+    private Collection<String> resolveFields(Collection<String> fields) {
+        if (fields == null || fields.isEmpty()) {
+            return PurchaseOrderSummary.FIELDS;
+        }
+        for (String field : fields) {
+            if (!PurchaseOrderSummary.FIELDS.contains(field)) {
+                throw new InvalidFilterException("Campo inválido en fields: " + field +
+                        ". Valores permitidos: " + String.join(", ", PurchaseOrderSummary.FIELDS));
+            }
+        }
+        return fields;
     }
 
     /**
      * Valida las reglas de negocio de los filtros
      */
-    private void validateFilters(PurchaseOrderFilterDTO filters) {
+    @Override
+    public void validateFilters(PurchaseOrderFilterDTO filters) {
         // Validar que from <= to
         if (filters.getFrom() != null && filters.getTo() != null) {
             if (filters.getFrom().isAfter(filters.getTo())) {
-                throw new InvalidFilterException("La fecha 'from' no puede ser posterior a la fecha 'to'");
+                throw INVALID_DATE_RANGE;
             }
         }
 
         // Validar que minTotal <= maxTotal
         if (filters.getMinTotal() != null && filters.getMaxTotal() != null) {
             if (filters.getMinTotal().compareTo(filters.getMaxTotal()) > 0) {
-                throw new InvalidFilterException("El monto mínimo no puede ser mayor que el monto máximo");
+                throw INVALID_AMOUNT_RANGE;
             }
         }
     }
@@ -0,0 +1,10 @@
+package ec.edu.espe.ortiz_leccion2.services;
+
+import ec.edu.espe.ortiz_leccion2.models.dto.PurchaseOrderFilterDTO;
+import ec.edu.espe.ortiz_leccion2.models.dto.PurchaseOrderStatsDTO;
+import ec.edu.espe.ortiz_leccion2.models.enums.StatsBucket;
+
+public interface PurchaseOrderStatsService {
+
+    PurchaseOrderStatsDTO getStats(PurchaseOrderFilterDTO filters, StatsBucket bucket);
+}
@@ -0,0 +1,142 @@
+package ec.edu.espe.ortiz_leccion2.services;
+
+import ec.edu.espe.ortiz_leccion2.models.dto.PurchaseOrderFilterDTO;
+import ec.edu.espe.ortiz_leccion2.models.dto.PurchaseOrderStatsDTO;
+import ec.edu.espe.ortiz_leccion2.models.dto.StatsGroupDTO;
+import ec.edu.espe.ortiz_leccion2.models.enums.Currency;
+import ec.edu.espe.ortiz_leccion2.models.enums.OrderStatus;
+import ec.edu.espe.ortiz_leccion2.models.enums.SearchMode;
+import ec.edu.espe.ortiz_leccion2.models.enums.StatsBucket;
+import ec.edu.espe.ortiz_leccion2.repositories.PurchaseOrderArchiveRepository;
+import ec.edu.espe.ortiz_leccion2.repositories.PurchaseOrderRepository;
+import ec.edu.espe.ortiz_leccion2.specifications.PurchaseOrderFilterQuery;
+import jakarta.persistence.Tuple;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.HashMap;
+
+@Service
+public class PurchaseOrderStatsServiceImpl implements PurchaseOrderStatsService {
+
+    private static final Comparator<StatsGroupDTO> GROUP_ORDER = Comparator
+            .comparing(StatsGroupDTO::getPeriod, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(StatsGroupDTO::getStatus)
+            .thenComparing(StatsGroupDTO::getCurrency);
+
+    private final PurchaseOrderRepository purchaseOrderRepository;
+    private final PurchaseOrderRollups rollups;
+    private final PurchaseOrderColumnarSnapshot columnarSnapshot;
+    private final TransactionTemplate readOnlyTransaction;
+    private final PurchaseOrderQueryMetrics queryMetrics;
+    private final PurchaseOrderArchiveRepository archiveRepository;
+    private final PurchaseOrderArchiveService archiveService;
+
+    // LIKE en H2; FULLTEXT en MySQL (perfil docker)
+    @Value("${purchase-order.search.mode:like}")
+    private SearchMode searchMode;
+
+    public PurchaseOrderStatsServiceImpl(PurchaseOrderRepository purchaseOrderRepository,
+            ObjectProvider<PurchaseOrderRollups> rollups, PlatformTransactionManager transactionManager,
+            PurchaseOrderQueryMetrics queryMetrics, PurchaseOrderArchiveRepository archiveRepository,
+            PurchaseOrderArchiveService archiveService,
+            ObjectProvider<PurchaseOrderColumnarSnapshot> columnarSnapshot) {
+        this.purchaseOrderRepository = purchaseOrderRepository;
+        this.rollups = rollups.getIfAvailable();
+        this.columnarSnapshot = columnarSnapshot.getIfAvailable();
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.queryMetrics = queryMetrics;
+        this.archiveRepository = archiveRepository;
+        this.archiveService = archiveService;
+    }
+
+    /**
+     * Con filtros por status, currency y días completos se responde desde los rollups en memoria,
+     * sin tocar la base de datos; con montos o fechas arbitrarios (sin q), desde la copia columnar si está
+     * activa. En otro caso, una sola consulta GROUP BY status, currency (y día si
+     * hay bucket). Las semanas y meses se obtienen sumando los días: count, sum, min y max se combinan sin pérdida.
+     * Si el rango puede incluir órdenes archivadas, sus agregados se combinan de la misma forma.
+     */
+    @Override
+    public PurchaseOrderStatsDTO getStats(PurchaseOrderFilterDTO filters, StatsBucket bucket) {
+        Map<String, StatsGroupDTO> groups = new HashMap<>();
+        Map<String, StatsGroupDTO> series = new HashMap<>();
+
+        boolean includeArchive = archiveService.covers(filters);
+        if (rollups != null && rollups.supports(filters) && !includeArchive) {
+            rollups.forEach(filters, (day, status, currency, count, sum, min, max) ->
+                    accumulate(groups, series, bucket, day, status, currency, count,
+                            PurchaseOrderRollups.fromCents(sum), PurchaseOrderRollups.fromCents(min),
+                            PurchaseOrderRollups.fromCents(max)));
+        } else if (columnarSnapshot == null || !columnarSnapshot.aggregate(filters, bucket != null,
+                (day, status, currency, count, sum, min, max) ->
+                        accumulate(groups, series, bucket, day, status, currency, count,
+                                PurchaseOrderRollups.fromCents(sum), PurchaseOrderRollups.fromCents(min),
+                                PurchaseOrderRollups.fromCents(max)))) {
+            // Sin copia columnar, con q o con la copia descartada mientras tanto
+            List<Tuple> rows = readOnlyTransaction.execute(status -> queryMetrics.record("stats", filters,
+                    () -> purchaseOrderRepository.aggregate(
+                            PurchaseOrderFilterQuery.of(filters, searchMode, null), bucket != null)));
+            for (Tuple row : rows) {
+                accumulate(groups, series, bucket, bucket != null ? row.get("day", LocalDate.class) : null,
+                        row.get("status", OrderStatus.class), row.get("currency", Currency.class),
+                        row.get("count", Long.class), row.get("sum", BigDecimal.class),
+                        row.get("min", BigDecimal.class), row.get("max", BigDecimal.class));
+            }
+        }
+        if (includeArchive) {
+            List<StatsGroupDTO> archived = readOnlyTransaction.execute(
+                    status -> archiveRepository.aggregate(filters, bucket != null));
+            for (StatsGroupDTO group : archived) {
+                accumulate(groups, series, bucket, group.getPeriod(), group.getStatus(), group.getCurrency(),
+                        group.getCount(), group.getSum(), group.getMin(), group.getMax());
+            }
+        }
+
+        PurchaseOrderStatsDTO stats = new PurchaseOrderStatsDTO();
+        stats.setGroups(sorted(groups));
+        if (bucket != null) {
+            stats.setBucket(bucket);
+            stats.setSeries(sorted(series));
+        }
+        return stats;
+    }
+
+    private void accumulate(Map<String, StatsGroupDTO> groups, Map<String, StatsGroupDTO> series, StatsBucket bucket,
+            LocalDate day, OrderStatus status, Currency currency, long count, BigDecimal sum, BigDecimal min,
+            BigDecimal max) {
+        groups.computeIfAbsent(status + "|" + currency, key -> new StatsGroupDTO(null, status, currency))
+                .merge(count, sum, min, max);
+        if (bucket != null) {
+            LocalDate period = periodStart(day, bucket);
+            series.computeIfAbsent(period + "|" + status + "|" + currency,
+                            key -> new StatsGroupDTO(period, status, currency))
+                    .merge(count, sum, min, max);
+        }
+    }
+
+    private LocalDate periodStart(LocalDate day, StatsBucket bucket) {
+        return switch (bucket) {
+            case DAY -> day;
+            case WEEK -> day.with(DayOfWeek.MONDAY);
+            case MONTH -> day.withDayOfMonth(1);
+        };
+    }
+
+    private List<StatsGroupDTO> sorted(Map<String, StatsGroupDTO> groups) {
+        List<StatsGroupDTO> result = new ArrayList<>(groups.values());
+        result.sort(GROUP_ORDER);
+        return result;
+    }
+}
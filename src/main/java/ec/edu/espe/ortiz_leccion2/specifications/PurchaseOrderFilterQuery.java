@@ -0,0 +1,157 @@
+package ec.edu.espe.ortiz_leccion2.specifications;
+
+import ec.edu.espe.ortiz_leccion2.config.SearchFunctionContributor;
+import ec.edu.espe.ortiz_leccion2.models.dto.PurchaseOrderCursor;
+import ec.edu.espe.ortiz_leccion2.models.dto.PurchaseOrderFilterDTO;
+import ec.edu.espe.ortiz_leccion2.models.enums.SearchMode;
+import jakarta.persistence.TypedQuery;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Filtros de PurchaseOrderSpecification.withFilters como HQL parametrizado, compilado una vez por forma.
+ * 
+ * withFilters arma un árbol Criteria en cada petición y Hibernate lo traduce a SQL cada vez; además la
+ * frase de FULLTEXT va como literal, así que cada valor de q produce un SQL distinto. Aquí el texto HQL
+ * depende solo de qué filtros hay (la forma, como mucho 2^10 combinaciones): Hibernate reutiliza su
+ * traducción (caché de planes, con el HQL como clave) y el driver el statement preparado en el servidor.
+ * Los valores se enlazan siempre como parámetros.
+ */
+public final class PurchaseOrderFilterQuery {
+
+    // Bits de la forma
+    private static final int Q_CONTAINS = 1;
+    private static final int Q_PREFIX = 1 << 1;
+    private static final int Q_FULLTEXT = 1 << 2;
+    private static final int STATUS = 1 << 3;
+    private static final int CURRENCY = 1 << 4;
+    private static final int MIN_TOTAL = 1 << 5;
+    private static final int MAX_TOTAL = 1 << 6;
+    private static final int FROM = 1 << 7;
+    private static final int TO = 1 << 8;
+    private static final int CURSOR = 1 << 9;
+
+    private static final ConcurrentMap<Integer, String> WHERE = new ConcurrentHashMap<>();
+
+    private final int shape;
+    private final PurchaseOrderFilterDTO filters;
+    private final PurchaseOrderCursor cursor;
+    private final String term;
+
+    private PurchaseOrderFilterQuery(int shape, PurchaseOrderFilterDTO filters, PurchaseOrderCursor cursor,
+            String term) {
+        this.shape = shape;
+        this.filters = filters;
+        this.cursor = cursor;
+        this.term = term;
+    }
+
+    /**
+     * Filtros y, si no es null, el cursor de la paginación por keyset (ver afterCursor)
+     */
+    public static PurchaseOrderFilterQuery of(PurchaseOrderFilterDTO filters, SearchMode searchMode,
+            PurchaseOrderCursor cursor) {
+        int shape = 0;
+        String term = filters.getQ() != null ? filters.getQ().trim() : "";
+        if (PurchaseOrderSearchTerms.isPrefix(term)) {
+            shape |= Q_PREFIX;
+        } else if (!term.isEmpty()) {
+            shape |= Q_CONTAINS;
+            if (searchMode == SearchMode.FULLTEXT && PurchaseOrderSearchTerms.usesFulltext(term)) {
+                shape |= Q_FULLTEXT;
+            }
+        }
+        shape |= filters.getStatus() != null ? STATUS : 0;
+        shape |= filters.getCurrency() != null ? CURRENCY : 0;
+        shape |= filters.getMinTotal() != null ? MIN_TOTAL : 0;
+        shape |= filters.getMaxTotal() != null ? MAX_TOTAL : 0;
+        shape |= filters.getFrom() != null ? FROM : 0;
+        shape |= filters.getTo() != null ? TO : 0;
+        shape |= cursor != null ? CURSOR : 0;
+        return new PurchaseOrderFilterQuery(shape, filters, cursor, term);
+    }
+
+    /**
+     * Cláusula where (vacía sin filtros) sobre el alias o de PurchaseOrder
+     */
+    public String where() {
+        return WHERE.computeIfAbsent(shape, PurchaseOrderFilterQuery::compile);
+    }
+
+    public <T> TypedQuery<T> bind(TypedQuery<T> query) {
+        if ((shape & Q_PREFIX) != 0) {
+            query.setParameter("qPrefix", PurchaseOrderSearchTerms.prefixPattern(term));
+        }
+        if ((shape & Q_CONTAINS) != 0) {
+            query.setParameter("qPattern", PurchaseOrderSearchTerms.containsPattern(term));
+        }
+        if ((shape & Q_FULLTEXT) != 0) {
+            query.setParameter("qPhrase", PurchaseOrderSearchTerms.fulltextPhrase(term));
+        }
+        if ((shape & STATUS) != 0) {
+            query.setParameter("status", filters.getStatus());
+        }
+        if ((shape & CURRENCY) != 0) {
+            query.setParameter("currency", filters.getCurrency());
+        }
+        if ((shape & MIN_TOTAL) != 0) {
+            query.setParameter("minTotal", filters.getMinTotal());
+        }
+        if ((shape & MAX_TOTAL) != 0) {
+            query.setParameter("maxTotal", filters.getMaxTotal());
+        }
+        if ((shape & FROM) != 0) {
+            query.setParameter("from", filters.getFrom());
+        }
+        if ((shape & TO) != 0) {
+            query.setParameter("to", filters.getTo());
+        }
+        if ((shape & CURSOR) != 0) {
+            query.setParameter("cursorCreatedAt", cursor.getCreatedAt());
+            query.setParameter("cursorId", cursor.getId());
+        }
+        return query;
+    }
+
+    private static String compile(int shape) {
+        StringBuilder where = new StringBuilder();
+        if ((shape & Q_PREFIX) != 0) {
+            // Sin lower() para que el índice de order_number sea utilizable
+            and(where, "o.orderNumber like :qPrefix escape '" + PurchaseOrderSearchTerms.ESCAPE_CHAR + "'");
+        }
+        if ((shape & Q_CONTAINS) != 0) {
+            and(where, "(lower(o.orderNumber) like :qPattern escape '" + PurchaseOrderSearchTerms.ESCAPE_CHAR
+                    + "' or lower(o.supplierName) like :qPattern escape '" + PurchaseOrderSearchTerms.ESCAPE_CHAR + "')");
+        }
+        if ((shape & Q_FULLTEXT) != 0) {
+            and(where, SearchFunctionContributor.MATCH_AGAINST + "(o.orderNumber, o.supplierName, :qPhrase) > 0");
+        }
+        if ((shape & STATUS) != 0) {
+            and(where, "o.status = :status");
+        }
+        if ((shape & CURRENCY) != 0) {
+            and(where, "o.currency = :currency");
+        }
+        if ((shape & MIN_TOTAL) != 0) {
+            and(where, "o.totalAmount >= :minTotal");
+        }
+        if ((shape & MAX_TOTAL) != 0) {
+            and(where, "o.totalAmount <= :maxTotal");
+        }
+        if ((shape & FROM) != 0) {
+            and(where, "o.createdAt >= :from");
+        }
+        if ((shape & TO) != 0) {
+            and(where, "o.createdAt <= :to");
+        }
+        if ((shape & CURSOR) != 0) {
+            and(where, "(o.createdAt < :cursorCreatedAt or (o.createdAt = :cursorCreatedAt and o.id < :cursorId))");
+        }
+        return where.toString();
+    }
+
+    private static void and(StringBuilder where, String predicate) {
+        where.append(where.isEmpty() ? " where " : " and ").append(predicate);
+    }
+}
@@ -0,0 +1,59 @@
+package ec.edu.espe.ortiz_leccion2.specifications;
+
+/**
+ * Reglas del filtro q compartidas por PurchaseOrderSpecification, PurchaseOrderFilterQuery, el archivo y
+ * la variante reactiva: un término con '*' al final es un prefijo de orderNumber; cualquier otro, texto
+ * contenido en orderNumber o supplierName. Los comodines de LIKE (% y _) del término se escapan para
+ * compararlos literalmente, igual que PurchaseOrderSpecification.matches en memoria.
+ */
+public final class PurchaseOrderSearchTerms {
+
+    /**
+     * Escape de LIKE: '!' y no la barra, que MySQL y H2 interpretan distinto dentro del literal
+     */
+    public static final char ESCAPE_CHAR = '!';
+
+    /**
+     * Longitud mínima del término para usar el índice FULLTEXT (ngram_token_size por defecto en MySQL)
+     */
+    public static final int FULLTEXT_MIN_LENGTH = 2;
+
+    private PurchaseOrderSearchTerms() {
+    }
+
+    /**
+     * true si el término (ya sin espacios alrededor) es una búsqueda por prefijo, p. ej. "OC-2025*"
+     */
+    public static boolean isPrefix(String term) {
+        return term.length() > 1 && term.endsWith("*");
+    }
+
+    /**
+     * Patrón LIKE del prefijo, sin el '*' final
+     */
+    public static String prefixPattern(String term) {
+        return escapeLike(term.substring(0, term.length() - 1)) + "%";
+    }
+
+    /**
+     * Patrón LIKE del texto contenido, para comparar con lower() de la columna
+     */
+    public static String containsPattern(String term) {
+        return "%" + escapeLike(term.toLowerCase()) + "%";
+    }
+
+    public static boolean usesFulltext(String term) {
+        return term.replace("\"", "").length() >= FULLTEXT_MIN_LENGTH;
+    }
+
+    /**
+     * Frase entre comillas para que el parser ngram no interprete operadores booleanos
+     */
+    public static String fulltextPhrase(String term) {
+        return "\"" + term.replace("\"", "") + "\"";
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("!", "!!").replace("%", "!%").replace("_", "!_");
+    }
+}
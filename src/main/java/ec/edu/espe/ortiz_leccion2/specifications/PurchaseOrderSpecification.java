@@ -1,32 +1,71 @@
 package ec.edu.espe.ortiz_leccion2.specifications;
 
+import ec.edu.espe.ortiz_leccion2.config.SearchFunctionContributor;
+import ec.edu.espe.ortiz_leccion2.models.dto.PurchaseOrderCursor;
 import ec.edu.espe.ortiz_leccion2.models.dto.PurchaseOrderFilterDTO;
 import ec.edu.espe.ortiz_leccion2.models.entities.PurchaseOrder;
+import ec.edu.espe.ortiz_leccion2.models.enums.SearchMode;
 import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
 public class PurchaseOrderSpecification {
 
+    /**
+     * Orden estable para la paginación por keyset: más recientes primero, id como desempate
+     */
+    public static final Sort KEYSET_SORT = Sort.by(Sort.Order.desc("createdAt"), Sort.Order.desc("id"));
+
     /**
      * Crea una especificación dinámica basada en los filtros proporcionados
      */
     public static Specification<PurchaseOrder> withFilters(PurchaseOrderFilterDTO filters) {
+        return withFilters(filters, SearchMode.LIKE);
+    }
+
+    /**
+     * Crea una especificación dinámica basada en los filtros proporcionados.
+     * 
+     * El filtro q admite dos formas:
+     * - "OC-2025*": prefijo de orderNumber, se traduce a order_number LIKE 'OC-2025%' (rango del índice único)
+     * - "acme": texto contenido en orderNumber o supplierName; con SearchMode.FULLTEXT el índice
+     *   FULLTEXT de MySQL preselecciona las filas y el LIKE conserva la semántica exacta
+     */
+    public static Specification<PurchaseOrder> withFilters(PurchaseOrderFilterDTO filters, SearchMode searchMode) {
         return (root, query, criteriaBuilder) -> {
             List<Predicate> predicates = new ArrayList<>();
 
-            // Filtro de búsqueda de texto (q) - case insensitive
+            // Filtro de búsqueda de texto (q)
             if (filters.getQ() != null && !filters.getQ().trim().isEmpty()) {
-                String searchPattern = "%" + filters.getQ().toLowerCase() + "%";
-                Predicate orderNumberPredicate = criteriaBuilder.like(
-                        criteriaBuilder.lower(root.get("orderNumber")),
-                        searchPattern);
-                Predicate supplierNamePredicate = criteriaBuilder.like(
-                        criteriaBuilder.lower(root.get("supplierName")),
-                        searchPattern);
-                predicates.add(criteriaBuilder.or(orderNumberPredicate, supplierNamePredicate));
+                String term = filters.getQ().trim();
+                if (PurchaseOrderSearchTerms.isPrefix(term)) {
+                    // Búsqueda por prefijo: sin lower() para que el índice de order_number sea utilizable
+                    predicates.add(criteriaBuilder.like(root.get("orderNumber"),
+                            PurchaseOrderSearchTerms.prefixPattern(term), PurchaseOrderSearchTerms.ESCAPE_CHAR));
+                } else {
+                    // Búsqueda de texto contenido - case insensitive
+                    String searchPattern = PurchaseOrderSearchTerms.containsPattern(term);
+                    Predicate orderNumberPredicate = criteriaBuilder.like(
+                            criteriaBuilder.lower(root.get("orderNumber")),
+                            searchPattern, PurchaseOrderSearchTerms.ESCAPE_CHAR);
+                    Predicate supplierNamePredicate = criteriaBuilder.like(
+                            criteriaBuilder.lower(root.get("supplierName")),
+                            searchPattern, PurchaseOrderSearchTerms.ESCAPE_CHAR);
+                    predicates.add(criteriaBuilder.or(orderNumberPredicate, supplierNamePredicate));
+
+                    if (searchMode == SearchMode.FULLTEXT && PurchaseOrderSearchTerms.usesFulltext(term)) {
+                        predicates.add(criteriaBuilder.greaterThan(
+                                criteriaBuilder.function(SearchFunctionContributor.MATCH_AGAINST, Double.class,
+                                        root.get("orderNumber"), root.get("supplierName"),
+                                        criteriaBuilder.literal(PurchaseOrderSearchTerms.fulltextPhrase(term))),
+                                0.0));
+                    }
+                }
             }
 
             // Filtro por status
@@ -62,4 +101,96 @@ public class PurchaseOrderSpecification {
             return criteriaBuilder.and(predicates.toArray(new Predicate[0]));
         };
     }
+
+    /**
+     * Forma normalizada de los filtros: qué filtros se aplicaron, sin sus valores (p. ej. "q*+status+from").
+     * "q*" es la búsqueda por prefijo y "none" el listado sin filtros. Tiene pocos valores posibles,
+     * así que sirve como etiqueta de métricas y para agrupar consultas lentas.
+     */
+    public static String shape(PurchaseOrderFilterDTO filters) {
+        StringBuilder shape = new StringBuilder();
+        if (filters.getQ() != null && !filters.getQ().trim().isEmpty()) {
+            String term = filters.getQ().trim();
+            shape.append(PurchaseOrderSearchTerms.isPrefix(term) ? "+q*" : "+q");
+        }
+        if (filters.getStatus() != null) {
+            shape.append("+status");
+        }
+        if (filters.getCurrency() != null) {
+            shape.append("+currency");
+        }
+        if (filters.getMinTotal() != null) {
+            shape.append("+minTotal");
+        }
+        if (filters.getMaxTotal() != null) {
+            shape.append("+maxTotal");
+        }
+        if (filters.getFrom() != null) {
+            shape.append("+from");
+        }
+        if (filters.getTo() != null) {
+            shape.append("+to");
+        }
+        return shape.isEmpty() ? "none" : shape.substring(1);
+    }
+
+    /**
+     * Restringe los resultados a las filas posteriores al cursor según KEYSET_SORT:
+     * createdAt < :createdAt OR (createdAt = :createdAt AND id < :id)
+     */
+    public static Specification<PurchaseOrder> afterCursor(PurchaseOrderCursor cursor) {
+        return (root, query, criteriaBuilder) -> criteriaBuilder.or(
+                criteriaBuilder.lessThan(root.get("createdAt"), cursor.getCreatedAt()),
+                criteriaBuilder.and(
+                        criteriaBuilder.equal(root.get("createdAt"), cursor.getCreatedAt()),
+                        criteriaBuilder.lessThan(root.get("id"), cursor.getId())));
+    }
+
+    /**
+     * Evalúa en memoria los mismos filtros que withFilters sobre una orden ya cargada.
+     * Para q se compara sin distinguir mayúsculas también en el prefijo (como en MySQL),
+     * por lo que nunca da un falso negativo respecto a la consulta SQL.
+     */
+    public static boolean matches(PurchaseOrderFilterDTO filters, PurchaseOrder order) {
+        if (filters.getQ() != null && !filters.getQ().trim().isEmpty()) {
+            String term = filters.getQ().trim().toLowerCase();
+            String orderNumber = order.getOrderNumber() == null ? "" : order.getOrderNumber().toLowerCase();
+            String supplierName = order.getSupplierName() == null ? "" : order.getSupplierName().toLowerCase();
+            boolean found = PurchaseOrderSearchTerms.isPrefix(term)
+                    ? orderNumber.startsWith(term.substring(0, term.length() - 1))
+                    : orderNumber.contains(term) || supplierName.contains(term);
+            if (!found) {
+                return false;
+            }
+        }
+        if (filters.getStatus() != null && filters.getStatus() != order.getStatus()) {
+            return false;
+        }
+        if (filters.getCurrency() != null && filters.getCurrency() != order.getCurrency()) {
+            return false;
+        }
+        BigDecimal amount = order.getTotalAmount();
+        if (filters.getMinTotal() != null && (amount == null || amount.compareTo(filters.getMinTotal()) < 0)) {
+            return false;
+        }
+        if (filters.getMaxTotal() != null && (amount == null || amount.compareTo(filters.getMaxTotal()) > 0)) {
+            return false;
+        }
+        LocalDateTime createdAt = order.getCreatedAt();
+        if (filters.getFrom() != null && (createdAt == null || createdAt.isBefore(filters.getFrom()))) {
+            return false;
+        }
+        return filters.getTo() == null || (createdAt != null && !createdAt.isAfter(filters.getTo()));
+    }
+
+    /**
+     * Equivalente en memoria de afterCursor
+     */
+    public static boolean isAfterCursor(PurchaseOrderCursor cursor, PurchaseOrder order) {
+        if (order.getCreatedAt() == null || order.getId() == null) {
+            return true;
+        }
+        int comparison = order.getCreatedAt().compareTo(cursor.getCreatedAt());
+        return comparison < 0 || (comparison == 0 && order.getId() < cursor.getId());
+    }
 }
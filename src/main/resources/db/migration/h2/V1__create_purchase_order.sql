@@ -0,0 +1,12 @@
+-- Tabla de órdenes de compra (equivalente al esquema generado antes por Hibernate)
+CREATE TABLE IF NOT EXISTS purchase_order (
+    id                     BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    order_number           VARCHAR(50)    NOT NULL,
+    supplier_name          VARCHAR(100)   NOT NULL,
+    status                 ENUM ('APPROVED', 'CANCELLED', 'DRAFT', 'REJECTED', 'SUBMITTED') NOT NULL,
+    total_amount           NUMERIC(10, 2) NOT NULL,
+    currency               ENUM ('EUR', 'USD') NOT NULL,
+    created_at             TIMESTAMP(6)   NOT NULL,
+    expected_delivery_date DATE           NOT NULL,
+    CONSTRAINT uk_purchase_order_order_number UNIQUE (order_number)
+);
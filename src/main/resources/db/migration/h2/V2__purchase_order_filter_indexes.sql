@@ -0,0 +1,7 @@
+-- Índices compuestos para las combinaciones de filtros de PurchaseOrderSpecification.
+-- Todos terminan en (created_at, id) para servir también el orden de la paginación por cursor.
+CREATE INDEX idx_po_created_at_id ON purchase_order (created_at, id);
+CREATE INDEX idx_po_status_created_at ON purchase_order (status, created_at, id);
+CREATE INDEX idx_po_currency_created_at ON purchase_order (currency, created_at, id);
+CREATE INDEX idx_po_status_currency_created_at ON purchase_order (status, currency, created_at, id);
+CREATE INDEX idx_po_total_amount ON purchase_order (total_amount);
@@ -0,0 +1,21 @@
+-- Registro de cambios de solo inserción (feed incremental /changes). Se escribe en la misma
+-- transacción que la orden; seq es el número de secuencia que los consumidores envían en since.
+CREATE TABLE purchase_order_change (
+    seq        BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    order_id   BIGINT       NOT NULL,
+    operation  VARCHAR(10)  NOT NULL,
+    version    BIGINT,
+    changed_at TIMESTAMP(6) NOT NULL,
+    payload    CLOB
+);
+
+-- Compactación (último cambio por orden) y retención por antigüedad
+CREATE INDEX idx_poc_order_id_seq ON purchase_order_change (order_id, seq);
+CREATE INDEX idx_poc_changed_at ON purchase_order_change (changed_at);
+
+-- Hasta qué secuencia se eliminó el registro por retención (since menor => 410 Gone)
+CREATE TABLE purchase_order_change_retention (
+    id             INT    NOT NULL PRIMARY KEY,
+    purged_through BIGINT NOT NULL
+);
+INSERT INTO purchase_order_change_retention (id, purged_through) VALUES (1, 0);
@@ -0,0 +1,17 @@
+-- Órdenes archivadas: las que superan purchase-order.archive.max-age se mueven aquí desde purchase_order.
+-- En MySQL la tabla se particiona por mes de created_at; en H2 basta con la clave (created_at, id).
+CREATE TABLE purchase_order_archive (
+    id                     BIGINT         NOT NULL,
+    order_number           VARCHAR(50)    NOT NULL,
+    supplier_name          VARCHAR(100)   NOT NULL,
+    status                 ENUM ('APPROVED', 'CANCELLED', 'DRAFT', 'REJECTED', 'SUBMITTED') NOT NULL,
+    total_amount           NUMERIC(10, 2) NOT NULL,
+    currency               ENUM ('EUR', 'USD') NOT NULL,
+    created_at             TIMESTAMP(6)   NOT NULL,
+    expected_delivery_date DATE           NOT NULL,
+    version                BIGINT         NOT NULL,
+    archived_at            TIMESTAMP(6)   NOT NULL,
+    PRIMARY KEY (created_at, id)
+);
+
+CREATE INDEX idx_poa_status_created_at ON purchase_order_archive (status, created_at, id);
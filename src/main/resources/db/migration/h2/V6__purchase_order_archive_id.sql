@@ -0,0 +1,2 @@
+-- GET /{id} busca en el archivo las órdenes que ya no están vigentes
+CREATE INDEX idx_poa_id ON purchase_order_archive (id);
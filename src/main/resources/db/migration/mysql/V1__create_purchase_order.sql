@@ -0,0 +1,14 @@
+-- Tabla de órdenes de compra (equivalente al esquema generado antes por Hibernate con ddl-auto=update).
+-- IF NOT EXISTS permite aplicar la migración sobre bases existentes (baseline en versión 0).
+CREATE TABLE IF NOT EXISTS purchase_order (
+    id                     BIGINT         NOT NULL AUTO_INCREMENT,
+    order_number           VARCHAR(50)    NOT NULL,
+    supplier_name          VARCHAR(100)   NOT NULL,
+    status                 ENUM ('APPROVED', 'CANCELLED', 'DRAFT', 'REJECTED', 'SUBMITTED') NOT NULL,
+    total_amount           DECIMAL(10, 2) NOT NULL,
+    currency               ENUM ('EUR', 'USD') NOT NULL,
+    created_at             DATETIME(6)    NOT NULL,
+    expected_delivery_date DATE           NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_purchase_order_order_number UNIQUE (order_number)
+) ENGINE = InnoDB;
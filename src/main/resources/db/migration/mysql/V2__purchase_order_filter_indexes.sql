@@ -0,0 +1,10 @@
+-- Índices compuestos para las combinaciones de filtros de PurchaseOrderSpecification.
+-- Todos terminan en (created_at, id) para servir también el orden de la paginación por cursor.
+CREATE INDEX idx_po_created_at_id ON purchase_order (created_at, id);
+CREATE INDEX idx_po_status_created_at ON purchase_order (status, created_at, id);
+CREATE INDEX idx_po_currency_created_at ON purchase_order (currency, created_at, id);
+CREATE INDEX idx_po_status_currency_created_at ON purchase_order (status, currency, created_at, id);
+CREATE INDEX idx_po_total_amount ON purchase_order (total_amount);
+
+-- Búsqueda q (purchase-order.search.mode=fulltext)
+CREATE FULLTEXT INDEX ft_purchase_order_search ON purchase_order (order_number, supplier_name) WITH PARSER ngram;
@@ -0,0 +1,2 @@
+-- Versión para control de concurrencia optimista (@Version) y ETags; las filas existentes empiezan en 0
+ALTER TABLE purchase_order ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,23 @@
+-- Registro de cambios de solo inserción (feed incremental /changes). Se escribe en la misma
+-- transacción que la orden; seq es el número de secuencia que los consumidores envían en since.
+CREATE TABLE purchase_order_change (
+    seq        BIGINT      NOT NULL AUTO_INCREMENT,
+    order_id   BIGINT      NOT NULL,
+    operation  VARCHAR(10) NOT NULL,
+    version    BIGINT,
+    changed_at DATETIME(6) NOT NULL,
+    payload    TEXT,
+    PRIMARY KEY (seq)
+) ENGINE = InnoDB;
+
+-- Compactación (último cambio por orden) y retención por antigüedad
+CREATE INDEX idx_poc_order_id_seq ON purchase_order_change (order_id, seq);
+CREATE INDEX idx_poc_changed_at ON purchase_order_change (changed_at);
+
+-- Hasta qué secuencia se eliminó el registro por retención (since menor => 410 Gone)
+CREATE TABLE purchase_order_change_retention (
+    id             INT    NOT NULL,
+    purged_through BIGINT NOT NULL,
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+INSERT INTO purchase_order_change_retention (id, purged_through) VALUES (1, 0);
@@ -0,0 +1,24 @@
+-- Órdenes archivadas: las que superan purchase-order.archive.max-age se mueven aquí desde purchase_order.
+-- purchase_order no se particiona: MySQL exige que toda clave única incluya la columna de partición
+-- (order_number es único por sí solo) y no admite índices FULLTEXT en tablas particionadas.
+-- El archivo se particiona por mes de created_at (el job de archivado crea las particiones pAAAAMM
+-- partiendo p_max) para que las consultas por rango lean solo los meses necesarios y un mes completo
+-- se pueda eliminar con ALTER TABLE ... DROP PARTITION. Las filas se guardan comprimidas.
+CREATE TABLE purchase_order_archive (
+    id                     BIGINT         NOT NULL,
+    order_number           VARCHAR(50)    NOT NULL,
+    supplier_name          VARCHAR(100)   NOT NULL,
+    status                 ENUM ('APPROVED', 'CANCELLED', 'DRAFT', 'REJECTED', 'SUBMITTED') NOT NULL,
+    total_amount           DECIMAL(10, 2) NOT NULL,
+    currency               ENUM ('EUR', 'USD') NOT NULL,
+    created_at             DATETIME(6)    NOT NULL,
+    expected_delivery_date DATE           NOT NULL,
+    version                BIGINT         NOT NULL,
+    archived_at            DATETIME(6)    NOT NULL,
+    PRIMARY KEY (created_at, id)
+) ENGINE = InnoDB ROW_FORMAT = COMPRESSED
+PARTITION BY RANGE COLUMNS (created_at) (
+    PARTITION p_max VALUES LESS THAN (MAXVALUE)
+);
+
+CREATE INDEX idx_poa_status_created_at ON purchase_order_archive (status, created_at, id);
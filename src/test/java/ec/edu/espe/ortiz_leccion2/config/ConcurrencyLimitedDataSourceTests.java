@@ -0,0 +1,37 @@
+package ec.edu.espe.ortiz_leccion2.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLTransientConnectionException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest(properties = {
+        "purchase-order.datasource.concurrency-limit.enabled=true",
+        "purchase-order.datasource.concurrency-limit.permits=2",
+        "purchase-order.datasource.concurrency-limit.acquire-timeout=200ms"
+})
+class ConcurrencyLimitedDataSourceTests {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    void esperaYFallaCuandoNoQuedanPermisos() throws Exception {
+        ConcurrencyLimitedDataSource limited = assertInstanceOf(ConcurrencyLimitedDataSource.class, dataSource);
+
+        try (Connection first = dataSource.getConnection(); Connection second = dataSource.getConnection()) {
+            assertEquals(0, limited.getAvailablePermits());
+            assertThrows(SQLTransientConnectionException.class, dataSource::getConnection);
+        }
+
+        // Cerrar las conexiones devuelve los permisos
+        assertEquals(2, limited.getAvailablePermits());
+    }
+}
@@ -0,0 +1,82 @@
+package ec.edu.espe.ortiz_leccion2.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import ec.edu.espe.ortiz_leccion2.models.dto.PurchaseOrderSummary;
+import ec.edu.espe.ortiz_leccion2.models.entities.PurchaseOrder;
+import ec.edu.espe.ortiz_leccion2.models.enums.Currency;
+import ec.edu.espe.ortiz_leccion2.models.enums.OrderStatus;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+class PurchaseOrderJsonModuleTests {
+
+    // Serialización por reflexión, como antes de registrar el módulo
+    private final ObjectMapper reflective = JsonMapper.builder()
+            .addModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MappingJackson2CborHttpMessageConverter cborConverter;
+
+    @Test
+    void produceElMismoJsonQueLaSerializacionPorReflexion() throws Exception {
+        PurchaseOrder complete = newOrder(LocalDateTime.of(2025, 3, 7, 9, 5, 0, 120_000_000), 3L);
+        PurchaseOrder unsaved = newOrder(null, null);
+        unsaved.setStatus(null);
+        List<PurchaseOrderSummary> summaries = List.of(
+                summary(newOrder(LocalDateTime.of(2025, 12, 31, 23, 59, 59, 7), 0L)),
+                summary(newOrder(LocalDateTime.of(987, 1, 1, 0, 0), 1L)),
+                new PurchaseOrderSummary(5L, null, "Proveedor \"Uno\"", null, new BigDecimal("1E+3"), null, null,
+                        LocalDate.of(2025, 1, 2), null));
+
+        assertEquals(reflective.writeValueAsString(List.of(complete, unsaved)),
+                objectMapper.writeValueAsString(List.of(complete, unsaved)));
+        assertEquals(reflective.writeValueAsString(summaries), objectMapper.writeValueAsString(summaries));
+    }
+
+    @Test
+    void cborConservaLosValoresDelResumen() throws Exception {
+        PurchaseOrderSummary summary = summary(newOrder(LocalDateTime.of(2025, 6, 1, 12, 30), 2L));
+        ObjectMapper cbor = cborConverter.getObjectMapper();
+
+        byte[] encoded = cbor.writeValueAsBytes(summary);
+
+        // El monto viaja como decimal CBOR (tag 4) y conserva la escala
+        assertEquals(summary, cbor.readValue(encoded, PurchaseOrderSummary.class));
+    }
+
+    private PurchaseOrderSummary summary(PurchaseOrder order) {
+        return PurchaseOrderSummary.from(order, PurchaseOrderSummary.FIELDS);
+    }
+
+    private PurchaseOrder newOrder(LocalDateTime createdAt, Long version) {
+        PurchaseOrder order = new PurchaseOrder();
+        order.setId(42L);
+        order.setOrderNumber("OC-" + version);
+        order.setSupplierName("Proveedor ñandú");
+        order.setStatus(OrderStatus.APPROVED);
+        order.setTotalAmount(new BigDecimal("1250.50"));
+        order.setCurrency(Currency.EUR);
+        order.setCreatedAt(createdAt);
+        order.setExpectedDeliveryDate(LocalDate.of(2025, 7, 15));
+        order.setVersion(version);
+        return order;
+    }
+}
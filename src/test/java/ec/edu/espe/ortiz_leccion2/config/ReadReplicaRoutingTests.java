@@ -0,0 +1,131 @@
+package ec.edu.espe.ortiz_leccion2.config;
+
+import ec.edu.espe.ortiz_leccion2.models.dto.PurchaseOrderFilterDTO;
+import ec.edu.espe.ortiz_leccion2.models.entities.PurchaseOrder;
+import ec.edu.espe.ortiz_leccion2.models.enums.Currency;
+import ec.edu.espe.ortiz_leccion2.models.enums.OrderStatus;
+import ec.edu.espe.ortiz_leccion2.models.enums.SearchMode;
+import ec.edu.espe.ortiz_leccion2.repositories.PurchaseOrderRepository;
+import ec.edu.espe.ortiz_leccion2.services.PurchaseOrderService;
+import ec.edu.espe.ortiz_leccion2.specifications.PurchaseOrderFilterQuery;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+        "purchase-order.datasource.replicas.enabled=true",
+        "purchase-order.datasource.replicas.urls=" + ReadReplicaRoutingTests.REPLICA_URL,
+        "purchase-order.datasource.replicas.probe-interval=PT0.1S"
+})
+class ReadReplicaRoutingTests {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1";
+
+    private static final DataSource replica = new DriverManagerDataSource(REPLICA_URL, "sa", "");
+
+    @Autowired
+    private PurchaseOrderService purchaseOrderService;
+
+    @Autowired
+    private PurchaseOrderRepository purchaseOrderRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @BeforeAll
+    static void createReplica() {
+        Flyway.configure().dataSource(replica).locations("classpath:db/migration/h2").load().migrate();
+        new JdbcTemplate(replica).update("DELETE FROM purchase_order WHERE order_number = 'RR-REPLICA'");
+        new JdbcTemplate(replica).update("INSERT INTO purchase_order (order_number, supplier_name, status,"
+                + " total_amount, currency, created_at, expected_delivery_date, version)"
+                + " VALUES ('RR-REPLICA', 'Proveedor réplica', 'DRAFT', 10.00, 'USD', CURRENT_TIMESTAMP, CURRENT_DATE, 0)");
+    }
+
+    @Test
+    void lasLecturasVanALaReplicaYLasEscriturasAlPrimario() throws Exception {
+        awaitReplicaAvailable();
+        purchaseOrderService.save(newOrder("RR-PRIMARY-" + System.nanoTime()));
+
+        PurchaseOrderFilterDTO filters = new PurchaseOrderFilterDTO();
+        filters.setQ("RR-");
+        List<PurchaseOrder> fromReplica = findAll(filters);
+        assertEquals(List.of("RR-REPLICA"), fromReplica.stream().map(PurchaseOrder::getOrderNumber).toList());
+
+        List<PurchaseOrder> fromPrimary = ReplicaRouting.onPrimary(() -> findAll(filters));
+        assertFalse(fromPrimary.isEmpty());
+        assertTrue(fromPrimary.stream().allMatch(order -> order.getOrderNumber().startsWith("RR-PRIMARY-")));
+        // Dentro de la ventana de la escritura anterior, consistentRead también lee del primario
+        List<PurchaseOrder> consistent = ReplicaRouting.consistentRead(() -> findAll(filters));
+        assertEquals(fromPrimary.size(), consistent.size());
+        assertTrue(consistent.stream().allMatch(order -> order.getOrderNumber().startsWith("RR-PRIMARY-")));
+        assertEquals(0, new JdbcTemplate(replica).queryForObject(
+                "SELECT COUNT(*) FROM purchase_order WHERE order_number LIKE 'RR-PRIMARY-%'", Integer.class));
+    }
+
+    @Test
+    void unaReplicaConRetrasoSeExcluyeYLeeDelPrimario() throws Exception {
+        DataSource primary = dataSource.unwrap(ReadWriteRoutingDataSource.class).getTargetDataSource();
+        // SELECT 100: 100 s de retraso, más que max-lag
+        try (ReplicaDataSource lagging = new ReplicaDataSource(primary,
+                List.of(new ReplicaDataSource.Replica("lagging", replica)), Duration.ofSeconds(5), "SELECT 100",
+                Duration.ofMinutes(1), new ReplicaWriteTracker(Duration.ZERO))) {
+            lagging.probe();
+            assertFalse(lagging.getReplicas().get(0).isAvailable());
+            assertEquals(100, lagging.getReplicas().get(0).getLagSeconds());
+
+            try (Connection connection = lagging.getConnection()) {
+                assertFalse(connection.getMetaData().getURL().contains("replica"));
+            }
+            assertEquals(1, lagging.getFallbackCount());
+        }
+    }
+
+    /**
+     * Lectura de solo lectura como las del servicio, sin pasar por la caché de páginas
+     */
+    private List<PurchaseOrder> findAll(PurchaseOrderFilterDTO filters) {
+        TransactionTemplate readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+        return readOnlyTransaction.execute(status -> purchaseOrderRepository.findAll(
+                PurchaseOrderFilterQuery.of(filters, SearchMode.LIKE, null)));
+    }
+
+    private void awaitReplicaAvailable() throws Exception {
+        ReplicaDataSource replicas = dataSource.unwrap(ReadWriteRoutingDataSource.class).getReplicaDataSource();
+        for (int i = 0; i < 50 && !replicas.getReplicas().get(0).isAvailable(); i++) {
+            Thread.sleep(100);
+        }
+        assertTrue(replicas.getReplicas().get(0).isAvailable());
+    }
+
+    private PurchaseOrder newOrder(String orderNumber) {
+        PurchaseOrder order = new PurchaseOrder();
+        order.setOrderNumber(orderNumber);
+        order.setSupplierName("Proveedor réplica");
+        order.setStatus(OrderStatus.DRAFT);
+        order.setTotalAmount(new BigDecimal("20.00"));
+        order.setCurrency(Currency.USD);
+        order.setExpectedDeliveryDate(LocalDate.now().plusDays(7));
+        return order;
+    }
+}
@@ -0,0 +1,57 @@
+package ec.edu.espe.ortiz_leccion2.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReadYourWritesFilterTests {
+
+    private static final String BASE_URL = "/api/v1/purchase-orders";
+
+    private final ReadYourWritesFilter filter = new ReadYourWritesFilter(
+            new ReplicaWriteTracker(Duration.ofSeconds(6)), "clave-de-prueba".getBytes(StandardCharsets.UTF_8));
+
+    @Test
+    void unaEscrituraFijaAlPrimarioPeroLookupNo() throws Exception {
+        assertNull(lastWriteCookie("POST", BASE_URL + "/lookup"));
+
+        Cookie written = lastWriteCookie("POST", BASE_URL);
+        assertNotNull(written);
+        assertTrue(readsFromPrimary(written.getValue()));
+    }
+
+    @Test
+    void ignoraCookiesSinFirmaFuturasOVencidas() throws Exception {
+        long now = System.currentTimeMillis();
+        assertFalse(readsFromPrimary(Long.toString(now)));
+        assertFalse(readsFromPrimary(now + ".firma-inventada"));
+        // Firmadas por el servidor, pero fuera de la ventana
+        assertFalse(readsFromPrimary(filter.sign(Long.MAX_VALUE)));
+        assertFalse(readsFromPrimary(filter.sign(now - Duration.ofSeconds(7).toMillis())));
+    }
+
+    private Cookie lastWriteCookie(String method, String uri) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest(method, uri), response, (req, res) -> { });
+        return response.getCookie(ReadYourWritesFilter.COOKIE_NAME);
+    }
+
+    private boolean readsFromPrimary(String cookieValue) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", BASE_URL);
+        request.setCookies(new Cookie(ReadYourWritesFilter.COOKIE_NAME, cookieValue));
+        boolean[] primary = new boolean[1];
+        FilterChain chain = (req, res) -> primary[0] = ReplicaRouting.isPrimaryRequired();
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+        return primary[0];
+    }
+}
@@ -0,0 +1,159 @@
+package ec.edu.espe.ortiz_leccion2.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Bucket de 10 tokens que casi no se rellena durante el test
+@SpringBootTest(properties = {
+        "purchase-order.rate-limit.enabled=true",
+        "purchase-order.rate-limit.capacity=10",
+        "purchase-order.rate-limit.refill-per-second=0.1",
+        "purchase-order.rate-limit.api-keys=cliente-a,cliente-b"
+})
+@AutoConfigureMockMvc
+class RequestLimitFilterTests {
+
+    private static final String BASE_URL = "/api/v1/purchase-orders";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void cobraMasAlListadoSinFiltrosYRespondeTooManyRequests() throws Exception {
+        // Listado sin filtros: 5 tokens; dos caben en el bucket
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(get(BASE_URL).header(RequestLimitFilter.API_KEY_HEADER, "cliente-a"))
+                    .andExpect(status().isOk());
+        }
+        mockMvc.perform(get(BASE_URL).header(RequestLimitFilter.API_KEY_HEADER, "cliente-a"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists(HttpHeaders.RETRY_AFTER))
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_PROBLEM_JSON))
+                .andExpect(jsonPath("$.status").value(429));
+
+        // Otro cliente tiene su propio bucket; con filtros el listado cuesta 2 (cinco caben)
+        for (int i = 0; i < 5; i++) {
+            mockMvc.perform(get(BASE_URL).param("status", "APPROVED")
+                            .header(RequestLimitFilter.API_KEY_HEADER, "cliente-b"))
+                    .andExpect(status().isOk());
+        }
+        mockMvc.perform(get(BASE_URL + "/{id}", Long.MAX_VALUE).header(RequestLimitFilter.API_KEY_HEADER, "cliente-b"))
+                .andExpect(status().isTooManyRequests());
+
+        assertTrue(meterRegistry.get("purchase_orders.limiter.rejected").tag("reason", "rate")
+                .functionCounter().count() >= 2);
+        assertEquals(0, meterRegistry.get("purchase_orders.limiter.concurrency.in_flight").gauge().value());
+    }
+
+    @Test
+    void limitaPorIpLasApiKeysDesconocidas() throws Exception {
+        // Cada petición con una clave nueva: todas comparten el bucket de la IP
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(get(BASE_URL).with(remoteAddr("10.0.0.1"))
+                            .header(RequestLimitFilter.API_KEY_HEADER, UUID.randomUUID().toString()))
+                    .andExpect(status().isOk());
+        }
+        mockMvc.perform(get(BASE_URL).with(remoteAddr("10.0.0.1"))
+                        .header(RequestLimitFilter.API_KEY_HEADER, UUID.randomUUID().toString()))
+                .andExpect(status().isTooManyRequests());
+    }
+
+    @Test
+    void retieneElLugarHastaQueTerminaLaExportacion() throws Exception {
+        MvcResult result = mockMvc.perform(get(BASE_URL + "/export").with(remoteAddr("10.0.0.2")))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result)).andExpect(status().isOk());
+
+        assertEquals(0, meterRegistry.get("purchase_orders.limiter.concurrency.in_flight").gauge().value());
+    }
+
+    @Test
+    void noConsumeTokensCuandoRechazaPorSimultaneidad() throws Exception {
+        AdaptiveConcurrencyLimiter full = new AdaptiveConcurrencyLimiter(1, 1, 1, 0.5,
+                Duration.ofMillis(100), () -> 0);
+        assertTrue(full.tryAcquire());
+        TokenBucketRateLimiter rateLimiter = new TokenBucketRateLimiter(5, 0.001, 10);
+        RequestLimitFilter filter = new RequestLimitFilter(rateLimiter, full,
+                new RequestLimitFilter.Costs(2, 5, 5, 20, 10), Set.of());
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", BASE_URL), response, new MockFilterChain());
+        assertEquals(503, response.getStatus());
+
+        // El bucket sigue lleno: el listado sin filtros (5 tokens) entra en cuanto hay lugar
+        full.release();
+        response = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", BASE_URL), response, new MockFilterChain());
+        assertEquals(200, response.getStatus());
+        assertEquals(0, full.getInFlight());
+    }
+
+    @Test
+    void ajustaElLimiteDeSimultaneidadConAimd() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(4, 1, 10, 0.5,
+                Duration.ofMillis(100), () -> 0);
+
+        for (int i = 0; i < 4; i++) {
+            assertTrue(limiter.tryAcquire());
+        }
+        assertFalse(limiter.tryAcquire());
+        assertEquals(1, limiter.getRejectedCount());
+
+        // Una respuesta lenta reduce el límite a la mitad; otra dentro de la misma ventana no lo vuelve a reducir
+        limiter.onComplete(Duration.ofMillis(300).toNanos());
+        assertEquals(2, limiter.getLimit());
+        limiter.onComplete(Duration.ofMillis(300).toNanos());
+        assertEquals(2, limiter.getLimit());
+
+        // Con el límite ocupado una respuesta rápida lo sube en uno; con menos de la mitad en uso no sube
+        limiter.onComplete(Duration.ofMillis(5).toNanos());
+        assertEquals(3, limiter.getLimit());
+        limiter.onComplete(Duration.ofMillis(5).toNanos());
+        assertEquals(3, limiter.getLimit());
+        assertEquals(0, limiter.getInFlight());
+
+        // Hilos esperando una conexión del pool cuentan como congestión aunque la respuesta sea rápida
+        AdaptiveConcurrencyLimiter saturated = new AdaptiveConcurrencyLimiter(8, 1, 10, 0.5,
+                Duration.ofMillis(100), () -> 3);
+        assertTrue(saturated.tryAcquire());
+        saturated.onComplete(Duration.ofMillis(5).toNanos());
+        assertEquals(4, saturated.getLimit());
+    }
+
+    private static RequestPostProcessor remoteAddr(String address) {
+        return request -> {
+            request.setRemoteAddr(address);
+            return request;
+        };
+    }
+}
@@ -0,0 +1,243 @@
+package ec.edu.espe.ortiz_leccion2.controllers;
+
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class PurchaseOrderControllerTests {
+
+    private static final String BASE_URL = "/api/v1/purchase-orders";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM purchase_order WHERE order_number LIKE 'CT-%'");
+    }
+
+    @Test
+    void reintentoConLaMismaIdempotencyKeyDevuelveLaMismaOrden() throws Exception {
+        String body = order("CT-IDEM-1", "25.00");
+        String first = mockMvc.perform(post(BASE_URL).header("Idempotency-Key", "clave-1")
+                        .contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Idempotent-Replayed", "false"))
+                .andReturn().getResponse().getContentAsString();
+
+        // Mismo cuerpo con otro formato del monto: es la misma orden
+        mockMvc.perform(post(BASE_URL).header("Idempotency-Key", "clave-1")
+                        .contentType(MediaType.APPLICATION_JSON).content(order("CT-IDEM-1", "25")))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Idempotent-Replayed", "true"))
+                .andExpect(jsonPath("$.id").value(JsonPath.<Number>read(first, "$.id").longValue()));
+
+        assertEquals(1, countOrders("CT-IDEM-1"));
+    }
+
+    @Test
+    void peticionesSimultaneasConLaMismaClaveInsertanUnaSolaVez() throws Exception {
+        String body = order("CT-IDEM-2", "30.00");
+        int requests = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(requests);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<MockHttpServletResponse>> responses = new ArrayList<>();
+            for (int i = 0; i < requests; i++) {
+                Callable<MockHttpServletResponse> call = () -> {
+                    start.await();
+                    return mockMvc.perform(post(BASE_URL).header("Idempotency-Key", "clave-2")
+                            .contentType(MediaType.APPLICATION_JSON).content(body)).andReturn().getResponse();
+                };
+                responses.add(executor.submit(call));
+            }
+            start.countDown();
+
+            Set<Number> ids = new HashSet<>();
+            int replayed = 0;
+            for (Future<MockHttpServletResponse> future : responses) {
+                MockHttpServletResponse response = future.get();
+                assertEquals(200, response.getStatus());
+                ids.add(JsonPath.<Number>read(response.getContentAsString(), "$.id").longValue());
+                replayed += Boolean.parseBoolean(response.getHeader("Idempotent-Replayed")) ? 1 : 0;
+            }
+            assertEquals(1, ids.size());
+            assertEquals(requests - 1, replayed);
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, countOrders("CT-IDEM-2"));
+    }
+
+    @Test
+    void reutilizarLaClaveConOtraOrdenRespondeUnprocessableEntity() throws Exception {
+        mockMvc.perform(post(BASE_URL).header("Idempotency-Key", "clave-3")
+                        .contentType(MediaType.APPLICATION_JSON).content(order("CT-IDEM-3", "40.00")))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(post(BASE_URL).header("Idempotency-Key", "clave-3")
+                        .contentType(MediaType.APPLICATION_JSON).content(order("CT-IDEM-3", "41.00")))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(jsonPath("$.status").value(422));
+
+        assertEquals(1, countOrders("CT-IDEM-3"));
+    }
+
+    @Test
+    void unNumeroDeOrdenDuplicadoRespondeConflict() throws Exception {
+        mockMvc.perform(post(BASE_URL).contentType(MediaType.APPLICATION_JSON).content(order("CT-DUP", "10.00")))
+                .andExpect(status().isOk());
+
+        // Con otra clave tampoco se inserta: la restricción única responde 409
+        mockMvc.perform(post(BASE_URL).header("Idempotency-Key", "clave-4")
+                        .contentType(MediaType.APPLICATION_JSON).content(order("CT-DUP", "12.00")))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.title").value("Conflict"));
+
+        assertEquals(1, countOrders("CT-DUP"));
+    }
+
+    @Test
+    void laExportacionCsvEntrecomillaLosCamposConSeparadores() throws Exception {
+        createOrder(order("CT-EX-1", "Proveedor, S.A.", "10.00"));
+        createOrder(order("CT-EX-2", "El \"Mejor\" proveedor", "20.00"));
+        createOrder(order("CT-EX-3", "Linea 1\nLinea 2", "30.00"));
+
+        String csv = export("csv");
+        assertTrue(csv.startsWith("id,orderNumber,supplierName,status,totalAmount,currency,createdAt,"
+                + "expectedDeliveryDate\n"), csv);
+        assertTrue(csv.contains(",CT-EX-1,\"Proveedor, S.A.\",DRAFT,10.00,USD,"), csv);
+        assertTrue(csv.contains(",CT-EX-2,\"El \"\"Mejor\"\" proveedor\",DRAFT,20.00,USD,"), csv);
+        assertTrue(csv.contains(",CT-EX-3,\"Linea 1\nLinea 2\",DRAFT,30.00,USD,"), csv);
+    }
+
+    @Test
+    void laExportacionNdjsonEscribeUnaOrdenPorLinea() throws Exception {
+        createOrder(order("CT-EX-1", "Proveedor, S.A.", "10.00"));
+        createOrder(order("CT-EX-2", "El \"Mejor\" proveedor", "20.00"));
+        createOrder(order("CT-EX-3", "Linea 1\nLinea 2", "30.00"));
+
+        // El salto de línea del proveedor va escapado dentro del JSON: cada línea es una orden completa
+        Map<String, String> suppliers = new HashMap<>();
+        for (String line : export("ndjson").split("\n")) {
+            suppliers.put(JsonPath.read(line, "$.orderNumber"), JsonPath.read(line, "$.supplierName"));
+        }
+        assertEquals(Map.of("CT-EX-1", "Proveedor, S.A.", "CT-EX-2", "El \"Mejor\" proveedor",
+                "CT-EX-3", "Linea 1\nLinea 2"), suppliers);
+    }
+
+    /**
+     * Cuatro órdenes en marzo y abril de 2021: dos el mismo día, tres la misma semana y tres el mismo mes
+     */
+    @ParameterizedTest(name = "bucket={0}")
+    @CsvSource({
+            "day,   2021-03-03 2021-03-04 2021-04-05, 2 1 1, 30.00 30.00 40.00",
+            "week,  2021-03-01 2021-04-05,            3 1,   60.00 40.00",
+            "month, 2021-03-01 2021-04-01,            3 1,   60.00 40.00"
+    })
+    void lasEstadisticasAgrupanLasSeriesPorBucket(String bucket, String periods, String counts, String sums)
+            throws Exception {
+        LocalDateTime[] createdAt = {
+                LocalDateTime.of(2021, 3, 3, 10, 0),
+                LocalDateTime.of(2021, 3, 3, 15, 0),
+                LocalDateTime.of(2021, 3, 4, 9, 0),
+                LocalDateTime.of(2021, 4, 5, 9, 0)
+        };
+        for (int i = 0; i < createdAt.length; i++) {
+            long id = createOrder(order("CT-ST-" + i, (i + 1) * 10 + ".00"));
+            jdbcTemplate.update("UPDATE purchase_order SET created_at = ? WHERE id = ?",
+                    Timestamp.valueOf(createdAt[i]), id);
+        }
+
+        // Con q no se usan los rollups: el GROUP BY ve las fechas cambiadas por el UPDATE
+        String stats = mockMvc.perform(get(BASE_URL + "/stats").param("bucket", bucket).param("q", "CT-ST-"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.bucket").value(bucket.toUpperCase()))
+                .andExpect(jsonPath("$.groups.length()").value(1))
+                .andExpect(jsonPath("$.groups[0].count").value(4))
+                .andReturn().getResponse().getContentAsString();
+
+        assertEquals(List.of(periods.split(" ")), JsonPath.read(stats, "$.series[*].period"));
+        assertEquals(Arrays.stream(counts.split(" ")).map(Integer::valueOf).toList(),
+                JsonPath.read(stats, "$.series[*].count"));
+        List<Number> seriesSums = JsonPath.read(stats, "$.series[*].sum");
+        assertEquals(Arrays.stream(sums.split(" ")).map(BigDecimal::new).toList(),
+                seriesSums.stream().map(sum -> new BigDecimal(sum.toString()).setScale(2)).toList());
+    }
+
+    private long createOrder(String body) throws Exception {
+        String response = mockMvc.perform(post(BASE_URL).contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return JsonPath.<Number>read(response, "$.id").longValue();
+    }
+
+    // La exportación es asíncrona (StreamingResponseBody): el cuerpo llega en el dispatch
+    private String export(String format) throws Exception {
+        MvcResult result = mockMvc.perform(get(BASE_URL + "/export").param("format", format).param("q", "CT-EX-"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+    }
+
+    private long countOrders(String orderNumber) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM purchase_order WHERE order_number = ?",
+                Long.class, orderNumber);
+    }
+
+    private static String order(String orderNumber, String totalAmount) {
+        return order(orderNumber, "Proveedor", totalAmount);
+    }
+
+    private static String order(String orderNumber, String supplierName, String totalAmount) {
+        String supplier = supplierName.replace("\"", "\\\"").replace("\n", "\\n");
+        return "{\"orderNumber\": \"" + orderNumber + "\", \"supplierName\": \"" + supplier + "\", \"status\": \"DRAFT\", "
+                + "\"totalAmount\": " + totalAmount + ", \"currency\": \"USD\", "
+                + "\"expectedDeliveryDate\": \"" + LocalDate.now().plusDays(7) + "\"}";
+    }
+}
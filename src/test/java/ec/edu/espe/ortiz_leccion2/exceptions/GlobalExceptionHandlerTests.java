@@ -0,0 +1,61 @@
+package ec.edu.espe.ortiz_leccion2.exceptions;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class GlobalExceptionHandlerTests {
+
+    private static final String BASE_URL = "/api/v1/purchase-orders";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void erroresDeDominioRespondenProblemDetailConSuCodigo() throws Exception {
+        mockMvc.perform(get(BASE_URL).param("status", "approvedx"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_PROBLEM_JSON))
+                .andExpect(jsonPath("$.title").value("Invalid Filter"))
+                .andExpect(jsonPath("$.status").value(400))
+                .andExpect(jsonPath("$.instance").value(BASE_URL));
+
+        // Los enums se aceptan sin distinguir mayúsculas
+        mockMvc.perform(get(BASE_URL).param("status", "Approved").param("currency", "usd"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get(BASE_URL + "/{id}", Long.MAX_VALUE))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.title").value("Resource Not Found"));
+
+        mockMvc.perform(post(BASE_URL).contentType(MediaType.APPLICATION_JSON).content("{}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.title").value("Validation Error"))
+                .andExpect(jsonPath("$.errors.orderNumber").exists());
+    }
+
+    @Test
+    void erroresDeSpringMvcYaNoRespondenNotFound() throws Exception {
+        // Antes el manejador de RuntimeException los convertía en 404
+        mockMvc.perform(get(BASE_URL + "/{id}", "abc"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_PROBLEM_JSON));
+
+        mockMvc.perform(post(BASE_URL).contentType(MediaType.APPLICATION_JSON).content("{no es json"))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(post(BASE_URL + "/lookup").contentType(MediaType.TEXT_PLAIN).content("1"))
+                .andExpect(status().isUnsupportedMediaType());
+    }
+}
@@ -0,0 +1,161 @@
+package ec.edu.espe.ortiz_leccion2.repositories;
+
+import ec.edu.espe.ortiz_leccion2.models.dto.PurchaseOrderFilterDTO;
+import ec.edu.espe.ortiz_leccion2.models.entities.PurchaseOrder;
+import ec.edu.espe.ortiz_leccion2.models.enums.Currency;
+import ec.edu.espe.ortiz_leccion2.models.enums.OrderStatus;
+import ec.edu.espe.ortiz_leccion2.models.enums.SearchMode;
+import ec.edu.espe.ortiz_leccion2.specifications.PurchaseOrderFilterQuery;
+import ec.edu.espe.ortiz_leccion2.specifications.PurchaseOrderSearchTerms;
+import ec.edu.espe.ortiz_leccion2.specifications.PurchaseOrderSpecification;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Verifica con EXPLAIN (H2) que cada combinación de filtros indexables acota la lectura con un
+ * índice de V2__purchase_order_filter_indexes.sql en lugar de recorrer la tabla o el índice completo.
+ * Se explica el SQL que Hibernate genera para la página del listado (capturado con CapturedSql),
+ * con los mismos valores que enlaza PurchaseOrderFilterQuery.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "ec.edu.espe.ortiz_leccion2.repositories.PurchaseOrderIndexPlanTests$CapturedSql")
+class PurchaseOrderIndexPlanTests {
+
+    private static final int PAGE_ROWS = 51;
+
+    // H2 anota el acceso como /* PUBLIC.INDICE: condición */ cuando el índice acota las filas leídas
+    private static final Pattern INDEX_LOOKUP = Pattern.compile("/\\* PUBLIC\\.[A-Z0-9_]+: ");
+
+    @Autowired
+    private PurchaseOrderRepository purchaseOrderRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        purchaseOrderRepository.deleteAll();
+        OrderStatus[] statuses = OrderStatus.values();
+        List<PurchaseOrder> orders = new ArrayList<>();
+        IntStream.range(0, 2000).forEach(i -> {
+            PurchaseOrder order = new PurchaseOrder();
+            order.setOrderNumber("OC-" + i);
+            order.setSupplierName("Proveedor " + (i % 50));
+            order.setStatus(statuses[i % statuses.length]);
+            order.setTotalAmount(BigDecimal.valueOf(10 + i));
+            order.setCurrency(i % 2 == 0 ? Currency.USD : Currency.EUR);
+            order.setExpectedDeliveryDate(LocalDate.now());
+            orders.add(order);
+        });
+        purchaseOrderRepository.batchInsert(orders);
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    static Stream<Arguments> filterCombinations() {
+        List<Arguments> combinations = new ArrayList<>();
+        for (int mask = 1; mask < 1 << 4; mask++) {
+            PurchaseOrderFilterDTO filters = new PurchaseOrderFilterDTO();
+            if ((mask & 1) != 0) {
+                filters.setStatus(OrderStatus.APPROVED);
+            }
+            if ((mask & 2) != 0) {
+                filters.setCurrency(Currency.USD);
+            }
+            if ((mask & 4) != 0) {
+                filters.setMinTotal(new BigDecimal("100"));
+                filters.setMaxTotal(new BigDecimal("200"));
+            }
+            if ((mask & 8) != 0) {
+                filters.setFrom(LocalDateTime.of(2025, 1, 1, 0, 0));
+                filters.setTo(LocalDateTime.of(2025, 6, 30, 23, 59, 59));
+            }
+            combinations.add(Arguments.of(PurchaseOrderSpecification.shape(filters), filters));
+        }
+        // Búsqueda por prefijo de orderNumber
+        PurchaseOrderFilterDTO prefix = new PurchaseOrderFilterDTO();
+        prefix.setQ("OC-1*");
+        combinations.add(Arguments.of(PurchaseOrderSpecification.shape(prefix), prefix));
+        return combinations.stream();
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("filterCombinations")
+    void cadaCombinacionDeFiltrosUsaUnIndice(String shape, PurchaseOrderFilterDTO filters) {
+        CapturedSql.STATEMENTS.get().clear();
+        purchaseOrderRepository.findTuples(PurchaseOrderFilterQuery.of(filters, SearchMode.LIKE, null),
+                Set.of("id", "createdAt", "version"), PAGE_ROWS);
+        List<String> statements = CapturedSql.STATEMENTS.get();
+        assertEquals(1, statements.size(), () -> "Se esperaba una sola sentencia: " + statements);
+        String sql = statements.get(0);
+
+        String plan = String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + sql, String.class,
+                parameters(filters).toArray()));
+
+        assertTrue(INDEX_LOOKUP.matcher(plan).find(), () -> "Sin búsqueda por índice para [" + shape + "]:\n"
+                + sql + "\n" + plan);
+    }
+
+    /**
+     * Valores en el orden en que PurchaseOrderFilterQuery escribe los predicados, más el límite de filas
+     */
+    private static List<Object> parameters(PurchaseOrderFilterDTO filters) {
+        List<Object> parameters = new ArrayList<>();
+        if (filters.getQ() != null) {
+            parameters.add(PurchaseOrderSearchTerms.prefixPattern(filters.getQ()));
+        }
+        if (filters.getStatus() != null) {
+            parameters.add(filters.getStatus().name());
+        }
+        if (filters.getCurrency() != null) {
+            parameters.add(filters.getCurrency().name());
+        }
+        if (filters.getMinTotal() != null) {
+            parameters.add(filters.getMinTotal());
+        }
+        if (filters.getMaxTotal() != null) {
+            parameters.add(filters.getMaxTotal());
+        }
+        if (filters.getFrom() != null) {
+            parameters.add(Timestamp.valueOf(filters.getFrom()));
+        }
+        if (filters.getTo() != null) {
+            parameters.add(Timestamp.valueOf(filters.getTo()));
+        }
+        parameters.add(PAGE_ROWS);
+        return parameters;
+    }
+
+    /**
+     * Guarda las sentencias que Hibernate envía desde el hilo actual; Hibernate la instancia por nombre
+     */
+    public static class CapturedSql implements StatementInspector {
+
+        static final ThreadLocal<List<String>> STATEMENTS = ThreadLocal.withInitial(ArrayList::new);
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.get().add(sql);
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package ec.edu.espe.ortiz_leccion2.services;
+
+import ec.edu.espe.ortiz_leccion2.exceptions.ResourceNotFoundException;
+import ec.edu.espe.ortiz_leccion2.models.dto.PurchaseOrderFilterDTO;
+import ec.edu.espe.ortiz_leccion2.models.dto.PurchaseOrderPageDTO;
+import ec.edu.espe.ortiz_leccion2.models.dto.PurchaseOrderSummary;
+import ec.edu.espe.ortiz_leccion2.models.dto.StatsGroupDTO;
+import ec.edu.espe.ortiz_leccion2.models.entities.PurchaseOrder;
+import ec.edu.espe.ortiz_leccion2.models.enums.Currency;
+import ec.edu.espe.ortiz_leccion2.models.enums.OrderStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Con la copia columnar: /stats sin q se responde desde ella y se combina con los agregados del archivo
+@SpringBootTest(properties = {
+        "purchase-order.archive.enabled=true",
+        "purchase-order.archive.max-age=P30D",
+        "purchase-order.columnar.enabled=true"
+})
+class PurchaseOrderArchiveServiceImplTests {
+
+    @Autowired
+    private PurchaseOrderService purchaseOrderService;
+
+    @Autowired
+    private PurchaseOrderArchiveService purchaseOrderArchiveService;
+
+    @Autowired
+    private PurchaseOrderStatsService purchaseOrderStatsService;
+
+    @Autowired
+    private PurchaseOrderColumnarSnapshot columnarSnapshot;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final List<PurchaseOrder> orders = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        orders.clear();
+        for (int i = 0; i < 5; i++) {
+            orders.add(purchaseOrderService.save(newOrder("AR-" + i)));
+        }
+        // Las tres primeras pasan a tener más de un año
+        for (int i = 0; i < 3; i++) {
+            jdbcTemplate.update("UPDATE purchase_order SET created_at = ? WHERE id = ?",
+                    Timestamp.valueOf(LocalDateTime.now().minusDays(400).plusHours(i)), orders.get(i).getId());
+        }
+        // El UPDATE no pasa por el servicio: el refresco deja la copia alineada
+        columnarSnapshot.refresh();
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM purchase_order_archive WHERE order_number LIKE 'AR-%'");
+        jdbcTemplate.update("DELETE FROM purchase_order WHERE order_number LIKE 'AR-%'");
+    }
+
+    @Test
+    void lasOrdenesArchivadasSoloSeConsultanSiElRangoLoRequiere() {
+        assertTrue(purchaseOrderArchiveService.archive() >= 3);
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM purchase_order WHERE order_number IN ('AR-0', 'AR-1', 'AR-2')", Integer.class));
+
+        // GET /{id} sigue encontrando la orden archivada, pero ya no se puede modificar
+        Long archivedId = orders.get(0).getId();
+        assertEquals("AR-0", purchaseOrderService.findById(archivedId).getOrderNumber());
+        assertEquals(orders.get(0).getVersion(), purchaseOrderService.findVersion(archivedId));
+        assertThrows(ResourceNotFoundException.class, () -> purchaseOrderService.delete(archivedId));
+        assertEquals(List.of("ARCHIVED"), jdbcTemplate.queryForList(
+                "SELECT operation FROM purchase_order_change WHERE order_id = ? AND operation <> 'CREATED'",
+                String.class, archivedId));
+
+        PurchaseOrderFilterDTO all = new PurchaseOrderFilterDTO();
+        all.setQ("AR-");
+        assertEquals(5, countPages(all));
+
+        PurchaseOrderFilterDTO recent = new PurchaseOrderFilterDTO();
+        recent.setQ("AR-");
+        recent.setFrom(LocalDateTime.now().minusDays(10));
+        assertFalse(purchaseOrderArchiveService.covers(recent));
+        assertEquals(2, countPages(recent));
+
+        // La primera página termina en el archivo y la segunda continúa con el mismo cursor
+        PurchaseOrderPageDTO<PurchaseOrderSummary> first = purchaseOrderService.findPage(all, null, 3, null);
+        assertEquals(List.of("AR-4", "AR-3", "AR-2"), orderNumbers(first));
+        assertNotNull(first.getNextCursor());
+        PurchaseOrderPageDTO<PurchaseOrderSummary> second = purchaseOrderService.findPage(all, first.getNextCursor(), 3, null);
+        assertEquals(List.of("AR-1", "AR-0"), orderNumbers(second));
+        assertNull(second.getNextCursor());
+
+        long count = purchaseOrderStatsService.getStats(all, null).getGroups().stream()
+                .mapToLong(StatsGroupDTO::getCount).sum();
+        assertEquals(5, count);
+    }
+
+    @Test
+    void lasEstadisticasNoCuentanDosVecesLasOrdenesArchivadas() {
+        PurchaseOrderFilterDTO cancelled = new PurchaseOrderFilterDTO();
+        cancelled.setStatus(OrderStatus.CANCELLED);
+        assertTrue(columnarSnapshot.supports(cancelled));
+
+        assertTrue(purchaseOrderArchiveService.archive() >= 3);
+        assertTrue(purchaseOrderArchiveService.covers(cancelled));
+
+        long expected = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM purchase_order WHERE status = 'CANCELLED'",
+                Long.class) + jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM purchase_order_archive WHERE status = 'CANCELLED'", Long.class);
+        long count = purchaseOrderStatsService.getStats(cancelled, null).getGroups().stream()
+                .mapToLong(StatsGroupDTO::getCount).sum();
+        assertEquals(expected, count);
+        assertEquals(expected, countPages(cancelled));
+    }
+
+    /**
+     * Órdenes de todas las páginas, siguiendo nextCursor
+     */
+    private long countPages(PurchaseOrderFilterDTO filters) {
+        long count = 0;
+        String cursor = null;
+        do {
+            PurchaseOrderPageDTO<PurchaseOrderSummary> page = purchaseOrderService.findPage(filters, cursor, 500, null);
+            count += page.getItems().size();
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        return count;
+    }
+
+    private List<String> orderNumbers(PurchaseOrderPageDTO<PurchaseOrderSummary> page) {
+        return page.getItems().stream().map(PurchaseOrderSummary::orderNumber).toList();
+    }
+
+    private PurchaseOrder newOrder(String orderNumber) {
+        PurchaseOrder order = new PurchaseOrder();
+        order.setOrderNumber(orderNumber);
+        order.setSupplierName("Proveedor " + orderNumber);
+        order.setStatus(OrderStatus.CANCELLED);
+        order.setTotalAmount(new BigDecimal("15.50"));
+        order.setCurrency(Currency.USD);
+        order.setExpectedDeliveryDate(LocalDate.now().plusDays(7));
+        return order;
+    }
+}
@@ -0,0 +1,152 @@
+package ec.edu.espe.ortiz_leccion2.services;
+
+import ec.edu.espe.ortiz_leccion2.models.entities.PurchaseOrder;
+import ec.edu.espe.ortiz_leccion2.models.enums.Currency;
+import ec.edu.espe.ortiz_leccion2.models.enums.OrderStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Bloques de 2 elementos: cada carga se reparte en varias transacciones
+@SpringBootTest(properties = "purchase-order.batch.chunk-size=2")
+@AutoConfigureMockMvc
+class PurchaseOrderBatchServiceImplTests {
+
+    private static final String BATCH_URL = "/api/v1/purchase-orders/batch";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private PurchaseOrderService purchaseOrderService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM purchase_order WHERE order_number LIKE 'BT-%'");
+    }
+
+    @Test
+    void unElementoInvalidoNoDetieneLaCargaEnBloques() throws Exception {
+        String body = String.join("\n",
+                order("BT-0", "10.50"),
+                order("BT-1", "11.50"),
+                order("BT-2", "\"no es un número\""),
+                order("BT-3", "-1"),
+                order("BT-4", "12.50"),
+                order("BT-5", "13.50"),
+                order("BT-6", "14.50"));
+
+        mockMvc.perform(post(BATCH_URL).contentType(MediaType.APPLICATION_NDJSON).content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.received").value(7))
+                .andExpect(jsonPath("$.created").value(5))
+                .andExpect(jsonPath("$.failed").value(2))
+                .andExpect(jsonPath("$.errors[0].index").value(2))
+                .andExpect(jsonPath("$.errors[0].errors.body").exists())
+                .andExpect(jsonPath("$.errors[1].index").value(3))
+                .andExpect(jsonPath("$.errors[1].errors.totalAmount").exists());
+
+        assertEquals(5, countOrders());
+    }
+
+    @Test
+    void reintentaElementoPorElementoSiFallaElBloque() throws Exception {
+        purchaseOrderService.save(newOrder("BT-DUP"));
+
+        // El primer bloque (BT-A, BT-DUP) falla por el duplicado; BT-A se guarda en el reintento
+        String body = "[" + order("BT-A", "10.00") + "," + order("BT-DUP", "10.00") + ","
+                + order("BT-B", "10.00") + "]";
+
+        mockMvc.perform(post(BATCH_URL).contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.received").value(3))
+                .andExpect(jsonPath("$.created").value(2))
+                .andExpect(jsonPath("$.failed").value(1))
+                .andExpect(jsonPath("$.errors[0].index").value(1))
+                .andExpect(jsonPath("$.errors[0].orderNumber").value("BT-DUP"));
+
+        assertEquals(3, countOrders());
+    }
+
+    @Test
+    void unErrorDeSintaxisDetieneLaCargaYConservaLoLeido() throws Exception {
+        String body = "[" + order("BT-X", "10.00") + ", {\"orderNumber\": ";
+
+        mockMvc.perform(post(BATCH_URL).contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.received").value(2))
+                .andExpect(jsonPath("$.created").value(1))
+                .andExpect(jsonPath("$.failed").value(1))
+                .andExpect(jsonPath("$.errors[0].index").value(1));
+
+        assertEquals(1, countOrders());
+    }
+
+    @Test
+    void lasActualizacionesConVersionVencidaOSinOrdenSeInformanPorElemento() throws Exception {
+        PurchaseOrder current = purchaseOrderService.save(newOrder("BT-V"));
+        PurchaseOrder deleted = purchaseOrderService.save(newOrder("BT-D"));
+        purchaseOrderService.delete(deleted.getId());
+
+        String body = "[" + update(current.getId(), 0, "BT-V", "20.00") + ","
+                + update(current.getId(), 0, "BT-V", "30.00") + ","
+                + update(deleted.getId(), 0, "BT-D", "20.00") + "]";
+
+        // El segundo elemento espera la versión 0, que el primero ya incrementó
+        mockMvc.perform(post(BATCH_URL).contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.received").value(3))
+                .andExpect(jsonPath("$.updated").value(1))
+                .andExpect(jsonPath("$.failed").value(2))
+                .andExpect(jsonPath("$.errors[0].index").value(1))
+                .andExpect(jsonPath("$.errors[0].errors.version").exists())
+                .andExpect(jsonPath("$.errors[1].index").value(2))
+                .andExpect(jsonPath("$.errors[1].errors.id").exists());
+
+        PurchaseOrder stored = purchaseOrderService.findById(current.getId());
+        assertEquals(new BigDecimal("20.00"), stored.getTotalAmount());
+        assertEquals(1L, stored.getVersion());
+    }
+
+    private long countOrders() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM purchase_order WHERE order_number LIKE 'BT-%'",
+                Long.class);
+    }
+
+    private static String order(String orderNumber, String totalAmount) {
+        return "{\"orderNumber\": \"" + orderNumber + "\", \"supplierName\": \"Proveedor\", \"status\": \"DRAFT\", "
+                + "\"totalAmount\": " + totalAmount + ", \"currency\": \"USD\", "
+                + "\"expectedDeliveryDate\": \"" + LocalDate.now().plusDays(7) + "\"}";
+    }
+
+    private static String update(Long id, long version, String orderNumber, String totalAmount) {
+        return "{\"id\": " + id + ", \"version\": " + version + ", " + order(orderNumber, totalAmount).substring(1);
+    }
+
+    private PurchaseOrder newOrder(String orderNumber) {
+        PurchaseOrder order = new PurchaseOrder();
+        order.setOrderNumber(orderNumber);
+        order.setSupplierName("Proveedor");
+        order.setStatus(OrderStatus.DRAFT);
+        order.setTotalAmount(new BigDecimal("10.00"));
+        order.setCurrency(Currency.USD);
+        order.setExpectedDeliveryDate(LocalDate.now().plusDays(7));
+        return order;
+    }
+}
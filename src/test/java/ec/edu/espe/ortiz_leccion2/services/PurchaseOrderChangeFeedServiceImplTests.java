@@ -0,0 +1,92 @@
+package ec.edu.espe.ortiz_leccion2.services;
+
+import ec.edu.espe.ortiz_leccion2.models.dto.PurchaseOrderChangeDTO;
+import ec.edu.espe.ortiz_leccion2.models.dto.PurchaseOrderChangeFeedDTO;
+import ec.edu.espe.ortiz_leccion2.models.entities.PurchaseOrder;
+import ec.edu.espe.ortiz_leccion2.models.enums.ChangeOperation;
+import ec.edu.espe.ortiz_leccion2.models.enums.Currency;
+import ec.edu.espe.ortiz_leccion2.models.enums.OrderStatus;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Sin escrituras concurrentes no hay huecos en curso: la compactación alcanza a los cambios recién escritos
+@SpringBootTest(properties = { "purchase-order.changes.compact-after=PT0S", "purchase-order.changes.gap-timeout=PT0S" })
+class PurchaseOrderChangeFeedServiceImplTests {
+
+    @Autowired
+    private PurchaseOrderService purchaseOrderService;
+
+    @Autowired
+    private PurchaseOrderBatchService purchaseOrderBatchService;
+
+    @Autowired
+    private PurchaseOrderChangeFeedService changeFeedService;
+
+    @Test
+    void registraCadaEscrituraEnOrdenDeSecuencia() {
+        long since = tail();
+        PurchaseOrder created = purchaseOrderService.save(newOrder("CF-1", OrderStatus.DRAFT));
+        purchaseOrderService.update(created.getId(), newOrder("CF-1", OrderStatus.SUBMITTED), null);
+        purchaseOrderService.delete(created.getId());
+        Iterator<PurchaseOrder> batch = List.of(newOrder("CF-2", OrderStatus.DRAFT)).iterator();
+        purchaseOrderBatchService.importOrders(batch);
+
+        PurchaseOrderChangeFeedDTO feed = changeFeedService.findChanges(since, 100);
+        List<PurchaseOrderChangeDTO> changes = feed.getChanges();
+
+        assertEquals(List.of(ChangeOperation.CREATED, ChangeOperation.UPDATED, ChangeOperation.DELETED,
+                ChangeOperation.CREATED), changes.stream().map(PurchaseOrderChangeDTO::getOperation).toList());
+        assertEquals(created.getId(), changes.get(2).getOrderId());
+        assertEquals(1L, changes.get(1).getVersion());
+        assertTrue(changes.get(1).getOrder().contains("\"status\":\"SUBMITTED\""));
+        assertNull(changes.get(2).getOrder());
+        assertTrue(changes.get(3).getOrder().contains("\"orderNumber\":\"CF-2\""));
+        assertEquals(changes.get(3).getSequence(), feed.getNextSince());
+        assertFalse(feed.isHasMore());
+    }
+
+    @Test
+    void laCompactacionConservaSoloElUltimoCambioDeCadaOrden() {
+        long since = tail();
+        PurchaseOrder created = purchaseOrderService.save(newOrder("CF-3", OrderStatus.DRAFT));
+        purchaseOrderService.update(created.getId(), newOrder("CF-3", OrderStatus.SUBMITTED), null);
+        purchaseOrderService.update(created.getId(), newOrder("CF-3", OrderStatus.APPROVED), null);
+
+        changeFeedService.compact();
+
+        List<PurchaseOrderChangeDTO> changes = changeFeedService.findChanges(since, 100).getChanges();
+        assertEquals(1, changes.size());
+        assertEquals(2L, changes.get(0).getVersion());
+        assertTrue(changes.get(0).getOrder().contains("\"status\":\"APPROVED\""));
+    }
+
+    private long tail() {
+        PurchaseOrderChangeFeedDTO feed = changeFeedService.findChanges(0, 1000);
+        while (feed.isHasMore()) {
+            feed = changeFeedService.findChanges(feed.getNextSince(), 1000);
+        }
+        return feed.getNextSince();
+    }
+
+    private PurchaseOrder newOrder(String orderNumber, OrderStatus status) {
+        PurchaseOrder order = new PurchaseOrder();
+        order.setOrderNumber(orderNumber);
+        order.setSupplierName("Proveedor " + orderNumber);
+        order.setStatus(status);
+        order.setTotalAmount(new BigDecimal("100.00"));
+        order.setCurrency(Currency.USD);
+        order.setExpectedDeliveryDate(LocalDate.now().plusDays(7));
+        return order;
+    }
+}
@@ -0,0 +1,137 @@
+package ec.edu.espe.ortiz_leccion2.services;
+
+import ec.edu.espe.ortiz_leccion2.models.dto.PurchaseOrderFilterDTO;
+import ec.edu.espe.ortiz_leccion2.models.dto.PurchaseOrderStatsDTO;
+import ec.edu.espe.ortiz_leccion2.models.dto.StatsGroupDTO;
+import ec.edu.espe.ortiz_leccion2.models.entities.PurchaseOrder;
+import ec.edu.espe.ortiz_leccion2.models.enums.Currency;
+import ec.edu.espe.ortiz_leccion2.models.enums.OrderStatus;
+import ec.edu.espe.ortiz_leccion2.models.enums.StatsBucket;
+import ec.edu.espe.ortiz_leccion2.repositories.PurchaseOrderRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// parallel-threshold=1: también el recorrido por segmentos en el ForkJoinPool
+@SpringBootTest(properties = {
+        "purchase-order.columnar.enabled=true",
+        "purchase-order.columnar.parallel-threshold=1"
+})
+class PurchaseOrderColumnarSnapshotTests {
+
+    @Autowired
+    private PurchaseOrderService purchaseOrderService;
+
+    @Autowired
+    private PurchaseOrderStatsService purchaseOrderStatsService;
+
+    @Autowired
+    private PurchaseOrderColumnarSnapshot columnarSnapshot;
+
+    @Autowired
+    private PurchaseOrderRepository purchaseOrderRepository;
+
+    private final List<PurchaseOrder> orders = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        // deleteAll no pasa por el servicio: el refresco deja la copia alineada
+        purchaseOrderRepository.deleteAll();
+        columnarSnapshot.refresh();
+
+        orders.clear();
+        for (int i = 0; i < 150; i++) {
+            orders.add(purchaseOrderService.save(newOrder("CS-" + i, OrderStatus.values()[i % 5],
+                    i % 2 == 0 ? Currency.USD : Currency.EUR, new BigDecimal((i + 1) + "." + (i % 100)))));
+        }
+    }
+
+    @Test
+    void lasEstadisticasCoincidenConSqlTrasActualizarYEliminar() {
+        PurchaseOrder first = orders.get(0);
+        purchaseOrderService.update(first.getId(), newOrder(first.getOrderNumber(), OrderStatus.APPROVED,
+                Currency.EUR, new BigDecimal("75.50")), null);
+        purchaseOrderService.delete(orders.get(60).getId());
+
+        // Todos con montos o fechas arbitrarios: los rollups no los cubren
+        LocalDateTime middle = orders.get(75).getCreatedAt();
+        List<PurchaseOrderFilterDTO> cases = List.of(
+                filters(null, null, new BigDecimal("0.01"), null, null, null),
+                filters(OrderStatus.APPROVED, null, null, new BigDecimal("500"), null, null),
+                filters(null, Currency.EUR, new BigDecimal("20.005"), new BigDecimal("99.99"), null, null),
+                filters(OrderStatus.DRAFT, Currency.USD, null, new BigDecimal("100"), middle, null),
+                filters(null, null, BigDecimal.TEN, null, null, middle.plusNanos(1)),
+                filters(OrderStatus.CANCELLED, Currency.EUR, new BigDecimal("1000"), null, null, null));
+
+        for (PurchaseOrderFilterDTO filter : cases) {
+            assertTrue(columnarSnapshot.supports(filter));
+            assertEquals(describe(sqlStats(filter).getSeries()),
+                    describe(purchaseOrderStatsService.getStats(filter, StatsBucket.DAY).getSeries()));
+        }
+    }
+
+    @Test
+    void lasEstadisticasCoincidenConSql() {
+        PurchaseOrderFilterDTO filter = filters(null, Currency.USD, new BigDecimal("12.34"), null, null, null);
+        // Con q se resuelve con SQL; todas las órdenes de la prueba contienen "CS-"
+        PurchaseOrderFilterDTO sqlFilter = filters(null, Currency.USD, new BigDecimal("12.34"), null, null, null);
+        sqlFilter.setQ("CS-");
+        assertFalse(columnarSnapshot.supports(sqlFilter));
+
+        assertEquals(describe(purchaseOrderStatsService.getStats(sqlFilter, StatsBucket.DAY).getSeries()),
+                describe(purchaseOrderStatsService.getStats(filter, StatsBucket.DAY).getSeries()));
+        assertEquals(describe(purchaseOrderStatsService.getStats(sqlFilter, null).getGroups()),
+                describe(purchaseOrderStatsService.getStats(filter, null).getGroups()));
+    }
+
+    /**
+     * Las mismas estadísticas con SQL: q="CS-" coincide con todas las órdenes de la prueba
+     */
+    private PurchaseOrderStatsDTO sqlStats(PurchaseOrderFilterDTO filter) {
+        PurchaseOrderFilterDTO sqlFilter = filters(filter.getStatus(), filter.getCurrency(), filter.getMinTotal(),
+                filter.getMaxTotal(), filter.getFrom(), filter.getTo());
+        sqlFilter.setQ("CS-");
+        return purchaseOrderStatsService.getStats(sqlFilter, StatsBucket.DAY);
+    }
+
+    private List<String> describe(List<StatsGroupDTO> groups) {
+        return groups.stream()
+                .map(group -> group.getPeriod() + "|" + group.getStatus() + "|" + group.getCurrency() + "|"
+                        + group.getCount() + "|" + group.getSum() + "|" + group.getMin() + "|" + group.getMax())
+                .toList();
+    }
+
+    private PurchaseOrderFilterDTO filters(OrderStatus status, Currency currency, BigDecimal minTotal,
+            BigDecimal maxTotal, LocalDateTime from, LocalDateTime to) {
+        PurchaseOrderFilterDTO filters = new PurchaseOrderFilterDTO();
+        filters.setStatus(status);
+        filters.setCurrency(currency);
+        filters.setMinTotal(minTotal);
+        filters.setMaxTotal(maxTotal);
+        filters.setFrom(from);
+        filters.setTo(to);
+        return filters;
+    }
+
+    private PurchaseOrder newOrder(String orderNumber, OrderStatus status, Currency currency, BigDecimal amount) {
+        PurchaseOrder order = new PurchaseOrder();
+        order.setOrderNumber(orderNumber);
+        order.setSupplierName("Proveedor " + orderNumber);
+        order.setStatus(status);
+        order.setTotalAmount(amount);
+        order.setCurrency(currency);
+        order.setExpectedDeliveryDate(LocalDate.now().plusDays(7));
+        return order;
+    }
+}
@@ -0,0 +1,79 @@
+package ec.edu.espe.ortiz_leccion2.services;
+
+import ec.edu.espe.ortiz_leccion2.models.dto.PurchaseOrderFilterDTO;
+import ec.edu.espe.ortiz_leccion2.models.entities.PurchaseOrder;
+import ec.edu.espe.ortiz_leccion2.models.enums.Currency;
+import ec.edu.espe.ortiz_leccion2.models.enums.ExportFormat;
+import ec.edu.espe.ortiz_leccion2.models.enums.OrderStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(properties = "purchase-order.export.flush-every=2")
+class PurchaseOrderExportServiceImplTests {
+
+    @Autowired
+    private PurchaseOrderService purchaseOrderService;
+
+    @Autowired
+    private PurchaseOrderExportService purchaseOrderExportService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < 5; i++) {
+            purchaseOrderService.save(newOrder("EXF-" + i));
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM purchase_order WHERE order_number LIKE 'EXF-%'");
+    }
+
+    @Test
+    void ndjsonSoloVaciaElBufferCadaFlushEveryFilas() throws Exception {
+        PurchaseOrderFilterDTO filters = new PurchaseOrderFilterDTO();
+        filters.setQ("EXF-");
+        CountingOutputStream out = new CountingOutputStream();
+
+        purchaseOrderExportService.export(filters, ExportFormat.NDJSON, out);
+
+        assertEquals(5, out.toString(StandardCharsets.UTF_8).split("\n").length);
+        // Tras las filas 2 y 4, y al cerrar el generador; no uno por fila
+        assertEquals(3, out.flushes);
+    }
+
+    private PurchaseOrder newOrder(String orderNumber) {
+        PurchaseOrder order = new PurchaseOrder();
+        order.setOrderNumber(orderNumber);
+        order.setSupplierName("Proveedor " + orderNumber);
+        order.setStatus(OrderStatus.DRAFT);
+        order.setTotalAmount(new BigDecimal("10.00"));
+        order.setCurrency(Currency.USD);
+        order.setExpectedDeliveryDate(LocalDate.now().plusDays(7));
+        return order;
+    }
+
+    private static final class CountingOutputStream extends ByteArrayOutputStream {
+
+        int flushes;
+
+        @Override
+        public void flush() {
+            flushes++;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package ec.edu.espe.ortiz_leccion2.services;
+
+import ec.edu.espe.ortiz_leccion2.models.dto.IngestionStatusDTO;
+import ec.edu.espe.ortiz_leccion2.models.entities.PurchaseOrder;
+import ec.edu.espe.ortiz_leccion2.models.enums.Currency;
+import ec.edu.espe.ortiz_leccion2.models.enums.IngestionStatus;
+import ec.edu.espe.ortiz_leccion2.models.enums.OrderStatus;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = { "purchase-order.ingestion.enabled=true", "purchase-order.ingestion.linger=200ms" })
+class PurchaseOrderIngestionServiceImplTests {
+
+    @Autowired
+    private PurchaseOrderIngestionService purchaseOrderIngestionService;
+
+    @Autowired
+    private PurchaseOrderService purchaseOrderService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void agrupaLasOrdenesEncoladasEnMicroBatches() throws InterruptedException {
+        DistributionSummary batches = meterRegistry.get("purchase_orders.ingestion.batch.size").summary();
+        long batchesBefore = batches.count();
+
+        List<String> trackingIds = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            trackingIds.add(purchaseOrderIngestionService.submit(newOrder("IN-" + i)).getTrackingId());
+        }
+        // orderNumber repetido: solo esa orden falla
+        trackingIds.add(purchaseOrderIngestionService.submit(newOrder("IN-0")).getTrackingId());
+
+        List<IngestionStatusDTO> statuses = awaitCompletion(trackingIds);
+
+        for (int i = 0; i < 50; i++) {
+            assertEquals(IngestionStatus.CREATED, statuses.get(i).getStatus());
+            assertEquals("IN-" + i, purchaseOrderService.findById(statuses.get(i).getOrderId()).getOrderNumber());
+        }
+        assertEquals(IngestionStatus.FAILED, statuses.get(50).getStatus());
+        assertNotNull(statuses.get(50).getErrors());
+        assertTrue(batches.count() - batchesBefore < 51);
+    }
+
+    private List<IngestionStatusDTO> awaitCompletion(List<String> trackingIds) throws InterruptedException {
+        for (int attempt = 0; attempt < 100; attempt++) {
+            List<IngestionStatusDTO> statuses = trackingIds.stream()
+                    .map(purchaseOrderIngestionService::getStatus).toList();
+            if (statuses.stream().noneMatch(status -> status.getStatus() == IngestionStatus.QUEUED)) {
+                return statuses;
+            }
+            Thread.sleep(50);
+        }
+        throw new AssertionError("Las órdenes no se procesaron a tiempo");
+    }
+
+    private PurchaseOrder newOrder(String orderNumber) {
+        PurchaseOrder order = new PurchaseOrder();
+        order.setOrderNumber(orderNumber);
+        order.setSupplierName("Proveedor " + orderNumber);
+        order.setStatus(OrderStatus.DRAFT);
+        order.setTotalAmount(new BigDecimal("100.00"));
+        order.setCurrency(Currency.USD);
+        order.setExpectedDeliveryDate(LocalDate.now().plusDays(7));
+        return order;
+    }
+}
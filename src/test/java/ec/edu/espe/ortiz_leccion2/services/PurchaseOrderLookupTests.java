@@ -0,0 +1,139 @@
+package ec.edu.espe.ortiz_leccion2.services;
+
+import ec.edu.espe.ortiz_leccion2.exceptions.InvalidFilterException;
+import ec.edu.espe.ortiz_leccion2.exceptions.ResourceNotFoundException;
+import ec.edu.espe.ortiz_leccion2.models.dto.PurchaseOrderLookupDTO;
+import ec.edu.espe.ortiz_leccion2.models.dto.PurchaseOrderLookupResultDTO;
+import ec.edu.espe.ortiz_leccion2.models.entities.PurchaseOrder;
+import ec.edu.espe.ortiz_leccion2.models.enums.Currency;
+import ec.edu.espe.ortiz_leccion2.models.enums.OrderStatus;
+import ec.edu.espe.ortiz_leccion2.repositories.PurchaseOrderRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Ventana amplia para que los GET concurrentes del test caigan en el mismo lote
+@SpringBootTest(properties = {
+        "purchase-order.lookup.coalesce.enabled=true",
+        "purchase-order.lookup.coalesce.window=200ms",
+        "purchase-order.lookup.coalesce.max-batch=10"
+})
+class PurchaseOrderLookupTests {
+
+    @Autowired
+    private PurchaseOrderService purchaseOrderService;
+
+    @Autowired
+    private PurchaseOrderRepository purchaseOrderRepository;
+
+    @Autowired
+    private PurchaseOrderCache purchaseOrderCache;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final List<PurchaseOrder> orders = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        purchaseOrderRepository.deleteAll();
+        orders.clear();
+        for (int i = 0; i < 20; i++) {
+            orders.add(purchaseOrderService.save(newOrder("LK-" + i)));
+        }
+        purchaseOrderCache.invalidateAll();
+    }
+
+    @Test
+    void lookupRespetaElOrdenYReportaLasClavesInexistentes() {
+        // Una orden en caché y el resto desde la consulta IN
+        purchaseOrderService.findById(orders.get(3).getId());
+        long missingId = orders.get(19).getId() + 1000;
+
+        PurchaseOrderLookupDTO request = new PurchaseOrderLookupDTO();
+        request.setIds(List.of(orders.get(7).getId(), missingId, orders.get(3).getId(), orders.get(7).getId()));
+        request.setOrderNumbers(List.of("LK-12", "NO-EXISTE", "LK-3", "LK-0"));
+        PurchaseOrderLookupResultDTO result = purchaseOrderService.lookup(request);
+
+        assertEquals(List.of("LK-7", "LK-3", "LK-12", "LK-0"),
+                result.getOrders().stream().map(PurchaseOrder::getOrderNumber).toList());
+        assertEquals(List.of(missingId), result.getMissingIds());
+        assertEquals(List.of("NO-EXISTE"), result.getMissingOrderNumbers());
+
+        PurchaseOrderLookupDTO tooMany = new PurchaseOrderLookupDTO();
+        tooMany.setIds(LongStream.rangeClosed(1, PurchaseOrderServiceImpl.MAX_LOOKUP_KEYS + 1).boxed().toList());
+        assertThrows(InvalidFilterException.class, () -> purchaseOrderService.lookup(tooMany));
+    }
+
+    @Test
+    void lookupAceptaSoloIdsOSoloNumerosDeOrden() {
+        PurchaseOrderLookupDTO byIds = new PurchaseOrderLookupDTO();
+        byIds.setIds(List.of(orders.get(5).getId(), orders.get(1).getId()));
+        byIds.setOrderNumbers(null);
+        PurchaseOrderLookupResultDTO idsResult = purchaseOrderService.lookup(byIds);
+        assertEquals(List.of("LK-5", "LK-1"), idsResult.getOrders().stream().map(PurchaseOrder::getOrderNumber).toList());
+        assertTrue(idsResult.getMissingOrderNumbers().isEmpty());
+
+        PurchaseOrderLookupDTO byOrderNumbers = new PurchaseOrderLookupDTO();
+        byOrderNumbers.setIds(null);
+        byOrderNumbers.setOrderNumbers(List.of("LK-9", "NO-EXISTE"));
+        PurchaseOrderLookupResultDTO orderNumbersResult = purchaseOrderService.lookup(byOrderNumbers);
+        assertEquals(List.of("LK-9"),
+                orderNumbersResult.getOrders().stream().map(PurchaseOrder::getOrderNumber).toList());
+        assertTrue(orderNumbersResult.getMissingIds().isEmpty());
+        assertEquals(List.of("NO-EXISTE"), orderNumbersResult.getMissingOrderNumbers());
+    }
+
+    @Test
+    void findByIdConcurrenteSeAgrupaEnLotes() throws Exception {
+        DistributionSummary batches = meterRegistry.get("purchase_orders.lookup.coalesced").summary();
+        long batchesBefore = batches.count();
+        double idsBefore = batches.totalAmount();
+
+        ExecutorService executor = Executors.newFixedThreadPool(orders.size());
+        try {
+            List<Future<PurchaseOrder>> results = new ArrayList<>();
+            for (PurchaseOrder order : orders) {
+                results.add(executor.submit(() -> purchaseOrderService.findById(order.getId())));
+            }
+            for (int i = 0; i < orders.size(); i++) {
+                assertEquals(orders.get(i).getOrderNumber(), results.get(i).get().getOrderNumber());
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        long batchCount = batches.count() - batchesBefore;
+        assertEquals(orders.size(), batches.totalAmount() - idsBefore);
+        assertTrue(batchCount < orders.size(), "lotes: " + batchCount);
+        assertThrows(ResourceNotFoundException.class,
+                () -> purchaseOrderService.findById(orders.get(19).getId() + 1000));
+    }
+
+    private PurchaseOrder newOrder(String orderNumber) {
+        PurchaseOrder order = new PurchaseOrder();
+        order.setOrderNumber(orderNumber);
+        order.setSupplierName("Proveedor " + orderNumber);
+        order.setStatus(OrderStatus.SUBMITTED);
+        order.setTotalAmount(new BigDecimal("100.00"));
+        order.setCurrency(Currency.USD);
+        order.setExpectedDeliveryDate(LocalDate.now().plusDays(7));
+        return order;
+    }
+}
@@ -0,0 +1,165 @@
+package ec.edu.espe.ortiz_leccion2.services;
+
+import ec.edu.espe.ortiz_leccion2.exceptions.PreconditionFailedException;
+import ec.edu.espe.ortiz_leccion2.models.dto.PurchaseOrderFilterDTO;
+import ec.edu.espe.ortiz_leccion2.models.dto.PurchaseOrderPageDTO;
+import ec.edu.espe.ortiz_leccion2.models.dto.PurchaseOrderSummary;
+import ec.edu.espe.ortiz_leccion2.models.entities.PurchaseOrder;
+import ec.edu.espe.ortiz_leccion2.models.enums.Currency;
+import ec.edu.espe.ortiz_leccion2.models.enums.OrderStatus;
+import ec.edu.espe.ortiz_leccion2.repositories.PurchaseOrderRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class PurchaseOrderServiceImplTests {
+
+    @Autowired
+    private PurchaseOrderService purchaseOrderService;
+
+    @Autowired
+    private PurchaseOrderRepository purchaseOrderRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        purchaseOrderRepository.deleteAll();
+        for (int i = 0; i < 25; i++) {
+            purchaseOrderService.save(newOrder("OC-" + i, i % 2 == 0 ? OrderStatus.APPROVED : OrderStatus.DRAFT));
+        }
+    }
+
+    @Test
+    void findPageRecorreTodasLasFilasSinDuplicados() {
+        PurchaseOrderFilterDTO filters = new PurchaseOrderFilterDTO();
+        Set<Long> ids = new HashSet<>();
+        List<PurchaseOrderPageDTO<PurchaseOrderSummary>> pages = new ArrayList<>();
+        String cursor = null;
+        do {
+            PurchaseOrderPageDTO<PurchaseOrderSummary> page = purchaseOrderService.findPage(filters, cursor, 10, null);
+            page.getItems().forEach(order -> ids.add(order.id()));
+            pages.add(page);
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        assertEquals(3, pages.size());
+        assertEquals(25, ids.size());
+    }
+
+    @Test
+    void findPageAplicaLosFiltros() {
+        PurchaseOrderFilterDTO filters = new PurchaseOrderFilterDTO();
+        filters.setStatus(OrderStatus.APPROVED);
+
+        PurchaseOrderPageDTO<PurchaseOrderSummary> page = purchaseOrderService.findPage(filters, null, 50, null);
+
+        assertEquals(13, page.getItems().size());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void findPageDevuelveSoloLosCamposPedidos() {
+        PurchaseOrderPageDTO<PurchaseOrderSummary> page = purchaseOrderService.findPage(
+                new PurchaseOrderFilterDTO(), null, 10, List.of("orderNumber", "totalAmount"));
+
+        PurchaseOrderSummary first = page.getItems().get(0);
+        assertNotNull(first.orderNumber());
+        assertNotNull(first.totalAmount());
+        assertNull(first.id());
+        assertNull(first.createdAt());
+        assertNotNull(page.getNextCursor());
+    }
+
+    @Test
+    void laCacheDePaginasSeInvalidaAlActualizar() {
+        PurchaseOrderFilterDTO filters = new PurchaseOrderFilterDTO();
+        filters.setStatus(OrderStatus.APPROVED);
+        assertEquals(13, purchaseOrderService.findPage(filters, null, 50, null).getItems().size());
+
+        PurchaseOrderSummary draft = purchaseOrderService.findPage(new PurchaseOrderFilterDTO(), null, 50, null)
+                .getItems().stream().filter(order -> order.status() == OrderStatus.DRAFT).findFirst().orElseThrow();
+        PurchaseOrder changes = newOrder(draft.orderNumber(), OrderStatus.APPROVED);
+        purchaseOrderService.update(draft.id(), changes, null);
+
+        assertEquals(14, purchaseOrderService.findPage(filters, null, 50, null).getItems().size());
+        assertEquals(OrderStatus.APPROVED, purchaseOrderService.findById(draft.id()).getStatus());
+    }
+
+    @Test
+    void updateConVersionObsoletaFallaYCambiaElEtagDeLaPagina() {
+        PurchaseOrderSummary draft = purchaseOrderService.findPage(new PurchaseOrderFilterDTO(), null, 50, null)
+                .getItems().get(0);
+        Long version = purchaseOrderService.findVersion(draft.id());
+        String etag = purchaseOrderService.findPage(new PurchaseOrderFilterDTO(), null, 50, null).getEtag();
+
+        purchaseOrderService.update(draft.id(), newOrder(draft.orderNumber(), OrderStatus.SUBMITTED), version);
+
+        assertEquals(version + 1, purchaseOrderService.findVersion(draft.id()));
+        assertNotEquals(etag, purchaseOrderService.findPage(new PurchaseOrderFilterDTO(), null, 50, null).getEtag());
+        assertThrows(PreconditionFailedException.class, () -> purchaseOrderService.update(draft.id(),
+                newOrder(draft.orderNumber(), OrderStatus.CANCELLED), version));
+    }
+
+    @Test
+    void upsertPorNumeroCreaYLuegoActualizaLaMismaOrden() {
+        PurchaseOrder created = purchaseOrderService.upsertByOrderNumber(newOrder("UP-1", OrderStatus.DRAFT));
+        PurchaseOrder updated = purchaseOrderService.upsertByOrderNumber(newOrder("UP-1", OrderStatus.APPROVED));
+
+        assertEquals(0L, created.getVersion());
+        assertEquals(created.getId(), updated.getId());
+        assertEquals(1L, updated.getVersion());
+        assertEquals(created.getCreatedAt(), updated.getCreatedAt());
+        assertEquals(OrderStatus.APPROVED, purchaseOrderService.findById(created.getId()).getStatus());
+    }
+
+    @Test
+    void findPageRegistraLaFormaDeLosFiltros() {
+        PurchaseOrderFilterDTO filters = new PurchaseOrderFilterDTO();
+        filters.setQ("OC-1*");
+        filters.setStatus(OrderStatus.APPROVED);
+
+        // Con el límite máximo y sin página siguiente, las filas leídas son las de la página
+        PurchaseOrderPageDTO<PurchaseOrderSummary> page = purchaseOrderService.findPage(filters, null, 500, null);
+        assertNull(page.getNextCursor());
+        int rows = page.getItems().size();
+
+        Timer timer = meterRegistry.get("purchase_orders.query")
+                .tags("operation", "findPage", "shape", "q*+status").timer();
+        DistributionSummary summary = meterRegistry.get("purchase_orders.query.rows")
+                .tags("operation", "findPage", "shape", "q*+status").summary();
+        assertTrue(timer.count() >= 1);
+        assertEquals(rows, summary.takeSnapshot().max());
+    }
+
+    private PurchaseOrder newOrder(String orderNumber, OrderStatus status) {
+        PurchaseOrder order = new PurchaseOrder();
+        order.setOrderNumber(orderNumber);
+        order.setSupplierName("Proveedor " + orderNumber);
+        order.setStatus(status);
+        order.setTotalAmount(new BigDecimal("100.00"));
+        order.setCurrency(Currency.USD);
+        order.setExpectedDeliveryDate(LocalDate.now().plusDays(7));
+        return order;
+    }
+}
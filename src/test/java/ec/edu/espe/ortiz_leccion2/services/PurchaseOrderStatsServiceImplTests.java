@@ -0,0 +1,107 @@
+package ec.edu.espe.ortiz_leccion2.services;
+
+import ec.edu.espe.ortiz_leccion2.models.dto.PurchaseOrderFilterDTO;
+import ec.edu.espe.ortiz_leccion2.models.dto.PurchaseOrderStatsDTO;
+import ec.edu.espe.ortiz_leccion2.models.dto.StatsGroupDTO;
+import ec.edu.espe.ortiz_leccion2.models.entities.PurchaseOrder;
+import ec.edu.espe.ortiz_leccion2.models.enums.Currency;
+import ec.edu.espe.ortiz_leccion2.models.enums.OrderStatus;
+import ec.edu.espe.ortiz_leccion2.models.enums.StatsBucket;
+import ec.edu.espe.ortiz_leccion2.repositories.PurchaseOrderRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class PurchaseOrderStatsServiceImplTests {
+
+    @Autowired
+    private PurchaseOrderService purchaseOrderService;
+
+    @Autowired
+    private PurchaseOrderStatsService purchaseOrderStatsService;
+
+    @Autowired
+    private PurchaseOrderRollups rollups;
+
+    @Autowired
+    private PurchaseOrderRepository purchaseOrderRepository;
+
+    private final List<PurchaseOrder> orders = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        // deleteAll no pasa por el servicio: la reconciliación deja los rollups alineados
+        purchaseOrderRepository.deleteAll();
+        rollups.reconcile();
+
+        orders.clear();
+        for (int i = 0; i < 20; i++) {
+            orders.add(purchaseOrderService.save(newOrder("ST-" + i,
+                    OrderStatus.values()[i % 3], i % 2 == 0 ? Currency.USD : Currency.EUR,
+                    new BigDecimal(10 + i + ".25"))));
+        }
+    }
+
+    @Test
+    void losRollupsCoincidenConSqlTrasCrearActualizarYEliminar() {
+        // Cambia estado y monto del mínimo de su grupo, y elimina el máximo de otro
+        PurchaseOrder cheapest = orders.get(0);
+        purchaseOrderService.update(cheapest.getId(), newOrder(cheapest.getOrderNumber(),
+                OrderStatus.CANCELLED, Currency.USD, new BigDecimal("999.99")), null);
+        purchaseOrderService.delete(orders.get(19).getId());
+
+        PurchaseOrderFilterDTO filters = new PurchaseOrderFilterDTO();
+        assertTrue(rollups.supports(filters));
+        // minTotal = 0 no descarta filas pero obliga a resolver con SQL
+        PurchaseOrderFilterDTO sqlFilters = new PurchaseOrderFilterDTO();
+        sqlFilters.setMinTotal(BigDecimal.ZERO);
+
+        PurchaseOrderStatsDTO fromRollups = purchaseOrderStatsService.getStats(filters, StatsBucket.DAY);
+        PurchaseOrderStatsDTO fromSql = purchaseOrderStatsService.getStats(sqlFilters, StatsBucket.DAY);
+
+        assertEquals(describe(fromSql.getGroups()), describe(fromRollups.getGroups()));
+        assertEquals(describe(fromSql.getSeries()), describe(fromRollups.getSeries()));
+        assertEquals(19, fromRollups.getGroups().stream().mapToLong(StatsGroupDTO::getCount).sum());
+
+        // Un día completo con to en segundos (23:59:59) también se responde desde los rollups
+        LocalDate today = LocalDate.now();
+        PurchaseOrderFilterDTO day = new PurchaseOrderFilterDTO();
+        day.setFrom(today.atStartOfDay());
+        day.setTo(PurchaseOrderFilterDTO.inclusiveTo(today.atTime(23, 59, 59)));
+        assertTrue(rollups.supports(day));
+        PurchaseOrderFilterDTO sqlDay = new PurchaseOrderFilterDTO();
+        sqlDay.setFrom(day.getFrom());
+        sqlDay.setTo(day.getTo());
+        sqlDay.setMinTotal(BigDecimal.ZERO);
+        assertEquals(describe(purchaseOrderStatsService.getStats(sqlDay, null).getGroups()),
+                describe(purchaseOrderStatsService.getStats(day, null).getGroups()));
+    }
+
+    private List<String> describe(List<StatsGroupDTO> groups) {
+        return groups.stream()
+                .map(group -> group.getPeriod() + "|" + group.getStatus() + "|" + group.getCurrency() + "|"
+                        + group.getCount() + "|" + group.getSum() + "|" + group.getMin() + "|" + group.getMax())
+                .toList();
+    }
+
+    private PurchaseOrder newOrder(String orderNumber, OrderStatus status, Currency currency, BigDecimal amount) {
+        PurchaseOrder order = new PurchaseOrder();
+        order.setOrderNumber(orderNumber);
+        order.setSupplierName("Proveedor " + orderNumber);
+        order.setStatus(status);
+        order.setTotalAmount(amount);
+        order.setCurrency(currency);
+        order.setExpectedDeliveryDate(LocalDate.now().plusDays(7));
+        return order;
+    }
+}
@@ -0,0 +1,118 @@
+package ec.edu.espe.ortiz_leccion2.specifications;
+
+import ec.edu.espe.ortiz_leccion2.models.dto.PurchaseOrderFilterDTO;
+import ec.edu.espe.ortiz_leccion2.models.entities.PurchaseOrder;
+import ec.edu.espe.ortiz_leccion2.models.enums.Currency;
+import ec.edu.espe.ortiz_leccion2.models.enums.OrderStatus;
+import ec.edu.espe.ortiz_leccion2.models.enums.SearchMode;
+import ec.edu.espe.ortiz_leccion2.repositories.PurchaseOrderRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * El HQL de PurchaseOrderFilterQuery, la Specification y matches en memoria devuelven las mismas órdenes
+ * para cada forma de filtros. Los prefijos respetan mayúsculas: en H2 el LIKE del prefijo las distingue
+ * y matches no (ver PurchaseOrderSpecification.matches).
+ */
+@SpringBootTest
+class PurchaseOrderFilterQueryTests {
+
+    private static final LocalDateTime FIRST_CREATED_AT = LocalDateTime.of(2020, 3, 1, 10, 0);
+
+    // Comodines de LIKE y el carácter de escape, como texto contenido y como prefijo
+    private static final List<String> TERMS = Arrays.asList(null, "50%", "q_1", "o!d", "acme",
+            "EQ-50%*", "EQ_*", "EQ!*", "EQ-*");
+
+    @Autowired
+    private PurchaseOrderRepository purchaseOrderRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        String[][] orders = {
+                { "EQ-50%-A", "Acme 100%" },
+                { "EQ-5000", "Acme Norte" },
+                { "EQ_1", "Proveedor_sur" },
+                { "EQX1", "Proveedor sur" },
+                { "EQ!1", "Uno!Dos" },
+                { "EQ-7", "Otro" },
+        };
+        for (int i = 0; i < orders.length; i++) {
+            PurchaseOrder order = new PurchaseOrder();
+            order.setOrderNumber(orders[i][0]);
+            order.setSupplierName(orders[i][1]);
+            order.setStatus(i % 2 == 0 ? OrderStatus.APPROVED : OrderStatus.DRAFT);
+            order.setCurrency(i % 3 == 0 ? Currency.EUR : Currency.USD);
+            order.setTotalAmount(new BigDecimal(15 * (i + 1) + ".50"));
+            order.setExpectedDeliveryDate(LocalDate.now().plusDays(7));
+            order = purchaseOrderRepository.save(order);
+            // Un día por orden: from y to son fijos para todos los casos
+            jdbcTemplate.update("UPDATE purchase_order SET created_at = ? WHERE id = ?",
+                    Timestamp.valueOf(FIRST_CREATED_AT.plusDays(i)), order.getId());
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM purchase_order WHERE order_number LIKE 'EQ%'");
+    }
+
+    /**
+     * Cada término de TERMS con cada combinación de status, currency, minTotal, maxTotal, from y to
+     */
+    static Stream<Arguments> filters() {
+        List<Arguments> cases = new ArrayList<>();
+        for (String term : TERMS) {
+            for (int mask = 0; mask < 1 << 6; mask++) {
+                PurchaseOrderFilterDTO filters = new PurchaseOrderFilterDTO();
+                filters.setQ(term);
+                filters.setStatus((mask & 1) != 0 ? OrderStatus.APPROVED : null);
+                filters.setCurrency((mask & 2) != 0 ? Currency.USD : null);
+                filters.setMinTotal((mask & 4) != 0 ? new BigDecimal("30.50") : null);
+                filters.setMaxTotal((mask & 8) != 0 ? new BigDecimal("75.50") : null);
+                filters.setFrom((mask & 16) != 0 ? FIRST_CREATED_AT.plusDays(1) : null);
+                filters.setTo((mask & 32) != 0 ? FIRST_CREATED_AT.plusDays(4) : null);
+                cases.add(Arguments.of(PurchaseOrderSpecification.shape(filters) + " q=" + term, filters));
+            }
+        }
+        return cases.stream();
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("filters")
+    void elHqlLaSpecificationYMatchesDevuelvenLasMismasOrdenes(String shape, PurchaseOrderFilterDTO filters) {
+        List<Long> fromHql = ids(purchaseOrderRepository.findAll(
+                PurchaseOrderFilterQuery.of(filters, SearchMode.LIKE, null)));
+        List<Long> fromSpecification = ids(purchaseOrderRepository.findAll(
+                PurchaseOrderSpecification.withFilters(filters)));
+        List<Long> inMemory = ids(purchaseOrderRepository.findAll().stream()
+                .filter(order -> PurchaseOrderSpecification.matches(filters, order))
+                .toList());
+
+        assertEquals(inMemory, fromSpecification, shape);
+        assertEquals(inMemory, fromHql, shape);
+    }
+
+    private static List<Long> ids(List<PurchaseOrder> orders) {
+        return orders.stream().map(PurchaseOrder::getId).sorted().toList();
+    }
+}